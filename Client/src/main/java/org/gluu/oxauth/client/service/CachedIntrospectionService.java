@@ -0,0 +1,123 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.client.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.gluu.oxauth.model.common.IntrospectionResponse;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Introspection service which caches active introspection responses, so resource server does not call
+ * authorization server for every request with the same token.
+ * <p>
+ * Entries are keyed by hash of authorization and token (token itself is not kept in memory) and live till token
+ * expiration (exp) but not longer than {@code maxTtlInSeconds}. Thus token revoked on server is reported as active
+ * at most {@code maxTtlInSeconds}. Not active responses are not cached. Other methods are delegated as is.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class CachedIntrospectionService implements IntrospectionService {
+
+    public static final int DEFAULT_MAX_TTL_IN_SECONDS = 60;
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final IntrospectionService delegate;
+    private final long maxTtlInMillis;
+    private final int maxSize;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    public CachedIntrospectionService(IntrospectionService delegate) {
+        this(delegate, DEFAULT_MAX_TTL_IN_SECONDS, DEFAULT_MAX_SIZE);
+    }
+
+    public CachedIntrospectionService(IntrospectionService delegate, int maxTtlInSeconds, int maxSize) {
+        this.delegate = delegate;
+        this.maxTtlInMillis = TimeUnit.SECONDS.toMillis(maxTtlInSeconds);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public IntrospectionResponse introspectToken(String p_authorization, String p_token) {
+        final String key = DigestUtils.sha256Hex(p_authorization + "\n" + p_token);
+        final long now = System.currentTimeMillis();
+
+        final Entry entry = cache.get(key);
+        if (entry != null) {
+            if (entry.expirationTime > now) {
+                return entry.response;
+            }
+            cache.remove(key, entry);
+        }
+
+        final IntrospectionResponse response = delegate.introspectToken(p_authorization, p_token);
+        put(key, response, now);
+        return response;
+    }
+
+    private void put(String key, IntrospectionResponse response, long now) {
+        if (response == null || !response.isActive() || response.getExpiresAt() == null || maxTtlInMillis <= 0) {
+            return;
+        }
+
+        final long expirationTime = Math.min(TimeUnit.SECONDS.toMillis(response.getExpiresAt()), now + maxTtlInMillis);
+        if (expirationTime <= now) {
+            return;
+        }
+        if (cache.size() >= maxSize) {
+            purgeExpired(now);
+            if (cache.size() >= maxSize) {
+                return;
+            }
+        }
+        cache.put(key, new Entry(response, expirationTime));
+    }
+
+    /**
+     * Removes expired entries.
+     *
+     * @param now current time in millis
+     */
+    public void purgeExpired(long now) {
+        cache.values().removeIf(entry -> entry.expirationTime <= now);
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public String introspectTokenWithResponseAsJwt(String p_authorization, String p_token, boolean responseAsJwt) {
+        return delegate.introspectTokenWithResponseAsJwt(p_authorization, p_token, responseAsJwt);
+    }
+
+    @Override
+    public JsonNode introspect(String p_authorization, String p_token) {
+        return delegate.introspect(p_authorization, p_token);
+    }
+
+    private static class Entry {
+
+        private final IntrospectionResponse response;
+        private final long expirationTime;
+
+        private Entry(IntrospectionResponse response, long expirationTime) {
+            this.response = response;
+            this.expirationTime = expirationTime;
+        }
+    }
+}
@@ -56,6 +56,10 @@ public class ClientFactory {
         return proxy;
     }
 
+    public IntrospectionService createCachedIntrospectionService(String p_url) {
+        return new CachedIntrospectionService(createIntrospectionService(p_url));
+    }
+
     public ApacheHttpClient4Engine createEngine() {
         return createEngine(false);
     }
@@ -0,0 +1,208 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.client.service;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.log4j.Logger;
+import org.gluu.oxauth.client.JwkClient;
+import org.gluu.oxauth.client.JwkResponse;
+import org.gluu.oxauth.model.crypto.OxAuthCryptoProvider;
+import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
+import org.jboss.resteasy.client.ClientExecutor;
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.security.PublicKey;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.gluu.oxauth.model.jwk.JWKParameter.JSON_WEB_KEY_SET;
+
+/**
+ * Thread-safe cache of public keys published by authorization server (jwks_uri).
+ * <p>
+ * Keys are refreshed in background every {@code refreshIntervalInSeconds}. If key is not found by kid (e.g. server
+ * rotated keys), JWKS is re-fetched on demand, but not more often than once per {@code minRefetchIntervalInSeconds},
+ * so tokens with unknown kid can't make client hammer the server. Concurrent fetches are collapsed into single
+ * request (single-flight): callers which come while fetch is in progress wait for its result.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class JwksCache implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(JwksCache.class);
+
+    public static final int DEFAULT_REFRESH_INTERVAL_IN_SECONDS = 3600;
+    public static final int DEFAULT_MIN_REFETCH_INTERVAL_IN_SECONDS = 30;
+
+    private final Callable<JSONObject> loader;
+    private final OxAuthCryptoProvider cryptoProvider;
+    private final long minRefetchIntervalInMillis;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicReference<CompletableFuture<Keys>> inFlight = new AtomicReference<>();
+
+    private volatile Keys keys;
+    private volatile long lastFetchTime;
+
+    public JwksCache(String jwksUri) {
+        this(jwksUri, null);
+    }
+
+    public JwksCache(String jwksUri, ClientExecutor clientExecutor) {
+        this(() -> fetch(jwksUri, clientExecutor), DEFAULT_REFRESH_INTERVAL_IN_SECONDS, DEFAULT_MIN_REFETCH_INTERVAL_IN_SECONDS);
+    }
+
+    /**
+     * @param loader                      loads JWKS (json object with "keys" array)
+     * @param refreshIntervalInSeconds    background refresh interval, background refresh is disabled if value is not positive
+     * @param minRefetchIntervalInSeconds minimal interval between fetches caused by unknown kid
+     */
+    public JwksCache(Callable<JSONObject> loader, int refreshIntervalInSeconds, int minRefetchIntervalInSeconds) {
+        this.loader = loader;
+        this.minRefetchIntervalInMillis = TimeUnit.SECONDS.toMillis(Math.max(0, minRefetchIntervalInSeconds));
+        this.keys = new Keys(null);
+        try {
+            this.cryptoProvider = new OxAuthCryptoProvider();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to create crypto provider.", e);
+        }
+
+        if (refreshIntervalInSeconds > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "oxauth-jwks-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::refresh, refreshIntervalInSeconds, refreshIntervalInSeconds, TimeUnit.SECONDS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Returns public key for given kid and algorithm. If key is not known, JWKS is re-fetched (at most once per
+     * min refetch interval).
+     *
+     * @param keyId              kid, if null then key is returned only if JWKS contains exactly one key
+     * @param signatureAlgorithm signature algorithm
+     * @return public key or null if not found
+     */
+    public PublicKey getPublicKey(String keyId, SignatureAlgorithm signatureAlgorithm) {
+        PublicKey publicKey = keys.get(keyId, signatureAlgorithm);
+        if (publicKey != null) {
+            return publicKey;
+        }
+
+        final CompletableFuture<Keys> current = inFlight.get();
+        if (current == null && System.currentTimeMillis() - lastFetchTime < minRefetchIntervalInMillis) {
+            return null;
+        }
+        return refresh().get(keyId, signatureAlgorithm);
+    }
+
+    /**
+     * Fetches JWKS. If fetch is already in progress, waits for it instead of starting new one.
+     * On failure previously loaded keys are kept.
+     */
+    public Keys refresh() {
+        while (true) {
+            final CompletableFuture<Keys> current = inFlight.get();
+            if (current != null) {
+                return current.join();
+            }
+
+            final CompletableFuture<Keys> future = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, future)) {
+                continue;
+            }
+            try {
+                final JSONObject jwks = loader.call();
+                if (jwks != null && jwks.has(JSON_WEB_KEY_SET)) {
+                    keys = new Keys(jwks);
+                } else {
+                    LOG.error("Failed to refresh JWKS, response does not contain keys.");
+                }
+            } catch (Exception e) {
+                LOG.error("Failed to refresh JWKS.", e);
+            } finally {
+                lastFetchTime = System.currentTimeMillis();
+                inFlight.set(null);
+                future.complete(keys);
+            }
+            return keys;
+        }
+    }
+
+    public long getLastFetchTime() {
+        return lastFetchTime;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static JSONObject fetch(String jwksUri, ClientExecutor clientExecutor) {
+        JwkClient jwkClient = new JwkClient(jwksUri);
+        if (clientExecutor != null) {
+            jwkClient.setExecutor(clientExecutor);
+        }
+        final JwkResponse response = jwkClient.exec();
+        if (response == null || response.getStatus() != 200 || StringUtils.isBlank(response.getEntity())) {
+            LOG.error("Failed to fetch JWKS from " + jwksUri + ", status: " + (response != null ? response.getStatus() : null));
+            return null;
+        }
+        return new JSONObject(response.getEntity());
+    }
+
+    /**
+     * Immutable snapshot of JWKS. Public keys are created from JWK on first lookup and kept for snapshot lifetime.
+     */
+    public class Keys {
+
+        private final JSONObject jwks;
+        private final ConcurrentMap<String, PublicKey> resolved = new ConcurrentHashMap<>();
+
+        private Keys(JSONObject jwks) {
+            this.jwks = jwks;
+        }
+
+        public PublicKey get(String keyId, SignatureAlgorithm signatureAlgorithm) {
+            if (jwks == null || signatureAlgorithm == null) {
+                return null;
+            }
+
+            final String cacheKey = keyId + "_" + signatureAlgorithm.getName();
+            PublicKey publicKey = resolved.get(cacheKey);
+            if (publicKey != null) {
+                return publicKey;
+            }
+            try {
+                publicKey = cryptoProvider.getPublicKey(keyId, jwks, signatureAlgorithm.getAlg());
+            } catch (Exception e) {
+                LOG.error("Failed to create public key, kid: " + keyId, e);
+                return null;
+            }
+            if (publicKey != null) {
+                resolved.putIfAbsent(cacheKey, publicKey);
+            }
+            return publicKey;
+        }
+
+        public JSONObject getJwks() {
+            return jwks;
+        }
+    }
+}
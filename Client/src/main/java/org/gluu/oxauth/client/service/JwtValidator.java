@@ -0,0 +1,209 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.client.service;
+
+import com.nimbusds.jose.crypto.impl.ECDSA;
+import org.apache.commons.lang.StringUtils;
+import org.gluu.oxauth.model.crypto.signature.AlgorithmFamily;
+import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
+import org.gluu.oxauth.model.exception.InvalidJwtException;
+import org.gluu.oxauth.model.jwt.Jwt;
+import org.gluu.oxauth.model.jwt.JwtClaimName;
+import org.gluu.oxauth.model.jwt.JwtClaims;
+import org.gluu.oxauth.model.util.Base64Util;
+import org.gluu.oxauth.model.util.SecurityProviderUtility;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates signed JWT (e.g. JWT access token or id_token) locally, without calling authorization server:
+ * signature (with keys from {@link JwksCache}), expiration, not before, issuer and audience.
+ * <p>
+ * Validator is thread-safe (settings are volatile), single instance is expected to be shared by all requests.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class JwtValidator {
+
+    public static final int DEFAULT_CLOCK_SKEW_IN_SECONDS = 60;
+
+    private final JwksCache jwksCache;
+    private final String issuer;
+    private volatile String audience;
+    private volatile String sharedSecret;
+    private volatile long clockSkewInMillis = TimeUnit.SECONDS.toMillis(DEFAULT_CLOCK_SKEW_IN_SECONDS);
+
+    /**
+     * @param jwksCache cache of server keys
+     * @param issuer    expected issuer, not checked if null
+     */
+    public JwtValidator(JwksCache jwksCache, String issuer) {
+        this.jwksCache = jwksCache;
+        this.issuer = issuer;
+        SecurityProviderUtility.installBCProvider(true);
+    }
+
+    /**
+     * Validates JWT.
+     *
+     * @param encodedJwt encoded JWT
+     * @return parsed JWT if it is valid
+     * @throws InvalidJwtException if JWT is not valid (message contains reason)
+     */
+    public Jwt validate(String encodedJwt) throws InvalidJwtException {
+        try {
+            return validateJwt(encodedJwt);
+        } catch (InvalidJwtException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // malformed header or claims (e.g. claim of unexpected type)
+            throw new InvalidJwtException("Malformed JWT.", e);
+        }
+    }
+
+    private Jwt validateJwt(String encodedJwt) throws InvalidJwtException {
+        final Jwt jwt = Jwt.parse(encodedJwt);
+        if (jwt == null) {
+            throw new InvalidJwtException("JWT is blank.");
+        }
+
+        final SignatureAlgorithm signatureAlgorithm = jwt.getHeader().getSignatureAlgorithm();
+        if (signatureAlgorithm == null || signatureAlgorithm == SignatureAlgorithm.NONE) {
+            throw new InvalidJwtException("JWT is not signed or signature algorithm is not supported.");
+        }
+        if (!verifySignature(jwt, signatureAlgorithm)) {
+            throw new InvalidJwtException("Invalid JWT signature.");
+        }
+
+        validateClaims(jwt.getClaims(), System.currentTimeMillis());
+        return jwt;
+    }
+
+    /**
+     * Validates JWT and returns false instead of exception.
+     */
+    public boolean isValid(String encodedJwt) {
+        try {
+            validate(encodedJwt);
+            return true;
+        } catch (InvalidJwtException e) {
+            return false;
+        }
+    }
+
+    private boolean verifySignature(Jwt jwt, SignatureAlgorithm signatureAlgorithm) throws InvalidJwtException {
+        final byte[] signingInput = jwt.getSigningInput().getBytes(StandardCharsets.UTF_8);
+        final byte[] signature;
+        try {
+            signature = Base64Util.base64urldecode(jwt.getEncodedSignature());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        try {
+            if (AlgorithmFamily.HMAC.equals(signatureAlgorithm.getFamily())) {
+                if (StringUtils.isBlank(sharedSecret)) {
+                    throw new InvalidJwtException("HMAC signed JWT can't be validated without shared secret.");
+                }
+                final Mac mac = Mac.getInstance(signatureAlgorithm.getAlgorithm());
+                mac.init(new SecretKeySpec(sharedSecret.getBytes(StandardCharsets.UTF_8), signatureAlgorithm.getAlgorithm()));
+                return MessageDigest.isEqual(mac.doFinal(signingInput), signature);
+            }
+
+            final PublicKey publicKey = jwksCache.getPublicKey(jwt.getHeader().getKeyId(), signatureAlgorithm);
+            if (publicKey == null) {
+                throw new InvalidJwtException("Unable to find public key, kid: " + jwt.getHeader().getKeyId());
+            }
+
+            final Signature verifier = Signature.getInstance(signatureAlgorithm.getAlgorithm(), "BC");
+            verifier.initVerify(publicKey);
+            verifier.update(signingInput);
+            if (AlgorithmFamily.EC.equals(signatureAlgorithm.getFamily())) {
+                try {
+                    return verifier.verify(ECDSA.transcodeSignatureToDER(signature));
+                } catch (Exception e) {
+                    return false;
+                }
+            }
+            return verifier.verify(signature);
+        } catch (InvalidJwtException e) {
+            throw e;
+        } catch (SignatureException e) {
+            return false;
+        } catch (Exception e) {
+            throw new InvalidJwtException("Failed to verify JWT signature.", e);
+        }
+    }
+
+    private void validateClaims(JwtClaims claims, long now) throws InvalidJwtException {
+        final Date expirationTime = claims.getClaimAsDate(JwtClaimName.EXPIRATION_TIME);
+        if (expirationTime == null) {
+            throw new InvalidJwtException("JWT does not have exp claim.");
+        }
+        if (expirationTime.getTime() + clockSkewInMillis <= now) {
+            throw new InvalidJwtException("JWT is expired.");
+        }
+
+        final Date notBefore = claims.getClaimAsDate(JwtClaimName.NOT_BEFORE);
+        if (notBefore != null && notBefore.getTime() - clockSkewInMillis > now) {
+            throw new InvalidJwtException("JWT is not valid yet.");
+        }
+
+        if (issuer != null && !issuer.equals(claims.getClaimAsString(JwtClaimName.ISSUER))) {
+            throw new InvalidJwtException("Invalid JWT issuer.");
+        }
+
+        if (audience != null) {
+            final List<String> audiences = claims.getClaimAsStringList(JwtClaimName.AUDIENCE);
+            if (!audiences.contains(audience)) {
+                throw new InvalidJwtException("Invalid JWT audience.");
+            }
+        }
+    }
+
+    public JwksCache getJwksCache() {
+        return jwksCache;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public String getAudience() {
+        return audience;
+    }
+
+    /**
+     * @param audience expected audience, not checked if null
+     */
+    public JwtValidator setAudience(String audience) {
+        this.audience = audience;
+        return this;
+    }
+
+    /**
+     * @param sharedSecret secret for HMAC signed JWT (client secret), HMAC signed JWT is rejected if not set
+     */
+    public JwtValidator setSharedSecret(String sharedSecret) {
+        this.sharedSecret = sharedSecret;
+        return this;
+    }
+
+    public JwtValidator setClockSkewInSeconds(int clockSkewInSeconds) {
+        this.clockSkewInMillis = TimeUnit.SECONDS.toMillis(Math.max(0, clockSkewInSeconds));
+        return this;
+    }
+}
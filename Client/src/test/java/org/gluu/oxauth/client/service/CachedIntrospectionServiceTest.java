@@ -0,0 +1,89 @@
+package org.gluu.oxauth.client.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.gluu.oxauth.model.common.IntrospectionResponse;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class CachedIntrospectionServiceTest {
+
+    @Test
+    public void introspectToken_forActiveToken_shouldCallServerOnce() {
+        final CountingService server = new CountingService(true, nowInSeconds() + 60);
+        final CachedIntrospectionService service = new CachedIntrospectionService(server);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(service.introspectToken("Bearer pat", "token1").isActive());
+        }
+        assertEquals(server.calls.get(), 1);
+
+        service.introspectToken("Bearer pat", "token2");
+        service.introspectToken("Bearer other", "token1");
+        assertEquals(server.calls.get(), 3);
+    }
+
+    @Test
+    public void introspectToken_forNotActiveOrExpiredToken_shouldNotCache() {
+        final CountingService notActive = new CountingService(false, null);
+        final CachedIntrospectionService service = new CachedIntrospectionService(notActive);
+        service.introspectToken("Bearer pat", "token1");
+        service.introspectToken("Bearer pat", "token1");
+        assertEquals(notActive.calls.get(), 2);
+
+        final CountingService expired = new CountingService(true, nowInSeconds() - 1);
+        final CachedIntrospectionService expiredService = new CachedIntrospectionService(expired);
+        expiredService.introspectToken("Bearer pat", "token1");
+        expiredService.introspectToken("Bearer pat", "token1");
+        assertEquals(expired.calls.get(), 2);
+        assertEquals(expiredService.size(), 0);
+    }
+
+    @Test
+    public void introspectToken_whenFull_shouldNotGrowBeyondMaxSize() {
+        final CachedIntrospectionService service = new CachedIntrospectionService(new CountingService(true, nowInSeconds() + 60), 60, 2);
+        for (int i = 0; i < 10; i++) {
+            service.introspectToken("Bearer pat", "token" + i);
+        }
+        assertEquals(service.size(), 2);
+    }
+
+    private static int nowInSeconds() {
+        return (int) (System.currentTimeMillis() / 1000);
+    }
+
+    private static class CountingService implements IntrospectionService {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final boolean active;
+        private final Integer exp;
+
+        private CountingService(boolean active, Integer exp) {
+            this.active = active;
+            this.exp = exp;
+        }
+
+        @Override
+        public IntrospectionResponse introspectToken(String p_authorization, String p_token) {
+            calls.incrementAndGet();
+            final IntrospectionResponse response = new IntrospectionResponse(active);
+            response.setExpiresAt(exp);
+            return response;
+        }
+
+        @Override
+        public String introspectTokenWithResponseAsJwt(String p_authorization, String p_token, boolean responseAsJwt) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public JsonNode introspect(String p_authorization, String p_token) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
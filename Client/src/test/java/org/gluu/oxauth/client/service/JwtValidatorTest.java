@@ -0,0 +1,165 @@
+package org.gluu.oxauth.client.service;
+
+import org.gluu.oxauth.model.exception.InvalidJwtException;
+import org.gluu.oxauth.model.util.Base64Util;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class JwtValidatorTest {
+
+    private static final String ISSUER = "https://op.example.com";
+
+    private KeyPair key1;
+    private KeyPair key2;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        key1 = generator.generateKeyPair();
+        key2 = generator.generateKeyPair();
+    }
+
+    @Test
+    public void validate_forValidJwt_shouldFetchKeysOnce() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        try (JwksCache cache = new JwksCache(counting(calls, jwks("k1", key1)), 0, 0)) {
+            JwtValidator validator = new JwtValidator(cache, ISSUER).setAudience("rs1");
+
+            for (int i = 0; i < 5; i++) {
+                assertEquals(validator.validate(jwt("k1", key1, expIn(60), "rs1")).getClaims().getClaimAsString("sub"), "user1");
+            }
+            assertEquals(calls.get(), 1);
+        }
+    }
+
+    @Test
+    public void validate_forRotatedKey_shouldRefetchOnKidMiss() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final Callable<JSONObject> loader = () -> calls.incrementAndGet() == 1 ? jwks("k1", key1) : jwks("k2", key2);
+        try (JwksCache cache = new JwksCache(loader, 0, 0)) {
+            JwtValidator validator = new JwtValidator(cache, ISSUER);
+
+            assertTrue(validator.isValid(jwt("k1", key1, expIn(60), "rs1")));
+            assertTrue(validator.isValid(jwt("k2", key2, expIn(60), "rs1")));
+            assertEquals(calls.get(), 2);
+        }
+    }
+
+    @Test
+    public void validate_forUnknownKid_shouldNotRefetchWithinMinInterval() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        try (JwksCache cache = new JwksCache(counting(calls, jwks("k1", key1)), 0, 60)) {
+            JwtValidator validator = new JwtValidator(cache, ISSUER);
+
+            assertTrue(validator.isValid(jwt("k1", key1, expIn(60), "rs1")));
+            for (int i = 0; i < 5; i++) {
+                assertFalse(validator.isValid(jwt("unknown", key2, expIn(60), "rs1")));
+            }
+            assertEquals(calls.get(), 1);
+        }
+    }
+
+    @Test
+    public void validate_forInvalidJwt_shouldReject() throws Exception {
+        try (JwksCache cache = new JwksCache(() -> jwks("k1", key1), 0, 0)) {
+            JwtValidator validator = new JwtValidator(cache, ISSUER).setAudience("rs1").setClockSkewInSeconds(0);
+
+            assertInvalid(validator, jwt("k1", key1, expIn(-10), "rs1"), "JWT is expired.");
+            assertInvalid(validator, jwt("k1", key1, expIn(60), "rs2"), "Invalid JWT audience.");
+            assertInvalid(validator, jwt("k1", key2, expIn(60), "rs1"), "Invalid JWT signature.");
+
+            final String unsigned = jwt("k1", key1, expIn(60), "rs1");
+            final String claims = unsigned.split("\\.")[1];
+            final String header = Base64Util.base64urlencode("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+            assertFalse(validator.isValid(header + "." + claims + "."));
+        }
+    }
+
+    @Test
+    public void validate_forMalformedJwt_shouldThrowInvalidJwtException() throws Exception {
+        try (JwksCache cache = new JwksCache(() -> jwks("k1", key1), 0, 0)) {
+            JwtValidator validator = new JwtValidator(cache, ISSUER).setAudience("rs1");
+
+            final String claims = jwt("k1", key1, expIn(60), "rs1").split("\\.")[1];
+            final String[] malformed = {
+                    "a.b.c",
+                    "not a jwt",
+                    encode("{\"alg\":\"RS256\",\"alg\":\"none\"}") + "." + claims + ".c2ln",
+                    encode("{\"alg\":[\"RS256\"],\"kid\":{\"a\":1}}") + "." + claims + ".c2ln",
+                    encode("{\"alg\":\"RS256\",\"kid\":\"k1\"}") + "." + encode("{\"exp\":{\"a\":1},\"aud\":{}}") + ".c2ln"
+            };
+            for (String value : malformed) {
+                assertFalse(validator.isValid(value));
+                try {
+                    validator.validate(value);
+                    fail("JWT must be rejected: " + value);
+                } catch (InvalidJwtException e) {
+                    // expected
+                }
+            }
+        }
+    }
+
+    private static String encode(String json) {
+        return Base64Util.base64urlencode(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertInvalid(JwtValidator validator, String jwt, String message) {
+        try {
+            validator.validate(jwt);
+            fail("JWT must be rejected.");
+        } catch (InvalidJwtException e) {
+            assertEquals(e.getMessage(), message);
+        }
+    }
+
+    private static Callable<JSONObject> counting(AtomicInteger calls, JSONObject jwks) {
+        return () -> {
+            calls.incrementAndGet();
+            return jwks;
+        };
+    }
+
+    private static long expIn(int seconds) {
+        return System.currentTimeMillis() / 1000 + seconds;
+    }
+
+    private static JSONObject jwks(String kid, KeyPair keyPair) {
+        final RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        final JSONObject key = new JSONObject();
+        key.put("kid", kid);
+        key.put("kty", "RSA");
+        key.put("alg", "RS256");
+        key.put("n", Base64Util.base64urlencodeUnsignedBigInt(publicKey.getModulus()));
+        key.put("e", Base64Util.base64urlencodeUnsignedBigInt(publicKey.getPublicExponent()));
+        return new JSONObject().put("keys", new JSONArray().put(key));
+    }
+
+    private static String jwt(String kid, KeyPair keyPair, long exp, String aud) throws Exception {
+        final JSONObject header = new JSONObject().put("alg", "RS256").put("kid", kid);
+        final JSONObject claims = new JSONObject().put("iss", ISSUER).put("sub", "user1").put("aud", aud).put("exp", exp);
+
+        final String signingInput = Base64Util.base64urlencode(header.toString().getBytes(StandardCharsets.UTF_8)) + "."
+                + Base64Util.base64urlencode(claims.toString().getBytes(StandardCharsets.UTF_8));
+        final Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(signingInput.getBytes(StandardCharsets.UTF_8));
+        return signingInput + "." + Base64Util.base64urlencode(signature.sign());
+    }
+}
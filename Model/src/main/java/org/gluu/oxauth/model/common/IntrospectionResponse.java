@@ -7,6 +7,7 @@
 package org.gluu.oxauth.model.common;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import org.jboss.resteasy.annotations.providers.jaxb.IgnoreMediaTypes;
@@ -14,6 +15,7 @@ import org.jboss.resteasy.annotations.providers.jaxb.IgnoreMediaTypes;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Yuriy Zabrovarnyy
@@ -49,6 +51,9 @@ public class IntrospectionResponse {
     private String jti;
     @JsonProperty(value = "acr_values")
     private String acrValues;
+    @JsonProperty(value = "cnf")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, String> cnf; // confirmation of certificate bound access token (RFC 8705)
 
     public IntrospectionResponse() {
     }
@@ -153,6 +158,14 @@ public class IntrospectionResponse {
         this.jti = jti;
     }
 
+    public Map<String, String> getCnf() {
+        return cnf;
+    }
+
+    public void setCnf(Map<String, String> cnf) {
+        this.cnf = cnf;
+    }
+
     @Override
     public String toString() {
         return "IntrospectionResponse{" +
@@ -168,6 +181,7 @@ public class IntrospectionResponse {
                 ", issuer='" + issuer + '\'' +
                 ", jti='" + jti + '\'' +
                 ", acrValues='" + acrValues + '\'' +
+                ", cnf=" + cnf +
                 '}';
     }
 }
@@ -97,10 +97,15 @@ public class AppConfiguration implements Configuration {
     private Boolean idTokenFilterClaimsBasedOnAccessToken;
     private int accessTokenLifetime;
 
+    private int configurationUpdateFallbackIntervalInSeconds = 60;
     private int cleanServiceInterval;
     private int cleanServiceBatchChunkSize = 100;
+    private int cleanServiceConcurrency = 4;
+    private Boolean cleanServiceLeaderElectionEnabled = true;
     private List<String> cleanServiceBaseDns = Lists.newArrayList();
 
+    private Boolean performanceMetricsEnabled = false;
+
     private Boolean keyRegenerationEnabled;
     private int keyRegenerationInterval;
     private String defaultSignatureAlgorithm;
@@ -209,6 +214,12 @@ public class AppConfiguration implements Configuration {
     private Boolean refreshTokenExtendLifetimeOnRotation  = false;
     private Boolean consentGatheringScriptBackwardCompatibility = false; // means ignore client configuration (as defined in 4.2) and determine it globally (as in 4.1 and earlier)
     private Boolean introspectionScriptBackwardCompatibility = false; // means ignore client configuration (as defined in 4.2) and determine it globally (as in 4.1 and earlier)
+    private Boolean introspectionJwtAccessTokenLocalValidation = false; // answer introspection of JWT access token from its claims, without grant lookup
+    private int scopeCatalogueRefreshIntervalInSeconds = 60;
+    private int mtlsJwksUriCacheLifetimeInSeconds = 60;
+    private Boolean idGenerationUniquenessCheck;
+    private int sessionIdLocalCacheLifetimeInSeconds = 2;
+    private int u2fDeviceRegistrationCacheLifetimeInSeconds = 60;
 
     private String softwareStatementValidationType = SoftwareStatementValidationType.DEFAULT.getValue();
     private String softwareStatementValidationClaimName;
@@ -302,6 +313,14 @@ public class AppConfiguration implements Configuration {
         this.expirationNotificatorIntervalInSeconds = expirationNotificatorIntervalInSeconds;
     }
 
+    public int getConfigurationUpdateFallbackIntervalInSeconds() {
+        return configurationUpdateFallbackIntervalInSeconds;
+    }
+
+    public void setConfigurationUpdateFallbackIntervalInSeconds(int configurationUpdateFallbackIntervalInSeconds) {
+        this.configurationUpdateFallbackIntervalInSeconds = configurationUpdateFallbackIntervalInSeconds;
+    }
+
     public Boolean getRejectJwtWithNoneAlg() {
         if (rejectJwtWithNoneAlg == null) rejectJwtWithNoneAlg = true;
         return rejectJwtWithNoneAlg;
@@ -320,6 +339,55 @@ public class AppConfiguration implements Configuration {
         this.introspectionScriptBackwardCompatibility = introspectionScriptBackwardCompatibility;
     }
 
+    public Boolean getIntrospectionJwtAccessTokenLocalValidation() {
+        if (introspectionJwtAccessTokenLocalValidation == null) introspectionJwtAccessTokenLocalValidation = false;
+        return introspectionJwtAccessTokenLocalValidation;
+    }
+
+    public void setIntrospectionJwtAccessTokenLocalValidation(Boolean introspectionJwtAccessTokenLocalValidation) {
+        this.introspectionJwtAccessTokenLocalValidation = introspectionJwtAccessTokenLocalValidation;
+    }
+
+    public int getScopeCatalogueRefreshIntervalInSeconds() {
+        return scopeCatalogueRefreshIntervalInSeconds;
+    }
+
+    public void setScopeCatalogueRefreshIntervalInSeconds(int scopeCatalogueRefreshIntervalInSeconds) {
+        this.scopeCatalogueRefreshIntervalInSeconds = scopeCatalogueRefreshIntervalInSeconds;
+    }
+
+    public int getMtlsJwksUriCacheLifetimeInSeconds() {
+        return mtlsJwksUriCacheLifetimeInSeconds;
+    }
+
+    public void setMtlsJwksUriCacheLifetimeInSeconds(int mtlsJwksUriCacheLifetimeInSeconds) {
+        this.mtlsJwksUriCacheLifetimeInSeconds = mtlsJwksUriCacheLifetimeInSeconds;
+    }
+
+    public Boolean getIdGenerationUniquenessCheck() {
+        return idGenerationUniquenessCheck != null ? idGenerationUniquenessCheck : false;
+    }
+
+    public void setIdGenerationUniquenessCheck(Boolean idGenerationUniquenessCheck) {
+        this.idGenerationUniquenessCheck = idGenerationUniquenessCheck;
+    }
+
+    public int getSessionIdLocalCacheLifetimeInSeconds() {
+        return sessionIdLocalCacheLifetimeInSeconds;
+    }
+
+    public void setSessionIdLocalCacheLifetimeInSeconds(int sessionIdLocalCacheLifetimeInSeconds) {
+        this.sessionIdLocalCacheLifetimeInSeconds = sessionIdLocalCacheLifetimeInSeconds;
+    }
+
+    public int getU2fDeviceRegistrationCacheLifetimeInSeconds() {
+        return u2fDeviceRegistrationCacheLifetimeInSeconds;
+    }
+
+    public void setU2fDeviceRegistrationCacheLifetimeInSeconds(int u2fDeviceRegistrationCacheLifetimeInSeconds) {
+        this.u2fDeviceRegistrationCacheLifetimeInSeconds = u2fDeviceRegistrationCacheLifetimeInSeconds;
+    }
+
     public Boolean getConsentGatheringScriptBackwardCompatibility() {
         if (consentGatheringScriptBackwardCompatibility == null) consentGatheringScriptBackwardCompatibility = false;
         return consentGatheringScriptBackwardCompatibility;
@@ -1066,6 +1134,32 @@ public class AppConfiguration implements Configuration {
         cleanServiceInterval = p_cleanServiceInterval;
     }
 
+    public int getCleanServiceConcurrency() {
+        return cleanServiceConcurrency;
+    }
+
+    public void setCleanServiceConcurrency(int cleanServiceConcurrency) {
+        this.cleanServiceConcurrency = cleanServiceConcurrency;
+    }
+
+    public Boolean getCleanServiceLeaderElectionEnabled() {
+        if (cleanServiceLeaderElectionEnabled == null) cleanServiceLeaderElectionEnabled = true;
+        return cleanServiceLeaderElectionEnabled;
+    }
+
+    public void setCleanServiceLeaderElectionEnabled(Boolean cleanServiceLeaderElectionEnabled) {
+        this.cleanServiceLeaderElectionEnabled = cleanServiceLeaderElectionEnabled;
+    }
+
+    public Boolean getPerformanceMetricsEnabled() {
+        if (performanceMetricsEnabled == null) performanceMetricsEnabled = false;
+        return performanceMetricsEnabled;
+    }
+
+    public void setPerformanceMetricsEnabled(Boolean performanceMetricsEnabled) {
+        this.performanceMetricsEnabled = performanceMetricsEnabled;
+    }
+
     public int getCleanServiceBatchChunkSize() {
         return cleanServiceBatchChunkSize;
     }
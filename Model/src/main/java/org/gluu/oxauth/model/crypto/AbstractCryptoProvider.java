@@ -23,6 +23,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.security.AlgorithmParameters;
 import java.security.KeyFactory;
 import java.security.PrivateKey;
@@ -51,6 +52,13 @@ public abstract class AbstractCryptoProvider {
 
     public abstract String sign(String signingInput, String keyId, String sharedSecret, SignatureAlgorithm signatureAlgorithm) throws Exception;
 
+    /**
+     * Signs ASCII signing input given as bytes. Providers which sign locally override it to avoid String conversion.
+     */
+    public String sign(byte[] signingInput, String keyId, String sharedSecret, SignatureAlgorithm signatureAlgorithm) throws Exception {
+        return sign(new String(signingInput, StandardCharsets.US_ASCII), keyId, sharedSecret, signatureAlgorithm);
+    }
+
     public abstract boolean verifySignature(String signingInput, String encodedSignature, String keyId, JSONObject jwks, String sharedSecret, SignatureAlgorithm signatureAlgorithm) throws Exception;
 
     public abstract boolean deleteKey(String keyId) throws Exception;
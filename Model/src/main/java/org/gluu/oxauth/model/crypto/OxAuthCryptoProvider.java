@@ -54,7 +54,9 @@ import java.security.spec.ECGenParameterSpec;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static org.gluu.oxauth.model.jwk.JWKParameter.*;
@@ -74,6 +76,9 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
     private String dnName;
     private final boolean rejectNoneAlg;
 
+    // decrypted private keys, key store decrypts key on each getKey() call
+    private final Map<String, PrivateKey> privateKeys = new ConcurrentHashMap<>();
+
     public OxAuthCryptoProvider() throws Exception {
         this(null, null, null);
     }
@@ -111,6 +116,7 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
         try(InputStream is = new FileInputStream(keyStoreFile)) {
             keyStore = KeyStore.getInstance("JKS");
             keyStore.load(is, keyStoreSecret.toCharArray());
+            privateKeys.clear();
             LOG.debug("Loaded keys from JKS.");
             LOG.trace("Loaded keys:"+ getKeys());
         } catch (Exception e) {
@@ -168,6 +174,7 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
         final String oldAliasByAlgorithm = getAliasByAlgorithmForDeletion(algorithm, alias, use);
         if (StringUtils.isNotBlank(oldAliasByAlgorithm)) {
             keyStore.deleteEntry(oldAliasByAlgorithm);
+            privateKeys.remove(oldAliasByAlgorithm);
             LOG.trace("New key: " + alias + ", deleted key: " + oldAliasByAlgorithm);
         }
 
@@ -233,13 +240,18 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
 
     @Override
     public String sign(String signingInput, String alias, String sharedSecret, SignatureAlgorithm signatureAlgorithm) throws Exception {
+        return sign(signingInput.getBytes(), alias, sharedSecret, signatureAlgorithm);
+    }
+
+    @Override
+    public String sign(byte[] signingInput, String alias, String sharedSecret, SignatureAlgorithm signatureAlgorithm) throws Exception {
         if (signatureAlgorithm == SignatureAlgorithm.NONE) {
             return "";
         } else if (AlgorithmFamily.HMAC.equals(signatureAlgorithm.getFamily())) {
             SecretKey secretKey = new SecretKeySpec(sharedSecret.getBytes(Util.UTF8_STRING_ENCODING), signatureAlgorithm.getAlgorithm());
             Mac mac = Mac.getInstance(signatureAlgorithm.getAlgorithm());
             mac.init(secretKey);
-            byte[] sig = mac.doFinal(signingInput.getBytes());
+            byte[] sig = mac.doFinal(signingInput);
             return Base64Util.base64urlencode(sig);
         } else { // EC or RSA
             PrivateKey privateKey = getPrivateKey(alias);
@@ -253,7 +265,7 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
 
             Signature signer = Signature.getInstance(signatureAlgorithm.getAlgorithm(), "BC");
             signer.initSign(privateKey);
-            signer.update(signingInput.getBytes());
+            signer.update(signingInput);
 
             byte[] signature = signer.sign();
             if (AlgorithmFamily.EC.equals(signatureAlgorithm.getFamily())) {
@@ -325,6 +337,7 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
     @Override
     public boolean deleteKey(String alias) throws Exception {
         keyStore.deleteEntry(alias);
+        privateKeys.remove(alias);
         FileOutputStream stream = new FileOutputStream(keyStoreFile);
         keyStore.store(stream, keyStoreSecret.toCharArray());
         return true;
@@ -358,8 +371,10 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
         }
 
         String kid = null;
-        LOG.trace("WebKeys:" + jsonWebKeySet.getKeys().stream().map(JSONWebKey::getKid).collect(Collectors.toList()));
-        LOG.trace("KeyStoreKeys:" + getKeys());
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("WebKeys:" + jsonWebKeySet.getKeys().stream().map(JSONWebKey::getKid).collect(Collectors.toList()));
+            LOG.trace("KeyStoreKeys:" + getKeys());
+        }
         for (JSONWebKey key : jsonWebKeySet.getKeys()) {
             if (algorithm == key.getAlg() && (use == null || use == key.getUse())) {
                 kid = key.getKid();
@@ -380,11 +395,15 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
             return null;
         }
 
-        Key key = keyStore.getKey(alias, keyStoreSecret.toCharArray());
-        if (key == null) {
-            return null;
+        PrivateKey privateKey = privateKeys.get(alias);
+        if (privateKey == null) {
+            Key key = keyStore.getKey(alias, keyStoreSecret.toCharArray());
+            if (key == null) {
+                return null;
+            }
+            privateKey = (PrivateKey) key;
+            privateKeys.put(alias, privateKey);
         }
-        PrivateKey privateKey = (PrivateKey) key;
 
         checkKeyExpiration(alias);
 
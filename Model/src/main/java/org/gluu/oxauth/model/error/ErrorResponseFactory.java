@@ -6,8 +6,6 @@
 
 package org.gluu.oxauth.model.error;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import org.gluu.oxauth.model.authorize.AuthorizeErrorResponseType;
 import org.gluu.oxauth.model.ciba.BackchannelAuthenticationErrorResponseType;
 import org.gluu.oxauth.model.clientinfo.ClientInfoErrorResponseType;
@@ -20,7 +18,7 @@ import org.gluu.oxauth.model.token.TokenErrorResponseType;
 import org.gluu.oxauth.model.token.TokenRevocationErrorResponseType;
 import org.gluu.oxauth.model.uma.UmaErrorResponseType;
 import org.gluu.oxauth.model.userinfo.UserInfoErrorResponseType;
-import org.gluu.oxauth.model.util.Util;
+import org.gluu.oxauth.model.util.JsonMappers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -165,8 +163,7 @@ public class ErrorResponseFactory implements Configuration {
         JsonErrorResponse jsonErrorResponse = new JsonErrorResponse(response);
 
         try {
-            final ObjectMapper mapper = Util.createJsonMapper().configure(SerializationFeature.WRAP_ROOT_VALUE, false);
-            return mapper.writeValueAsString(jsonErrorResponse);
+            return JsonMappers.writer().writeValueAsString(jsonErrorResponse);
         } catch (IOException ex) {
             log.error("Failed to generate error response", ex);
             return null;
@@ -11,9 +11,9 @@ import java.io.Serializable;
 
 import org.gluu.oxauth.model.fido.u2f.exception.BadInputException;
 import org.gluu.oxauth.model.util.Base64Util;
+import org.gluu.oxauth.model.util.JsonMappers;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * FIDO U2F client data
@@ -37,7 +37,7 @@ public class ClientData implements Serializable {
 	public ClientData(String clientData) throws BadInputException {
 		this.rawClientData = new String(Base64Util.base64urldecode(clientData));
 		try {
-			this.data = new ObjectMapper().readTree(rawClientData);
+			this.data = JsonMappers.treeReader().readTree(rawClientData);
 			this.typ = getString(TYPE_PARAM);
 			this.challenge = getString(CHALLENGE_PARAM);
 			this.origin = getString(ORIGIN_PARAM);
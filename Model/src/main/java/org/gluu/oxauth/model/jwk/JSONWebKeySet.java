@@ -8,10 +8,9 @@ package org.gluu.oxauth.model.jwk;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsonorg.JsonOrgModule;
 import org.gluu.oxauth.model.crypto.signature.AlgorithmFamily;
 import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
+import org.gluu.oxauth.model.util.JsonMappers;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -108,9 +107,7 @@ public class JSONWebKeySet {
     }
 
 	private String toPrettyJson(JSONObject jsonObject) throws JsonProcessingException {
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.registerModule(new JsonOrgModule());
-		return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(jsonObject);
+		return JsonMappers.jsonOrgPrettyWriter().writeValueAsString(jsonObject);
 	}
 
     public static JSONWebKeySet fromJSONObject(JSONObject jwksJSONObject) throws JSONException {
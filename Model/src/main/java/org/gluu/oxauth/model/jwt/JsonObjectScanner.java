@@ -0,0 +1,308 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.model.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Lightweight JSON tokenizer which checks that UTF-8 bytes contain single JSON object, without building any objects
+ * (apart from member names, which are collected to reject duplicate keys in the same way as JSONObject does).
+ * <p>
+ * It is used to reject malformed JWT segments before (and often instead of) materializing them into JSONObject.
+ * Nesting depth is limited, so deeply nested input can't exhaust stack.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+final class JsonObjectScanner {
+
+    static final int MAX_DEPTH = 64;
+
+    private final byte[] json;
+    private int pos;
+
+    private JsonObjectScanner(byte[] json) {
+        this.json = json;
+    }
+
+    static boolean isObject(byte[] json) {
+        if (json == null) {
+            return false;
+        }
+        try {
+            final JsonObjectScanner scanner = new JsonObjectScanner(json);
+            scanner.skipWhitespace();
+            if (scanner.peek() != '{') {
+                return false;
+            }
+            scanner.value(0);
+            scanner.skipWhitespace();
+            return scanner.pos == json.length;
+        } catch (MalformedJsonException e) {
+            return false;
+        }
+    }
+
+    private void value(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw MalformedJsonException.INSTANCE;
+        }
+        skipWhitespace();
+        final int c = peek();
+        switch (c) {
+            case '{':
+                object(depth);
+                break;
+            case '[':
+                array(depth);
+                break;
+            case '"':
+                string();
+                break;
+            case 't':
+                literal("true");
+                break;
+            case 'f':
+                literal("false");
+                break;
+            case 'n':
+                literal("null");
+                break;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    number();
+                } else {
+                    throw MalformedJsonException.INSTANCE;
+                }
+        }
+    }
+
+    private void object(int depth) {
+        pos++; // {
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return;
+        }
+        String firstKey = null;
+        Set<String> keys = null;
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw MalformedJsonException.INSTANCE;
+            }
+            final int keyStart = pos;
+            final boolean escaped = string();
+            final String key = key(keyStart, escaped);
+            if (firstKey == null) {
+                firstKey = key;
+            } else {
+                if (keys == null) {
+                    keys = new HashSet<>();
+                    keys.add(firstKey);
+                }
+                if (!keys.add(key)) {
+                    throw MalformedJsonException.INSTANCE; // duplicate key
+                }
+            }
+            skipWhitespace();
+            expect(':');
+            value(depth + 1);
+            skipWhitespace();
+            final int c = next();
+            if (c == '}') {
+                return;
+            }
+            if (c != ',') {
+                throw MalformedJsonException.INSTANCE;
+            }
+        }
+    }
+
+    private void array(int depth) {
+        pos++; // [
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return;
+        }
+        while (true) {
+            value(depth + 1);
+            skipWhitespace();
+            final int c = next();
+            if (c == ']') {
+                return;
+            }
+            if (c != ',') {
+                throw MalformedJsonException.INSTANCE;
+            }
+        }
+    }
+
+    /**
+     * @return true if string contains escape sequences
+     */
+    private boolean string() {
+        pos++; // opening quote
+        boolean hasEscapes = false;
+        while (true) {
+            final int c = next();
+            if (c == '"') {
+                return hasEscapes;
+            }
+            if (c == '\\') {
+                hasEscapes = true;
+                final int escaped = next();
+                if (escaped == 'u') {
+                    for (int i = 0; i < 4; i++) {
+                        if (Character.digit(next(), 16) < 0) {
+                            throw MalformedJsonException.INSTANCE;
+                        }
+                    }
+                } else if ("\"\\/bfnrt".indexOf(escaped) < 0) {
+                    throw MalformedJsonException.INSTANCE;
+                }
+            } else if (c == '\n' || c == '\r' || c == 0) {
+                throw MalformedJsonException.INSTANCE; // unterminated string
+            }
+        }
+    }
+
+    /**
+     * @param start position of opening quote of already scanned string
+     */
+    private String key(int start, boolean escaped) {
+        final String raw = new String(json, start + 1, pos - start - 2, StandardCharsets.UTF_8);
+        if (!escaped) {
+            return raw;
+        }
+        final StringBuilder key = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            final char c = raw.charAt(i);
+            if (c != '\\') {
+                key.append(c);
+                continue;
+            }
+            final char e = raw.charAt(++i);
+            switch (e) {
+                case 'u':
+                    key.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                    i += 4;
+                    break;
+                case 'b':
+                    key.append('\b');
+                    break;
+                case 'f':
+                    key.append('\f');
+                    break;
+                case 'n':
+                    key.append('\n');
+                    break;
+                case 'r':
+                    key.append('\r');
+                    break;
+                case 't':
+                    key.append('\t');
+                    break;
+                default:
+                    key.append(e); // " \ /
+            }
+        }
+        return key.toString();
+    }
+
+    private void number() {
+        final int start = pos;
+        if (peek() == '-') {
+            pos++;
+        }
+        final int intStart = pos;
+        while (isDigit(peek())) {
+            pos++;
+        }
+        if (pos == intStart) {
+            throw MalformedJsonException.INSTANCE;
+        }
+        if (peek() == '.') {
+            pos++;
+            final int fractionStart = pos;
+            while (isDigit(peek())) {
+                pos++;
+            }
+            if (pos == fractionStart) {
+                throw MalformedJsonException.INSTANCE;
+            }
+        }
+        if (peek() == 'e' || peek() == 'E') {
+            pos++;
+            if (peek() == '+' || peek() == '-') {
+                pos++;
+            }
+            final int exponentStart = pos;
+            while (isDigit(peek())) {
+                pos++;
+            }
+            if (pos == exponentStart) {
+                throw MalformedJsonException.INSTANCE;
+            }
+        }
+        if (pos == start) {
+            throw MalformedJsonException.INSTANCE;
+        }
+    }
+
+    private void literal(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (next() != literal.charAt(i)) {
+                throw MalformedJsonException.INSTANCE;
+            }
+        }
+    }
+
+    private void expect(char c) {
+        if (next() != c) {
+            throw MalformedJsonException.INSTANCE;
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < json.length) {
+            final byte b = json[pos];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private int peek() {
+        return pos < json.length ? json[pos] & 0xff : -1;
+    }
+
+    private int next() {
+        if (pos >= json.length) {
+            throw MalformedJsonException.INSTANCE;
+        }
+        return json[pos++] & 0xff;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static class MalformedJsonException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        static final MalformedJsonException INSTANCE = new MalformedJsonException();
+
+        private MalformedJsonException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -9,6 +9,11 @@ package org.gluu.oxauth.model.jwt;
 import org.apache.commons.lang.StringUtils;
 import org.gluu.oxauth.model.exception.InvalidJwtException;
 import org.gluu.oxauth.model.token.JsonWebResponse;
+import org.gluu.oxauth.model.util.Base64Util;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
 
 /**
  * JSON Web Token (JWT) is a compact token format intended for space constrained
@@ -29,6 +34,10 @@ public class Jwt extends JsonWebResponse {
 
     private boolean loaded = false;
 
+    // decoded segments of parsed JWT, materialized into header/claims on first access
+    private byte[] headerJson;
+    private byte[] claimsJson;
+
     public Jwt() {
         encodedHeader = null;
         encodedClaims = null;
@@ -43,40 +52,115 @@ public class Jwt extends JsonWebResponse {
         this.encodedSignature = encodedSignature;
     }
 
+    @Override
+    public JwtHeader getHeader() {
+        if (headerJson != null) {
+            header = new JwtHeader(toJsonObject(headerJson));
+            headerJson = null;
+        }
+        return header;
+    }
+
+    @Override
+    public void setHeader(JwtHeader header) {
+        this.headerJson = null;
+        super.setHeader(header);
+    }
+
+    @Override
+    public JwtClaims getClaims() {
+        if (claimsJson != null) {
+            claims = new JwtClaims(toJsonObject(claimsJson));
+            claimsJson = null;
+        }
+        return claims;
+    }
+
+    @Override
+    public void setClaims(JwtClaims claims) {
+        this.claimsJson = null;
+        super.setClaims(claims);
+    }
+
+    private static JSONObject toJsonObject(byte[] json) {
+        try {
+            return new JSONObject(new String(json, StandardCharsets.UTF_8));
+        } catch (JSONException e) {
+            // syntax and duplicate keys are checked by parse(), so it is not expected
+            throw new IllegalStateException(new InvalidJwtException(e));
+        }
+    }
+
     public String getSigningInput() throws InvalidJwtException {
         if (loaded) {
             return encodedHeader + "." + encodedClaims;
         } else {
-            return header.toBase64JsonObject() + "." + claims.toBase64JsonObject();
+            return new String(getSigningInputBytes(), StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * @return signing input as ASCII bytes, header and claims are serialized without intermediate strings
+     */
+    public byte[] getSigningInputBytes() throws InvalidJwtException {
+        if (loaded) {
+            return (encodedHeader + "." + encodedClaims).getBytes(StandardCharsets.US_ASCII);
+        }
+
+        final byte[] signingInput = JwtClaimSetWriter.toSigningInput(header, claims);
+        if (signingInput != null) {
+            return signingInput;
         }
+        return (header.toBase64JsonObject() + "." + claims.toBase64JsonObject()).getBytes(StandardCharsets.US_ASCII);
     }
 
+    /**
+     * Parses JWT in compact serialization.
+     * <p>
+     * Segments are located by offsets and checked for base64url alphabet before anything is decoded, so foreign or
+     * garbage tokens are rejected at minimal cost. Header and claims are decoded and checked to be JSON objects
+     * without duplicate keys by lightweight tokenizer (which also limits nesting depth), so that anything JSON parser
+     * would reject results in {@link InvalidJwtException} here. Header and claims objects are materialized only on
+     * first access.
+     */
     public static Jwt parse(String encodedJwt) throws InvalidJwtException {
         if (StringUtils.isBlank(encodedJwt)) {
             return null;
         }
 
-        String encodedHeader = null;
-        String encodedClaims = null;
-        String encodedSignature = null;
+        final int headerEnd = encodedJwt.indexOf('.');
+        if (headerEnd < 0) {
+            throw new InvalidJwtException("Invalid JWT format.");
+        }
+        int claimsEnd = encodedJwt.indexOf('.', headerEnd + 1);
+        if (claimsEnd < 0) { // Signature Algorithm NONE
+            claimsEnd = encodedJwt.length();
+        } else if (encodedJwt.indexOf('.', claimsEnd + 1) >= 0) {
+            throw new InvalidJwtException("Invalid JWT format.");
+        }
 
-        String[] jwtParts = encodedJwt.split("\\.");
-        if (jwtParts.length == 2) { // Signature Algorithm NONE
-            encodedHeader = jwtParts[0];
-            encodedClaims = jwtParts[1];
-            encodedSignature = "";
-        } else if (jwtParts.length == 3) {
-            encodedHeader = jwtParts[0];
-            encodedClaims = jwtParts[1];
-            encodedSignature = jwtParts[2];
-        } else {
+        if (!isBase64Url(encodedJwt, 0, headerEnd) || !isBase64Url(encodedJwt, headerEnd + 1, claimsEnd)
+                || !isBase64Url(encodedJwt, claimsEnd + 1, encodedJwt.length())) {
             throw new InvalidJwtException("Invalid JWT format.");
         }
 
+        final String encodedHeader = encodedJwt.substring(0, headerEnd);
+        final String encodedClaims = encodedJwt.substring(headerEnd + 1, claimsEnd);
+        final byte[] headerJson = decode(encodedHeader);
+        final byte[] claimsJson = decode(encodedClaims);
+        if (!JsonObjectScanner.isObject(headerJson)) {
+            throw new InvalidJwtException("Invalid JWT header.");
+        }
+        if (!JsonObjectScanner.isObject(claimsJson)) {
+            throw new InvalidJwtException("Invalid JWT claims.");
+        }
+
         Jwt jwt = new Jwt();
-        jwt.setHeader(new JwtHeader(encodedHeader));
-        jwt.setClaims(new JwtClaims(encodedClaims));
-        jwt.setEncodedSignature(encodedSignature);
+        jwt.header = null;
+        jwt.claims = null;
+        jwt.headerJson = headerJson;
+        jwt.claimsJson = claimsJson;
+        jwt.setEncodedSignature(claimsEnd < encodedJwt.length() ? encodedJwt.substring(claimsEnd + 1) : "");
         jwt.encodedHeader = encodedHeader;
         jwt.encodedClaims = encodedClaims;
         jwt.loaded = true;
@@ -84,6 +168,34 @@ public class Jwt extends JsonWebResponse {
         return jwt;
     }
 
+    private static byte[] decode(String segment) throws InvalidJwtException {
+        try {
+            return Base64Util.base64urldecode(segment);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidJwtException(e);
+        }
+    }
+
+    /**
+     * Both base64url and base64 alphabets are accepted (decoder accepts both), padding is allowed only at the end.
+     */
+    private static boolean isBase64Url(String value, int start, int end) {
+        int i = start;
+        for (; i < end; i++) {
+            final char c = value.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '+' || c == '/')) {
+                break;
+            }
+        }
+        for (; i < end; i++) {
+            if (value.charAt(i) != '=') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public String toString() {
         try {
@@ -17,6 +17,7 @@ import org.json.JSONObject;
 
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -45,6 +46,10 @@ public abstract class JwtClaimSet {
         return claims.keySet();
     }
 
+    Map<String, Object> getClaims() {
+        return claims;
+    }
+
     public Object getClaim(String key) {
         return claims.get(key);
     }
@@ -301,6 +306,23 @@ public abstract class JwtClaimSet {
     }
 
     public String toBase64JsonObject() throws InvalidJwtException {
+        final byte[] encoded = toBase64JsonObjectBytes();
+        return encoded != null ? new String(encoded, StandardCharsets.US_ASCII) : null;
+    }
+
+    /**
+     * @return base64url encoded JSON as ASCII bytes
+     */
+    public byte[] toBase64JsonObjectBytes() throws InvalidJwtException {
+        final byte[] encoded = JwtClaimSetWriter.toBase64Url(this);
+        if (encoded != null) {
+            return encoded;
+        }
+        final String legacy = toBase64JsonObjectLegacy();
+        return legacy != null ? legacy.getBytes(StandardCharsets.US_ASCII) : null;
+    }
+
+    private String toBase64JsonObjectLegacy() throws InvalidJwtException {
         try {
             String jsonObjectString = toJsonString();
             byte[] jsonObjectBytes = jsonObjectString.getBytes(Util.UTF8_STRING_ENCODING);
@@ -0,0 +1,302 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.model.jwt;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming serializer of JWT header and claims.
+ * <p>
+ * Writes claims with Jackson generator directly into reusable per-thread buffer and base64url encodes result
+ * into final byte array, without building intermediate JSONObject/JSONArray and Strings.
+ * Output is byte-identical to {@link JwtClaimSet#toJsonString()} (which is based on org.json):
+ * <ul>
+ * <li>keys are written in iteration order of JSONObject's internal HashMap;</li>
+ * <li>strings are escaped as JSONObject.quote() does, followed by "\/" to "/" replacement;</li>
+ * <li>numbers are written as JSONObject.numberToString() does.</li>
+ * </ul>
+ * Claim values which can't be reproduced exactly (maps, collections, arrays, JSONString, etc.) make writer
+ * return null, in this case caller falls back to org.json based serialization.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+final class JwtClaimSetWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().setCharacterEscapes(new OrgJsonCharacterEscapes());
+
+    private static final byte[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes();
+
+    private static final ThreadLocal<ByteArrayBuilder[]> BUFFERS = new ThreadLocal<ByteArrayBuilder[]>() {
+        @Override
+        protected ByteArrayBuilder[] initialValue() {
+            return new ByteArrayBuilder[]{new ByteArrayBuilder(512), new ByteArrayBuilder(1024)};
+        }
+    };
+
+    private JwtClaimSetWriter() {
+    }
+
+    /**
+     * @return base64url encoded JSON of claim set or null if claim set can't be written by streaming serializer
+     */
+    static byte[] toBase64Url(JwtClaimSet claimSet) {
+        final ByteArrayBuilder buffer = BUFFERS.get()[0];
+        buffer.reset();
+        if (!write(claimSet, buffer)) {
+            return null;
+        }
+
+        final byte[] result = new byte[encodedLength(buffer.size())];
+        encode(buffer, result, 0);
+        return result;
+    }
+
+    /**
+     * @return signing input (base64url(header) + "." + base64url(claims)) or null if header or claims can't be
+     * written by streaming serializer
+     */
+    static byte[] toSigningInput(JwtClaimSet header, JwtClaimSet claims) {
+        final ByteArrayBuilder[] buffers = BUFFERS.get();
+        final ByteArrayBuilder headerBuffer = buffers[0];
+        final ByteArrayBuilder claimsBuffer = buffers[1];
+        headerBuffer.reset();
+        claimsBuffer.reset();
+        if (!write(header, headerBuffer) || !write(claims, claimsBuffer)) {
+            return null;
+        }
+
+        final int headerLength = encodedLength(headerBuffer.size());
+        final byte[] result = new byte[headerLength + 1 + encodedLength(claimsBuffer.size())];
+        encode(headerBuffer, result, 0);
+        result[headerLength] = '.';
+        encode(claimsBuffer, result, headerLength + 1);
+        return result;
+    }
+
+    private static boolean write(JwtClaimSet claimSet, ByteArrayBuilder buffer) {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer, JsonEncoding.UTF8)) {
+            writeObject(generator, claimSet.getClaims());
+            return true;
+        } catch (UnsupportedValueException e) {
+            return false;
+        } catch (IOException e) {
+            return false; // e.g. unpaired surrogate, org.json serialization is used in this case
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static void writeObject(JsonGenerator generator, Map<String, Object> claims) throws IOException {
+        // JSONObject keeps entries in HashMap, same HashMap gives the same key order
+        final Map<String, Object> ordered = new HashMap<>();
+        for (Map.Entry<String, Object> claim : claims.entrySet()) {
+            final Object value = claim.getValue();
+            if (value == null) {
+                continue; // JSONObject.put(key, null) removes key
+            }
+            if (value instanceof JwtSubClaimObject) {
+                final String name = ((JwtSubClaimObject) value).getName();
+                if (name == null) {
+                    throw new UnsupportedValueException();
+                }
+                ordered.put(name, value);
+            } else {
+                ordered.put(claim.getKey(), value);
+            }
+        }
+
+        generator.writeStartObject();
+        for (Map.Entry<String, Object> entry : ordered.entrySet()) {
+            checkString(entry.getKey());
+            generator.writeFieldName(entry.getKey());
+
+            final Object value = entry.getValue();
+            if (value instanceof Date) {
+                generator.writeNumber(((Date) value).getTime() / 1000);
+            } else if (value instanceof JwtSubClaimObject) {
+                writeObject(generator, ((JwtSubClaimObject) value).getClaims());
+            } else if (value instanceof List) {
+                generator.writeStartArray();
+                for (Object element : (List<?>) value) {
+                    writeValue(generator, element);
+                }
+                generator.writeEndArray();
+            } else {
+                writeValue(generator, value);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    // mirrors JSONObject.writeValue()
+    private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null || JSONObject.NULL.equals(value)) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            writeString(generator, (String) value);
+        } else if (value instanceof Number) {
+            generator.writeNumber(numberToString((Number) value));
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Enum<?>) {
+            writeString(generator, ((Enum<?>) value).name());
+        } else if (value instanceof JSONObject || value instanceof JSONArray) {
+            generator.writeRawValue(value.toString().replace("\\/", "/"));
+        } else if (value instanceof Map || value instanceof Iterable || value.getClass().isArray()
+                || value instanceof org.json.JSONString) {
+            throw new UnsupportedValueException();
+        } else {
+            writeString(generator, value.toString());
+        }
+    }
+
+    private static void writeString(JsonGenerator generator, String value) throws IOException {
+        checkString(value);
+        generator.writeString(value);
+    }
+
+    /**
+     * Strings which can't be reproduced per character are written by org.json:
+     * "\/" replacement turns escaped backslash followed by slash into "\/",
+     * surrogate pairs are escaped by custom-escaping generator instead of being written as 4-byte UTF-8.
+     */
+    private static void checkString(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (Character.isSurrogate(c) || (c == '\\' && i + 1 < value.length() && value.charAt(i + 1) == '/')) {
+                throw new UnsupportedValueException();
+            }
+        }
+    }
+
+    // mirrors JSONObject.numberToString() + validity check of JSONObject.writeValue()
+    static String numberToString(Number number) {
+        if ((number instanceof Double && (((Double) number).isNaN() || ((Double) number).isInfinite()))
+                || (number instanceof Float && (((Float) number).isNaN() || ((Float) number).isInfinite()))) {
+            throw new UnsupportedValueException();
+        }
+
+        String string = number.toString();
+        if (string.indexOf('.') > 0 && string.indexOf('e') < 0 && string.indexOf('E') < 0) {
+            int end = string.length();
+            while (string.charAt(end - 1) == '0') {
+                end--;
+            }
+            if (string.charAt(end - 1) == '.') {
+                end--;
+            }
+            string = string.substring(0, end);
+        }
+
+        try {
+            new BigDecimal(string);
+        } catch (NumberFormatException e) {
+            throw new UnsupportedValueException(); // org.json quotes such numbers
+        }
+        return string;
+    }
+
+    private static int encodedLength(int length) {
+        return (length / 3) * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
+    }
+
+    /**
+     * Base64url encoding without padding, same as Base64Util.base64urlencode().
+     */
+    private static void encode(ByteArrayBuilder buffer, byte[] out, int offset) {
+        final byte[] in = buffer.getCurrentSegment();
+        final int length = buffer.size();
+        if (length > buffer.getCurrentSegmentLength()) {
+            // buffer grew to several segments, use contiguous copy
+            encode(buffer.toByteArray(), length, out, offset);
+            return;
+        }
+        encode(in, length, out, offset);
+    }
+
+    static void encode(byte[] in, int length, byte[] out, int offset) {
+        int i = 0;
+        int o = offset;
+        final int fullGroupsEnd = length - length % 3;
+        while (i < fullGroupsEnd) {
+            final int bits = (in[i++] & 0xff) << 16 | (in[i++] & 0xff) << 8 | (in[i++] & 0xff);
+            out[o++] = BASE64URL[(bits >>> 18) & 0x3f];
+            out[o++] = BASE64URL[(bits >>> 12) & 0x3f];
+            out[o++] = BASE64URL[(bits >>> 6) & 0x3f];
+            out[o++] = BASE64URL[bits & 0x3f];
+        }
+        final int remaining = length - fullGroupsEnd;
+        if (remaining == 1) {
+            final int bits = (in[i] & 0xff) << 16;
+            out[o++] = BASE64URL[(bits >>> 18) & 0x3f];
+            out[o] = BASE64URL[(bits >>> 12) & 0x3f];
+        } else if (remaining == 2) {
+            final int bits = (in[i] & 0xff) << 16 | (in[i + 1] & 0xff) << 8;
+            out[o++] = BASE64URL[(bits >>> 18) & 0x3f];
+            out[o++] = BASE64URL[(bits >>> 12) & 0x3f];
+            out[o] = BASE64URL[(bits >>> 6) & 0x3f];
+        }
+    }
+
+    private static class UnsupportedValueException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedValueException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Escapes characters exactly as JSONObject.quote() does (lower-case unicode escapes, C1 controls and
+     * U+2000..U+20FF are escaped too). Slash is not escaped because of "\/" to "/" replacement.
+     */
+    private static class OrgJsonCharacterEscapes extends CharacterEscapes {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] asciiEscapes;
+
+        OrgJsonCharacterEscapes() {
+            asciiEscapes = CharacterEscapes.standardAsciiEscapesForJSON();
+            for (int c = 0; c < 0x20; c++) {
+                if (c != '\b' && c != '\t' && c != '\n' && c != '\f' && c != '\r') {
+                    asciiEscapes[c] = CharacterEscapes.ESCAPE_CUSTOM;
+                }
+            }
+        }
+
+        @Override
+        public int[] getEscapeCodesForAscii() {
+            return asciiEscapes;
+        }
+
+        @Override
+        public SerializableString getEscapeSequence(int ch) {
+            if (ch < 0x20 || (ch >= 0x80 && ch < 0xa0) || (ch >= 0x2000 && ch < 0x2100)) {
+                final String hex = Integer.toHexString(ch);
+                return new SerializedString("\\u" + "0000".substring(hex.length()) + hex);
+            }
+            return null;
+        }
+    }
+}
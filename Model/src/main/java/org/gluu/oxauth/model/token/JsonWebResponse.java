@@ -43,10 +43,11 @@ public class JsonWebResponse implements Serializable {
 	}
 
     public void setClaim(String key, String value) {
-	    if (claims == null) {
+	    final JwtClaims jwtClaims = getClaims();
+	    if (jwtClaims == null) {
 	        return;
         }
-	    claims.setClaim(key, value);
+	    jwtClaims.setClaim(key, value);
     }
 
 	public void setClaims(JwtClaims claims) {
@@ -55,7 +56,7 @@ public class JsonWebResponse implements Serializable {
 
 	public String asString() {
 		try {
-			return claims.toJsonString();
+			return getClaims().toJsonString();
 		} catch (InvalidJwtException ex) {
 			ex.printStackTrace();
 		}
@@ -1,6 +1,6 @@
 package org.gluu.oxauth.model.uma;
 
-import org.gluu.oxauth.model.util.Util;
+import org.gluu.oxauth.model.util.JsonMappers;
 
 /**
  * @author yuriyz
@@ -12,7 +12,7 @@ public class JsonLogicNodeParser {
 
     public static JsonLogicNode parseNode(String json) {
         try {
-            return Util.createJsonMapper().readValue(json, JsonLogicNode.class);
+            return JsonMappers.reader(JsonLogicNode.class).readValue(json);
         } catch (Exception e) {
             return null;
         }
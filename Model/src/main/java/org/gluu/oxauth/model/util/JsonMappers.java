@@ -0,0 +1,142 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.model.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsonorg.JsonOrgModule;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared pre-configured Jackson readers and writers.
+ * <p>
+ * Creating {@link ObjectMapper} per call is expensive (introspection, serializer lookup on every call), so mappers
+ * are created once and never exposed: only immutable {@link ObjectReader}/{@link ObjectWriter} are handed out,
+ * which are thread-safe and share serializer/deserializer caches of their mapper.
+ * <p>
+ * Mappers have the same configuration as {@link Util#createJsonMapper()} plus the features which
+ * were applied by callers (non empty inclusion, json.org module).
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class JsonMappers {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonMappers.class);
+
+    private static final ObjectMapper MAPPER = Util.createJsonMapper().configure(SerializationFeature.WRAP_ROOT_VALUE, false);
+    private static final ObjectMapper NON_EMPTY_MAPPER = Util.createJsonMapper().configure(SerializationFeature.WRAP_ROOT_VALUE, false)
+            .setDefaultPropertyInclusion(Include.NON_EMPTY);
+    private static final ObjectMapper JSON_ORG_MAPPER = new ObjectMapper().registerModule(new JsonOrgModule());
+
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    private static final ObjectWriter STREAM_WRITER = WRITER.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final ObjectWriter PRETTY_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+    private static final ObjectWriter NON_EMPTY_WRITER = NON_EMPTY_MAPPER.writer();
+    private static final ObjectWriter NON_EMPTY_PRETTY_WRITER = NON_EMPTY_MAPPER.writerWithDefaultPrettyPrinter();
+    private static final ObjectWriter JSON_ORG_PRETTY_WRITER = JSON_ORG_MAPPER.writerWithDefaultPrettyPrinter();
+    private static final ObjectReader JSON_ORG_READER = JSON_ORG_MAPPER.readerFor(JSONObject.class);
+    private static final ObjectReader TREE_READER = MAPPER.reader();
+
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private JsonMappers() {
+    }
+
+    /**
+     * @return writer without root wrapping (same output as {@code createJsonMapper().configure(WRAP_ROOT_VALUE, false)})
+     */
+    public static ObjectWriter writer() {
+        return WRITER;
+    }
+
+    /**
+     * @return same as {@link #writer()} but leaves target stream open (container owns servlet output stream)
+     */
+    public static ObjectWriter streamWriter() {
+        return STREAM_WRITER;
+    }
+
+    /**
+     * Creates generator which writes directly to given stream and does not close it.
+     *
+     * @param output output stream
+     * @return json generator, must be closed (or flushed) by caller
+     * @throws IOException if generator can't be created
+     */
+    public static JsonGenerator createGenerator(OutputStream output) throws IOException {
+        return MAPPER.getFactory().createGenerator(output).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public static ObjectWriter prettyWriter() {
+        return PRETTY_WRITER;
+    }
+
+    /**
+     * @return writer which skips null and empty values
+     */
+    public static ObjectWriter nonEmptyWriter() {
+        return NON_EMPTY_WRITER;
+    }
+
+    public static ObjectWriter nonEmptyPrettyWriter() {
+        return NON_EMPTY_PRETTY_WRITER;
+    }
+
+    /**
+     * @return pretty writer for {@link JSONObject} (json.org) values
+     */
+    public static ObjectWriter jsonOrgPrettyWriter() {
+        return JSON_ORG_PRETTY_WRITER;
+    }
+
+    /**
+     * @return reader of {@link JSONObject} (json.org) values
+     */
+    public static ObjectReader jsonOrgReader() {
+        return JSON_ORG_READER;
+    }
+
+    /**
+     * @return reader for {@link com.fasterxml.jackson.databind.JsonNode} trees
+     */
+    public static ObjectReader treeReader() {
+        return TREE_READER;
+    }
+
+    public static ObjectReader reader(Class<?> type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
+    /**
+     * Resolves and caches serializers and deserializers of given types, so first request which
+     * reads or writes them does not pay for introspection.
+     *
+     * @param types types to warm up
+     */
+    public static void warmUp(Class<?>... types) {
+        for (Class<?> type : types) {
+            try {
+                reader(type);
+                MAPPER.writerFor(type);
+                NON_EMPTY_MAPPER.writerFor(type);
+            } catch (Exception e) {
+                LOG.warn("Failed to warm up json (de)serializers of " + type.getName(), e);
+            }
+        }
+    }
+}
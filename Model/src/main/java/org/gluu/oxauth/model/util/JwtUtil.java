@@ -6,8 +6,6 @@
 
 package org.gluu.oxauth.model.util;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsonorg.JsonOrgModule;
 import org.apache.log4j.Logger;
 import org.bouncycastle.jce.provider.X509CertificateObject;
 import org.bouncycastle.openssl.PEMParser;
@@ -246,9 +244,7 @@ public class JwtUtil {
     }
 
 	public static JSONObject fromJson(String json) throws IOException {
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.registerModule(new JsonOrgModule());
-		return mapper.readValue(json, JSONObject.class);
+		return JsonMappers.jsonOrgReader().readValue(json);
 	}
 
 	public static void transferIntoJwtClaims(JSONObject jsonObject, Jwt jwt) {
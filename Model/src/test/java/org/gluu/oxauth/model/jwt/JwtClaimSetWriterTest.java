@@ -0,0 +1,171 @@
+package org.gluu.oxauth.model.jwt;
+
+import com.google.common.collect.Lists;
+import org.gluu.oxauth.model.util.Base64Util;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class JwtClaimSetWriterTest {
+
+    private static final String[] TRICKY_STRINGS = {
+            "", "plain", "https://example.com/path?x=1&y=2", "</script>", "quote\"in", "back\\slash",
+            "tab\tnew\nline\r", "\b\f", "\u0001\u001f", "\u0080\u009f\u00a0", "\u2000\u2028\u20ff\u2100",
+            "\u00fcn\u00efc\u00f6d\u00e9", "\u65e5\u672c\u8a9e", "a/b//c"
+    };
+
+    @Test
+    public void toBase64Url_forTypicalIdToken_shouldMatchOrgJsonSerialization() throws Exception {
+        JwtClaims claims = new JwtClaims();
+        claims.setIssuer("https://op.example.com");
+        claims.setAudience("client-123");
+        claims.setExpirationTime(new Date(1600000000000L));
+        claims.setIssuedAt(new Date(1599990000000L));
+        claims.setSubjectIdentifier(UUID.randomUUID().toString());
+        claims.setClaim("amr", Lists.newArrayList("10", "pwd"));
+        claims.setClaim("email_verified", true);
+        claims.setClaim("auth_time", 1599990000L);
+        claims.getClaims().put("ratio", 1.50d);
+        claims.setClaim("nested", new JSONObject().put("url", "https://a/b").put("n", 1));
+        claims.setClaim("array", new JSONArray().put("a/b").put(2));
+        claims.getClaims().put("nothing", JSONObject.NULL);
+
+        assertSameSerialization(claims);
+    }
+
+    @Test
+    public void toBase64Url_forHeader_shouldMatchOrgJsonSerialization() throws Exception {
+        JwtHeader header = new JwtHeader();
+        header.setType(JwtType.JWT);
+        header.setKeyId("c6f2b5c0-4ea5-4b3b-8bf3-3e0d9d1a6d2b_sig_rs256");
+        header.setClaim("alg", "RS256");
+
+        assertSameSerialization(header);
+    }
+
+    @Test
+    public void toBase64Url_withTrickyStrings_shouldMatchOrgJsonSerialization() throws Exception {
+        for (String value : TRICKY_STRINGS) {
+            JwtClaims claims = new JwtClaims();
+            claims.setClaim(value.isEmpty() ? "empty" : value, value);
+            claims.setClaim("list", Lists.newArrayList(value, "x"));
+
+            assertSameSerialization(claims);
+        }
+    }
+
+    @Test
+    public void toBase64Url_withRandomClaims_shouldMatchOrgJsonSerialization() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            JwtClaims claims = new JwtClaims();
+            int count = random.nextInt(40);
+            for (int j = 0; j < count; j++) {
+                String key = "claim_" + Integer.toHexString(random.nextInt());
+                switch (random.nextInt(6)) {
+                    case 0:
+                        claims.setClaim(key, TRICKY_STRINGS[random.nextInt(TRICKY_STRINGS.length)]);
+                        break;
+                    case 1:
+                        claims.setClaim(key, random.nextLong());
+                        break;
+                    case 2:
+                        claims.getClaims().put(key, random.nextDouble() * 1000);
+                        break;
+                    case 3:
+                        claims.setClaim(key, random.nextBoolean());
+                        break;
+                    case 4:
+                        claims.setClaim(key, new Date(random.nextInt(Integer.MAX_VALUE) * 1000L));
+                        break;
+                    default:
+                        claims.setClaim(key, Lists.newArrayList(UUID.randomUUID().toString(), "b"));
+                }
+            }
+            assertSameSerialization(claims);
+        }
+    }
+
+    @Test
+    public void toBase64Url_withSubClaimObject_shouldMatchOrgJsonSerialization() throws Exception {
+        Map<String, String> map = new HashMap<>();
+        map.put("name", "value");
+        map.put("url", "https://example.com/");
+        JwtSubClaimObject subClaimObject = JwtSubClaimObject.fromMap(map);
+        subClaimObject.setName("sub_claims");
+
+        JwtClaims claims = new JwtClaims();
+        claims.setIssuer("https://op.example.com");
+        claims.setClaim("sub_claims", subClaimObject);
+
+        assertSameSerialization(claims);
+    }
+
+    @Test
+    public void toBase64Url_withEscapedBackslashBeforeSlash_shouldFallbackToOrgJson() throws Exception {
+        JwtClaims claims = new JwtClaims();
+        claims.setClaim("path", "a\\/b");
+
+        assertNull(JwtClaimSetWriter.toBase64Url(claims));
+        assertEquals(claims.toBase64JsonObject(), legacy(claims));
+    }
+
+    @Test
+    public void toBase64Url_withSurrogatePair_shouldFallbackToOrgJson() throws Exception {
+        JwtClaims claims = new JwtClaims();
+        claims.setClaim("name", "smile \ud83d\ude00");
+
+        assertNull(JwtClaimSetWriter.toBase64Url(claims));
+        assertEquals(claims.toBase64JsonObject(), legacy(claims));
+    }
+
+    @Test
+    public void signingInput_shouldMatchConcatenatedParts() throws Exception {
+        Jwt jwt = new Jwt();
+        jwt.getHeader().setType(JwtType.JWT);
+        jwt.getHeader().setKeyId("kid1");
+        jwt.getClaims().setIssuer("https://op.example.com");
+        jwt.getClaims().setClaim("scope", Lists.newArrayList("openid", "profile"));
+
+        assertEquals(new String(jwt.getSigningInputBytes(), StandardCharsets.US_ASCII),
+                legacy(jwt.getHeader()) + "." + legacy(jwt.getClaims()));
+    }
+
+    @Test
+    public void encode_shouldMatchBase64Util() {
+        Random random = new Random(7);
+        for (int length = 0; length < 70; length++) {
+            byte[] input = new byte[length];
+            random.nextBytes(input);
+
+            String expected = length == 0 ? "" : Base64Util.base64urlencode(input);
+            byte[] out = new byte[expected.length()];
+            JwtClaimSetWriter.encode(input, length, out, 0);
+            assertEquals(new String(out, StandardCharsets.US_ASCII), expected);
+        }
+    }
+
+    private static void assertSameSerialization(JwtClaimSet claimSet) throws Exception {
+        byte[] streamed = JwtClaimSetWriter.toBase64Url(claimSet);
+        assertNotNull(streamed);
+        assertEquals(new String(streamed, StandardCharsets.US_ASCII), legacy(claimSet));
+    }
+
+    private static String legacy(JwtClaimSet claimSet) throws Exception {
+        return Base64Util.base64urlencode(claimSet.toJsonString().getBytes(StandardCharsets.UTF_8));
+    }
+}
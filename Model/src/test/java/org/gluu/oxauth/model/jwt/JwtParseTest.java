@@ -0,0 +1,153 @@
+package org.gluu.oxauth.model.jwt;
+
+import org.gluu.oxauth.model.exception.InvalidJwtException;
+import org.gluu.oxauth.model.util.Base64Util;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class JwtParseTest {
+
+    private static final String HEADER = encode("{\"alg\":\"RS256\",\"kid\":\"kid1\",\"typ\":\"JWT\"}");
+    private static final String CLAIMS = encode("{\"iss\":\"https://op.example.com\",\"aud\":[\"a\",\"b\"],\"exp\":1600000000,\"nested\":{\"x\":[1,2.5e3,true,null]}}");
+
+    @Test
+    public void parse_withSignedJwt_shouldReturnSegmentsAndClaims() throws Exception {
+        Jwt jwt = Jwt.parse(HEADER + "." + CLAIMS + ".c2lnbmF0dXJl");
+
+        assertNotNull(jwt);
+        assertEquals(jwt.getSigningInput(), HEADER + "." + CLAIMS);
+        assertEquals(jwt.getEncodedSignature(), "c2lnbmF0dXJl");
+        assertEquals(jwt.getHeader().getKeyId(), "kid1");
+        assertEquals(jwt.getClaims().getClaimAsString("iss"), "https://op.example.com");
+        assertEquals(jwt.getClaims().getClaimAsStringList("aud").size(), 2);
+        assertEquals(jwt.toString(), HEADER + "." + CLAIMS + ".c2lnbmF0dXJl");
+    }
+
+    @Test
+    public void parse_withUnsignedJwt_shouldHaveEmptySignature() throws Exception {
+        assertEquals(Jwt.parse(HEADER + "." + CLAIMS).getEncodedSignature(), "");
+        assertEquals(Jwt.parse(HEADER + "." + CLAIMS + ".").getEncodedSignature(), "");
+    }
+
+    @Test
+    public void parse_withBlankValue_shouldReturnNull() throws Exception {
+        assertNull(Jwt.parse(null));
+        assertNull(Jwt.parse(" "));
+    }
+
+    @Test
+    public void parse_withSetClaimsAfterParse_shouldUseNewClaims() throws Exception {
+        Jwt jwt = Jwt.parse(HEADER + "." + CLAIMS + ".c2lnbmF0dXJl");
+        jwt.setClaims(new JwtClaims());
+
+        assertNull(jwt.getClaims().getClaimAsString("iss"));
+    }
+
+    @Test
+    public void parse_withInvalidValues_shouldThrowInvalidJwtException() {
+        String[] invalid = {
+                "abc",
+                HEADER + "." + CLAIMS + ".sig.extra",
+                "." + CLAIMS + ".sig",
+                HEADER + "..sig",
+                HEADER + " ." + CLAIMS + ".sig",
+                HEADER + "." + CLAIMS + ".si g",
+                HEADER + "." + encode("[1,2]") + ".sig",
+                HEADER + "." + encode("{\"a\":}") + ".sig",
+                HEADER + "." + encode("{\"a\":1} x") + ".sig",
+                encode("not json") + "." + CLAIMS + ".sig"
+        };
+        for (String value : invalid) {
+            try {
+                Jwt.parse(value);
+                fail("Expected InvalidJwtException for " + value);
+            } catch (InvalidJwtException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void parse_withDuplicateKeys_shouldThrowInvalidJwtException() {
+        String[] invalid = {
+                encode("{\"alg\":\"RS256\",\"alg\":\"none\"}") + "." + CLAIMS + ".sig",
+                HEADER + "." + encode("{\"sub\":\"a\",\"sub\":\"b\"}") + ".sig",
+                HEADER + "." + encode("{\"nested\":{\"x\":1,\"x\":2}}") + ".sig",
+                HEADER + "." + encode("{\"sub\":\"a\",\"s\\u0075b\":\"b\"}") + ".sig"
+        };
+        for (String value : invalid) {
+            try {
+                Jwt.parse(value);
+                fail("Expected InvalidJwtException for " + value);
+            } catch (InvalidJwtException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void isObject_shouldAcceptValidJsonObjects() {
+        assertTrue(isObject("{}"));
+        assertTrue(isObject(" { \"a\" : \"b\\\"\\u00e9\\n\" , \"c\":[ -1.5E+3 , 0, {}, [] ], \"d\":false } "));
+        assertTrue(isObject("{\"a\":\"\u00fcn\u00efc\u00f6d\u00e9\"}"));
+    }
+
+    @Test
+    public void isObject_shouldRejectInvalidJson() {
+        assertFalse(isObject(""));
+        assertFalse(isObject("[]"));
+        assertFalse(isObject("{"));
+        assertFalse(isObject("{\"a\"}"));
+        assertFalse(isObject("{\"a\":1,}"));
+        assertFalse(isObject("{\"a\":tru}"));
+        assertFalse(isObject("{\"a\":\"\\x\"}"));
+        assertFalse(isObject("{\"a\":1.}"));
+        assertFalse(isObject("{\"a\":-}"));
+        assertFalse(isObject("{a:1}"));
+        assertFalse(isObject("{}{}"));
+    }
+
+    @Test
+    public void isObject_shouldRejectDuplicateKeysOnlyWithinSameObject() {
+        assertTrue(isObject("{\"a\":{\"a\":1},\"b\":[{\"a\":1},{\"a\":2}],\"c\\n\":1,\"c\":2}"));
+        assertFalse(isObject("{\"a\":1,\"b\":2,\"a\":3}"));
+        assertFalse(isObject("{\"a\\/\":1,\"a/\":2}"));
+        assertFalse(isObject("{\"b\":[{\"a\":1,\"a\":2}]}"));
+    }
+
+    @Test
+    public void parse_shouldMaterializeHeaderAndClaimsOnFirstAccess() throws Exception {
+        Jwt jwt = Jwt.parse(HEADER + "." + CLAIMS + ".c2lnbmF0dXJl");
+
+        assertSame(jwt.getHeader(), jwt.getHeader());
+        assertSame(jwt.getClaims(), jwt.getClaims());
+    }
+
+    @Test
+    public void isObject_withTooDeepNesting_shouldReject() {
+        StringBuilder json = new StringBuilder("{\"a\":");
+        for (int i = 0; i < JsonObjectScanner.MAX_DEPTH + 1; i++) {
+            json.append('[');
+        }
+        for (int i = 0; i < JsonObjectScanner.MAX_DEPTH + 1; i++) {
+            json.append(']');
+        }
+        json.append('}');
+
+        assertFalse(isObject(json.toString()));
+    }
+
+    private static boolean isObject(String json) {
+        return JsonObjectScanner.isObject(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encode(String json) {
+        return Base64Util.base64urlencode(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
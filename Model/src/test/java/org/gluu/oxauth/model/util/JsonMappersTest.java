@@ -0,0 +1,96 @@
+package org.gluu.oxauth.model.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.gluu.oxauth.model.common.IntrospectionResponse;
+import org.gluu.oxauth.model.uma.JsonLogicNode;
+import org.gluu.oxauth.model.uma.UmaPermission;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class JsonMappersTest {
+
+    @Test
+    public void writer_shouldProduceSameJsonAsCreatedMapper() throws Exception {
+        final UmaPermission permission = permission();
+
+        final ObjectMapper mapper = Util.createJsonMapper().configure(SerializationFeature.WRAP_ROOT_VALUE, false);
+        assertEquals(JsonMappers.writer().writeValueAsString(permission), mapper.writeValueAsString(permission));
+        assertEquals(JsonMappers.prettyWriter().writeValueAsString(permission), mapper.writerWithDefaultPrettyPrinter().writeValueAsString(permission));
+    }
+
+    @Test
+    public void nonEmptyWriter_shouldProduceSameJsonAsCreatedMapper() throws Exception {
+        final UmaPermission permission = permission();
+        permission.setScopes(null);
+
+        final ObjectMapper mapper = Util.createJsonMapper().configure(SerializationFeature.WRAP_ROOT_VALUE, false);
+        mapper.setDefaultPropertyInclusion(Include.NON_EMPTY);
+        assertEquals(JsonMappers.nonEmptyWriter().writeValueAsString(permission), mapper.writeValueAsString(permission));
+        assertEquals(Util.asJson(permission), mapper.writeValueAsString(permission));
+        assertFalse(Util.asJson(permission).contains("scopes"));
+    }
+
+    @Test
+    public void reader_shouldBeCachedPerType() throws Exception {
+        assertSame(JsonMappers.reader(UmaPermission.class), JsonMappers.reader(UmaPermission.class));
+        assertNotSame(JsonMappers.reader(UmaPermission.class), JsonMappers.reader(JsonLogicNode.class));
+
+        final UmaPermission permission = JsonMappers.reader(UmaPermission.class).readValue(JsonMappers.writer().writeValueAsString(permission()));
+        assertEquals(permission.getResourceId(), "resource-1");
+        assertEquals(permission.getScopes(), Arrays.asList("read", "write"));
+    }
+
+    @Test
+    public void treeReader_shouldReadTree() throws Exception {
+        assertEquals(JsonMappers.treeReader().readTree("{\"typ\":\"navigator.id.finishEnrollment\"}").get("typ").asText(), "navigator.id.finishEnrollment");
+    }
+
+    @Test
+    public void streamWriter_shouldNotCloseTargetStream() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        JsonMappers.streamWriter().writeValue(output, permission());
+        try (JsonGenerator generator = JsonMappers.createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeEndObject();
+        }
+
+        assertFalse(closed.get());
+        assertEquals(output.toString("UTF-8"), JsonMappers.writer().writeValueAsString(permission()) + "{}");
+    }
+
+    @Test
+    public void introspectionResponse_shouldSkipCnfIfNotSet() throws Exception {
+        final IntrospectionResponse response = new IntrospectionResponse(true);
+        assertFalse(JsonMappers.writer().writeValueAsString(response).contains("cnf"));
+
+        response.setCnf(Collections.singletonMap("x5t#S256", "hash"));
+        final String json = JsonMappers.writer().writeValueAsString(response);
+        assertEquals(JsonMappers.reader(IntrospectionResponse.class).<IntrospectionResponse>readValue(json).getCnf().get("x5t#S256"), "hash");
+    }
+
+    private static UmaPermission permission() {
+        final UmaPermission permission = new UmaPermission();
+        permission.setResourceId("resource-1");
+        permission.setScopes(Arrays.asList("read", "write"));
+        return permission;
+    }
+}
@@ -5,7 +5,6 @@
 #
 
 from java.util import Arrays
-from org.apache.http.params import CoreConnectionPNames
 from org.gluu.service.cdi.util import CdiUtil
 from org.gluu.oxauth.security import Identity
 from org.gluu.model.custom.script.type.auth import PersonAuthenticationType
@@ -111,9 +110,7 @@ class PersonAuthentication(PersonAuthenticationType):
     def determineGeolocationData(self, remote_ip):
         print "Super-Gluu. Determine remote location. remote_ip: '%s'" % remote_ip
         httpService = CdiUtil.bean(HttpService)
-        http_client = httpService.getHttpsClient()
-        http_client_params = http_client.getParams()
-        http_client_params.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, 15 * 1000)
+        http_client = httpService.getHttpsClient(15 * 1000)
         geolocation_service_url = "http://ip-api.com/json/%s?fields=520191" % remote_ip
         geolocation_service_headers = { "Accept" : "application/json" }
         try:
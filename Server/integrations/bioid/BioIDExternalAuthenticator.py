@@ -204,7 +204,6 @@ class PersonAuthentication(PersonAuthenticationType):
         httpService = CdiUtil.bean(HttpService)
 
         http_client = httpService.getHttpsClient()
-        http_client_params = http_client.getParams()
 
         bioID_service_url = self.ENDPOINT + "token?id="+self.APP_IDENTIFIER+"&bcid="+bcid+"&task="+forTask+"&livedetection=true"
         encodedString = base64.b64encode((self.APP_IDENTIFIER+":"+self.APP_SECRET).encode('utf-8'))
@@ -234,7 +233,6 @@ class PersonAuthentication(PersonAuthenticationType):
         httpService = CdiUtil.bean(HttpService)
 
         http_client = httpService.getHttpsClient()
-        http_client_params = http_client.getParams()
 
         bioID_service_url = self.ENDPOINT + "isenrolled?bcid="+bcid+"&trait=Face"
         print "BioID. isenrolled URL - %s" %bioID_service_url
@@ -285,7 +283,6 @@ class PersonAuthentication(PersonAuthenticationType):
     def performBiometricOperation(self, token, task):
         httpService = CdiUtil.bean(HttpService)
         http_client = httpService.getHttpsClient()
-        http_client_params = http_client.getParams()
         bioID_service_url = self.ENDPOINT + task+"?livedetection=true"
         bioID_service_headers = {"Authorization": "Bearer "+token}
 
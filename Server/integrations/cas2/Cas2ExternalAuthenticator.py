@@ -8,7 +8,6 @@ import sys
 from java.util import Arrays
 from java.util import HashMap
 from javax.faces.context import FacesContext
-from org.apache.http.params import CoreConnectionPNames
 from org.gluu.model.custom.script.type.auth import PersonAuthenticationType
 from org.gluu.oxauth.security import Identity
 from org.gluu.oxauth.service import UserService, AuthenticationService, RequestParameterService
@@ -57,9 +56,7 @@ class PersonAuthentication(PersonAuthenticationType):
     
             httpService = CdiUtil.bean(HttpService)
     
-            self.http_client = httpService.getHttpsClient()
-            self.http_client_params = self.http_client.getParams()
-            self.http_client_params.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, cas_validation_timeout)
+            self.http_client = httpService.getHttpsClient(cas_validation_timeout)
 
         self.cas_alt_auth_mode = None
         if configurationAttributes.containsKey("cas_alt_auth_mode"):
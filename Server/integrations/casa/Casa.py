@@ -3,7 +3,6 @@
 from java.util import Collections, HashMap, HashSet, ArrayList, Arrays, Date
 from java.nio.charset import Charset
 
-from org.apache.http.params import CoreConnectionPNames
 
 from org.oxauth.persistence.model.configuration import GluuConfiguration
 from org.gluu.oxauth.security import Identity
@@ -621,9 +620,7 @@ class PersonAuthentication(PersonAuthenticationType):
 
                 httpService = CdiUtil.bean(HttpService)
 
-                http_client = httpService.getHttpsClient()
-                http_client_params = http_client.getParams()
-                http_client_params.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, 4 * 1000)
+                http_client = httpService.getHttpsClient(4 * 1000)
 
                 geolocation_service_url = "http://ip-api.com/json/%s?fields=country,city,status,message" % remote_ip
                 geolocation_service_headers = { "Accept" : "application/json" }
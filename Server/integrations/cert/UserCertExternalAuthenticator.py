@@ -21,7 +21,6 @@ from org.gluu.oxauth.cert.validation.model import ValidationStatus
 from org.gluu.oxauth.util import CertUtil
 from org.gluu.oxauth.model.util import CertUtils
 from org.gluu.oxauth.service.net import HttpService
-from org.apache.http.params import CoreConnectionPNames
 
 import sys
 import base64
@@ -439,9 +438,7 @@ class PersonAuthentication(PersonAuthenticationType):
 
         httpService = CdiUtil.bean(HttpService)
 
-        http_client = httpService.getHttpsClient()
-        http_client_params = http_client.getParams()
-        http_client_params.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, 15 * 1000)
+        http_client = httpService.getHttpsClient(15 * 1000)
         
         recaptcha_validation_url = "https://www.google.com/recaptcha/api/siteverify"
         recaptcha_validation_request = urllib.urlencode({ "secret" : self.recaptcha_creds['secret_key'], "response" : recaptcha_response, "remoteip" : remoteip })
@@ -404,6 +404,7 @@ class PersonAuthentication(PersonAuthenticationType):
 
         # provider is assumed to exist in self.registeredProviders
         url = None
+        resultResponse = None
         try:
             facesContext = CdiUtil.bean(FacesContext)
             tokenEndpoint = "https://%s/passport/token" % facesContext.getExternalContext().getRequest().getServerName()
@@ -423,6 +424,10 @@ class PersonAuthentication(PersonAuthenticationType):
             url = "/passport/auth/%s/%s" % (provider, tokenObj["token_"])
         except:
             print "Passport. getPassportRedirectUrl. Error building redirect URL: ", sys.exc_info()[1]
+        finally:
+            # Release pooled connection whatever the response status is
+            if resultResponse != None:
+                resultResponse.closeConnection()
 
         return url
 
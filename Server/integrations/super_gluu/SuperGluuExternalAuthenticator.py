@@ -7,7 +7,6 @@
 from com.google.android.gcm.server import Sender, Message
 from com.notnoop.apns import APNS
 from java.util import Arrays
-from org.apache.http.params import CoreConnectionPNames
 from org.gluu.service.cdi.util import CdiUtil
 from org.gluu.oxauth.security import Identity
 from org.gluu.model.custom.script.type.auth import PersonAuthenticationType
@@ -1010,9 +1009,7 @@ class PersonAuthentication(PersonAuthenticationType):
         print "Super-Gluu. Determine remote location. remote_ip: '%s'" % remote_ip
         httpService = CdiUtil.bean(HttpService)
 
-        http_client = httpService.getHttpsClient()
-        http_client_params = http_client.getParams()
-        http_client_params.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, 15 * 1000)
+        http_client = httpService.getHttpsClient(15 * 1000)
         
         geolocation_service_url = "http://ip-api.com/json/%s?fields=49177" % remote_ip
         geolocation_service_headers = { "Accept" : "application/json" }
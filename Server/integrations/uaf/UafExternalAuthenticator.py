@@ -24,7 +24,6 @@ from org.gluu.oxauth.model.config import Constants
 from javax.ws.rs.core import Response
 from java.util import Arrays
 from org.gluu.oxauth.service.net import HttpService
-from org.apache.http.params import CoreConnectionPNames
 
 import sys
 import java
@@ -61,9 +60,7 @@ class PersonAuthentication(PersonAuthenticationType):
 
         print "UAF. Initializing HTTP client"
         httpService = CdiUtil.bean(HttpService)
-        self.http_client = httpService.getHttpsClient()
-        http_client_params = self.http_client.getParams()
-        http_client_params.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, 15 * 1000)
+        self.http_client = httpService.getHttpsClient(15 * 1000)
 
         print "UAF. Initialized successfully. uaf_server_uri: '%s', uaf_policy_name: '%s', send_push_notifaction: '%s', registration_uri: '%s', qr_options: '%s'" % (self.uaf_server_uri, self.uaf_policy_name, self.send_push_notifaction, self.registration_uri, self.customQrOptions)
         
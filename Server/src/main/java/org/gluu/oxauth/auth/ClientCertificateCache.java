@@ -0,0 +1,154 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.auth;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang.StringUtils;
+import org.gluu.oxauth.model.util.CertUtils;
+
+import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of client certificates presented for mTLS client authentication.
+ * <p>
+ * Entries are keyed by SHA-256 of raw `X-ClientCert` header value, so repeated calls with the same certificate do
+ * not parse PEM. Entry keeps parsed certificate, CN, subject DN and result of `self_signed_tls_client_auth` key
+ * matching per client together with jwks it was matched against. Match is valid only while client jwks (or content
+ * of jwks_uri) is the same.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class ClientCertificateCache {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final Cache<String, CertificateEntry> certificates;
+    private final Cache<String, String> jwksByUri;
+    private final int jwksUriLifetimeInSeconds;
+
+    public ClientCertificateCache(int maxSize, int jwksUriLifetimeInSeconds) {
+        this.jwksUriLifetimeInSeconds = jwksUriLifetimeInSeconds;
+        this.certificates = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        this.jwksByUri = jwksUriLifetimeInSeconds > 0
+                ? CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(jwksUriLifetimeInSeconds, TimeUnit.SECONDS).<String, String>build()
+                : null;
+    }
+
+    public int getJwksUriLifetimeInSeconds() {
+        return jwksUriLifetimeInSeconds;
+    }
+
+    /**
+     * @param certificateAsPem value of `X-ClientCert` header
+     * @return certificate entry or null if certificate can't be parsed
+     */
+    public CertificateEntry getCertificate(String certificateAsPem) {
+        final String key = DigestUtils.sha256Hex(certificateAsPem);
+        CertificateEntry entry = certificates.getIfPresent(key);
+        if (entry != null) {
+            return entry;
+        }
+
+        final X509Certificate cert = CertUtils.x509CertificateFromPem(certificateAsPem);
+        if (cert == null) {
+            return null;
+        }
+        entry = new CertificateEntry(cert, CertUtils.getCN(cert), cert.getSubjectDN().getName());
+        certificates.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Returns content of jwks_uri, cached for jwks uri lifetime (if lifetime is not positive it is loaded each time).
+     *
+     * @param jwksUri jwks uri
+     * @param loader  loads jwks content, may return null
+     * @return jwks content or null
+     */
+    public String getJwksByUri(String jwksUri, Function<String, String> loader) {
+        if (StringUtils.isBlank(jwksUri)) {
+            return null;
+        }
+        if (jwksByUri == null) {
+            return loader.apply(jwksUri);
+        }
+        String jwks = jwksByUri.getIfPresent(jwksUri);
+        if (jwks == null) {
+            jwks = loader.apply(jwksUri);
+            if (jwks != null) {
+                jwksByUri.put(jwksUri, jwks);
+            }
+        }
+        return jwks;
+    }
+
+    public long size() {
+        return certificates.size();
+    }
+
+    public static class CertificateEntry {
+
+        private final X509Certificate certificate;
+        private final String cn;
+        private final String subjectDn;
+        private final byte[] encodedPublicKey;
+        private final Map<String, KeyMatch> matches = new ConcurrentHashMap<>(); // clientId -> matched key
+
+        public CertificateEntry(X509Certificate certificate, String cn, String subjectDn) {
+            this.certificate = certificate;
+            this.cn = cn;
+            this.subjectDn = subjectDn;
+            this.encodedPublicKey = certificate.getPublicKey().getEncoded();
+        }
+
+        public X509Certificate getCertificate() {
+            return certificate;
+        }
+
+        public String getCn() {
+            return cn;
+        }
+
+        public String getSubjectDn() {
+            return subjectDn;
+        }
+
+        public byte[] getEncodedPublicKey() {
+            return encodedPublicKey;
+        }
+
+        /**
+         * @return kid of client key which matches certificate public key, or null if match is not known or jwks was
+         * changed since match
+         */
+        public String getMatchedKid(String clientId, String jwks) {
+            final KeyMatch match = matches.get(clientId);
+            return match != null && match.jwks.equals(jwks) ? match.kid : null;
+        }
+
+        public void setMatchedKid(String clientId, String jwks, String kid) {
+            matches.put(clientId, new KeyMatch(kid, jwks));
+        }
+    }
+
+    private static class KeyMatch {
+
+        private final String kid;
+        private final String jwks;
+
+        private KeyMatch(String kid, String jwks) {
+            this.kid = kid;
+            this.jwks = jwks;
+        }
+    }
+}
@@ -3,25 +3,29 @@ package org.gluu.oxauth.auth;
 import com.google.common.base.Strings;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
+import org.gluu.oxauth.auth.ClientCertificateCache.CertificateEntry;
 import org.gluu.oxauth.model.authorize.AuthorizeRequestParam;
 import org.gluu.oxauth.model.common.AuthenticationMethod;
 import org.gluu.oxauth.model.common.Prompt;
 import org.gluu.oxauth.model.common.SessionId;
 import org.gluu.oxauth.model.common.SessionIdState;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.model.crypto.AbstractCryptoProvider;
 import org.gluu.oxauth.model.error.ErrorResponseFactory;
 import org.gluu.oxauth.model.jwk.JSONWebKey;
 import org.gluu.oxauth.model.jwk.JSONWebKeySet;
 import org.gluu.oxauth.model.registration.Client;
 import org.gluu.oxauth.model.token.TokenErrorResponseType;
-import org.gluu.oxauth.model.util.CertUtils;
 import org.gluu.oxauth.model.util.JwtUtil;
 import org.gluu.oxauth.service.SessionIdService;
+import org.gluu.service.cdi.event.ConfigurationUpdate;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 
+import javax.annotation.PostConstruct;
 import javax.ejb.DependsOn;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.servlet.FilterChain;
@@ -30,7 +34,6 @@ import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 import java.security.PublicKey;
-import java.security.cert.X509Certificate;
 import java.util.List;
 
 /**
@@ -56,6 +59,24 @@ public class MTLSService {
     @Inject
     private ErrorResponseFactory errorResponseFactory;
 
+    @Inject
+    private AppConfiguration appConfiguration;
+
+    private volatile ClientCertificateCache certificateCache;
+
+    @PostConstruct
+    public void init() {
+        updateConfiguration(appConfiguration);
+    }
+
+    public void updateConfiguration(@Observes @ConfigurationUpdate AppConfiguration appConfiguration) {
+        final int lifetime = appConfiguration.getMtlsJwksUriCacheLifetimeInSeconds();
+        if (certificateCache == null || certificateCache.getJwksUriLifetimeInSeconds() != lifetime) {
+            // cache is re-created only if lifetime is changed, otherwise parsed certificates are kept
+            certificateCache = new ClientCertificateCache(ClientCertificateCache.DEFAULT_MAX_SIZE, lifetime);
+        }
+    }
+
     public boolean processMTLS(HttpServletRequest httpRequest, HttpServletResponse httpResponse, FilterChain filterChain, Client client) throws Exception {
         log.debug("Trying to authenticate client {} via {} ...", client.getClientId(),
                 client.getAuthenticationMethod());
@@ -66,12 +87,12 @@ public class MTLSService {
             return false;
         }
 
-        X509Certificate cert = CertUtils.x509CertificateFromPem(clientCertAsPem);
-        if (cert == null) {
+        final CertificateEntry certificate = certificateCache.getCertificate(clientCertAsPem);
+        if (certificate == null) {
             log.debug("Failed to parse client certificate, client_id: {}.", client.getClientId());
             return false;
         }
-        final String cn = CertUtils.getCN(cert);
+        final String cn = certificate.getCn();
         if (!cn.equals(client.getClientId())) {
             log.error("Client certificate CN does not match clientId. Reject call, CN: " + cn + ", clientId: " + client.getClientId());
             throw new WebApplicationException(Response.status(Response.Status.UNAUTHORIZED).entity(errorResponseFactory.getErrorAsJson(TokenErrorResponseType.INVALID_CLIENT, httpRequest.getParameter("state"), "")).build());
@@ -89,7 +110,7 @@ public class MTLSService {
 
             // we check only `subjectDn`, the PKI certificate validation is performed by
             // apache/httpd
-            if (subjectDn.equals(cert.getSubjectDN().getName())) {
+            if (subjectDn.equals(certificate.getSubjectDn())) {
                 log.debug("Client {} authenticated via `tls_client_auth`.", client.getClientId());
                 authenticatedSuccessfully(client, httpRequest);
 
@@ -99,35 +120,52 @@ public class MTLSService {
         }
 
         if (client.getAuthenticationMethod() == AuthenticationMethod.SELF_SIGNED_TLS_CLIENT_AUTH) { // disable it
-            final PublicKey publicKey = cert.getPublicKey();
-            final byte[] encodedKey = publicKey.getEncoded();
-
-            JSONObject jsonWebKeys = Strings.isNullOrEmpty(client.getJwks())
-                    ? JwtUtil.getJSONWebKeys(client.getJwksUri())
-                    : new JSONObject(client.getJwks());
+            final String jwks = Strings.isNullOrEmpty(client.getJwks())
+                    ? certificateCache.getJwksByUri(client.getJwksUri(), this::loadJwks)
+                    : client.getJwks();
 
-            if (jsonWebKeys == null) {
+            if (jwks == null) {
                 log.debug("Unable to load json web keys for client: {}, jwks_uri: {}, jks: {}", client.getClientId(),
                         client.getJwksUri(), client.getJwks());
                 return false;
             }
 
-            final JSONWebKeySet keySet = JSONWebKeySet.fromJSONObject(jsonWebKeys);
-            for (JSONWebKey key : keySet.getKeys()) {
-                if (ArrayUtils.isEquals(encodedKey,
-                        cryptoProvider.getPublicKey(key.getKid(), jsonWebKeys, null).getEncoded())) {
-                    log.debug("Client {} authenticated via `self_signed_tls_client_auth`, matched kid: {}.",
-                            client.getClientId(), key.getKid());
-                    authenticatedSuccessfully(client, httpRequest);
-
-                    filterChain.doFilter(httpRequest, httpResponse);
-                    return true;
+            String matchedKid = certificate.getMatchedKid(client.getClientId(), jwks);
+            if (matchedKid == null) {
+                matchedKid = findMatchingKid(certificate.getEncodedPublicKey(), new JSONObject(jwks));
+                if (matchedKid != null) {
+                    certificate.setMatchedKid(client.getClientId(), jwks, matchedKid);
                 }
             }
+
+            if (matchedKid != null) {
+                log.debug("Client {} authenticated via `self_signed_tls_client_auth`, matched kid: {}.",
+                        client.getClientId(), matchedKid);
+                authenticatedSuccessfully(client, httpRequest);
+
+                filterChain.doFilter(httpRequest, httpResponse);
+                return true;
+            }
         }
         return false;
     }
 
+    private String findMatchingKid(byte[] encodedKey, JSONObject jsonWebKeys) throws Exception {
+        final JSONWebKeySet keySet = JSONWebKeySet.fromJSONObject(jsonWebKeys);
+        for (JSONWebKey key : keySet.getKeys()) {
+            final PublicKey publicKey = cryptoProvider.getPublicKey(key.getKid(), jsonWebKeys, null);
+            if (publicKey != null && ArrayUtils.isEquals(encodedKey, publicKey.getEncoded())) {
+                return StringUtils.defaultString(key.getKid()); // not null means matched
+            }
+        }
+        return null;
+    }
+
+    private String loadJwks(String jwksUri) {
+        final JSONObject jsonWebKeys = JwtUtil.getJSONWebKeys(jwksUri);
+        return jsonWebKeys != null ? jsonWebKeys.toString() : null;
+    }
+
     private void authenticatedSuccessfully(Client client, HttpServletRequest httpRequest) {
         authenticator.configureSessionClient(client);
 
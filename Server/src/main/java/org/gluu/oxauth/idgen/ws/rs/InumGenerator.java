@@ -6,6 +6,7 @@
 
 package org.gluu.oxauth.idgen.ws.rs;
 
+import java.security.SecureRandom;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -23,9 +24,13 @@ import org.gluu.util.INumGenerator;
 import org.slf4j.Logger;
 import org.gluu.oxauth.model.config.BaseDnConfiguration;
 import org.gluu.oxauth.model.config.StaticConfiguration;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
 
 /**
- * Inum ID generator. Generates inum: e.g. @!1111!0001!1234.
+ * Inum ID generator. Generates inum: e.g. @!1111!0001!1A2B.3C4D.5E6F.7A8B.9C0D.1E2F.3A4B.5C6D.
+ * <p>
+ * By default random part has 128 bits (from secure random), so inum is not checked for uniqueness with persistence
+ * search. If idGenerationUniquenessCheck is enabled, shorter inum is generated and checked as before.
  *
  * @author Yuriy Zabrovarnyy
  * @version 0.9, 26/06/2013
@@ -37,6 +42,9 @@ public class InumGenerator {
     public static final String SEPARATOR = "!";
 
     private static final int MAX = 100;
+    private static final int RANDOM_PART_BLOCKS = 8;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final SecureRandom RANDOM = new SecureRandom();
 
 	private final Pattern baseRdnPattern = Pattern.compile(".+o=([\\w\\!\\@\\.]+)$");
 
@@ -48,6 +56,9 @@ public class InumGenerator {
     @Inject
     private StaticConfiguration staticConfiguration;
 
+    @Inject
+    private AppConfiguration appConfiguration;
+
     public String generateId(String p_idType, String p_idPrefix) {
         final IdType idType = IdType.fromString(p_idType);
         if (idType != null) {
@@ -59,24 +70,28 @@ public class InumGenerator {
     }
 
     public String generateId(IdType p_idType, String p_idPrefix) {
+        if (appConfiguration.getIdGenerationUniquenessCheck()) {
+            return generateCheckedId(p_idType, p_idPrefix);
+        }
+
+        // 128 random bits: collision is negligible, uniqueness is enforced by persistence layer on add
+        final String inum = buildInum(p_idType, p_idPrefix, generateRandomPart(RANDOM_PART_BLOCKS));
+        log.trace("Generated inum: {}", inum);
+        return inum;
+    }
+
+    private String generateCheckedId(IdType p_idType, String p_idPrefix) {
         String inum;
         int counter = 0;
 
         try {
             while (true) {
-                final StringBuilder sb = new StringBuilder();
-                sb.append(p_idPrefix).
-                        append(InumGenerator.SEPARATOR).
-                        append(p_idType.getInum()).
-                        append(InumGenerator.SEPARATOR);
-
-                if ((IdType.CLIENTS == p_idType) || (IdType.PEOPLE == p_idType)) { 
-                	sb.append(INumGenerator.generate(4));
+                if ((IdType.CLIENTS == p_idType) || (IdType.PEOPLE == p_idType)) {
+                    inum = buildInum(p_idType, p_idPrefix, INumGenerator.generate(4));
                 } else {
-                	sb.append(INumGenerator.generate(2));
+                    inum = buildInum(p_idType, p_idPrefix, INumGenerator.generate(2));
                 }
 
-                inum = sb.toString();
                 if (StringUtils.isBlank(inum)) {
                     log.error("Unable to generate inum: {}", inum);
                     break;
@@ -101,6 +116,28 @@ public class InumGenerator {
         return inum;
     }
 
+    private static String buildInum(IdType p_idType, String p_idPrefix, String randomPart) {
+        return p_idPrefix + SEPARATOR + p_idType.getInum() + SEPARATOR + randomPart;
+    }
+
+    /**
+     * Generates random part of inum from secure random, e.g. for 2 blocks: 1A2B.3C4D (each block is 16 bits).
+     */
+    public static String generateRandomPart(int blocks) {
+        final byte[] bytes = new byte[blocks * 2];
+        RANDOM.nextBytes(bytes);
+
+        final StringBuilder sb = new StringBuilder(blocks * 5);
+        for (int i = 0; i < bytes.length; i += 2) {
+            if (i > 0) {
+                sb.append('.');
+            }
+            sb.append(HEX[(bytes[i] >> 4) & 0xF]).append(HEX[bytes[i] & 0xF])
+                    .append(HEX[(bytes[i + 1] >> 4) & 0xF]).append(HEX[bytes[i + 1] & 0xF]);
+        }
+        return sb.toString();
+    }
+
 	public boolean contains(String inum, IdType type) {
 		final String baseDn = baseDn(type);
 		final Filter filter = Filter.createEqualityFilter("inum", inum);
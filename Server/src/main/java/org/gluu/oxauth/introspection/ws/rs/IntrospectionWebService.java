@@ -14,15 +14,22 @@ import org.gluu.oxauth.model.authorize.AuthorizeErrorResponseType;
 import org.gluu.oxauth.model.common.*;
 import org.gluu.oxauth.model.config.WebKeysConfiguration;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.crypto.signature.AlgorithmFamily;
+import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
 import org.gluu.oxauth.model.error.ErrorResponseFactory;
 import org.gluu.oxauth.model.jwt.Jwt;
+import org.gluu.oxauth.model.jwt.JwtClaimName;
+import org.gluu.oxauth.model.jwt.JwtClaims;
+import org.gluu.oxauth.model.registration.Client;
 import org.gluu.oxauth.model.token.JwtSigner;
 import org.gluu.oxauth.model.uma.UmaScopeType;
 import org.gluu.oxauth.model.util.Util;
 import org.gluu.oxauth.service.AttributeService;
 import org.gluu.oxauth.service.ClientService;
+import org.gluu.oxauth.service.SigningKeySelector;
 import org.gluu.oxauth.service.external.ExternalIntrospectionService;
 import org.gluu.oxauth.service.external.context.ExternalIntrospectionContext;
+import org.gluu.oxauth.service.token.RevokedJtiService;
 import org.gluu.oxauth.service.token.TokenService;
 import org.gluu.oxauth.util.ServerUtil;
 import org.gluu.util.Pair;
@@ -40,6 +47,8 @@ import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.util.Collections;
+import java.util.Date;
 import java.util.Iterator;
 
 /**
@@ -69,6 +78,10 @@ public class IntrospectionWebService {
     private AttributeService attributeService;
     @Inject
     private WebKeysConfiguration webKeysConfiguration;
+    @Inject
+    private SigningKeySelector signingKeySelector;
+    @Inject
+    private RevokedJtiService revokedJtiService;
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
@@ -122,53 +135,160 @@ public class IntrospectionWebService {
                 return Response.status(Response.Status.UNAUTHORIZED).entity(errorResponseFactory.errorAsJson(AuthorizeErrorResponseType.ACCESS_DENIED, reason)).type(MediaType.APPLICATION_JSON_TYPE).build();
             }
 
-            final IntrospectionResponse response = new IntrospectionResponse(false);
+            if (appConfiguration.getIntrospectionJwtAccessTokenLocalValidation()) {
+                final IntrospectionResponse localResponse = introspectJwtLocally(p_token, authorizationGrant);
+                if (localResponse != null) {
+                    log.trace("JWT access token is introspected locally, active: {}", localResponse.isActive());
+                    return createResponse(localResponse, null, responseAsJwt, authorizationGrant);
+                }
+            }
+
+            IntrospectionResponse response = new IntrospectionResponse(false);
 
             final AuthorizationGrant grantOfIntrospectionToken = authorizationGrantList.getAuthorizationGrantByAccessToken(p_token);
 
-            AbstractToken tokenToIntrospect = null;
             if (grantOfIntrospectionToken != null) {
-                tokenToIntrospect = grantOfIntrospectionToken.getAccessToken(p_token);
-
-                response.setActive(tokenToIntrospect.isValid());
-                response.setExpiresAt(ServerUtil.dateToSeconds(tokenToIntrospect.getExpirationDate()));
-                response.setIssuedAt(ServerUtil.dateToSeconds(tokenToIntrospect.getCreationDate()));
-                response.setAcrValues(grantOfIntrospectionToken.getAcrValues());
-                response.setScope(grantOfIntrospectionToken.getScopes() != null ? grantOfIntrospectionToken.getScopes() : Lists.newArrayList()); // #433
-                response.setClientId(grantOfIntrospectionToken.getClientId());
-                response.setSub(grantOfIntrospectionToken.getSub());
-                response.setUsername(grantOfIntrospectionToken.getUserId());
-                response.setIssuer(appConfiguration.getIssuer());
-                response.setAudience(grantOfIntrospectionToken.getClientId());
-
-                if (tokenToIntrospect instanceof AccessToken) {
-                    AccessToken accessToken = (AccessToken) tokenToIntrospect;
-                    response.setTokenType(accessToken.getTokenType() != null ? accessToken.getTokenType().getName() : TokenType.BEARER.getName());
-                }
+                response = createResponse(grantOfIntrospectionToken, grantOfIntrospectionToken.getAccessToken(p_token), appConfiguration.getIssuer());
             } else {
                 log.debug("Failed to find grant for access_token: " + p_token + ". Return 200 with active=false.");
             }
-            JSONObject responseAsJsonObject = createResponseAsJsonObject(response, tokenToIntrospect);
 
             ExternalIntrospectionContext context = new ExternalIntrospectionContext(authorizationGrant, httpRequest, httpResponse, appConfiguration, attributeService);
             context.setGrantOfIntrospectionToken(grantOfIntrospectionToken);
-            if (externalIntrospectionService.executeExternalModifyResponse(responseAsJsonObject, context)) {
-                log.trace("Successfully run extenal introspection scripts.");
-            } else {
-                responseAsJsonObject = createResponseAsJsonObject(response, tokenToIntrospect);
-                log.trace("Canceled changes made by external introspection script since method returned `false`.");
+
+            // json object is created only if there is script which can modify it, otherwise response is written directly to output stream
+            JSONObject responseAsJsonObject = null;
+            if (externalIntrospectionService.hasScripts(context)) {
+                responseAsJsonObject = createResponseAsJsonObject(response);
+                if (externalIntrospectionService.executeExternalModifyResponse(responseAsJsonObject, context)) {
+                    log.trace("Successfully run extenal introspection scripts.");
+                } else {
+                    responseAsJsonObject = null;
+                    log.trace("Canceled changes made by external introspection script since method returned `false`.");
+                }
             }
 
-            if (Boolean.TRUE.toString().equalsIgnoreCase(responseAsJwt)) {
-                return Response.status(Response.Status.OK).entity(createResponseAsJwt(responseAsJsonObject, authorizationGrant)).build();
+            return createResponse(response, responseAsJsonObject, responseAsJwt, authorizationGrant);
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).type(MediaType.APPLICATION_JSON_TYPE).build();
+        }
+    }
+
+    /**
+     * @param responseAsJsonObject response modified by scripts or null if there were no modifications
+     */
+    private Response createResponse(IntrospectionResponse response, JSONObject responseAsJsonObject, String responseAsJwt, AuthorizationGrant authorizationGrant) throws Exception {
+        if (Boolean.TRUE.toString().equalsIgnoreCase(responseAsJwt)) {
+            if (responseAsJsonObject == null) {
+                responseAsJsonObject = createResponseAsJsonObject(response);
             }
+            return Response.status(Response.Status.OK).entity(createResponseAsJwt(responseAsJsonObject, authorizationGrant)).build();
+        }
 
+        if (responseAsJsonObject != null) {
             return Response.status(Response.Status.OK).entity(responseAsJsonObject.toString()).type(MediaType.APPLICATION_JSON_TYPE).build();
+        }
+        return Response.status(Response.Status.OK).entity(ServerUtil.asJsonStream(response)).type(MediaType.APPLICATION_JSON_TYPE).build();
+    }
 
+    /**
+     * Introspects access token issued as JWT without grant lookup: signature is verified with server keys (or client
+     * secret for HMAC), expiration and revocation are checked, and response is created from token claims.
+     * <p>
+     * Note that acr_values is not set, since it is not claim of JWT access token. username is not set either, because
+     * username claim of JWT access token is display name while introspection of grant returns user id.
+     *
+     * @return response or null if token can't be introspected locally (then grant of token has to be looked up)
+     */
+    private IntrospectionResponse introspectJwtLocally(String token, AuthorizationGrant authorizationGrant) {
+        if (StringUtils.countMatches(token, ".") != 2) {
+            return null; // not a JWT
+        }
+        try {
+            final Jwt jwt = Jwt.parse(token);
+            final JwtClaims claims = jwt.getClaims();
+            final String jti = claims.getClaimAsString(JwtClaimName.JWT_ID);
+            if (StringUtils.isBlank(jti) || !appConfiguration.getIssuer().equals(claims.getClaimAsString(JwtClaimName.ISSUER))) {
+                return null; // issued by other issuer or before jti was added into access token
+            }
+
+            final Client client = clientService.getClient(claims.getClaimAsString("client_id"));
+            if (client == null || !client.isAccessTokenAsJwt()) {
+                return null;
+            }
+            if (externalIntrospectionService.hasScripts(client, authorizationGrant)) {
+                return null; // scripts get grant of introspected token via context
+            }
+            if (!verifySignature(jwt, client)) {
+                log.trace("Failed to verify signature of JWT access token locally (key can be rotated by other node), jti: {}", jti);
+                return null;
+            }
+
+            final Date expirationTime = claims.getClaimAsDate(JwtClaimName.EXPIRATION_TIME);
+            if (expirationTime == null || !expirationTime.after(new Date()) || revokedJtiService.isRevoked(jti)) {
+                return new IntrospectionResponse(false);
+            }
+
+            return createResponse(claims, client.getClientId(), appConfiguration.getIssuer());
         } catch (Exception e) {
-            log.error(e.getMessage(), e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).type(MediaType.APPLICATION_JSON_TYPE).build();
+            log.trace("Unable to introspect token locally.", e);
+            return null;
+        }
+    }
+
+    static IntrospectionResponse createResponse(AuthorizationGrant grant, AbstractToken token, String issuer) {
+        final IntrospectionResponse response = new IntrospectionResponse(token.isValid());
+        response.setExpiresAt(ServerUtil.dateToSeconds(token.getExpirationDate()));
+        response.setIssuedAt(ServerUtil.dateToSeconds(token.getCreationDate()));
+        response.setAcrValues(grant.getAcrValues());
+        response.setScope(grant.getScopes() != null ? grant.getScopes() : Lists.newArrayList()); // #433
+        response.setClientId(grant.getClientId());
+        response.setSub(grant.getSub());
+        response.setUsername(grant.getUserId());
+        response.setIssuer(issuer);
+        response.setAudience(grant.getClientId());
+
+        if (token instanceof AccessToken) {
+            AccessToken accessToken = (AccessToken) token;
+            response.setTokenType(accessToken.getTokenType() != null ? accessToken.getTokenType().getName() : TokenType.BEARER.getName());
+        }
+        if (StringUtils.isNotBlank(token.getX5ts256())) {
+            response.setCnf(Collections.singletonMap("x5t#S256", token.getX5ts256()));
+        }
+        return response;
+    }
+
+    /**
+     * Creates response of active JWT access token from its claims (claims are set by
+     * {@link AuthorizationGrant#fillAccessTokenClaims(JwtClaims, AccessToken)}), acr_values and username are not set.
+     */
+    static IntrospectionResponse createResponse(JwtClaims claims, String clientId, String issuer) {
+        final IntrospectionResponse response = new IntrospectionResponse(true);
+        response.setExpiresAt(ServerUtil.dateToSeconds(claims.getClaimAsDate(JwtClaimName.EXPIRATION_TIME)));
+        response.setIssuedAt(ServerUtil.dateToSeconds(claims.getClaimAsDate(JwtClaimName.ISSUED_AT)));
+        response.setScope(claims.getClaimAsStringList("scope"));
+        response.setClientId(clientId);
+        response.setSub(claims.getClaimAsString(JwtClaimName.SUBJECT_IDENTIFIER));
+        response.setIssuer(issuer);
+        response.setAudience(clientId);
+        response.setTokenType(StringUtils.defaultIfBlank(claims.getClaimAsString("token_type"), TokenType.BEARER.getName()));
+
+        final String x5ts256 = claims.getClaimAsString("x5t#S256");
+        if (StringUtils.isNotBlank(x5ts256)) {
+            response.setCnf(Collections.singletonMap("x5t#S256", x5ts256));
+        }
+        return response;
+    }
+
+    private boolean verifySignature(Jwt jwt, Client client) throws Exception {
+        final SignatureAlgorithm signatureAlgorithm = jwt.getHeader().getSignatureAlgorithm();
+        if (signatureAlgorithm == null || signatureAlgorithm == SignatureAlgorithm.NONE) {
+            return false;
         }
+        final String sharedSecret = AlgorithmFamily.HMAC.equals(signatureAlgorithm.getFamily()) ? clientService.decryptSecret(client.getClientSecret()) : null;
+        return signingKeySelector.getServerCryptoProvider().verifySignature(jwt.getSigningInput(), jwt.getEncodedSignature(),
+                jwt.getHeader().getKeyId(), null, sharedSecret, signatureAlgorithm);
     }
 
     private String createResponseAsJwt(JSONObject response, AuthorizationGrant grant) throws Exception {
@@ -192,15 +312,8 @@ public class IntrospectionWebService {
         return jwtSigner.sign().toString();
     }
 
-    private static JSONObject createResponseAsJsonObject(IntrospectionResponse response, AbstractToken tokenToIntrospect) throws JSONException, IOException {
-        final JSONObject result = new JSONObject(ServerUtil.asJson(response));
-        if (tokenToIntrospect != null && StringUtils.isNotBlank(tokenToIntrospect.getX5ts256())) {
-            final JSONObject cnf = new JSONObject();
-            cnf.put("x5t#S256", tokenToIntrospect.getX5ts256());
-            result.put("cnf", cnf);
-        }
-
-        return result;
+    private static JSONObject createResponseAsJsonObject(IntrospectionResponse response) throws JSONException, IOException {
+        return new JSONObject(ServerUtil.asJson(response));
     }
 
     /**
@@ -0,0 +1,40 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.metric;
+
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timer which keeps cumulative sum of all recorded durations in addition to reservoir snapshot.
+ * <p>
+ * Snapshot of {@link Timer} comes from decaying reservoir, so mean multiplied by count is not monotonic and can't be
+ * used as Prometheus summary {@code _sum} ({@code rate(x_sum) / rate(x_count)} would be wrong or negative).
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class CumulativeTimer extends Timer {
+
+    private final LongAdder sumInNanos = new LongAdder();
+
+    @Override
+    public void update(long duration, TimeUnit unit) {
+        if (duration >= 0) {
+            sumInNanos.add(unit.toNanos(duration));
+        }
+        super.update(duration, unit);
+    }
+
+    /**
+     * @return sum of all recorded durations in nanoseconds
+     */
+    public long getSumInNanos() {
+        return sumInNanos.sum();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.metric;
+
+import org.apache.commons.lang.StringUtils;
+import org.gluu.oxauth.model.common.GrantType;
+import org.gluu.oxauth.service.PerformanceMetricService;
+
+import javax.inject.Inject;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * Records latency of main endpoints (and of token endpoint per grant type).
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@WebFilter(
+        asyncSupported = true,
+        urlPatterns = {
+                "/restv1/authorize",
+                "/restv1/token",
+                "/restv1/userinfo",
+                "/restv1/introspection",
+                "/restv1/register",
+                "/restv1/revoke",
+                "/restv1/revoke_session",
+                "/restv1/end_session",
+                "/restv1/jwks",
+                "/restv1/bc-authorize",
+                "/restv1/device_authorization"},
+        displayName = "oxAuth metrics")
+public class EndpointMetricsFilter implements Filter {
+
+    private static final String RESTV1_PREFIX = "/restv1";
+    private static final String OTHER_GRANT_TYPE = "other";
+
+    @Inject
+    private PerformanceMetricService performanceMetricService;
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!performanceMetricService.isEnabled() || !(request instanceof HttpServletRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final long start = performanceMetricService.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            final HttpServletRequest httpRequest = (HttpServletRequest) request;
+            final String endpoint = StringUtils.removeStart(httpRequest.getServletPath() + StringUtils.defaultString(httpRequest.getPathInfo()), RESTV1_PREFIX);
+            performanceMetricService.recordEndpoint(endpoint, start);
+
+            if ("/token".equals(endpoint)) {
+                // form parameters are already parsed at this point (by authentication filter and jax-rs)
+                final String grantType = httpRequest.getParameter("grant_type");
+                if (StringUtils.isNotBlank(grantType)) {
+                    // label value must be bounded, so unknown grant types are recorded together
+                    final GrantType knownGrantType = GrantType.fromString(grantType);
+                    performanceMetricService.recordGrantType(knownGrantType != null ? knownGrantType.getValue() : OTHER_GRANT_TYPE, start);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.metric;
+
+import org.gluu.oxauth.service.PerformanceMetricService;
+import org.gluu.persist.PersistenceEntryManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Records latency of persistence operations (find, persist, merge, remove, ...) per operation name.
+ * <p>
+ * Proxy is installed only if performance metrics are enabled when entry manager is created, so enabling metrics at
+ * runtime takes effect for persistence operations once entry manager is re-created (e.g. on persistence configuration
+ * reload or restart).
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class PersistenceMetricsInvocationHandler implements InvocationHandler {
+
+    private final PersistenceEntryManager delegate;
+    private final PerformanceMetricService performanceMetricService;
+
+    private PersistenceMetricsInvocationHandler(PersistenceEntryManager delegate, PerformanceMetricService performanceMetricService) {
+        this.delegate = delegate;
+        this.performanceMetricService = performanceMetricService;
+    }
+
+    public static PersistenceEntryManager wrap(PersistenceEntryManager entryManager, PerformanceMetricService performanceMetricService) {
+        return (PersistenceEntryManager) Proxy.newProxyInstance(PersistenceEntryManager.class.getClassLoader(),
+                new Class<?>[] {PersistenceEntryManager.class},
+                new PersistenceMetricsInvocationHandler(entryManager, performanceMetricService));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(delegate, args);
+        }
+
+        final long start = performanceMetricService.start();
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            performanceMetricService.recordPersistence(method.getName(), start);
+        }
+    }
+}
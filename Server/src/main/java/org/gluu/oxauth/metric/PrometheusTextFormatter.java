@@ -0,0 +1,104 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.metric;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+import java.util.Map;
+
+/**
+ * Writes metrics registry in Prometheus text exposition format (version 0.0.4).
+ * <p>
+ * Timers are written as summaries (in seconds), counters as counters and gauges as gauges. Summary {@code _sum} is
+ * written only for {@link CumulativeTimer}.
+ * Metric names are expected in form {@code family{label="value"}}.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class PrometheusTextFormatter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double NANOS_IN_SECOND = 1_000_000_000d;
+    private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.98, 0.99, 0.999};
+
+    private PrometheusTextFormatter() {
+    }
+
+    public static String format(MetricRegistry registry) {
+        final StringBuilder sb = new StringBuilder();
+
+        String lastFamily = null;
+        for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            final String family = family(entry.getKey());
+            if (!family.equals(lastFamily)) {
+                sb.append("# TYPE ").append(family).append(" summary\n");
+                lastFamily = family;
+            }
+            writeTimer(sb, family, labels(entry.getKey()), entry.getValue());
+        }
+
+        lastFamily = null;
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            final String family = family(entry.getKey());
+            if (!family.equals(lastFamily)) {
+                sb.append("# TYPE ").append(family).append(" counter\n");
+                lastFamily = family;
+            }
+            sb.append(entry.getKey()).append(' ').append(entry.getValue().getCount()).append('\n');
+        }
+
+        lastFamily = null;
+        for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+            final Object value = entry.getValue().getValue();
+            if (!(value instanceof Number)) {
+                continue;
+            }
+            final String family = family(entry.getKey());
+            if (!family.equals(lastFamily)) {
+                sb.append("# TYPE ").append(family).append(" gauge\n");
+                lastFamily = family;
+            }
+            sb.append(entry.getKey()).append(' ').append(((Number) value).doubleValue()).append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    private static void writeTimer(StringBuilder sb, String family, String labels, Timer timer) {
+        final Snapshot snapshot = timer.getSnapshot();
+        final String labelPrefix = labels.isEmpty() ? "" : labels + ",";
+
+        for (double quantile : QUANTILES) {
+            sb.append(family).append('{').append(labelPrefix).append("quantile=\"").append(quantile).append("\"} ")
+                    .append(snapshot.getValue(quantile) / NANOS_IN_SECOND).append('\n');
+        }
+
+        final String suffixLabels = labels.isEmpty() ? "" : "{" + labels + "}";
+        final long count = timer.getCount();
+        sb.append(family).append("_count").append(suffixLabels).append(' ').append(count).append('\n');
+        if (timer instanceof CumulativeTimer) {
+            // sum has to be monotonic, so it can't be derived from reservoir snapshot
+            sb.append(family).append("_sum").append(suffixLabels).append(' ')
+                    .append(((CumulativeTimer) timer).getSumInNanos() / NANOS_IN_SECOND).append('\n');
+        }
+    }
+
+    static String family(String name) {
+        final int index = name.indexOf('{');
+        return index == -1 ? name : name.substring(0, index);
+    }
+
+    static String labels(String name) {
+        final int index = name.indexOf('{');
+        return index == -1 ? "" : name.substring(index + 1, name.length() - 1);
+    }
+}
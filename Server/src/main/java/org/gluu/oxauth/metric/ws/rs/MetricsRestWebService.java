@@ -0,0 +1,41 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.metric.ws.rs;
+
+import org.gluu.oxauth.metric.PrometheusTextFormatter;
+import org.gluu.oxauth.service.PerformanceMetricService;
+import org.gluu.oxauth.util.ServerUtil;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+
+/**
+ * Exposes in-memory performance metrics of the node in Prometheus text format.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@Path("/metrics")
+public class MetricsRestWebService {
+
+    @Inject
+    private PerformanceMetricService performanceMetricService;
+
+    @GET
+    @Produces(PrometheusTextFormatter.CONTENT_TYPE)
+    public Response metrics() {
+        if (!performanceMetricService.isEnabled()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        return Response.ok(PrometheusTextFormatter.format(performanceMetricService.getRegistry()))
+                .cacheControl(ServerUtil.cacheControl(true))
+                .build();
+    }
+}
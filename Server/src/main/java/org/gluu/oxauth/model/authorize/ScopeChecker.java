@@ -82,7 +82,7 @@ public class ScopeChecker {
                 externalSpontaneousScopeService.executeExternalManipulateScope(context);
 
                 if (context.isAllowSpontaneousScopePersistence()) {
-                    spontaneousScopeService.createSpontaneousScopeIfNeeded(Sets.newHashSet(client.getAttributes().getSpontaneousScopes()), scopeRequested, client.getClientId());
+                    spontaneousScopeService.createSpontaneousScopeIfNeeded(client, scopeRequested);
                 }
             }
         }
@@ -52,6 +52,7 @@ public abstract class AbstractToken implements Serializable, Deletable {
     @AttributeName(name = "ssnId")
     private String sessionDn;
     private String x5ts256;
+    private String jti;
     private int ttl;
 
     /**
@@ -244,6 +245,17 @@ public abstract class AbstractToken implements Serializable, Deletable {
         this.x5ts256 = x5ts256;
     }
 
+    /**
+     * @return jwt id (only access token issued as JWT has it)
+     */
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
     public String getSessionDn() {
         return sessionDn;
     }
@@ -16,6 +16,7 @@ import org.gluu.oxauth.model.config.WebKeysConfiguration;
 import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
 import org.gluu.oxauth.model.jwt.Jwt;
 import org.gluu.oxauth.model.jwt.JwtClaimName;
+import org.gluu.oxauth.model.jwt.JwtClaims;
 import org.gluu.oxauth.model.ldap.TokenLdap;
 import org.gluu.oxauth.model.registration.Client;
 import org.gluu.oxauth.model.token.HandleTokenFactory;
@@ -36,6 +37,7 @@ import javax.inject.Inject;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * Base class for all the types of authorization grant.
@@ -60,9 +62,6 @@ public class AuthorizationGrant extends AbstractAuthorizationGrant {
     @Inject
     private WebKeysConfiguration webKeysConfiguration;
 
-    @Inject
-    private ClientService clientService;
-
     @Inject
     private ExternalIntrospectionService externalIntrospectionService;
 
@@ -125,7 +124,7 @@ public class AuthorizationGrant extends AbstractAuthorizationGrant {
 
     private void saveInCache() {
         CacheGrant cachedGrant = new CacheGrant(this, appConfiguration);
-        cacheService.put(cachedGrant.getExpiresIn(), cachedGrant.cacheKey(), cachedGrant);
+        cacheService.put(cachedGrant.getExpiresIn(), cachedGrant.cacheKey(), CacheEntryCodec.encode(cachedGrant));
     }
 
     public boolean isImplicitFlow() {
@@ -186,7 +185,6 @@ public class AuthorizationGrant extends AbstractAuthorizationGrant {
     }
 
     private String createAccessTokenAsJwt(AccessToken accessToken, ExecutionContext context) throws Exception {
-        final User user = getUser();
         final Client client = getClient();
 
         SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm
@@ -196,18 +194,9 @@ public class AuthorizationGrant extends AbstractAuthorizationGrant {
             signatureAlgorithm = SignatureAlgorithm.fromString(client.getAccessTokenSigningAlg());
         }
 
-        final JwtSigner jwtSigner = new JwtSigner(appConfiguration, webKeysConfiguration, signatureAlgorithm,
-                client.getClientId(), clientService.decryptSecret(client.getClientSecret()));
+        final JwtSigner jwtSigner = JwtSigner.newJwtSigner(appConfiguration, webKeysConfiguration, client, signatureAlgorithm);
         final Jwt jwt = jwtSigner.newJwt();
-        jwt.getClaims().setClaim("scope", Lists.newArrayList(getScopes()));
-        jwt.getClaims().setClaim("client_id", getClientId());
-        jwt.getClaims().setClaim("username", user != null ? user.getAttribute("displayName") : null);
-        jwt.getClaims().setClaim("token_type", accessToken.getTokenType().getName());
-        jwt.getClaims().setExpirationTime(accessToken.getExpirationDate());
-        jwt.getClaims().setIssuedAt(accessToken.getCreationDate());
-        jwt.getClaims().setSubjectIdentifier(getSub());
-        jwt.getClaims().setClaim("x5t#S256", accessToken.getX5ts256());
-        Audience.setAudience(jwt.getClaims(), getClient());
+        fillAccessTokenClaims(jwt.getClaims(), accessToken);
 
         if (client.getAttributes().getRunIntrospectionScriptBeforeAccessTokenAsJwtCreationAndIncludeClaims()) {
             runIntrospectionScriptAndInjectValuesIntoJwt(jwt, context);
@@ -216,6 +205,24 @@ public class AuthorizationGrant extends AbstractAuthorizationGrant {
         return jwtSigner.sign().toString();
     }
 
+    /**
+     * Sets claims of access token issued as JWT.
+     */
+    public void fillAccessTokenClaims(JwtClaims claims, AccessToken accessToken) {
+        final User user = getUser();
+        claims.setClaim("scope", Lists.newArrayList(getScopes()));
+        claims.setClaim("client_id", getClientId());
+        claims.setClaim("username", user != null ? user.getAttribute("displayName") : null);
+        claims.setClaim("token_type", accessToken.getTokenType().getName());
+        claims.setExpirationTime(accessToken.getExpirationDate());
+        claims.setIssuedAt(accessToken.getCreationDate());
+        claims.setSubjectIdentifier(getSub());
+        claims.setClaim("x5t#S256", accessToken.getX5ts256());
+        accessToken.setJti(UUID.randomUUID().toString());
+        claims.setJwtId(accessToken.getJti());
+        Audience.setAudience(claims, getClient());
+    }
+
     private void runIntrospectionScriptAndInjectValuesIntoJwt(Jwt jwt, ExecutionContext executionContext) {
         JSONObject responseAsJsonObject = new JSONObject();
 
@@ -353,6 +360,7 @@ public class AuthorizationGrant extends AbstractAuthorizationGrant {
         result.setClientId(getClientId());
 
         result.getAttributes().setX5cs256(p_token.getX5ts256());
+        result.getAttributes().setJti(p_token.getJti());
 
         final AuthorizationGrantType grantType = getAuthorizationGrantType();
         if (grantType != null) {
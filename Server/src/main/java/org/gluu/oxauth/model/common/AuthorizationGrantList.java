@@ -18,7 +18,7 @@ import org.gluu.oxauth.model.util.Util;
 import org.gluu.oxauth.service.ClientService;
 import org.gluu.oxauth.service.GrantService;
 import org.gluu.oxauth.service.MetricService;
-import org.gluu.oxauth.service.common.UserService;
+import org.gluu.oxauth.service.UserService;
 import org.gluu.oxauth.util.ServerUtil;
 import org.gluu.oxauth.util.TokenHashUtil;
 import org.gluu.service.CacheService;
@@ -91,7 +91,7 @@ public class AuthorizationGrantList implements IAuthorizationGrantList {
         grant.init(user, client, authenticationTime);
 
         CacheGrant memcachedGrant = new CacheGrant(grant, appConfiguration);
-        cacheService.put(grant.getAuthorizationCode().getExpiresIn(), memcachedGrant.cacheKey(), memcachedGrant);
+        cacheService.put(grant.getAuthorizationCode().getExpiresIn(), memcachedGrant.cacheKey(), CacheEntryCodec.encode(memcachedGrant));
         log.trace("Put authorization grant in cache, code: " + grant.getAuthorizationCode().getCode() + ", clientId: " + grant.getClientId());
         
         metricService.incCounter(MetricType.OXAUTH_TOKEN_AUTHORIZATION_CODE_COUNT);
@@ -128,7 +128,7 @@ public class AuthorizationGrantList implements IAuthorizationGrantList {
         grant.init(request);
 
         CacheGrant memcachedGrant = new CacheGrant(grant, appConfiguration);
-        cacheService.put(request.getExpiresIn(), memcachedGrant.getAuthReqId(), memcachedGrant);
+        cacheService.put(request.getExpiresIn(), memcachedGrant.getAuthReqId(), CacheEntryCodec.encode(memcachedGrant));
         log.trace("Ciba grant saved in cache, authReqId: {}, grantId: {}", grant.getAuthReqId(), grant.getGrantId());
         return grant;
     }
@@ -141,7 +141,8 @@ public class AuthorizationGrantList implements IAuthorizationGrantList {
             cachedGrant = cacheService.get(authReqId);
             log.trace("Failed to fetch CIBA grant from cache, authReqId: {}", authReqId);
         }
-        return cachedGrant instanceof CacheGrant ? ((CacheGrant) cachedGrant).asCibaGrant(grantInstance) : null;
+        final CacheGrant cacheGrant = asCacheGrant(cachedGrant);
+        return cacheGrant != null ? cacheGrant.asCibaGrant(grantInstance) : null;
     }
 
     @Override
@@ -150,7 +151,7 @@ public class AuthorizationGrantList implements IAuthorizationGrantList {
         grant.init(data, user);
 
         CacheGrant memcachedGrant = new CacheGrant(grant, appConfiguration);
-        cacheService.put(data.getExpiresIn(), memcachedGrant.getDeviceCode(), memcachedGrant);
+        cacheService.put(data.getExpiresIn(), memcachedGrant.getDeviceCode(), CacheEntryCodec.encode(memcachedGrant));
         log.trace("Device code grant saved in cache, deviceCode: {}, grantId: {}", grant.getDeviceCode(), grant.getGrantId());
         return grant;
     }
@@ -163,7 +164,8 @@ public class AuthorizationGrantList implements IAuthorizationGrantList {
             cachedGrant = cacheService.get(deviceCode);
             log.trace("Failed to fetch Device code grant from cache, deviceCode: {}", deviceCode);
         }
-        return cachedGrant instanceof CacheGrant ? ((CacheGrant) cachedGrant).asDeviceCodeGrant(grantInstance) : null;
+        final CacheGrant cacheGrant = asCacheGrant(cachedGrant);
+        return cacheGrant != null ? cacheGrant.asDeviceCodeGrant(grantInstance) : null;
     }
 
     @Override
@@ -174,7 +176,38 @@ public class AuthorizationGrantList implements IAuthorizationGrantList {
             cachedGrant = cacheService.get(CacheGrant.cacheKey(authorizationCode, null));
             log.trace("Failed to fetch authorization grant from cache, code: " + authorizationCode);
         }
-        return cachedGrant instanceof CacheGrant ? ((CacheGrant) cachedGrant).asCodeGrant(grantInstance) : null;
+        final CacheGrant cacheGrant = asCacheGrant(cachedGrant);
+        return cacheGrant != null ? cacheGrant.asCodeGrant(grantInstance) : null;
+    }
+
+    /**
+     * Decodes grant cache entry and re-hydrates user and client by reference.
+     *
+     * @return grant or null if entry is not a grant or referenced user or client does not exist anymore
+     */
+    private CacheGrant asCacheGrant(Object cachedGrant) {
+        final CacheGrant cacheGrant = CacheEntryCodec.decodeGrant(cachedGrant);
+        if (cacheGrant == null) {
+            return null;
+        }
+
+        final Client client = clientService.getClient(cacheGrant.getClientId());
+        if (client == null) {
+            log.debug("Failed to find client of cached grant, clientId: {}", cacheGrant.getClientId());
+            return null;
+        }
+        cacheGrant.setClient(client);
+
+        final String userDn = cacheGrant.getUserDn();
+        if (StringUtils.isNotBlank(userDn)) {
+            final User user = userService.getUserByDnFromLocalCache(userDn);
+            if (user == null) {
+                log.debug("Failed to find user of cached grant, userDn: {}", userDn);
+                return null;
+            }
+            cacheGrant.setUser(user);
+        }
+        return cacheGrant;
     }
 
     @Override
@@ -37,7 +37,7 @@ public class CIBAGrant extends AuthorizationGrant {
     @Override
     public void save() {
         CacheGrant cachedGrant = new CacheGrant(this, appConfiguration);
-        cacheService.put(cachedGrant.getExpiresIn(), cachedGrant.getAuthReqId(), cachedGrant);
+        cacheService.put(cachedGrant.getExpiresIn(), cachedGrant.getAuthReqId(), CacheEntryCodec.encode(cachedGrant));
     }
 
     public String getAuthReqId() {
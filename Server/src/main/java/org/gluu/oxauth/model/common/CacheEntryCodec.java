@@ -0,0 +1,333 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.model.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Compact binary encoding of grant, CIBA request and device authorization cache entries.
+ * <p>
+ * Only references to user (DN) and client (client id) are written, User and Client objects are not part of
+ * encoded entry and must be re-hydrated by reader (from local caches). It keeps authorization code put/get small
+ * and avoids Java deserialization of arbitrary object graph on token endpoint.
+ * <p>
+ * Format: type (1 byte), version (1 byte), fields in fixed order. Strings are UTF-8 prefixed with varint
+ * (length + 1, 0 stands for null), dates are varint (time + 1, 0 stands for null).
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public final class CacheEntryCodec {
+
+    public static final byte VERSION = 1;
+
+    static final byte TYPE_GRANT = 1;
+    static final byte TYPE_CIBA_REQUEST = 2;
+    static final byte TYPE_DEVICE_AUTHORIZATION = 3;
+
+    private CacheEntryCodec() {
+    }
+
+    public static byte[] encode(CacheGrant grant) {
+        final Writer out = new Writer(TYPE_GRANT);
+        out.writeString(grant.getAuthorizationCodeString());
+        out.writeDate(grant.getAuthorizationCodeCreationDate());
+        out.writeDate(grant.getAuthorizationCodeExpirationDate());
+        out.writeString(grant.getUserDn());
+        out.writeString(grant.getClientId());
+        out.writeDate(grant.getAuthenticationTime());
+        out.writeStrings(grant.getScopes());
+        out.writeString(grant.getGrantId());
+        out.writeString(grant.getTokenBindingHash());
+        out.writeString(grant.getNonce());
+        out.writeString(grant.getCodeChallenge());
+        out.writeString(grant.getCodeChallengeMethod());
+        out.writeString(grant.getClaims());
+        out.writeString(grant.getDeviceCode());
+        out.writeString(grant.getAcrValues());
+        out.writeString(grant.getSessionDn());
+        out.writeVarLong(grant.getExpiresIn());
+        out.writeString(grant.getAuthReqId());
+        out.writeBoolean(grant.isTokensDelivered());
+        return out.toByteArray();
+    }
+
+    public static byte[] encode(CibaRequestCacheControl request) {
+        final Writer out = new Writer(TYPE_CIBA_REQUEST);
+        out.writeString(request.getAuthReqId());
+        out.writeString(request.getUserDn());
+        out.writeString(request.getClientId());
+        out.writeStrings(request.getScopes());
+        out.writeVarLong(request.getExpiresIn());
+        out.writeString(request.getClientNotificationToken());
+        out.writeString(request.getBindingMessage());
+        out.writeNullableLong(request.getLastAccessControl());
+        out.writeString(request.getStatus() != null ? request.getStatus().name() : null);
+        out.writeBoolean(request.isTokensDelivered());
+        out.writeString(request.getAcrValues());
+        return out.toByteArray();
+    }
+
+    public static byte[] encode(DeviceAuthorizationCacheControl data) {
+        final Writer out = new Writer(TYPE_DEVICE_AUTHORIZATION);
+        out.writeString(data.getUserCode());
+        out.writeString(data.getDeviceCode());
+        out.writeString(data.getClientId());
+        out.writeStrings(data.getScopes());
+        out.writeString(data.getVerificationUri() != null ? data.getVerificationUri().toString() : null);
+        out.writeVarLong(data.getExpiresIn());
+        out.writeVarLong(data.getInterval());
+        out.writeNullableLong(data.getLastAccessControl());
+        out.writeString(data.getStatus() != null ? data.getStatus().name() : null);
+        return out.toByteArray();
+    }
+
+    /**
+     * @param cached object fetched from cache
+     * @return grant (User and Client are not set, only references) or null if object is not encoded grant
+     * of supported version
+     */
+    public static CacheGrant decodeGrant(Object cached) {
+        final Reader in = Reader.of(cached, TYPE_GRANT);
+        if (in == null) {
+            return null;
+        }
+        try {
+            final CacheGrant grant = new CacheGrant();
+            grant.setAuthorizationCodeString(in.readString());
+            grant.setAuthorizationCodeCreationDate(in.readDate());
+            grant.setAuthorizationCodeExpirationDate(in.readDate());
+            grant.setUserDn(in.readString());
+            grant.setClientId(in.readString());
+            grant.setAuthenticationTime(in.readDate());
+            final List<String> scopes = in.readStrings();
+            grant.setScopes(scopes != null ? new LinkedHashSet<>(scopes) : null);
+            grant.setGrantId(in.readString());
+            grant.setTokenBindingHash(in.readString());
+            grant.setNonce(in.readString());
+            grant.setCodeChallenge(in.readString());
+            grant.setCodeChallengeMethod(in.readString());
+            grant.setClaims(in.readString());
+            grant.setDeviceCode(in.readString());
+            grant.setAcrValues(in.readString());
+            grant.setSessionDn(in.readString());
+            grant.setExpiresIn((int) in.readVarLong());
+            grant.setAuthReqId(in.readString());
+            grant.setTokensDelivered(in.readBoolean());
+            return grant;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param cached object fetched from cache
+     * @return CIBA request (User and Client are not set, only references) or null if object is not encoded request
+     * of supported version
+     */
+    public static CibaRequestCacheControl decodeCibaRequest(Object cached) {
+        final Reader in = Reader.of(cached, TYPE_CIBA_REQUEST);
+        if (in == null) {
+            return null;
+        }
+        try {
+            final CibaRequestCacheControl request = new CibaRequestCacheControl();
+            request.setAuthReqId(in.readString());
+            request.setUserDn(in.readString());
+            request.setClientId(in.readString());
+            request.setScopes(in.readStrings());
+            request.setExpiresIn((int) in.readVarLong());
+            request.setClientNotificationToken(in.readString());
+            request.setBindingMessage(in.readString());
+            request.setLastAccessControl(in.readNullableLong());
+            final String status = in.readString();
+            request.setStatus(status != null ? CibaRequestStatus.valueOf(status) : null);
+            request.setTokensDelivered(in.readBoolean());
+            request.setAcrValues(in.readString());
+            return request;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param cached object fetched from cache
+     * @return device authorization data (Client is not set, only reference) or null if object is not encoded
+     * device authorization of supported version
+     */
+    public static DeviceAuthorizationCacheControl decodeDeviceAuthorization(Object cached) {
+        final Reader in = Reader.of(cached, TYPE_DEVICE_AUTHORIZATION);
+        if (in == null) {
+            return null;
+        }
+        try {
+            final DeviceAuthorizationCacheControl data = new DeviceAuthorizationCacheControl();
+            data.setUserCode(in.readString());
+            data.setDeviceCode(in.readString());
+            data.setClientId(in.readString());
+            data.setScopes(in.readStrings());
+            final String verificationUri = in.readString();
+            data.setVerificationUri(verificationUri != null ? URI.create(verificationUri) : null);
+            data.setExpiresIn((int) in.readVarLong());
+            data.setInterval((int) in.readVarLong());
+            final Long lastAccessControl = in.readNullableLong();
+            data.setLastAccessControl(lastAccessControl != null ? lastAccessControl : 0);
+            final String status = in.readString();
+            data.setStatus(status != null ? DeviceAuthorizationStatus.valueOf(status) : null);
+            return data;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static class Writer {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        Writer(byte type) {
+            bytes.write(type);
+            bytes.write(VERSION);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            bytes.write(utf8, 0, utf8.length);
+        }
+
+        void writeStrings(Collection<String> values) {
+            if (values == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(values.size() + 1L);
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        void writeDate(Date date) {
+            writeVarLong(date != null ? date.getTime() + 1 : 0);
+        }
+
+        void writeBoolean(boolean value) {
+            bytes.write(value ? 1 : 0);
+        }
+
+        void writeNullableLong(Long value) {
+            writeBoolean(value != null);
+            if (value != null) {
+                try {
+                    out.writeLong(value);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e); // not possible for in-memory stream
+                }
+            }
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            bytes.write((int) value);
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private static class Reader {
+
+        private final DataInputStream in;
+
+        private Reader(byte[] bytes) {
+            this.in = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2));
+        }
+
+        static Reader of(Object cached, byte type) {
+            if (!(cached instanceof byte[])) {
+                return null;
+            }
+            final byte[] bytes = (byte[]) cached;
+            if (bytes.length < 2 || bytes[0] != type || bytes[1] != VERSION) {
+                return null;
+            }
+            return new Reader(bytes);
+        }
+
+        String readString() throws IOException {
+            final long length = readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            if (length - 1 > in.available()) {
+                throw new EOFException();
+            }
+            final byte[] utf8 = new byte[(int) (length - 1)];
+            in.readFully(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        List<String> readStrings() throws IOException {
+            final long size = readVarLong();
+            if (size == 0) {
+                return null;
+            }
+            if (size - 1 > in.available()) {
+                throw new EOFException();
+            }
+            final List<String> result = new ArrayList<>((int) (size - 1));
+            for (long i = 1; i < size; i++) {
+                result.add(readString());
+            }
+            return result;
+        }
+
+        Date readDate() throws IOException {
+            final long value = readVarLong();
+            return value != 0 ? new Date(value - 1) : null;
+        }
+
+        boolean readBoolean() throws IOException {
+            return in.readBoolean();
+        }
+
+        Long readNullableLong() throws IOException {
+            return in.readBoolean() ? in.readLong() : null;
+        }
+
+        long readVarLong() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final byte b = in.readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+    }
+}
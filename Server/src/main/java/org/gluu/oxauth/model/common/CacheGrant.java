@@ -27,6 +27,8 @@ public class CacheGrant implements Serializable {
 
     private User user;
     private Client client;
+    private String userDn;
+    private String clientId;
     private Date authenticationTime;
     private Set<String> scopes;
     private String grantId;
@@ -135,10 +137,26 @@ public class CacheGrant implements Serializable {
         return expiresIn;
     }
 
+    public void setExpiresIn(int expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
     public Date getAuthorizationCodeCreationDate() {
         return authorizationCodeCreationDate;
     }
 
+    public void setAuthorizationCodeCreationDate(Date authorizationCodeCreationDate) {
+        this.authorizationCodeCreationDate = authorizationCodeCreationDate;
+    }
+
+    public Date getAuthorizationCodeExpirationDate() {
+        return authorizationCodeExpirationDate;
+    }
+
+    public void setAuthorizationCodeExpirationDate(Date authorizationCodeExpirationDate) {
+        this.authorizationCodeExpirationDate = authorizationCodeExpirationDate;
+    }
+
     public User getUser() {
         return user;
     }
@@ -147,6 +165,14 @@ public class CacheGrant implements Serializable {
         this.user = user;
     }
 
+    public String getUserDn() {
+        return user != null ? user.getDn() : userDn;
+    }
+
+    public void setUserDn(String userDn) {
+        this.userDn = userDn;
+    }
+
     public Set<String> getScopes() {
         return scopes;
     }
@@ -171,6 +197,14 @@ public class CacheGrant implements Serializable {
         this.client = client;
     }
 
+    public String getClientId() {
+        return client != null ? client.getClientId() : clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
     public Date getAuthenticationTime() {
         return authenticationTime;
     }
@@ -187,6 +221,14 @@ public class CacheGrant implements Serializable {
         this.authorizationCodeString = authorizationCodeString;
     }
 
+    public String getTokenBindingHash() {
+        return tokenBindingHash;
+    }
+
+    public void setTokenBindingHash(String tokenBindingHash) {
+        this.tokenBindingHash = tokenBindingHash;
+    }
+
     public String getNonce() {
         return nonce;
     }
@@ -316,6 +358,10 @@ public class CacheGrant implements Serializable {
         return deviceCode;
     }
 
+    public void setDeviceCode(String deviceCode) {
+        this.deviceCode = deviceCode;
+    }
+
     @Override
     public String toString() {
         return "MemcachedGrant{" +
@@ -25,6 +25,8 @@ public class CibaRequestCacheControl implements Serializable {
     private String authReqId;
     private User user;
     private Client client;
+    private String userDn;
+    private String clientId;
     private List<String> scopes;
 
     private int expiresIn = 1;
@@ -86,6 +88,14 @@ public class CibaRequestCacheControl implements Serializable {
         this.user = user;
     }
 
+    public String getUserDn() {
+        return user != null ? user.getDn() : userDn;
+    }
+
+    public void setUserDn(String userDn) {
+        this.userDn = userDn;
+    }
+
     public Client getClient() {
         return client;
     }
@@ -94,6 +104,14 @@ public class CibaRequestCacheControl implements Serializable {
         this.client = client;
     }
 
+    public String getClientId() {
+        return client != null ? client.getClientId() : clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
     public List<String> getScopes() {
         return scopes;
     }
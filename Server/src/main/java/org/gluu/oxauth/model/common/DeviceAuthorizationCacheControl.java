@@ -20,6 +20,7 @@ public class DeviceAuthorizationCacheControl implements Serializable {
     private String userCode;
     private String deviceCode;
     private Client client;
+    private String clientId;
     private List<String> scopes;
     private URI verificationUri;
     private int expiresIn = 1;
@@ -68,6 +69,14 @@ public class DeviceAuthorizationCacheControl implements Serializable {
         this.client = client;
     }
 
+    public String getClientId() {
+        return client != null ? client.getClientId() : clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
     public List<String> getScopes() {
         return scopes;
     }
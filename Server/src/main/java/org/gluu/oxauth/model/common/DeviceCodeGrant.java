@@ -35,7 +35,7 @@ public class DeviceCodeGrant extends AuthorizationGrant {
     public void save() {
         CacheGrant cachedGrant = new CacheGrant(this, appConfiguration);
         String cacheKey = StringUtils.isNotBlank(cachedGrant.getDeviceCode()) ? cachedGrant.getDeviceCode() : cachedGrant.getGrantId();
-        cacheService.put(cachedGrant.getExpiresIn(), cacheKey, cachedGrant);
+        cacheService.put(cachedGrant.getExpiresIn(), cacheKey, CacheEntryCodec.encode(cachedGrant));
     }
 
     public String getDeviceCode() {
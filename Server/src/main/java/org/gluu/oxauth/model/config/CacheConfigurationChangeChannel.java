@@ -0,0 +1,71 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.model.config;
+
+import org.gluu.service.CacheService;
+import org.gluu.service.cache.CacheConfiguration;
+import org.gluu.service.cache.CacheProviderType;
+import org.slf4j.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Configuration change channel based on shared cache (memcached, redis).
+ * <p>
+ * It is not used with NATIVE_PERSISTENCE cache because in this case each check is persistence read anyway.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@ApplicationScoped
+public class CacheConfigurationChangeChannel implements ConfigurationChangeChannel {
+
+    private static final String REVISION_CACHE_KEY_PREFIX = "oxauth_";
+    private static final String REVISION_CACHE_KEY_SUFFIX = "_revision";
+    private static final int REVISION_EXPIRATION_IN_SECONDS = 60 * 60 * 24; // 1 day
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private CacheService cacheService;
+
+    @Inject
+    private CacheConfiguration cacheConfiguration;
+
+    @Override
+    public boolean isAvailable() {
+        return cacheConfiguration.getCacheProviderType() != CacheProviderType.NATIVE_PERSISTENCE;
+    }
+
+    @Override
+    public long getPublishedRevision(String name) {
+        try {
+            final Object revision = cacheService.get(cacheKey(name));
+            if (revision instanceof Long) {
+                return (Long) revision;
+            }
+        } catch (Exception e) {
+            log.trace("Failed to get " + name + " revision from cache.", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public void publishRevision(String name, long revision) {
+        try {
+            cacheService.put(REVISION_EXPIRATION_IN_SECONDS, cacheKey(name), revision);
+            log.trace("Published {} revision {}", name, revision);
+        } catch (Exception e) {
+            log.error("Failed to publish " + name + " revision " + revision, e);
+        }
+    }
+
+    private static String cacheKey(String name) {
+        return REVISION_CACHE_KEY_PREFIX + name + REVISION_CACHE_KEY_SUFFIX;
+    }
+}
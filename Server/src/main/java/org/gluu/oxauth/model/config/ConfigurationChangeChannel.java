@@ -0,0 +1,51 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.model.config;
+
+/**
+ * Channel which propagates configuration revision between oxAuth nodes, so that node does not
+ * have to poll persistence for {@code oxRevision} to notice configuration change.
+ * <p>
+ * Changes made outside of oxAuth (oxTrust, admin tools) are not published by writer. They are detected by single node
+ * which holds revision poller lease: it reads stored revision frequently and publishes it. Other nodes read only the
+ * channel. Each node polls persistence itself only if there is no poller (channel is not available or leader election
+ * is turned off), with {@code configurationUpdateFallbackIntervalInSeconds}.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public interface ConfigurationChangeChannel {
+
+    /**
+     * oxAuth configuration entry, revision is {@code oxRevision}
+     */
+    String CONFIGURATION = "configuration";
+
+    /**
+     * Authentication configuration (oxIDPAuthentication and oxAuthenticationMode), entry has no revision so time of
+     * detected change is published
+     */
+    String AUTH_CONFIGURATION = "auth_configuration";
+
+    /**
+     * @return true if channel can be used, otherwise configuration changes are detected only by fallback polling
+     */
+    boolean isAvailable();
+
+    /**
+     * @param name name of configuration (e.g. {@link #CONFIGURATION})
+     * @return latest revision published to channel or -1 if channel has no information about revision
+     */
+    long getPublishedRevision(String name);
+
+    /**
+     * Publishes revision to other nodes.
+     *
+     * @param name     name of configuration (e.g. {@link #CONFIGURATION})
+     * @param revision configuration revision
+     */
+    void publishRevision(String name, long revision);
+}
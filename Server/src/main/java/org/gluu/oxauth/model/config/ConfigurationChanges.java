@@ -0,0 +1,136 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.model.config;
+
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.util.ServerUtil;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Describes which sections of oxAuth configuration differ between two loaded {@link Conf} entries.
+ * <p>
+ * Sections are compared by their JSON representation, so the result does not depend on equals()
+ * implementations of the configuration classes. Comparison happens only when revision is increased.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class ConfigurationChanges {
+
+    private final boolean dynamicChanged;
+    private final boolean staticChanged;
+    private final boolean errorsChanged;
+    private final boolean webKeysChanged;
+    private final boolean keyStoreChanged;
+
+    private ConfigurationChanges(boolean dynamicChanged, boolean staticChanged, boolean errorsChanged,
+                                 boolean webKeysChanged, boolean keyStoreChanged) {
+        this.dynamicChanged = dynamicChanged;
+        this.staticChanged = staticChanged;
+        this.errorsChanged = errorsChanged;
+        this.webKeysChanged = webKeysChanged;
+        this.keyStoreChanged = keyStoreChanged;
+    }
+
+    /**
+     * @return changes where every section is marked as changed (used for initial load)
+     */
+    public static ConfigurationChanges all() {
+        return new ConfigurationChanges(true, true, true, true, true);
+    }
+
+    public static ConfigurationChanges compute(Conf previous, Conf current) {
+        if (previous == null || current == null) {
+            return all();
+        }
+
+        final boolean dynamicChanged = sectionChanged(previous.getDynamic(), current.getDynamic());
+        final boolean keyStoreChanged = dynamicChanged && keyStoreChanged(previous.getDynamic(), current.getDynamic());
+
+        return new ConfigurationChanges(
+                dynamicChanged,
+                sectionChanged(previous.getStatics(), current.getStatics()),
+                sectionChanged(previous.getErrors(), current.getErrors()),
+                current.getWebKeys() == null || sectionChanged(previous.getWebKeys(), current.getWebKeys()),
+                keyStoreChanged);
+    }
+
+    private static boolean sectionChanged(Object previous, Object current) {
+        if (current == null) {
+            return false; // section is not present in entry, old value is kept
+        }
+        if (previous == null) {
+            return true;
+        }
+        try {
+            return !ServerUtil.asJson(previous).equals(ServerUtil.asJson(current));
+        } catch (IOException e) {
+            return true; // unable to compare, treat as changed
+        }
+    }
+
+    private static boolean keyStoreChanged(AppConfiguration previous, AppConfiguration current) {
+        if (previous == null || current == null) {
+            return true;
+        }
+        return !Objects.equals(previous.getWebKeysStorage(), current.getWebKeysStorage())
+                || !Objects.equals(previous.getKeyStoreFile(), current.getKeyStoreFile())
+                || !Objects.equals(previous.getKeyStoreSecret(), current.getKeyStoreSecret())
+                || !Objects.equals(previous.getDnName(), current.getDnName())
+                || !Objects.equals(previous.getRejectJwtWithNoneAlg(), current.getRejectJwtWithNoneAlg())
+                || !Objects.equals(previous.getKeyRegenerationEnabled(), current.getKeyRegenerationEnabled())
+                || previous.getKeyRegenerationInterval() != current.getKeyRegenerationInterval()
+                || !Objects.equals(previous.getOxElevenTestModeToken(), current.getOxElevenTestModeToken())
+                || !Objects.equals(previous.getOxElevenGenerateKeyEndpoint(), current.getOxElevenGenerateKeyEndpoint())
+                || !Objects.equals(previous.getOxElevenSignEndpoint(), current.getOxElevenSignEndpoint())
+                || !Objects.equals(previous.getOxElevenVerifySignatureEndpoint(), current.getOxElevenVerifySignatureEndpoint())
+                || !Objects.equals(previous.getOxElevenDeleteKeyEndpoint(), current.getOxElevenDeleteKeyEndpoint());
+    }
+
+    public boolean isDynamicChanged() {
+        return dynamicChanged;
+    }
+
+    public boolean isStaticChanged() {
+        return staticChanged;
+    }
+
+    public boolean isErrorsChanged() {
+        return errorsChanged;
+    }
+
+    public boolean isWebKeysChanged() {
+        return webKeysChanged;
+    }
+
+    public boolean isKeyStoreChanged() {
+        return keyStoreChanged;
+    }
+
+    /**
+     * Crypto provider has to be re-created (and keystore re-loaded) only if keys or keystore settings are changed.
+     */
+    public boolean isCryptoProviderChanged() {
+        return webKeysChanged || keyStoreChanged;
+    }
+
+    public boolean isAnyChanged() {
+        return dynamicChanged || staticChanged || errorsChanged || webKeysChanged || keyStoreChanged;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationChanges{" +
+                "dynamicChanged=" + dynamicChanged +
+                ", staticChanged=" + staticChanged +
+                ", errorsChanged=" + errorsChanged +
+                ", webKeysChanged=" + webKeysChanged +
+                ", keyStoreChanged=" + keyStoreChanged +
+                '}';
+    }
+}
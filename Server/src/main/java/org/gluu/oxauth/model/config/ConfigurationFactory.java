@@ -16,6 +16,8 @@ import org.gluu.oxauth.model.error.ErrorMessages;
 import org.gluu.oxauth.model.error.ErrorResponseFactory;
 import org.gluu.oxauth.model.event.CryptoProviderEvent;
 import org.gluu.oxauth.model.jwk.JSONWebKey;
+import org.gluu.oxauth.model.util.JsonMappers;
+import org.gluu.oxauth.service.CleanerTimer;
 import org.gluu.oxauth.service.common.ApplicationFactory;
 import org.gluu.oxauth.util.ServerUtil;
 import org.gluu.persist.PersistenceEntryManager;
@@ -32,6 +34,7 @@ import org.json.JSONObject;
 import org.slf4j.Logger;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
@@ -42,6 +45,7 @@ import javax.inject.Named;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletRegistration;
 import java.io.File;
+import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
@@ -81,10 +85,19 @@ public class ConfigurationFactory {
 	@Inject
 	private Instance<AbstractCryptoProvider> abstractCryptoProviderInstance;
 
+	@Inject
+	private ConfigurationChangeChannel configurationChangeChannel;
+
+	@Inject
+	private CleanerTimer cleanerTimer;
+
 	public final static String PERSISTENCE_CONFIGUARION_RELOAD_EVENT_TYPE = "persistenceConfigurationReloadEvent";
 	public final static String BASE_CONFIGUARION_RELOAD_EVENT_TYPE = "baseConfigurationReloadEvent";
 
 	private final static int DEFAULT_INTERVAL = 30; // 30 seconds
+	private final static int CHANGE_CHECK_INTERVAL = 1; // 1 second
+	private final static int REVISION_POLL_INTERVAL = 5; // 5 seconds
+	private final static String REVISION_POLLER_LOCK_NAME = "configuration_revision_poller";
 
 	static {
 		if (System.getProperty("gluu.base") != null) {
@@ -134,6 +147,13 @@ public class ConfigurationFactory {
 
 	private long loadedRevision = -1;
 	private boolean loadedFromLdap = true;
+	private Conf loadedConf;
+
+	private ConfigurationFileWatcher fileWatcher;
+	private long lastFallbackCheckTime;
+	private long lastNotifiedRevision = -1;
+	private long lastRevisionPollTime;
+	private volatile boolean revisionPoller;
 
 	@PostConstruct
 	public void init() {
@@ -190,8 +210,11 @@ public class ConfigurationFactory {
 	public void initTimer() {
 		log.debug("Initializing Configuration Timer");
 
+		this.fileWatcher = ConfigurationFileWatcher.start(DIR);
+		this.lastFallbackCheckTime = System.currentTimeMillis();
+
 		final int delay = 30;
-		final int interval = DEFAULT_INTERVAL;
+		final int interval = CHANGE_CHECK_INTERVAL;
 
 		timerEvent.fire(new TimerEvent(new TimerSchedule(delay, interval), new ConfigurationEvent(),
 				Scheduled.Literal.INSTANCE));
@@ -216,7 +239,145 @@ public class ConfigurationFactory {
 		}
 	}
 
+	@PreDestroy
+	public void preDestroy() {
+		if (this.fileWatcher != null) {
+			try {
+				this.fileWatcher.close();
+			} catch (IOException e) {
+				log.trace("Failed to stop configuration file watcher.", e);
+			}
+		}
+	}
+
 	private void reloadConfiguration() {
+		final boolean fallbackCheck = isFallbackCheckTime();
+
+		// Properties files are checked on watcher notification, or on fallback check if watcher is not available
+		final boolean watcherActive = this.fileWatcher != null && this.fileWatcher.isActive();
+		if ((watcherActive && this.fileWatcher.consumeChange()) || (!watcherActive && fallbackCheck)) {
+			reloadFileConfiguration();
+		}
+
+		if (!loadedFromLdap) {
+			return;
+		}
+
+		if (fallbackCheck) {
+			this.revisionPoller = acquireRevisionPollerLease();
+		}
+
+		if (isChannelRevisionIncreased()) {
+			createFromLdap(false);
+			return;
+		}
+
+		// Stored revision is read frequently by revision poller only, other nodes read it themselves only if there is no poller
+		final boolean pollStoredRevision = this.revisionPoller ? isRevisionPollTime() : fallbackCheck && !isRevisionPollerAvailable();
+		if (pollStoredRevision) {
+			final long storedRevision = loadStoredRevision();
+			if (storedRevision > this.loadedRevision) {
+				// Changes made outside of oxAuth (e.g. by oxTrust) are not published, let other nodes know about them
+				publishRevision(storedRevision);
+				createFromLdap(false);
+			}
+		}
+	}
+
+	private boolean isFallbackCheckTime() {
+		final long now = System.currentTimeMillis();
+		if (now - this.lastFallbackCheckTime < getFallbackInterval() * 1000L) {
+			return false;
+		}
+		this.lastFallbackCheckTime = now;
+		return true;
+	}
+
+	private int getFallbackInterval() {
+		if (!isRevisionPollerAvailable()) {
+			return DEFAULT_INTERVAL;
+		}
+		if (conf != null && conf.getConfigurationUpdateFallbackIntervalInSeconds() > DEFAULT_INTERVAL) {
+			return conf.getConfigurationUpdateFallbackIntervalInSeconds();
+		}
+		return DEFAULT_INTERVAL;
+	}
+
+	private boolean isRevisionPollTime() {
+		final long now = System.currentTimeMillis();
+		if (now - this.lastRevisionPollTime < REVISION_POLL_INTERVAL * 1000L) {
+			return false;
+		}
+		this.lastRevisionPollTime = now;
+		return true;
+	}
+
+	/**
+	 * @return true if changes can be detected by single revision poller and propagated via change channel
+	 */
+	public boolean isRevisionPollerAvailable() {
+		return configurationChangeChannel.isAvailable() && conf != null && ServerUtil.isTrue(conf.getCleanServiceLeaderElectionEnabled());
+	}
+
+	/**
+	 * @return true if this node holds revision poller lease, i.e. it reads stored revisions frequently and publishes
+	 * them to change channel
+	 */
+	public boolean isRevisionPoller() {
+		return revisionPoller;
+	}
+
+	private boolean acquireRevisionPollerLease() {
+		if (!isRevisionPollerAvailable()) {
+			return false;
+		}
+		// lease is renewed on each fallback check, it expires if poller node is down
+		final boolean acquired = cleanerTimer.acquireLock(REVISION_POLLER_LOCK_NAME, 2 * getFallbackInterval());
+		if (acquired != this.revisionPoller) {
+			log.debug("Configuration revision poller lease {}", acquired ? "acquired" : "lost");
+		}
+		return acquired;
+	}
+
+	private boolean isChannelRevisionIncreased() {
+		if (!configurationChangeChannel.isAvailable()) {
+			return false;
+		}
+
+		final long publishedRevision = configurationChangeChannel.getPublishedRevision(ConfigurationChangeChannel.CONFIGURATION);
+		if (publishedRevision <= this.loadedRevision || publishedRevision == this.lastNotifiedRevision) {
+			return false;
+		}
+
+		log.trace("Channel revision: " + publishedRevision + ", server revision:" + loadedRevision);
+		this.lastNotifiedRevision = publishedRevision;
+		return true;
+	}
+
+	public void publishRevision(long revision) {
+		try {
+			if (configurationChangeChannel.isAvailable() && configurationChangeChannel.getPublishedRevision(ConfigurationChangeChannel.CONFIGURATION) < revision) {
+				configurationChangeChannel.publishRevision(ConfigurationChangeChannel.CONFIGURATION, revision);
+			}
+		} catch (Exception ex) {
+			log.error("Failed to publish configuration revision", ex);
+		}
+	}
+
+	/**
+	 * @return latest revision published to change channel or -1 if channel is not available
+	 */
+	public long getPublishedRevision(String name) {
+		return configurationChangeChannel.isAvailable() ? configurationChangeChannel.getPublishedRevision(name) : -1;
+	}
+
+	public void publishRevision(String name, long revision) {
+		if (configurationChangeChannel.isAvailable()) {
+			configurationChangeChannel.publishRevision(name, revision);
+		}
+	}
+
+	private void reloadFileConfiguration() {
 		// Reload LDAP configuration if needed
 	    PersistenceConfiguration newPersistenceConfiguration = persistanceFactoryService.loadPersistenceConfiguration(LDAP_PROPERTIES_FILE);
 
@@ -238,26 +399,20 @@ public class ConfigurationFactory {
 				event.select(BaseConfigurationReload.Literal.INSTANCE).fire(BASE_CONFIGUARION_RELOAD_EVENT_TYPE);
 			}
 		}
-
-		if (!loadedFromLdap) {
-			return;
-		}
-
-		if (!isRevisionIncreased()) {
-			return;
-		}
-
-		createFromLdap(false);
 	}
 
 	private boolean isRevisionIncreased() {
+        return loadStoredRevision() > this.loadedRevision;
+    }
+
+	private long loadStoredRevision() {
         final Conf conf = loadConfigurationFromLdap("oxRevision");
         if (conf == null) {
-            return false;
+            return -1;
         }
 
         log.trace("LDAP revision: " + conf.getRevision() + ", server revision:" + loadedRevision);
-        return conf.getRevision() > this.loadedRevision;
+        return conf.getRevision();
     }
 
 	private String confDir() {
@@ -382,22 +537,46 @@ public class ConfigurationFactory {
 		try {
 			final Conf c = loadConfigurationFromLdap();
 			if (c != null) {
-				init(c);
-
-				// Destroy old configuration
-				if (this.loaded) {
-					destroy(AppConfiguration.class);
-					destroy(StaticConfiguration.class);
-					destroy(WebKeysConfiguration.class);
-					destroy(ErrorResponseFactory.class);
+				final boolean reload = this.loaded;
+				final ConfigurationChanges changes = reload ? ConfigurationChanges.compute(this.loadedConf, c) : ConfigurationChanges.all();
+				log.debug("Loaded configuration revision: {}, changes: {}", c.getRevision(), changes);
+
+				init(c, changes);
+
+				// Destroy only changed parts of old configuration
+				if (reload) {
+					if (changes.isDynamicChanged()) {
+						destroy(AppConfiguration.class);
+					}
+					if (changes.isStaticChanged()) {
+						destroy(StaticConfiguration.class);
+					}
+					if (changes.isWebKeysChanged()) {
+						destroy(WebKeysConfiguration.class);
+					}
+					if (changes.isErrorsChanged() || changes.isDynamicChanged()) {
+						destroy(ErrorResponseFactory.class);
+					}
 				}
 
 				this.loaded = true;
-				configurationUpdateEvent.select(ConfigurationUpdate.Literal.INSTANCE).fire(conf);
+				this.loadedConf = c;
 
-                destroyCryptoProviderInstance();
-				AbstractCryptoProvider newAbstractCryptoProvider = abstractCryptoProviderInstance.get();
-				cryptoProviderEvent.select(CryptoProviderEvent.Literal.INSTANCE).fire(newAbstractCryptoProvider);
+				// Let other nodes know about new revision without waiting for their fallback check
+				if (reload) {
+					publishRevision(this.loadedRevision);
+				}
+
+				if (changes.isDynamicChanged()) {
+					configurationUpdateEvent.select(ConfigurationUpdate.Literal.INSTANCE).fire(conf);
+				}
+
+				// Re-create crypto provider (and re-load keystore) only if keys or keystore settings are changed
+				if (changes.isCryptoProviderChanged()) {
+					destroyCryptoProviderInstance();
+					AbstractCryptoProvider newAbstractCryptoProvider = abstractCryptoProviderInstance.get();
+					cryptoProviderEvent.select(CryptoProviderEvent.Literal.INSTANCE).fire(newAbstractCryptoProvider);
+				}
 
 				return true;
 			}
@@ -444,25 +623,27 @@ public class ConfigurationFactory {
 		return null;
 	}
 
-	private void init(Conf p_conf) {
-		initConfigurationConf(p_conf);
+	private void init(Conf p_conf, ConfigurationChanges changes) {
+		initConfigurationConf(p_conf, changes);
 		this.loadedRevision = p_conf.getRevision();
 	}
 
-	private void initConfigurationConf(Conf p_conf) {
-		if (p_conf.getDynamic() != null) {
+	private void initConfigurationConf(Conf p_conf, ConfigurationChanges changes) {
+		if (p_conf.getDynamic() != null && changes.isDynamicChanged()) {
 			conf = p_conf.getDynamic();
 		}
-		if (p_conf.getStatics() != null) {
+		if (p_conf.getStatics() != null && changes.isStaticChanged()) {
 			staticConf = p_conf.getStatics();
 		}
 		if (p_conf.getWebKeys() != null) {
-			jwks = p_conf.getWebKeys();
+			if (changes.isWebKeysChanged()) {
+				jwks = p_conf.getWebKeys();
+			}
 		} else {
 			generateWebKeys();
 		}
-		if (p_conf.getErrors() != null) {
-			errorResponseFactory = new ErrorResponseFactory(p_conf.getErrors(), p_conf.getDynamic());
+		if (p_conf.getErrors() != null && (changes.isErrorsChanged() || changes.isDynamicChanged())) {
+			errorResponseFactory = new ErrorResponseFactory(p_conf.getErrors(), conf);
 		}
 	}
 
@@ -479,7 +660,7 @@ public class ConfigurationFactory {
 			newWebKeys = jsonObject.toString();
 
 			// Attempt to load new JWKS
-			jwks = ServerUtil.createJsonMapper().readValue(newWebKeys, WebKeysConfiguration.class);
+			jwks = JsonMappers.reader(WebKeysConfiguration.class).readValue(newWebKeys);
 
 			// Store new JWKS in LDAP
 			Conf conf = loadConfigurationFromLdap();
@@ -490,6 +671,7 @@ public class ConfigurationFactory {
 
 			final PersistenceEntryManager ldapManager = persistenceEntryManagerInstance.get();
 			ldapManager.merge(conf);
+			publishRevision(nextRevision);
 
 			log.info("Generated new JWKS successfully.");
             log.trace("JWKS keys: " + conf.getWebKeys().getKeys().stream().map(JSONWebKey::getKid).collect(Collectors.toList()));
@@ -502,7 +684,7 @@ public class ConfigurationFactory {
 
 	private AppConfiguration loadConfFromFile() {
 		try {
-			return ServerUtil.createJsonMapper().readValue(new File(configFilePath), AppConfiguration.class);
+			return JsonMappers.reader(AppConfiguration.class).readValue(new File(configFilePath));
 		} catch (Exception e) {
 			log.warn(e.getMessage(), e);
 		}
@@ -511,7 +693,7 @@ public class ConfigurationFactory {
 
 	private ErrorMessages loadErrorsFromFile() {
 		try {
-			return ServerUtil.createJsonMapper().readValue(new File(errorsFilePath), ErrorMessages.class);
+			return JsonMappers.reader(ErrorMessages.class).readValue(new File(errorsFilePath));
 		} catch (Exception e) {
 			log.warn(e.getMessage(), e);
 		}
@@ -520,7 +702,7 @@ public class ConfigurationFactory {
 
 	private StaticConfiguration loadStaticConfFromFile() {
 		try {
-			return ServerUtil.createJsonMapper().readValue(new File(staticConfFilePath), StaticConfiguration.class);
+			return JsonMappers.reader(StaticConfiguration.class).readValue(new File(staticConfFilePath));
 		} catch (Exception e) {
 			log.warn(e.getMessage(), e);
 		}
@@ -529,7 +711,7 @@ public class ConfigurationFactory {
 
 	private WebKeysConfiguration loadWebKeysFromFile() {
 		try {
-			return ServerUtil.createJsonMapper().readValue(new File(webKeysFilePath), WebKeysConfiguration.class);
+			return JsonMappers.reader(WebKeysConfiguration.class).readValue(new File(webKeysFilePath));
 		} catch (Exception e) {
 			log.warn(e.getMessage(), e);
 		}
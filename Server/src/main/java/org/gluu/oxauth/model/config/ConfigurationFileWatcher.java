@@ -0,0 +1,111 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.model.config;
+
+import org.gluu.oxauth.util.ServerUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Watches configuration directory for changes of properties files (gluu.properties, oxauth.properties, etc.)
+ * with NIO WatchService, so that properties files don't have to be checked on every timer tick.
+ * <p>
+ * Any event in directory is treated as change (not only events of *.properties files), because mounted
+ * configuration (e.g. Kubernetes ConfigMap) is updated by swap of {@code ..data} symlink, without events for
+ * properties files themselves. Properties files are then re-loaded only if their modification time is changed.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class ConfigurationFileWatcher implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigurationFileWatcher.class);
+
+    private final WatchService watchService;
+    private final AtomicBoolean changed = new AtomicBoolean(false);
+    private volatile boolean active = true;
+
+    private ConfigurationFileWatcher(WatchService watchService) {
+        this.watchService = watchService;
+    }
+
+    /**
+     * @return started watcher or null if directory can't be watched
+     */
+    public static ConfigurationFileWatcher start(String dir) {
+        try {
+            final Path path = Paths.get(dir);
+            final WatchService watchService = FileSystems.getDefault().newWatchService();
+            path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+            final ConfigurationFileWatcher watcher = new ConfigurationFileWatcher(watchService);
+            final Thread thread = ServerUtil.daemonThreadFactory().newThread(watcher::watch);
+            thread.setName("oxauth-configuration-file-watcher");
+            thread.start();
+
+            log.debug("Started watching configuration directory: {}", dir);
+            return watcher;
+        } catch (Exception e) {
+            log.error("Failed to start watching configuration directory: " + dir + ", fallback to polling.", e);
+            return null;
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                final WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    log.trace("Detected change in configuration directory: {} {}", event.kind(), event.context());
+                    changed.set(true);
+                }
+                if (!key.reset()) {
+                    log.error("Configuration directory is not accessible anymore, stopped watching it.");
+                    active = false;
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.trace("Stopped watching configuration directory.");
+            active = false;
+        }
+    }
+
+    /**
+     * @return false if watcher is stopped and properties files have to be polled
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @return true if anything in configuration directory was changed since last call
+     */
+    public boolean consumeChange() {
+        return changed.getAndSet(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        active = false;
+        watchService.close();
+    }
+}
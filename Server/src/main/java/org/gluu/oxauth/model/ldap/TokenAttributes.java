@@ -15,6 +15,8 @@ public class TokenAttributes implements Serializable {
 
     @JsonProperty("x5cs256")
     private String x5cs256;
+    @JsonProperty("jti")
+    private String jti;
 
     public String getX5cs256() {
         return x5cs256;
@@ -24,10 +26,19 @@ public class TokenAttributes implements Serializable {
         this.x5cs256 = x5cs256;
     }
 
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
     @Override
     public String toString() {
         return "TokenAttributes{" +
                 "x5cs256='" + x5cs256 + '\'' +
+                ", jti='" + jti + '\'' +
                 '}';
     }
 }
@@ -8,6 +8,7 @@ package org.gluu.oxauth.model.token;
 
 import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.model.crypto.AbstractCryptoProvider;
+import org.gluu.oxauth.model.crypto.signature.AlgorithmFamily;
 import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
 import org.gluu.oxauth.model.jwk.Algorithm;
 import org.gluu.oxauth.model.jwk.JSONWebKeySet;
@@ -16,7 +17,7 @@ import org.gluu.oxauth.model.jwt.Jwt;
 import org.gluu.oxauth.model.jwt.JwtType;
 import org.gluu.oxauth.model.registration.Client;
 import org.gluu.oxauth.service.ClientService;
-import org.gluu.oxauth.service.ServerCryptoProvider;
+import org.gluu.oxauth.service.SigningKeySelector;
 import org.gluu.service.cdi.util.CdiUtil;
 import org.python.jline.internal.Preconditions;
 
@@ -32,6 +33,7 @@ public class JwtSigner {
     private SignatureAlgorithm signatureAlgorithm;
     private String audience;
     private String hmacSharedSecret;
+    private String encryptedHmacSharedSecret;
 
     private AppConfiguration appConfiguration;
     private JSONWebKeySet webKeys;
@@ -49,7 +51,7 @@ public class JwtSigner {
         this.audience = audience;
         this.hmacSharedSecret = hmacSharedSecret;
 
-        cryptoProvider = new ServerCryptoProvider(CdiUtil.bean(AbstractCryptoProvider.class));
+        cryptoProvider = CdiUtil.bean(SigningKeySelector.class).getServerCryptoProvider();
     }
 
     public static JwtSigner newJwtSigner(AppConfiguration appConfiguration, JSONWebKeySet webKeys, Client client) throws Exception {
@@ -60,8 +62,18 @@ public class JwtSigner {
             signatureAlgorithm = SignatureAlgorithm.fromString(client.getIdTokenSignedResponseAlg());
         }
 
-        ClientService clientService = CdiUtil.bean(ClientService.class);
-        return new JwtSigner(appConfiguration, webKeys, signatureAlgorithm, client.getClientId(), clientService.decryptSecret(client.getClientSecret()));
+        return newJwtSigner(appConfiguration, webKeys, client, signatureAlgorithm);
+    }
+
+    /**
+     * Creates signer for client. Client secret is decrypted only if HMAC algorithm is used.
+     */
+    public static JwtSigner newJwtSigner(AppConfiguration appConfiguration, JSONWebKeySet webKeys, Client client, SignatureAlgorithm signatureAlgorithm) throws Exception {
+        Preconditions.checkNotNull(client);
+
+        JwtSigner jwtSigner = new JwtSigner(appConfiguration, webKeys, signatureAlgorithm, client.getClientId());
+        jwtSigner.encryptedHmacSharedSecret = client.getClientSecret();
+        return jwtSigner;
     }
 
     public Jwt newJwt() throws Exception {
@@ -83,12 +95,20 @@ public class JwtSigner {
 
     public Jwt sign() throws Exception {
         // Signature
-        String signature = cryptoProvider.sign(jwt.getSigningInput(), jwt.getHeader().getKeyId(), hmacSharedSecret, signatureAlgorithm);
+        String sharedSecret = AlgorithmFamily.HMAC.equals(signatureAlgorithm.getFamily()) ? getHmacSharedSecret() : null;
+        String signature = cryptoProvider.sign(jwt.getSigningInputBytes(), jwt.getHeader().getKeyId(), sharedSecret, signatureAlgorithm);
         jwt.setEncodedSignature(signature);
 
         return jwt;
     }
 
+    private String getHmacSharedSecret() throws Exception {
+        if (hmacSharedSecret == null && encryptedHmacSharedSecret != null) {
+            hmacSharedSecret = CdiUtil.bean(ClientService.class).decryptSecret(encryptedHmacSharedSecret);
+        }
+        return hmacSharedSecret;
+    }
+
     public Jwt getJwt() {
         return jwt;
     }
@@ -13,9 +13,19 @@ import org.gluu.model.SimpleProperty;
 import org.gluu.model.custom.script.CustomScriptType;
 import org.gluu.model.custom.script.conf.CustomScriptConfiguration;
 import org.gluu.model.ldap.GluuLdapConfiguration;
+import org.gluu.oxauth.model.audit.OAuth2AuditLog;
 import org.gluu.oxauth.model.auth.AuthenticationMode;
+import org.gluu.oxauth.model.common.IntrospectionResponse;
+import org.gluu.oxauth.model.config.ConfigurationChangeChannel;
 import org.gluu.oxauth.model.config.ConfigurationFactory;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.uma.PermissionTicket;
+import org.gluu.oxauth.model.uma.RptIntrospectionResponse;
+import org.gluu.oxauth.model.uma.UmaNeedInfoResponse;
+import org.gluu.oxauth.model.uma.UmaResourceResponse;
+import org.gluu.oxauth.model.uma.UmaResourceWithId;
+import org.gluu.oxauth.model.uma.UmaTokenResponse;
+import org.gluu.oxauth.model.util.JsonMappers;
 import org.gluu.oxauth.model.util.SecurityProviderUtility;
 import org.gluu.oxauth.service.cdi.event.AuthConfigurationEvent;
 import org.gluu.oxauth.service.cdi.event.ReloadAuthScript;
@@ -24,6 +34,7 @@ import org.gluu.oxauth.service.common.ApplicationFactory;
 import org.gluu.oxauth.service.common.EncryptionService;
 import org.gluu.oxauth.service.expiration.ExpirationNotificatorTimer;
 import org.gluu.oxauth.service.external.ExternalAuthenticationService;
+import org.gluu.oxauth.metric.PersistenceMetricsInvocationHandler;
 import org.gluu.oxauth.service.logger.LoggerService;
 import org.gluu.oxauth.service.status.ldap.LdapStatusTimer;
 import org.gluu.persist.PersistenceEntryManager;
@@ -84,6 +95,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class AppInitializer {
 
 	private final static int DEFAULT_INTERVAL = 30; // 30 seconds
+	private final static int CHANGE_CHECK_INTERVAL = 5; // 5 seconds
 
 	@Inject
 	private Logger log;
@@ -144,6 +156,9 @@ public class AppInitializer {
 	@Inject
 	private CleanerTimer cleanerTimer;
 
+	@Inject
+	private PerformanceMetricService performanceMetricService;
+
 	@Inject
 	private KeyGeneratorTimer keyGeneratorTimer;
 
@@ -177,15 +192,28 @@ public class AppInitializer {
 
 	private List<GluuLdapConfiguration> persistenceAuthConfigs;
 
+	private long lastFallbackCheckTime;
+	private long lastSeenAuthConfigurationRevision = -1;
+
 	@PostConstruct
 	public void createApplicationComponents() {
 		SecurityProviderUtility.installBCProvider();
+
+		// resolve (de)serializers of responses which are written on each request
+		JsonMappers.warmUp(IntrospectionResponse.class, RptIntrospectionResponse.class, UmaTokenResponse.class,
+				UmaResourceWithId.class, UmaResourceResponse.class, UmaNeedInfoResponse.class, PermissionTicket.class,
+				OAuth2AuditLog.class);
 	}
 
 	public void applicationInitialized(@Observes @Initialized(ApplicationScoped.class) Object init) {
 		log.debug("Initializing application services");
 
 		configurationFactory.create();
+		performanceMetricService.updateConfiguration(configurationFactory.getAppConfiguration());
+		if (performanceMetricService.isEnabled()) {
+			// entry manager is created (without metrics proxy) while configuration is loaded, re-create it to record persistence metrics
+			recreatePersistanceEntryManagerImpl(persistenceEntryManagerInstance, ApplicationFactory.PERSISTENCE_ENTRY_MANAGER_NAME);
+		}
 
 		PersistenceEntryManager localPersistenceEntryManager = persistenceEntryManagerInstance.get();
 		log.trace("Attempting to use {}: {}", ApplicationFactory.PERSISTENCE_ENTRY_MANAGER_NAME, localPersistenceEntryManager.getOperationService());
@@ -262,8 +290,9 @@ public class AppInitializer {
 	public void initTimer() {
 		this.isActive = new AtomicBoolean(false);
 		this.setLastFinishedTime(System.currentTimeMillis());
+		this.lastFallbackCheckTime = System.currentTimeMillis();
 
-		timerEvent.fire(new TimerEvent(new TimerSchedule(60, DEFAULT_INTERVAL), new AuthConfigurationEvent(),
+		timerEvent.fire(new TimerEvent(new TimerSchedule(60, CHANGE_CHECK_INTERVAL), new AuthConfigurationEvent(),
 				Scheduled.Literal.INSTANCE));
 	}
 
@@ -278,7 +307,7 @@ public class AppInitializer {
 		}
 
 		try {
-			reloadConfiguration();
+			reloadConfigurationIfNeeded();
 		} catch (Throwable ex) {
 			log.error("Exception happened while reloading application configuration", ex);
 		} finally {
@@ -287,7 +316,41 @@ public class AppInitializer {
 		}
 	}
 
-	private void reloadConfiguration() {
+	/**
+	 * Authentication configuration is read from persistence by configuration revision poller (see
+	 * {@link ConfigurationFactory#isRevisionPoller()}), which publishes detected change to configuration change channel.
+	 * Other nodes read it when change is published, or on fallback interval if there is no poller.
+	 */
+	private void reloadConfigurationIfNeeded() {
+		final long publishedRevision = configurationFactory.getPublishedRevision(ConfigurationChangeChannel.AUTH_CONFIGURATION);
+		if (publishedRevision != this.lastSeenAuthConfigurationRevision) {
+			this.lastSeenAuthConfigurationRevision = publishedRevision;
+			if (publishedRevision != -1) {
+				reloadConfiguration();
+				return;
+			}
+		}
+
+		boolean fallbackCheck = false;
+		final long now = System.currentTimeMillis();
+		if (now - this.lastFallbackCheckTime >= DEFAULT_INTERVAL * 1000L) {
+			this.lastFallbackCheckTime = now;
+			fallbackCheck = !configurationFactory.isRevisionPollerAvailable();
+		}
+
+		if (configurationFactory.isRevisionPoller() || fallbackCheck) {
+			if (reloadConfiguration()) {
+				// entry has no revision, so time of detected change is published
+				this.lastSeenAuthConfigurationRevision = now;
+				configurationFactory.publishRevision(ConfigurationChangeChannel.AUTH_CONFIGURATION, now);
+			}
+		}
+	}
+
+	/**
+	 * @return true if authentication configuration is changed
+	 */
+	private boolean reloadConfiguration() {
 		PersistenceEntryManager localPersistenceEntryManager = persistenceEntryManagerInstance.get();
 		log.trace("Attempting to use {}: {}", ApplicationFactory.PERSISTENCE_ENTRY_MANAGER_NAME, localPersistenceEntryManager.getOperationService());
 
@@ -295,15 +358,17 @@ public class AppInitializer {
 
 		List<GluuLdapConfiguration> newPersistenceAuthConfigs = loadPersistenceAuthConfigs(newConfiguration);
 
+		boolean changed = false;
 		if (!this.persistenceAuthConfigs.equals(newPersistenceAuthConfigs)) {
 			recreatePersistenceAuthEntryManagers(newPersistenceAuthConfigs);
 			this.persistenceAuthConfigs = newPersistenceAuthConfigs;
 
 			event.select(ReloadAuthScript.Literal.INSTANCE)
 					.fire(ExternalAuthenticationService.MODIFIED_INTERNAL_TYPES_EVENT_TYPE);
+			changed = true;
 		}
 
-		setDefaultAuthenticationMethod(newConfiguration);
+		return setDefaultAuthenticationMethod(newConfiguration) || changed;
 	}
 
 	/*
@@ -368,6 +433,9 @@ public class AppInitializer {
 
 		externalPersistenceExtensionService.executePersistenceExtensionAfterCreate(connectionProperties, persistenceEntryManager);
 
+		if (performanceMetricService.isEnabled()) {
+			return PersistenceMetricsInvocationHandler.wrap(persistenceEntryManager, performanceMetricService);
+		}
 		return persistenceEntryManager;
 	}
 
@@ -576,7 +644,10 @@ public class AppInitializer {
 		return sb.toString();
 	}
 
-	private void setDefaultAuthenticationMethod(GluuConfiguration configuration) {
+	/**
+	 * @return true if default authentication method is changed
+	 */
+	private boolean setDefaultAuthenticationMethod(GluuConfiguration configuration) {
 		String currentAuthMethod = null;
 		if (this.authenticationMode != null) {
 			currentAuthMethod = this.authenticationMode.getName();
@@ -591,7 +662,9 @@ public class AppInitializer {
 			}
 
 			authenticationModeInstance.destroy(authenticationModeInstance.get());
+			return true;
 		}
+		return false;
 	}
 
 	private String getActualDefaultAuthenticationMethod(GluuConfiguration configuration) {
@@ -6,11 +6,21 @@
 
 package org.gluu.oxauth.service;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.annotation.PreDestroy;
+
 import javax.ejb.DependsOn;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
@@ -20,10 +30,15 @@ import javax.inject.Named;
 
 import org.gluu.oxauth.model.config.StaticConfiguration;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.ldap.TokenLdap;
+import org.gluu.oxauth.service.cleaner.CleanerBranchState;
 import org.gluu.oxauth.service.fido.u2f.RequestService;
 import org.gluu.oxauth.uma.service.UmaPctService;
 import org.gluu.oxauth.uma.service.UmaResourceService;
+import org.gluu.oxauth.util.ServerUtil;
+import org.gluu.oxauth.util.TokenHashUtil;
 import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.exception.EntryPersistenceException;
 import org.gluu.persist.model.base.DeletableEntity;
 import org.gluu.search.filter.Filter;
 import org.gluu.service.cache.CacheProvider;
@@ -49,6 +64,9 @@ public class CleanerTimer {
 
 	public final static int BATCH_SIZE = 1000;
 	private final static int DEFAULT_INTERVAL = 30; // 30 seconds
+	private final static int DEFAULT_CONCURRENCY = 4;
+	private final static String LOCK_KEY_PREFIX = "oxauth_cleaner_lock_";
+	private final static String LOCK_TOKEN_TYPE = "cleaner_lock";
 
 	@Inject
 	private Logger log;
@@ -65,6 +83,9 @@ public class CleanerTimer {
 	@Inject
 	private CacheProvider cacheProvider;
 
+	@Inject
+	private PerformanceMetricService performanceMetricService;
+
 	@Inject
 	@Named("u2fRequestService")
 	private RequestService u2fRequestService;
@@ -82,10 +103,20 @@ public class CleanerTimer {
 
 	private AtomicBoolean isActive;
 
+	private ThreadPoolExecutor executor;
+
+	private final String nodeId = UUID.randomUUID().toString(); // MAC address is not unique e.g. for containers
+
+	private final Map<String, CleanerBranchState> branchStates = new ConcurrentHashMap<>();
+
 	public void initTimer() {
 		log.debug("Initializing Cleaner Timer");
 		this.isActive = new AtomicBoolean(false);
 
+		final int concurrency = getConcurrency();
+		this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), ServerUtil.daemonThreadFactory());
+
 		// Schedule to start cleaner every 1 minute
 		cleanerEvent.fire(
 				new TimerEvent(new TimerSchedule(DEFAULT_INTERVAL, DEFAULT_INTERVAL), new CleanerEvent(), Scheduled.Literal.INSTANCE));
@@ -93,6 +124,13 @@ public class CleanerTimer {
 		this.lastFinishedTime = System.currentTimeMillis();
 	}
 
+	@PreDestroy
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
 	@Asynchronous
 	public void process(@Observes @Scheduled CleanerEvent cleanerEvent) {
 		if (this.isActive.get()) {
@@ -136,33 +174,167 @@ public class CleanerTimer {
             if (chunkSize <= 0)
                 chunkSize = BATCH_SIZE;
 
-            Date now = new Date();
-
-			for (String baseDn : createCleanServiceBaseDns()) {
-				try {
-                    if (entryManager.hasExpirationSupport(baseDn)) {
-                        continue;
-                    }
+            final Date now = new Date();
+            final long maxBranchProcessingTime = Math.max(DEFAULT_INTERVAL, appConfiguration.getCleanServiceInterval()) * 1000L;
+            final int baseBatchSize = chunkSize;
 
-                    log.debug("Start clean up for baseDn: " + baseDn);
-					final Stopwatch started = Stopwatch.createStarted();
+            updateConcurrency();
 
-					int removed = cleanup(baseDn, now, chunkSize);
-
-					log.debug("Finished clean up for baseDn: {}, takes: {}ms, removed items: {}", baseDn, started.elapsed(TimeUnit.MILLISECONDS), removed);
-				} catch (Exception e) {
-					log.error("Failed to process clean up for baseDn: " + baseDn, e);
-				}
+            final List<Callable<Void>> tasks = new ArrayList<>();
+			for (String baseDn : createCleanServiceBaseDns()) {
+				tasks.add(() -> {
+					processBranch(baseDn, now, baseBatchSize, maxBranchProcessingTime);
+					return null;
+				});
 			}
+			executor.invokeAll(tasks);
 
 			processCache(now);
 
 			this.lastFinishedTime = System.currentTimeMillis();
+		} catch (InterruptedException e) {
+			log.error("Clean up is interrupted.", e);
+			Thread.currentThread().interrupt();
 		} catch (Exception e) {
 			log.error("Failed to process clean up.", e);
 		}
 	}
 
+	private void processBranch(String baseDn, Date now, int baseBatchSize, long maxProcessingTime) {
+		try {
+			if (entryManager.hasExpirationSupport(baseDn)) {
+				return;
+			}
+
+			if (!acquireLock(baseDn, 2 * Math.max(DEFAULT_INTERVAL, appConfiguration.getCleanServiceInterval()))) {
+				log.trace("Clean up for baseDn: {} is performed by another node.", baseDn);
+				return;
+			}
+
+			final CleanerBranchState state = branchStates.computeIfAbsent(baseDn, dn -> newBranchState(dn, baseBatchSize));
+			state.updateBaseBatchSize(baseBatchSize);
+			state.startRun();
+
+			log.debug("Start clean up for baseDn: " + baseDn);
+			final Stopwatch started = Stopwatch.createStarted();
+
+			boolean hasMore = true;
+			while (hasMore && started.elapsed(TimeUnit.MILLISECONDS) < maxProcessingTime) {
+				final int batchSize = state.getBatchSize();
+				final Stopwatch batchStarted = Stopwatch.createStarted();
+
+				int removed = cleanup(baseDn, now, batchSize);
+
+				hasMore = state.recordBatch(batchSize, removed, batchStarted.elapsed(TimeUnit.MILLISECONDS));
+			}
+			state.finishRun(started.elapsed(TimeUnit.MILLISECONDS));
+
+			log.debug("Finished clean up for baseDn: {}, takes: {}ms, removed items: {}, next batch size: {}, backlog: {}",
+					baseDn, state.getLastRunDurationInMillis(), state.getLastRunRemoved(), state.getBatchSize(), state.isBacklog());
+		} catch (Exception e) {
+			log.error("Failed to process clean up for baseDn: " + baseDn, e);
+		}
+	}
+
+	/**
+	 * Cluster-wide lock (lease), used per branch by clean up and by other periodic jobs which must run on single node.
+	 * Lease is persisted as expiring entry in tokens branch and is acquired by add operation, which succeeds only on
+	 * one node. Node which holds the lease keeps renewing it on each run, other nodes skip the job until lease expires,
+	 * then expired lease is removed and acquired again by add. Expired leases are also removed by clean up of tokens
+	 * branch.
+	 *
+	 * @param name           lock name (base dn for clean up)
+	 * @param leaseInSeconds lease lifetime, it must be longer than interval of the job
+	 * @return true if lock is held by this node (or leader election is turned off)
+	 */
+	public boolean acquireLock(String name, int leaseInSeconds) {
+		if (!ServerUtil.isTrue(appConfiguration.getCleanServiceLeaderElectionEnabled())) {
+			return true;
+		}
+
+		final String tokenCode = TokenHashUtil.hash(LOCK_KEY_PREFIX + name);
+		final String dn = String.format("tknCde=%s,%s", tokenCode, staticConfiguration.getBaseDn().getTokens());
+		final Date now = new Date();
+		final Date leaseExpiration = new Date(now.getTime() + TimeUnit.SECONDS.toMillis(leaseInSeconds));
+		try {
+			final TokenLdap lock = findLock(dn);
+			if (lock != null) {
+				final boolean expired = lock.getExpirationDate() == null || !lock.getExpirationDate().after(now);
+				if (!expired) {
+					if (!nodeId.equals(lock.getGrantId())) {
+						return false;
+					}
+
+					lock.setExpirationDate(leaseExpiration);
+					lock.setTtl(leaseInSeconds);
+					entryManager.merge(lock);
+					return true;
+				}
+
+				entryManager.remove(lock);
+			}
+
+			final TokenLdap newLock = new TokenLdap();
+			newLock.setDn(dn);
+			newLock.setTokenCode(tokenCode);
+			newLock.setTokenType(LOCK_TOKEN_TYPE);
+			newLock.setGrantId(nodeId);
+			newLock.setCreationDate(now);
+			newLock.setExpirationDate(leaseExpiration);
+			newLock.setTtl(leaseInSeconds);
+			newLock.setDeletable(true);
+			entryManager.persist(newLock);
+			return true;
+		} catch (EntryPersistenceException e) {
+			log.trace("Lock " + name + " is acquired by another node.", e);
+			return false;
+		} catch (Exception e) {
+			log.trace("Failed to acquire lock " + name + ", run it anyway.", e);
+			return true;
+		}
+	}
+
+	private TokenLdap findLock(String dn) {
+		try {
+			return entryManager.find(TokenLdap.class, dn);
+		} catch (EntryPersistenceException e) {
+			return null; // not found
+		}
+	}
+
+	private CleanerBranchState newBranchState(String baseDn, int baseBatchSize) {
+		final CleanerBranchState state = new CleanerBranchState(baseDn, baseBatchSize);
+		performanceMetricService.registerGauge(PerformanceMetricService.name(PerformanceMetricService.CLEANER_BATCH_SIZE, "branch", baseDn),
+				state::getBatchSize);
+		performanceMetricService.registerGauge(PerformanceMetricService.name(PerformanceMetricService.CLEANER_BACKLOG, "branch", baseDn),
+				() -> state.isBacklog() ? 1 : 0);
+		performanceMetricService.registerGauge(PerformanceMetricService.name(PerformanceMetricService.CLEANER_REMOVED, "branch", baseDn),
+				state::getTotalRemoved);
+		performanceMetricService.registerGauge(PerformanceMetricService.name(PerformanceMetricService.CLEANER_LAST_RUN_DURATION, "branch", baseDn),
+				() -> state.getLastRunDurationInMillis() / 1000d);
+		return state;
+	}
+
+	private int getConcurrency() {
+		final int concurrency = appConfiguration.getCleanServiceConcurrency();
+		return concurrency > 0 ? concurrency : DEFAULT_CONCURRENCY;
+	}
+
+	private void updateConcurrency() {
+		final int concurrency = getConcurrency();
+		if (concurrency == executor.getMaximumPoolSize()) {
+			return;
+		}
+
+		if (concurrency > executor.getMaximumPoolSize()) {
+			executor.setMaximumPoolSize(concurrency);
+			executor.setCorePoolSize(concurrency);
+		} else {
+			executor.setCorePoolSize(concurrency);
+			executor.setMaximumPoolSize(concurrency);
+		}
+	}
+
 	public Set<String> createCleanServiceBaseDns() {
         final String u2fBase = staticConfiguration.getBaseDn().getU2fBase();
 
@@ -0,0 +1,121 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.gluu.oxauth.service.common.EncryptionService;
+import org.gluu.util.security.StringEncrypter.EncryptionException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+/**
+ * Verifies client secret without decrypting stored (encrypted) secret on each client authentication.
+ * <p>
+ * For each client it keeps HMAC-SHA256 of decrypted secret computed with random key generated at startup (key and
+ * digests are kept in memory only). Verifier is bound to encrypted secret value it was created from, so if secret is
+ * rotated (encrypted value changed) verifier is re-created on next authentication. Presented secret is compared by
+ * digest in constant time.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@ApplicationScoped
+@Named
+public class ClientSecretVerifier {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Inject
+    private EncryptionService encryptionService;
+
+    private final Cache<String, Verifier> verifiers;
+    private final SecretKeySpec key;
+    private final SecretDecrypter decrypter;
+
+    public ClientSecretVerifier() {
+        this(DEFAULT_MAX_SIZE, null);
+    }
+
+    ClientSecretVerifier(int maxSize, SecretDecrypter decrypter) {
+        final byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+
+        this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.verifiers = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        this.decrypter = decrypter;
+    }
+
+    /**
+     * @param clientId        client id
+     * @param encryptedSecret client secret as it is stored (encrypted)
+     * @param secret          secret presented by client
+     * @return true if presented secret is equal to stored secret
+     * @throws EncryptionException if stored secret can't be decrypted
+     */
+    public boolean verify(String clientId, String encryptedSecret, String secret) throws EncryptionException {
+        if (clientId == null || encryptedSecret == null || secret == null) {
+            return false;
+        }
+
+        Verifier verifier = verifiers.getIfPresent(clientId);
+        if (verifier == null || !verifier.encryptedSecret.equals(encryptedSecret)) {
+            final String decryptedSecret = decrypt(encryptedSecret);
+            verifier = new Verifier(encryptedSecret, decryptedSecret != null ? digest(decryptedSecret) : null);
+            verifiers.put(clientId, verifier);
+        }
+
+        return verifier.digest != null && MessageDigest.isEqual(verifier.digest, digest(secret));
+    }
+
+    public void invalidate(String clientId) {
+        if (clientId != null) {
+            verifiers.invalidate(clientId);
+        }
+    }
+
+    public long size() {
+        return verifiers.size();
+    }
+
+    private String decrypt(String encryptedSecret) throws EncryptionException {
+        return decrypter != null ? decrypter.decrypt(encryptedSecret) : encryptionService.decrypt(encryptedSecret);
+    }
+
+    private byte[] digest(String value) {
+        try {
+            final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to calculate " + HMAC_ALGORITHM, e);
+        }
+    }
+
+    interface SecretDecrypter {
+        String decrypt(String encryptedSecret) throws EncryptionException;
+    }
+
+    private static class Verifier {
+
+        private final String encryptedSecret;
+        private final byte[] digest;
+
+        private Verifier(String encryptedSecret, byte[] digest) {
+            this.encryptedSecret = encryptedSecret;
+            this.digest = digest;
+        }
+    }
+}
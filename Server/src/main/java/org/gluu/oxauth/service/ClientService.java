@@ -64,6 +64,9 @@ public class ClientService {
 	@Inject
 	private EncryptionService encryptionService;
 
+	@Inject
+	private ClientSecretVerifier clientSecretVerifier;
+
 	@Inject
 	private AppConfiguration appConfiguration;
 
@@ -77,6 +80,7 @@ public class ClientService {
 	public void merge(Client client) {
 		ldapEntryManager.merge(client);
 		removeFromCache(client);
+		clientSecretVerifier.invalidate(client.getClientId());
 	}
 
 	/**
@@ -98,8 +102,7 @@ public class ClientService {
 				log.debug("Failed to find client = {}", clientId);
 				return authenticated;
 			}
-			String decryptedClientSecret = decryptSecret(client.getClientSecret());
-			authenticated = client != null && decryptedClientSecret != null && decryptedClientSecret.equals(password);
+			authenticated = clientSecretVerifier.verify(client.getClientId(), client.getClientSecret(), password);
 		} catch (StringEncrypter.EncryptionException e) {
 			log.error(e.getMessage(), e);
 		}
@@ -239,6 +242,7 @@ public class ClientService {
 	public void remove(Client client) {
 		if (client != null) {
 			removeFromCache(client);
+			clientSecretVerifier.invalidate(client.getClientId());
 
 			String clientDn = client.getDn();
 			ldapEntryManager.removeRecursively(clientDn);
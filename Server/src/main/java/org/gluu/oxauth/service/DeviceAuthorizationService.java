@@ -8,6 +8,7 @@ package org.gluu.oxauth.service;
 
 import org.apache.commons.lang.StringUtils;
 import org.gluu.oxauth.model.authorize.AuthorizeErrorResponseType;
+import org.gluu.oxauth.model.common.CacheEntryCodec;
 import org.gluu.oxauth.model.common.DeviceAuthorizationCacheControl;
 import org.gluu.oxauth.model.common.DeviceAuthorizationStatus;
 import org.gluu.oxauth.model.common.GrantType;
@@ -56,6 +57,9 @@ public class DeviceAuthorizationService implements Serializable {
     @Inject
     private SessionIdService sessionIdService;
 
+    @Inject
+    private ClientService clientService;
+
     /**
      * Saves data in cache, it could be saved with two identifiers used by Token endpoint or device_authorization page.
      * @param data Data to be saved.
@@ -63,11 +67,12 @@ public class DeviceAuthorizationService implements Serializable {
      * @param saveUserCode Defines whether data should be saved using user code.
      */
     public void saveInCache(DeviceAuthorizationCacheControl data, boolean saveDeviceCode, boolean saveUserCode) {
+        final byte[] encoded = CacheEntryCodec.encode(data);
         if (saveDeviceCode) {
-            cacheService.put(data.getExpiresIn(), data.getDeviceCode(), data);
+            cacheService.put(data.getExpiresIn(), data.getDeviceCode(), encoded);
         }
         if (saveUserCode) {
-            cacheService.put(data.getExpiresIn(), data.getUserCode(), data);
+            cacheService.put(data.getExpiresIn(), data.getUserCode(), encoded);
         }
         log.trace("Device request saved in cache, userCode: {}, deviceCode: {}, clientId: {}", data.getUserCode(), data.getDeviceCode(), data.getClient().getClientId());
     }
@@ -82,7 +87,7 @@ public class DeviceAuthorizationService implements Serializable {
             cachedObject = cacheService.get(userCode);
             log.trace("Failed to fetch DeviceAuthorizationCacheControl request from cache, cacheKey: {}", userCode);
         }
-        return cachedObject instanceof DeviceAuthorizationCacheControl ? (DeviceAuthorizationCacheControl) cachedObject : null;
+        return asDeviceAuthorization(cachedObject);
     }
 
     /**
@@ -95,7 +100,25 @@ public class DeviceAuthorizationService implements Serializable {
             cachedObject = cacheService.get(deviceCode);
             log.trace("Failed to fetch DeviceAuthorizationCacheControl request from cache, cacheKey: {}", deviceCode);
         }
-        return cachedObject instanceof DeviceAuthorizationCacheControl ? (DeviceAuthorizationCacheControl) cachedObject : null;
+        return asDeviceAuthorization(cachedObject);
+    }
+
+    /**
+     * Decodes cached device authorization data and re-hydrates client by reference.
+     */
+    private DeviceAuthorizationCacheControl asDeviceAuthorization(Object cachedObject) {
+        final DeviceAuthorizationCacheControl data = CacheEntryCodec.decodeDeviceAuthorization(cachedObject);
+        if (data == null) {
+            return null;
+        }
+
+        final Client client = clientService.getClient(data.getClientId());
+        if (client == null) {
+            log.debug("Failed to find client of cached device authorization, clientId: {}", data.getClientId());
+            return null;
+        }
+        data.setClient(client);
+        return data;
     }
 
     /**
@@ -14,6 +14,7 @@ import org.gluu.oxauth.model.config.StaticConfiguration;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.model.ldap.TokenLdap;
 import org.gluu.oxauth.model.ldap.TokenType;
+import org.gluu.oxauth.service.token.RevokedJtiService;
 import org.gluu.oxauth.util.TokenHashUtil;
 import org.gluu.persist.PersistenceEntryManager;
 import org.gluu.search.filter.Filter;
@@ -38,6 +39,8 @@ import static org.gluu.oxauth.util.ServerUtil.isTrue;
 @Named
 public class GrantService {
 
+    private static final int REMOVE_BATCH_SIZE = 100;
+
     @Inject
     private Logger log;
 
@@ -59,6 +62,21 @@ public class GrantService {
     @Inject
     private CacheConfiguration cacheConfiguration;
 
+    @Inject
+    private RevokedJtiService revokedJtiService;
+
+    public GrantService() {
+    }
+
+    GrantService(PersistenceEntryManager persistenceEntryManager, CacheService cacheService,
+                 StaticConfiguration staticConfiguration, RevokedJtiService revokedJtiService, Logger log) {
+        this.persistenceEntryManager = persistenceEntryManager;
+        this.cacheService = cacheService;
+        this.staticConfiguration = staticConfiguration;
+        this.revokedJtiService = revokedJtiService;
+        this.log = log;
+    }
+
     public static String generateGrantId() {
         return UUID.randomUUID().toString();
     }
@@ -113,6 +131,7 @@ public class GrantService {
     public void removeSilently(TokenLdap token) {
         try {
             remove(token);
+            revokedJtiService.revoke(token.getAttributes().getJti(), token.getExpirationDate());
 
             if (StringUtils.isNotBlank(token.getAuthorizationCode())) {
                 cacheService.remove(CacheGrant.cacheKey(token.getAuthorizationCode(), token.getGrantId()));
@@ -134,12 +153,68 @@ public class GrantService {
         }
     }
 
+    /**
+     * Removes tokens in bulk. All tokens are revoked first (each jti published under its own shared cache key, cached
+     * grants removed), then tokens from token branch are removed from persistence with one filter based delete per
+     * batch instead of delete per token. If batch delete fails, tokens of that batch are removed one by one.
+     */
     public void removeSilently(List<TokenLdap> p_entries) {
-        if (p_entries != null && !p_entries.isEmpty()) {
-            for (TokenLdap t : p_entries) {
-                removeSilently(t);
+        if (p_entries == null || p_entries.isEmpty()) {
+            return;
+        }
+        if (p_entries.size() == 1) {
+            removeSilently(p_entries.get(0));
+            return;
+        }
+
+        final Map<String, Date> jtis = new HashMap<>();
+        for (TokenLdap token : p_entries) {
+            if (token.getAttributes() != null && StringUtils.isNotBlank(token.getAttributes().getJti())) {
+                jtis.put(token.getAttributes().getJti(), token.getExpirationDate());
             }
         }
+        revokedJtiService.revoke(jtis);
+
+        final List<TokenLdap> inTokenBranch = Lists.newArrayList();
+        final String tokenBaseDn = StringUtils.lowerCase(tokenBaseDn());
+        for (TokenLdap token : p_entries) {
+            if (StringUtils.isNotBlank(token.getAuthorizationCode())) {
+                try {
+                    cacheService.remove(CacheGrant.cacheKey(token.getAuthorizationCode(), token.getGrantId()));
+                } catch (Exception e) {
+                    log.error(e.getMessage(), e);
+                }
+            }
+
+            if (StringUtils.isNotBlank(token.getTokenCode()) && StringUtils.endsWith(StringUtils.lowerCase(token.getDn()), tokenBaseDn)) {
+                inTokenBranch.add(token);
+            } else {
+                try {
+                    remove(token); // e.g. old token under client entry
+                } catch (Exception e) {
+                    log.error(e.getMessage(), e);
+                }
+            }
+        }
+
+        for (List<TokenLdap> batch : Lists.partition(inTokenBranch, REMOVE_BATCH_SIZE)) {
+            removeBatch(batch);
+        }
+    }
+
+    private void removeBatch(List<TokenLdap> batch) {
+        try {
+            final Filter[] filters = new Filter[batch.size()];
+            for (int i = 0; i < filters.length; i++) {
+                filters[i] = Filter.createEqualityFilter("tknCde", batch.get(i).getTokenCode());
+            }
+
+            final int removed = persistenceEntryManager.remove(tokenBaseDn(), TokenLdap.class, Filter.createORFilter(filters), batch.size());
+            log.trace("Removed {} tokens of {} from persistence", removed, batch.size());
+        } catch (Exception e) {
+            log.error("Failed to remove tokens batch, removing tokens one by one.", e);
+            remove(batch);
+        }
     }
 
     public void remove(AuthorizationGrant p_grant) {
@@ -12,8 +12,8 @@ import org.gluu.oxauth.model.config.WebKeysConfiguration;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.model.crypto.AbstractCryptoProvider;
 import org.gluu.oxauth.model.jwk.JSONWebKey;
+import org.gluu.oxauth.model.util.JsonMappers;
 import org.gluu.oxauth.service.cdi.event.KeyGenerationEvent;
-import org.gluu.oxauth.util.ServerUtil;
 import org.gluu.persist.PersistenceEntryManager;
 import org.gluu.service.cdi.async.Asynchronous;
 import org.gluu.service.cdi.event.Scheduled;
@@ -129,11 +129,12 @@ public class KeyGeneratorTimer {
         JSONObject jwks = conf.getWebKeys().toJSONObject();
         JSONObject updatedJwks =  updateKeys(jwks);
 
-        conf.setWebKeys(ServerUtil.createJsonMapper().readValue(updatedJwks.toString(), WebKeysConfiguration.class));
+        conf.setWebKeys(JsonMappers.reader(WebKeysConfiguration.class).readValue(updatedJwks.toString()));
 
         long nextRevision = conf.getRevision() + 1;
         conf.setRevision(nextRevision);
         ldapEntryManager.merge(conf);
+        configurationFactory.publishRevision(nextRevision);
 
         log.info("Updated JWKS successfully");
         log.trace("JWKS keys: " + conf.getWebKeys().getKeys().stream().map(JSONWebKey::getKid).collect(Collectors.toList()));
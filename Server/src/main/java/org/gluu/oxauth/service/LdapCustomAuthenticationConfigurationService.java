@@ -17,6 +17,7 @@ import javax.inject.Named;
 import org.gluu.model.AuthenticationScriptUsageType;
 import org.gluu.model.SimpleCustomProperty;
 import org.gluu.model.config.CustomAuthenticationConfiguration;
+import org.gluu.oxauth.model.util.JsonMappers;
 import org.gluu.oxauth.service.common.ConfigurationService;
 import org.gluu.util.StringHelper;
 import org.oxauth.persistence.model.configuration.CustomProperty;
@@ -24,8 +25,6 @@ import org.oxauth.persistence.model.configuration.GluuConfiguration;
 import org.oxauth.persistence.model.configuration.oxIDPAuthConf;
 import org.slf4j.Logger;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 /**
  * Provides service methods methods with LDAP configuration
  *
@@ -106,9 +105,7 @@ public class LdapCustomAuthenticationConfigurationService implements Serializabl
 	}
 
 	private Object jsonToObject(String json, Class<?> clazz) throws Exception {
-		ObjectMapper mapper = new ObjectMapper();
-		Object clazzObject = mapper.readValue(json, clazz);
-		return clazzObject;
+		return JsonMappers.reader(clazz).readValue(json);
 	}
 
 }
@@ -0,0 +1,152 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.gluu.oxauth.metric.CumulativeTimer;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.util.ServerUtil;
+import org.gluu.service.cdi.event.ConfigurationUpdate;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Named;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory performance metrics (latency distributions, cache hit/miss counters) exposed by /metrics endpoint.
+ * <p>
+ * Unlike {@link MetricService} nothing is written to persistence, metrics live only in memory of the node.
+ * Metric name has form {@code family{label="value",...}} which is directly used in Prometheus text format.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@ApplicationScoped
+@Named
+public class PerformanceMetricService {
+
+    public static final String ENDPOINT_LATENCY = "oxauth_endpoint_latency_seconds";
+    public static final String GRANT_TYPE_LATENCY = "oxauth_token_grant_type_latency_seconds";
+    public static final String PERSISTENCE_LATENCY = "oxauth_persistence_operation_latency_seconds";
+    public static final String SCRIPT_LATENCY = "oxauth_script_latency_seconds";
+    public static final String CACHE_REQUESTS = "oxauth_cache_requests_total";
+    public static final String CLEANER_BATCH_SIZE = "oxauth_cleaner_batch_size";
+    public static final String CLEANER_BACKLOG = "oxauth_cleaner_backlog";
+    public static final String CLEANER_REMOVED = "oxauth_cleaner_removed_entries";
+    public static final String CLEANER_LAST_RUN_DURATION = "oxauth_cleaner_last_run_duration_seconds";
+
+    private final MetricRegistry registry = new MetricRegistry();
+
+    // metrics can be recorded before configuration is loaded (e.g. persistence operations), so flag is kept locally
+    private volatile boolean enabled = false;
+
+    public void updateConfiguration(@Observes @ConfigurationUpdate AppConfiguration appConfiguration) {
+        this.enabled = ServerUtil.isTrue(appConfiguration.getPerformanceMetricsEnabled());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public MetricRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @return start time which has to be passed to {@code record*} methods
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void recordEndpoint(String endpoint, long startTime) {
+        record(name(ENDPOINT_LATENCY, "endpoint", endpoint), startTime);
+    }
+
+    public void recordGrantType(String grantType, long startTime) {
+        record(name(GRANT_TYPE_LATENCY, "grant_type", grantType), startTime);
+    }
+
+    public void recordPersistence(String operation, long startTime) {
+        record(name(PERSISTENCE_LATENCY, "operation", operation), startTime);
+    }
+
+    public void recordScript(String type, String script, long startTime) {
+        record(name(SCRIPT_LATENCY, "type", type, "script", script), startTime);
+    }
+
+    public void cacheHit(String cache) {
+        if (isEnabled()) {
+            registry.counter(name(CACHE_REQUESTS, "cache", cache, "result", "hit")).inc();
+        }
+    }
+
+    public void cacheMiss(String cache) {
+        if (isEnabled()) {
+            registry.counter(name(CACHE_REQUESTS, "cache", cache, "result", "miss")).inc();
+        }
+    }
+
+    /**
+     * Registers gauge once per name, gauge value is read when metrics are exposed.
+     */
+    public void registerGauge(String name, Gauge<?> gauge) {
+        if (registry.getGauges().containsKey(name)) {
+            return;
+        }
+        try {
+            registry.register(name, gauge);
+        } catch (IllegalArgumentException e) {
+            // registered concurrently
+        }
+    }
+
+    private void record(String name, long startTime) {
+        if (isEnabled()) {
+            timer(name).update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return timer registered with given name, timers keep cumulative sum which is exposed as summary {@code _sum}
+     */
+    Timer timer(String name) {
+        final Timer timer = registry.getTimers().get(name);
+        if (timer != null) {
+            return timer;
+        }
+        try {
+            return registry.register(name, new CumulativeTimer());
+        } catch (IllegalArgumentException e) {
+            return registry.timer(name); // registered concurrently
+        }
+    }
+
+    public static String name(String family, String... labels) {
+        if (labels.length == 0) {
+            return family;
+        }
+
+        final StringBuilder sb = new StringBuilder(family).append('{');
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(escapeLabelValue(labels[i + 1])).append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String escapeLabelValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import org.apache.commons.lang.StringUtils;
+import org.gluu.oxauth.model.common.ScopeType;
+import org.oxauth.persistence.model.Scope;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of all scopes with precomputed indexes (by id, dn, claim dn, type and default scopes).
+ * <p>
+ * Snapshot is never modified after creation: change of single scope produces new snapshot with increased version
+ * (see {@link #with(Scope)}). DN keys are lower-cased, since DN is case insensitive.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class ScopeCatalogue {
+
+    public static final ScopeCatalogue EMPTY = new ScopeCatalogue(0, 0, Collections.emptyList());
+
+    private final long version;
+    private final long loadedAt;
+    private final List<Scope> scopes;
+    private final Map<String, Scope> byId;
+    private final Map<String, Scope> byDn;
+    private final Map<String, List<Scope>> byClaimDn;
+    private final Map<ScopeType, List<Scope>> byType;
+    private final List<String> defaultScopeDns;
+
+    /**
+     * @param version  version of snapshot
+     * @param loadedAt time in millis when scopes were loaded from persistence
+     * @param scopes   scopes
+     */
+    public ScopeCatalogue(long version, long loadedAt, Collection<Scope> scopes) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+
+        final Map<String, Scope> byId = new HashMap<>();
+        final Map<String, Scope> byDn = new LinkedHashMap<>();
+        final Map<String, List<Scope>> byClaimDn = new HashMap<>();
+        final Map<ScopeType, List<Scope>> byType = new EnumMap<>(ScopeType.class);
+        final List<String> defaultScopeDns = new ArrayList<>();
+
+        for (Scope scope : scopes) {
+            if (scope == null || StringUtils.isBlank(scope.getDn())) {
+                continue;
+            }
+            byDn.put(dnKey(scope.getDn()), scope);
+        }
+        for (Scope scope : byDn.values()) {
+            if (StringUtils.isNotBlank(scope.getId())) {
+                byId.putIfAbsent(scope.getId(), scope); // id must be unique, first one wins as it was with search
+            }
+            if (scope.getOxAuthClaims() != null) {
+                for (String claimDn : scope.getOxAuthClaims()) {
+                    if (claimDn != null) {
+                        byClaimDn.computeIfAbsent(dnKey(claimDn), key -> new ArrayList<>()).add(scope);
+                    }
+                }
+            }
+            if (scope.getScopeType() != null) {
+                byType.computeIfAbsent(scope.getScopeType(), key -> new ArrayList<>()).add(scope);
+            }
+            if (Boolean.TRUE.equals(scope.isDefaultScope())) {
+                defaultScopeDns.add(scope.getDn());
+            }
+        }
+        byClaimDn.replaceAll((key, value) -> Collections.unmodifiableList(value));
+        byType.replaceAll((key, value) -> Collections.unmodifiableList(value));
+
+        this.scopes = Collections.unmodifiableList(new ArrayList<>(byDn.values()));
+        this.byId = byId;
+        this.byDn = byDn;
+        this.byClaimDn = byClaimDn;
+        this.byType = byType;
+        this.defaultScopeDns = Collections.unmodifiableList(defaultScopeDns);
+    }
+
+    /**
+     * @return new snapshot with given scope added or replaced (matched by dn), load time is kept
+     */
+    public ScopeCatalogue with(Scope scope) {
+        final Map<String, Scope> updated = new LinkedHashMap<>(byDn);
+        updated.put(dnKey(scope.getDn()), scope);
+        return new ScopeCatalogue(version + 1, loadedAt, updated.values());
+    }
+
+    private static String dnKey(String dn) {
+        return dn.toLowerCase();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public List<Scope> getScopes() {
+        return scopes;
+    }
+
+    public Scope getById(String id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    public Scope getByDn(String dn) {
+        return dn != null ? byDn.get(dnKey(dn)) : null;
+    }
+
+    public List<Scope> getByClaimDn(String claimDn) {
+        return claimDn != null ? byClaimDn.getOrDefault(dnKey(claimDn), Collections.emptyList()) : Collections.emptyList();
+    }
+
+    public List<Scope> getByType(ScopeType scopeType) {
+        return byType.getOrDefault(scopeType, Collections.emptyList());
+    }
+
+    public List<String> getDefaultScopeDns() {
+        return defaultScopeDns;
+    }
+
+    public int size() {
+        return scopes.size();
+    }
+}
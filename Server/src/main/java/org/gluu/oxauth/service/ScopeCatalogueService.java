@@ -0,0 +1,196 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang.StringUtils;
+import org.gluu.oxauth.model.config.StaticConfiguration;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.exception.EntryPersistenceException;
+import org.gluu.search.filter.Filter;
+import org.oxauth.persistence.model.Scope;
+import org.slf4j.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds {@link ScopeCatalogue}, so scope lookups do not hit persistence.
+ * <p>
+ * Catalogue is loaded on first use and re-loaded once per {@code scopeCatalogueRefreshIntervalInSeconds} (by single
+ * caller, others keep using current snapshot). Scopes persisted by this node are added to catalogue immediately.
+ * Lookup miss (e.g. scope created by other node) is answered by single search of that scope, found scope is added to
+ * catalogue and not found one is remembered for {@code MISS_LIFETIME_IN_SECONDS}, so repeated lookups of unknown
+ * scope (e.g. not yet created spontaneous scope) do not hit persistence. Code which creates scope if it is absent
+ * must use {@link #findById(String)} instead.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@ApplicationScoped
+@Named
+public class ScopeCatalogueService {
+
+    private static final int MISS_LIFETIME_IN_SECONDS = 5;
+    private static final int MAX_MISSES = 10000;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private PersistenceEntryManager ldapEntryManager;
+
+    @Inject
+    private StaticConfiguration staticConfiguration;
+
+    @Inject
+    private AppConfiguration appConfiguration;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final Cache<String, Boolean> misses = CacheBuilder.newBuilder().maximumSize(MAX_MISSES)
+            .expireAfterWrite(MISS_LIFETIME_IN_SECONDS, TimeUnit.SECONDS).build();
+    private volatile ScopeCatalogue catalogue;
+
+    public ScopeCatalogue getCatalogue() {
+        final ScopeCatalogue current = catalogue;
+        if (current == null) {
+            reloadLock.lock();
+            try {
+                return catalogue != null ? catalogue : load();
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+
+        final long refreshInterval = TimeUnit.SECONDS.toMillis(appConfiguration.getScopeCatalogueRefreshIntervalInSeconds());
+        if (System.currentTimeMillis() - current.getLoadedAt() >= refreshInterval && reloadLock.tryLock()) {
+            try {
+                if (catalogue.getLoadedAt() == current.getLoadedAt()) {
+                    load();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return catalogue;
+    }
+
+    /**
+     * Searches scope which is not in catalogue by id.
+     *
+     * @return scope (which is added to catalogue) or null if it does not exist
+     */
+    public Scope findMissingById(String id) {
+        final String missKey = idMissKey(id);
+        if (id == null || misses.getIfPresent(missKey) != null) {
+            return null;
+        }
+        try {
+            final Scope scope = findById(id);
+            if (scope != null) {
+                return scope;
+            }
+            misses.put(missKey, Boolean.TRUE);
+        } catch (Exception e) {
+            log.error("Failed to find scope with id: " + id, e);
+        }
+        return null;
+    }
+
+    /**
+     * Searches scope by id in persistence, ignoring remembered misses. Has to be used before scope is created, so that
+     * scope created by other node recently (or failed search) is not taken for not existing scope.
+     *
+     * @return scope (which is added to catalogue) or null if it does not exist
+     * @throws RuntimeException if search failed
+     */
+    public Scope findById(String id) {
+        final List<Scope> scopes = ldapEntryManager.findEntries(staticConfiguration.getBaseDn().getScopes(),
+                Scope.class, Filter.createEqualityFilter("oxId", id));
+        if (scopes == null || scopes.isEmpty()) {
+            return null;
+        }
+        put(scopes.get(0));
+        return scopes.get(0);
+    }
+
+    /**
+     * Searches scope which is not in catalogue by dn.
+     *
+     * @return scope (which is added to catalogue) or null if it does not exist
+     */
+    public Scope findMissingByDn(String dn) {
+        final String missKey = dnMissKey(dn);
+        if (dn == null || misses.getIfPresent(missKey) != null) {
+            return null;
+        }
+        try {
+            final Scope scope = ldapEntryManager.find(Scope.class, dn);
+            if (scope != null) {
+                put(scope);
+                return scope;
+            }
+            misses.put(missKey, Boolean.TRUE);
+        } catch (EntryPersistenceException e) {
+            log.trace("Scope is not found by dn: " + dn, e);
+            misses.put(missKey, Boolean.TRUE);
+        } catch (Exception e) {
+            log.error("Failed to find scope by dn: " + dn, e);
+        }
+        return null;
+    }
+
+    /**
+     * Adds or replaces scope in catalogue (called after scope is persisted by this node).
+     */
+    public void put(Scope scope) {
+        if (scope == null || scope.getDn() == null) {
+            return;
+        }
+        misses.invalidate(dnMissKey(scope.getDn()));
+        if (scope.getId() != null) {
+            misses.invalidate(idMissKey(scope.getId()));
+        }
+        reloadLock.lock();
+        try {
+            if (catalogue != null) {
+                catalogue = catalogue.with(scope);
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private ScopeCatalogue load() {
+        final long now = System.currentTimeMillis();
+        final long version = catalogue != null ? catalogue.getVersion() + 1 : 1;
+        try {
+            final List<Scope> scopes = ldapEntryManager.findEntries(staticConfiguration.getBaseDn().getScopes(),
+                    Scope.class, Filter.createPresenceFilter("inum"));
+            catalogue = new ScopeCatalogue(version, now, scopes);
+            log.trace("Loaded scope catalogue, version: {}, scopes: {}", version, catalogue.size());
+        } catch (Exception e) {
+            log.error("Failed to load scopes.", e);
+            // keep previous scopes, load time is updated to not retry on each lookup
+            catalogue = new ScopeCatalogue(version, now, catalogue != null ? catalogue.getScopes() : ScopeCatalogue.EMPTY.getScopes());
+        }
+        return catalogue;
+    }
+
+    private static String idMissKey(String id) {
+        return "id " + id;
+    }
+
+    private static String dnMissKey(String dn) {
+        return "dn " + StringUtils.lowerCase(dn);
+    }
+}
@@ -8,14 +8,8 @@ package org.gluu.oxauth.service;
 
 import com.google.common.collect.Lists;
 import org.apache.commons.lang.StringUtils;
-import org.gluu.oxauth.model.config.StaticConfiguration;
-import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.common.ScopeType;
 import org.gluu.persist.PersistenceEntryManager;
-import org.gluu.search.filter.Filter;
-import org.gluu.service.BaseCacheService;
-import org.gluu.service.CacheService;
-import org.gluu.service.LocalCacheService;
-import org.gluu.util.StringHelper;
 import org.oxauth.persistence.model.Scope;
 import org.slf4j.Logger;
 
@@ -36,20 +30,11 @@ public class ScopeService {
     @Inject
     private Logger log;
 
-    @Inject
-	private AppConfiguration appConfiguration;
-
-	@Inject
-	private CacheService cacheService;
-
-    @Inject
-    private LocalCacheService localCacheService;
-
     @Inject
     private PersistenceEntryManager ldapEntryManager;
 
     @Inject
-    private StaticConfiguration staticConfiguration;
+    private ScopeCatalogueService scopeCatalogueService;
 
     /**
      * returns a list of all scopes
@@ -57,23 +42,11 @@ public class ScopeService {
      * @return list of scopes
      */
     public List<Scope> getAllScopesList() {
-        String scopesBaseDN = staticConfiguration.getBaseDn().getScopes();
-
-        return ldapEntryManager.findEntries(scopesBaseDN,
-                Scope.class,
-                Filter.createPresenceFilter("inum"));
+        return scopeCatalogueService.getCatalogue().getScopes();
     }
 
     public List<String> getDefaultScopesDn() {
-        List<String> defaultScopes = new ArrayList<>();
-
-        for (Scope scope : getAllScopesList()) {
-            if (Boolean.TRUE.equals(scope.isDefaultScope())) {
-                defaultScopes.add(scope.getDn());
-            }
-        }
-
-        return defaultScopes;
+        return new ArrayList<>(scopeCatalogueService.getCatalogue().getDefaultScopeDns());
     }
 
     public List<String> getScopesDn(List<String> scopeNames) {
@@ -110,12 +83,8 @@ public class ScopeService {
      * @return Scope
      */
     public Scope getScopeByDn(String dn) {
-    	BaseCacheService usedCacheService = getCacheService();
-        final Scope scope = usedCacheService.getWithPut(dn, () -> ldapEntryManager.find(Scope.class, dn), 60);
-        if (scope != null && StringUtils.isNotBlank(scope.getId())) {
-        	usedCacheService.put(scope.getId(), scope); // put also by id, since we call it by id and dn
-        }
-        return scope;
+        final Scope scope = scopeCatalogueService.getCatalogue().getByDn(dn);
+        return scope != null ? scope : scopeCatalogueService.findMissingByDn(dn);
     }
 
     /**
@@ -139,27 +108,22 @@ public class ScopeService {
      * @return scope
      */
     public Scope getScopeById(String id) {
-    	BaseCacheService usedCacheService = getCacheService();
-
-    	final Object cached = usedCacheService.get(id);
-        if (cached != null)
-            return (Scope) cached;
+        final Scope scope = scopeCatalogueService.getCatalogue().getById(id);
+        return scope != null ? scope : scopeCatalogueService.findMissingById(id);
+    }
 
-        try {
-            List<Scope> scopes = ldapEntryManager.findEntries(
-                    staticConfiguration.getBaseDn().getScopes(), Scope.class, Filter.createEqualityFilter("oxId", id));
-            if ((scopes != null) && (scopes.size() > 0)) {
-                final Scope scope = scopes.get(0);
-                usedCacheService.put(id, scope);
-                usedCacheService.put(scope.getDn(), scope);
-                return scope;
-            }
-        } catch (Exception e) {
-            log.error("Failed to find scope with id: " + id, e);
-        }
-        return null;
+    /**
+     * Get scope by id, existence is checked in persistence if scope is not in catalogue (remembered misses are not
+     * used and search errors are not swallowed). Must be used when scope is created if it does not exist.
+     *
+     * @param id scope id
+     * @return scope or null if scope does not exist
+     */
+    public Scope getScopeByIdForCreate(String id) {
+        final Scope scope = scopeCatalogueService.getCatalogue().getById(id);
+        return scope != null ? scope : scopeCatalogueService.findById(id);
     }
-    
+
     /**
      * Get scope by oxAuthClaims
      *
@@ -167,17 +131,7 @@ public class ScopeService {
      * @return List of scope
      */
     public List<Scope> getScopeByClaim(String claimDn) {
-    	List<Scope> scopes = fromCacheByClaimDn(claimDn);
-    	if (scopes == null) {
-	        Filter filter = Filter.createEqualityFilter("oxAuthClaim", claimDn);
-	        
-	    	String scopesBaseDN = staticConfiguration.getBaseDn().getScopes();
-	        scopes = ldapEntryManager.findEntries(scopesBaseDN, Scope.class, filter);
-	
-	        putInCache(claimDn, scopes);
-    	}
-
-        return scopes;
+        return scopeCatalogueService.getCatalogue().getByClaimDn(claimDn);
     }
 
 	public List<Scope> getScopesByClaim(List<Scope> scopes, String claimDn) {
@@ -192,46 +146,19 @@ public class ScopeService {
 		return result;
 	}
 
-    private void putInCache(String claimDn, List<Scope> scopes) {
-    	if (scopes == null) {
-    		return;
-    	}
-
-    	BaseCacheService usedCacheService = getCacheService();
-    	try {
-        	String key = getClaimDnCacheKey(claimDn);
-        	usedCacheService.put(key, scopes);
-        } catch (Exception ex) {
-            log.error("Failed to put scopes in cache, claimDn: '{}'", claimDn, ex);
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-	private List<Scope> fromCacheByClaimDn(String claimDn) {
-    	BaseCacheService usedCacheService = getCacheService();
-        try {
-        	String key = getClaimDnCacheKey(claimDn);
-            return (List<Scope>) usedCacheService.get(key);
-        } catch (Exception ex) {
-            log.error("Failed to get scopes from cache, claimDn: '{}'", claimDn, ex);
-            return null;
-        }
-    }
-
-    private static String getClaimDnCacheKey(String claimDn) {
-        return "claim_dn" + StringHelper.toLowerCase(claimDn);
+    /**
+     * Get scopes by type
+     *
+     * @param scopeType scope type
+     * @return List of scope
+     */
+    public List<Scope> getScopesByType(ScopeType scopeType) {
+        return scopeCatalogueService.getCatalogue().getByType(scopeType);
     }
 
     public void persist(Scope scope) {
         ldapEntryManager.persist(scope);
-    }
-
-    private BaseCacheService getCacheService() {
-    	if (appConfiguration.getUseLocalCache()) {
-    		return localCacheService;
-    	}
-    	
-    	return cacheService;
+        scopeCatalogueService.put(scope);
     }
 
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package org.gluu.oxauth.service;
 
 import org.apache.log4j.Logger;
 import org.gluu.oxauth.model.config.ConfigurationFactory;
+import org.gluu.oxauth.model.config.WebKeysConfiguration;
 import org.gluu.oxauth.model.crypto.AbstractCryptoProvider;
 import org.gluu.oxauth.model.crypto.signature.AlgorithmFamily;
 import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
@@ -24,10 +25,16 @@ public class ServerCryptoProvider extends AbstractCryptoProvider {
 
     private final ConfigurationFactory configurationFactory;
     private final AbstractCryptoProvider cryptoProvider;
+    private final SigningKeySelector signingKeySelector;
 
     public ServerCryptoProvider(AbstractCryptoProvider cryptoProvider) {
-        this.configurationFactory = CdiUtil.bean(ConfigurationFactory.class);
+        this(cryptoProvider, CdiUtil.bean(ConfigurationFactory.class), CdiUtil.bean(SigningKeySelector.class));
+    }
+
+    public ServerCryptoProvider(AbstractCryptoProvider cryptoProvider, ConfigurationFactory configurationFactory, SigningKeySelector signingKeySelector) {
+        this.configurationFactory = configurationFactory;
         this.cryptoProvider = cryptoProvider;
+        this.signingKeySelector = signingKeySelector;
         Preconditions.checkNotNull(configurationFactory);
         Preconditions.checkNotNull(cryptoProvider);
     }
@@ -38,6 +45,9 @@ public class ServerCryptoProvider extends AbstractCryptoProvider {
             if (algorithm == null || AlgorithmFamily.HMAC.equals(algorithm.getFamily())) {
                 return null;
             }
+            if (signingKeySelector != null && jsonWebKeySet instanceof WebKeysConfiguration) {
+                return getServerKeyId(algorithm, use);
+            }
             final String kid = cryptoProvider.getKeyId(jsonWebKeySet, algorithm, use);
             if (!cryptoProvider.getKeys().contains(kid) && configurationFactory.reloadConfFromLdap()) {
                 return cryptoProvider.getKeyId(jsonWebKeySet, algorithm, use);
@@ -53,6 +63,29 @@ public class ServerCryptoProvider extends AbstractCryptoProvider {
         return null;
     }
 
+    /**
+     * Selects kid of server web keys with precomputed table instead of web keys and keystore scan.
+     */
+    private String getServerKeyId(Algorithm algorithm, Use use) {
+        SigningKeySelectionTable.Entry entry = signingKeySelector.select(algorithm, use);
+        if (entry != null && entry.isInStore()) {
+            return entry.getKid();
+        }
+
+        // key can be rotated by other node
+        if (configurationFactory.reloadConfFromLdap()) {
+            signingKeySelector.invalidate();
+            entry = signingKeySelector.select(algorithm, use);
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.isInStore()) {
+            LOG.trace("kid is not in keystore, algorithm: " + algorithm + ", kid: " + entry.getKid());
+        }
+        return entry.getKid();
+    }
+
     @Override
     public JSONObject generateKey(Algorithm algorithm, Long expirationTime, Use use) throws Exception {
         return cryptoProvider.generateKey(algorithm, expirationTime, use);
@@ -66,6 +99,14 @@ public class ServerCryptoProvider extends AbstractCryptoProvider {
         return cryptoProvider.sign(signingInput, keyId, sharedSecret, signatureAlgorithm);
     }
 
+    @Override
+    public String sign(byte[] signingInput, String keyId, String sharedSecret, SignatureAlgorithm signatureAlgorithm) throws Exception {
+        if (configurationFactory.getAppConfiguration().getRejectJwtWithNoneAlg() && signatureAlgorithm == SignatureAlgorithm.NONE) {
+            throw new UnsupportedOperationException("None algorithm is forbidden by `rejectJwtWithNoneAlg` configuration property.");
+        }
+        return cryptoProvider.sign(signingInput, keyId, sharedSecret, signatureAlgorithm);
+    }
+
     @Override
     public boolean verifySignature(String signingInput, String encodedSignature, String keyId, JSONObject jwks, String sharedSecret, SignatureAlgorithm signatureAlgorithm) throws Exception {
         if (configurationFactory.getAppConfiguration().getRejectJwtWithNoneAlg() && signatureAlgorithm == SignatureAlgorithm.NONE) {
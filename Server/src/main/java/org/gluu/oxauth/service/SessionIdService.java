@@ -35,6 +35,7 @@ import org.gluu.oxauth.model.util.Pair;
 import org.gluu.oxauth.model.util.Util;
 import org.gluu.oxauth.security.Identity;
 import org.gluu.oxauth.service.common.UserService;
+import org.gluu.oxauth.service.expiration.ExpirationNotificatorTimer;
 import org.gluu.oxauth.service.external.ExternalApplicationSessionService;
 import org.gluu.oxauth.service.external.ExternalAuthenticationService;
 import org.gluu.oxauth.service.external.session.SessionEvent;
@@ -79,7 +80,6 @@ public class SessionIdService {
     public static final String OP_BROWSER_STATE = "opbs";
     public static final String SESSION_CUSTOM_STATE = "session_custom_state";
     private static final int MAX_MERGE_ATTEMPTS = 3;
-    private static final int DEFAULT_LOCAL_CACHE_EXPIRATION = 2;
 
     @Inject
     private Logger log;
@@ -129,6 +129,18 @@ public class SessionIdService {
     @Inject
     private CacheService cacheService;
 
+    @Inject
+    private ExpirationNotificatorTimer expirationNotificatorTimer;
+
+    @Inject
+    private PerformanceMetricService performanceMetricService;
+
+    /**
+     * Sessions resolved during current request (bean is request scoped), dn -> session. Each session is read from
+     * local cache/cache/persistence at most once per request.
+     */
+    private final Map<String, SessionId> resolvedSessions = new HashMap<>();
+
     private String buildDn(String sessionId) {
         return String.format("oxId=%s,%s", sessionId, staticConfiguration.getBaseDn().getSessions());
     }
@@ -565,7 +577,8 @@ public class SessionIdService {
                 } else {
                     persistenceEntryManager.persist(sessionId);
                 }
-                localCacheService.put(DEFAULT_LOCAL_CACHE_EXPIRATION, sessionId.getDn(), sessionId);
+                putToLocalCache(sessionId);
+                expirationNotificatorTimer.register(sessionId);
                 return true;
             }
         } catch (Exception e) {
@@ -684,7 +697,8 @@ public class SessionIdService {
                 } else {
                     persistenceEntryManager.merge(sessionId);
                 }
-                localCacheService.put(DEFAULT_LOCAL_CACHE_EXPIRATION, sessionId.getDn(), sessionId);
+                putToLocalCache(sessionId);
+                expirationNotificatorTimer.register(sessionId);
                 externalEvent(new SessionEvent(SessionEventType.UPDATED, sessionId));
                 return;
             } catch (EntryPersistenceException ex) {
@@ -735,14 +749,22 @@ public class SessionIdService {
             return null;
         }
 
+        final SessionId resolved = resolvedSessions.get(dn);
+        if (resolved != null) {
+            return resolved;
+        }
+
         final Object localCopy = localCacheService.get(dn);
         if (localCopy instanceof SessionId) {
             if (isSessionValid((SessionId) localCopy)) {
+                performanceMetricService.cacheHit("session_local");
+                resolvedSessions.put(dn, (SessionId) localCopy);
                 return (SessionId) localCopy;
             } else {
                 localCacheService.remove(dn);
             }
         }
+        performanceMetricService.cacheMiss("session_local");
 
         try {
             final SessionId sessionId;
@@ -751,7 +773,11 @@ public class SessionIdService {
             } else {
                 sessionId = persistenceEntryManager.find(SessionId.class, dn);
             }
-            localCacheService.put(DEFAULT_LOCAL_CACHE_EXPIRATION, sessionId.getDn(), sessionId);
+            if (sessionId == null) {
+                log.trace("Unable to find session by dn: {}", dn);
+                return null;
+            }
+            putToLocalCache(sessionId);
             return sessionId;
         } catch (Exception e) {
             if (!silently) {
@@ -761,6 +787,15 @@ public class SessionIdService {
         return null;
     }
 
+    private void putToLocalCache(SessionId sessionId) {
+        resolvedSessions.put(sessionId.getDn(), sessionId);
+
+        final int lifetime = appConfiguration.getSessionIdLocalCacheLifetimeInSeconds();
+        if (lifetime > 0) {
+            localCacheService.put(lifetime, sessionId.getDn(), sessionId);
+        }
+    }
+
     @Deprecated
     public String getSessionIdFromCookie() {
         return cookieService.getSessionIdFromCookie();
@@ -808,7 +843,9 @@ public class SessionIdService {
             } else {
                 persistenceEntryManager.remove(sessionId.getDn());
             }
+            resolvedSessions.remove(sessionId.getDn());
             localCacheService.remove(sessionId.getDn());
+            expirationNotificatorTimer.unregister(sessionId);
             externalEvent(new SessionEvent(SessionEventType.GONE, sessionId));
             return true;
         } catch (Exception e) {
@@ -0,0 +1,110 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import org.gluu.oxauth.model.crypto.signature.AlgorithmFamily;
+import org.gluu.oxauth.model.jwk.Algorithm;
+import org.gluu.oxauth.model.jwk.JSONWebKey;
+import org.gluu.oxauth.model.jwk.JSONWebKeySet;
+import org.gluu.oxauth.model.jwk.Use;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable (algorithm, use) to kid table of server web keys.
+ * <p>
+ * Table is built once per keys (re)load and replaces scan of web keys and keystore on each JWT creation.
+ * Selection rules are the same as in OxAuthCryptoProvider.getKeyId: first kid which is present in key store wins,
+ * if none is present then the last matching kid is selected (and marked as missing).
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class SigningKeySelectionTable {
+
+    public static final SigningKeySelectionTable EMPTY = new SigningKeySelectionTable(Collections.<String, Entry>emptyMap());
+
+    public static class Entry {
+
+        private final String kid;
+        private final boolean inStore;
+
+        Entry(String kid, boolean inStore) {
+            this.kid = kid;
+            this.inStore = inStore;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public boolean isInStore() {
+            return inStore;
+        }
+    }
+
+    private final Map<String, Entry> entries;
+
+    private SigningKeySelectionTable(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * @param webKeys   server web keys
+     * @param storeKeys kids (aliases) available in key store. If empty all kids are treated as present
+     *                  (crypto provider is not able to enumerate keys, e.g. oxEleven).
+     * @return selection table
+     */
+    public static SigningKeySelectionTable build(JSONWebKeySet webKeys, List<String> storeKeys) {
+        if (webKeys == null || webKeys.getKeys() == null) {
+            return EMPTY;
+        }
+
+        final Set<String> store = storeKeys != null ? new HashSet<>(storeKeys) : Collections.<String>emptySet();
+        final Map<String, Entry> entries = new HashMap<>();
+        for (JSONWebKey key : webKeys.getKeys()) {
+            final Algorithm algorithm = key.getAlg();
+            if (algorithm == null || AlgorithmFamily.HMAC.equals(algorithm.getFamily()) || key.getKid() == null) {
+                continue;
+            }
+
+            final Entry entry = new Entry(key.getKid(), store.isEmpty() || store.contains(key.getKid()));
+            put(entries, tableKey(algorithm, key.getUse()), entry);
+            put(entries, tableKey(algorithm, null), entry);
+        }
+        return new SigningKeySelectionTable(Collections.unmodifiableMap(entries));
+    }
+
+    private static void put(Map<String, Entry> entries, String tableKey, Entry entry) {
+        final Entry existing = entries.get(tableKey);
+        if (existing == null || !existing.isInStore()) {
+            entries.put(tableKey, entry);
+        }
+    }
+
+    private static String tableKey(Algorithm algorithm, Use use) {
+        return use != null ? algorithm.getParamName() + ":" + use.getParamName() : algorithm.getParamName();
+    }
+
+    /**
+     * @return entry or null if there is no key for given algorithm and use
+     */
+    public Entry get(Algorithm algorithm, Use use) {
+        if (algorithm == null) {
+            return null;
+        }
+        return entries.get(tableKey(algorithm, use));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import org.gluu.oxauth.model.config.ConfigurationFactory;
+import org.gluu.oxauth.model.config.WebKeysConfiguration;
+import org.gluu.oxauth.model.crypto.AbstractCryptoProvider;
+import org.gluu.oxauth.model.event.CryptoProviderEvent;
+import org.gluu.oxauth.model.jwk.Algorithm;
+import org.gluu.oxauth.model.jwk.Use;
+import org.slf4j.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds signing key selection table of server web keys. Table is dropped when crypto provider is re-created
+ * (web keys or keystore are changed) and lazily re-built on next lookup.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@ApplicationScoped
+@Named
+public class SigningKeySelector {
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private AbstractCryptoProvider cryptoProvider;
+
+    @Inject
+    private WebKeysConfiguration webKeysConfiguration;
+
+    @Inject
+    private ConfigurationFactory configurationFactory;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile SigningKeySelectionTable table;
+    private volatile ServerCryptoProvider serverCryptoProvider;
+
+    public SigningKeySelector() {
+    }
+
+    SigningKeySelector(AbstractCryptoProvider cryptoProvider, WebKeysConfiguration webKeysConfiguration, Logger log) {
+        this.cryptoProvider = cryptoProvider;
+        this.webKeysConfiguration = webKeysConfiguration;
+        this.log = log;
+    }
+
+    public void onCryptoProviderChange(@Observes @CryptoProviderEvent AbstractCryptoProvider cryptoProvider) {
+        invalidate();
+    }
+
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        table = null;
+    }
+
+    public SigningKeySelectionTable.Entry select(Algorithm algorithm, Use use) {
+        return getTable().get(algorithm, use);
+    }
+
+    public SigningKeySelectionTable getTable() {
+        SigningKeySelectionTable result = table;
+        if (result == null) {
+            final long buildGeneration = generation.get();
+            result = SigningKeySelectionTable.build(webKeysConfiguration, cryptoProvider.getKeys());
+            synchronized (this) {
+                // keys could be changed while table was built, in this case table is re-built on next lookup
+                if (buildGeneration == generation.get()) {
+                    table = result;
+                }
+            }
+            log.trace("Built signing key selection table, size: {}", result.size());
+        }
+        return result;
+    }
+
+    /**
+     * @return server crypto provider shared by all JWT signers
+     */
+    public ServerCryptoProvider getServerCryptoProvider() {
+        ServerCryptoProvider result = serverCryptoProvider;
+        if (result == null) {
+            result = new ServerCryptoProvider(cryptoProvider, configurationFactory, this);
+            serverCryptoProvider = result;
+        }
+        return result;
+    }
+}
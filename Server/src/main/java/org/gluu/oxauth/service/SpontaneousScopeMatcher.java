@@ -0,0 +1,159 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Matches requested scope against spontaneous scope patterns (regular expressions).
+ * <p>
+ * Patterns are compiled once, invalid patterns are logged and skipped (requested scope equal to such pattern is still
+ * allowed). All valid patterns without back references are combined into single alternation, so not
+ * matching scope (the common case) is rejected by single regex run. Only if combined pattern matches, patterns are
+ * checked one by one (in original order) to find the one which allowed the scope. Results are remembered for
+ * requested scopes (bounded), so repeated requests of the same scope do not run regex at all.
+ * <p>
+ * Instance is immutable (apart from result cache) and thread-safe.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class SpontaneousScopeMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(SpontaneousScopeMatcher.class);
+
+    public static final int DEFAULT_MAX_CACHED_RESULTS = 1000;
+    private static final String NO_MATCH = new String(); // compared by identity
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\([1-9]|k<)");
+
+    private final List<String> source;
+    private final List<String> patterns;
+    private final Set<String> literals;
+    private final List<Map.Entry<String, Pattern>> compiled;
+    private final Pattern combined;
+    private final Map<String, String> results = new ConcurrentHashMap<>(); // requested scope -> matched pattern or NO_MATCH
+    private final int maxCachedResults;
+
+    public SpontaneousScopeMatcher(Collection<String> patterns) {
+        this(patterns, DEFAULT_MAX_CACHED_RESULTS);
+    }
+
+    public SpontaneousScopeMatcher(Collection<String> patterns, int maxCachedResults) {
+        this.source = patterns != null ? new ArrayList<>(patterns) : Collections.emptyList();
+        this.patterns = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(source)));
+        this.maxCachedResults = maxCachedResults;
+
+        final Set<String> literals = new HashSet<>();
+        final List<Map.Entry<String, Pattern>> compiled = new ArrayList<>();
+        final StringBuilder alternation = new StringBuilder();
+        boolean combinable = true;
+        for (String pattern : this.patterns) {
+            if (pattern == null) {
+                continue;
+            }
+            literals.add(pattern);
+            try {
+                compiled.add(new AbstractMap.SimpleImmutableEntry<>(pattern, Pattern.compile(pattern)));
+            } catch (PatternSyntaxException e) {
+                log.error("Invalid spontaneous scope pattern: " + pattern, e);
+                continue;
+            }
+            if (BACK_REFERENCE.matcher(pattern).find()) {
+                combinable = false; // group numbers are shifted in alternation
+            }
+            if (alternation.length() > 0) {
+                alternation.append('|');
+            }
+            alternation.append("(?:").append(pattern).append(')');
+        }
+
+        this.literals = literals;
+        this.compiled = compiled;
+        this.combined = combinable && compiled.size() > 1 ? combine(alternation.toString()) : null;
+    }
+
+    /**
+     * Valid patterns can still produce invalid alternation (e.g. not terminated {@code \Q} quotes the closing
+     * parenthesis), in this case patterns are checked one by one.
+     */
+    private static Pattern combine(String alternation) {
+        try {
+            return Pattern.compile(alternation);
+        } catch (PatternSyntaxException e) {
+            log.warn("Unable to combine spontaneous scope patterns, they are checked one by one: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param scopeRequested requested scope
+     * @return pattern which allows requested scope or null if scope is not allowed
+     */
+    public String match(String scopeRequested) {
+        if (scopeRequested == null) {
+            return null;
+        }
+        final String cached = results.get(scopeRequested);
+        if (cached != null) {
+            return cached == NO_MATCH ? null : cached;
+        }
+
+        final String matched = doMatch(scopeRequested);
+        if (results.size() >= maxCachedResults) {
+            results.clear();
+        }
+        results.put(scopeRequested, matched != null ? matched : NO_MATCH);
+        return matched;
+    }
+
+    public boolean matches(String scopeRequested) {
+        return match(scopeRequested) != null;
+    }
+
+    private String doMatch(String scopeRequested) {
+        if (literals.contains(scopeRequested)) {
+            return firstEqual(scopeRequested);
+        }
+        if (combined != null && !combined.matcher(scopeRequested).matches()) {
+            return null;
+        }
+        for (Map.Entry<String, Pattern> entry : compiled) {
+            if (entry.getValue().matcher(scopeRequested).matches()) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Keeps original semantic: patterns are checked in order and each pattern is checked for equality first.
+     */
+    private String firstEqual(String scopeRequested) {
+        for (Map.Entry<String, Pattern> entry : compiled) {
+            if (entry.getKey().equals(scopeRequested) || entry.getValue().matcher(scopeRequested).matches()) {
+                return entry.getKey();
+            }
+        }
+        return scopeRequested; // equal to invalid (not compiled) pattern
+    }
+
+    /**
+     * @return true if matcher is built from the same patterns (in the same order)
+     */
+    public boolean isFor(List<String> patterns) {
+        return patterns != null ? source.equals(patterns) : source.isEmpty();
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+}
@@ -1,5 +1,7 @@
 package org.gluu.oxauth.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import org.gluu.oxauth.model.common.ScopeType;
 import org.gluu.oxauth.model.config.StaticConfiguration;
@@ -7,20 +9,21 @@ import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.model.registration.Client;
 import org.gluu.oxauth.model.util.Pair;
 import org.oxauth.persistence.model.Scope;
-import org.python.google.common.collect.Sets;
 import org.slf4j.Logger;
 
-import javax.ejb.Stateless;
+import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.util.*;
 import java.util.regex.Pattern;
 
-@Stateless
+@ApplicationScoped
 @Named
 public class SpontaneousScopeService {
 
     private static final int DEFAULT_SPONTANEOUS_SCOPE_LIFETIME_IN_SECONDS = 60 * 60 * 24; // 24h
+    private static final int MAX_CACHED_MATCHERS = 10000;
+
     @Inject
     private Logger log;
     @Inject
@@ -30,19 +33,30 @@ public class SpontaneousScopeService {
     @Inject
     private ScopeService scopeService;
 
+    private final Cache<String, SpontaneousScopeMatcher> clientMatchers = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_MATCHERS).build();
+    private final Cache<Set<String>, SpontaneousScopeMatcher> matchers = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_MATCHERS).build();
+
     public Scope createSpontaneousScopeIfNeeded(Set<String> regExps, String scopeId, String clientId) {
-        Scope fromPersistence = scopeService.getScopeById(scopeId);
+        return createSpontaneousScopeIfNeeded(getMatcher(regExps), scopeId, clientId);
+    }
+
+    public Scope createSpontaneousScopeIfNeeded(Client client, String scopeId) {
+        return createSpontaneousScopeIfNeeded(getMatcher(client), scopeId, client.getClientId());
+    }
+
+    private Scope createSpontaneousScopeIfNeeded(SpontaneousScopeMatcher matcher, String scopeId, String clientId) {
+        Scope fromPersistence = scopeService.getScopeByIdForCreate(scopeId);
         if (fromPersistence != null) { // scope already exists
             return fromPersistence;
         }
 
-        final Pair<Boolean, String> isAllowed = isAllowedBySpontaneousScopes(regExps, scopeId);
-        if (!isAllowed.getFirst()) {
+        final String allowedBy = matcher.match(scopeId);
+        if (allowedBy == null) {
             log.error("Forbidden by client. Check client configuration.");
             return null;
         }
 
-        Scope regexpScope = scopeService.getScopeById(isAllowed.getSecond());
+        Scope regexpScope = scopeService.getScopeById(allowedBy);
 
         Scope scope = new Scope();
         scope.setDefaultScope(false);
@@ -55,7 +69,7 @@ public class SpontaneousScopeService {
         scope.setExpirationDate(new Date(getLifetime()));
         scope.setDn("inum=" + scope.getInum() + "," + staticConfiguration.getBaseDn().getScopes());
         scope.getAttributes().setSpontaneousClientId(clientId);
-        scope.getAttributes().setSpontaneousClientScopes(Lists.newArrayList(isAllowed.getSecond()));
+        scope.getAttributes().setSpontaneousClientScopes(Lists.newArrayList(allowedBy));
         scope.setUmaAuthorizationPolicies(regexpScope != null ? regexpScope.getUmaAuthorizationPolicies() : new ArrayList<>());
 
         scopeService.persist(scope);
@@ -78,22 +92,43 @@ public class SpontaneousScopeService {
             return false;
         }
 
-        return isAllowedBySpontaneousScopes(Sets.newHashSet(client.getAttributes().getSpontaneousScopes()), scopeRequested).getFirst();
+        return getMatcher(client).matches(scopeRequested);
     }
 
     public boolean isAllowedBySpontaneousScopes_(Set<String> regExps, String scopeRequested) {
-        return isAllowedBySpontaneousScopes(regExps, scopeRequested).getFirst();
+        return getMatcher(regExps).matches(scopeRequested);
     }
 
     public Pair<Boolean, String> isAllowedBySpontaneousScopes(Set<String> regExps, String scopeRequested) {
+        final String allowedBy = getMatcher(regExps).match(scopeRequested);
+        if (allowedBy != null) {
+            log.trace("Scope {} allowed by spontaneous scope: {}", scopeRequested, allowedBy);
+        }
+        return new Pair<>(allowedBy != null, allowedBy);
+    }
 
-        for (String spontaneousScope : regExps) {
-            if (isAllowedBySpontaneousScope(spontaneousScope, scopeRequested)) {
-                return new Pair<>(true, spontaneousScope);
-            }
+    /**
+     * Returns compiled matcher of client spontaneous scopes. Matcher is cached per client and re-built if client
+     * spontaneous scopes are changed.
+     */
+    public SpontaneousScopeMatcher getMatcher(Client client) {
+        final List<String> spontaneousScopes = client.getAttributes().getSpontaneousScopes();
+        SpontaneousScopeMatcher matcher = clientMatchers.getIfPresent(client.getClientId());
+        if (matcher == null || !matcher.isFor(spontaneousScopes)) {
+            matcher = new SpontaneousScopeMatcher(spontaneousScopes);
+            clientMatchers.put(client.getClientId(), matcher);
         }
+        return matcher;
+    }
 
-        return new Pair<>(false, null);
+    public SpontaneousScopeMatcher getMatcher(Set<String> regExps) {
+        final Set<String> key = regExps != null ? new HashSet<>(regExps) : Collections.emptySet();
+        SpontaneousScopeMatcher matcher = matchers.getIfPresent(key);
+        if (matcher == null) {
+            matcher = new SpontaneousScopeMatcher(key);
+            matchers.put(key, matcher);
+        }
+        return matcher;
     }
 
     public boolean isAllowedBySpontaneousScope(String spontaneousScope, String scopeRequested) {
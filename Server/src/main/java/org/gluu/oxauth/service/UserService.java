@@ -12,6 +12,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.apache.commons.lang.StringUtils;
+import org.gluu.oxauth.model.common.User;
 import org.gluu.oxauth.model.config.StaticConfiguration;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.model.fido.u2f.DeviceRegistration;
@@ -19,6 +20,7 @@ import org.gluu.oxauth.model.fido.u2f.DeviceRegistrationStatus;
 import org.gluu.persist.model.base.CustomEntry;
 import org.gluu.persist.model.base.SimpleBranch;
 import org.gluu.search.filter.Filter;
+import org.gluu.service.LocalCacheService;
 import org.gluu.service.net.NetworkService;
 import org.gluu.util.StringHelper;
 
@@ -33,6 +35,8 @@ public class UserService extends org.gluu.oxauth.service.common.UserService {
 
 	public static final String[] USER_OBJECT_CLASSES = new String[] { "gluuPerson" };
 
+    private static final int USER_LOCAL_CACHE_EXPIRATION_IN_SECONDS = 60;
+
     @Inject
     private StaticConfiguration staticConfiguration;
 
@@ -42,6 +46,23 @@ public class UserService extends org.gluu.oxauth.service.common.UserService {
     @Inject
     private NetworkService networkService;
 
+    @Inject
+    private LocalCacheService localCacheService;
+
+    /**
+     * Returns user by DN from node local cache. It is used to re-hydrate cache entries which keep only user DN
+     * (e.g. authorization code grant), so hot entries are not loaded from persistence on each request.
+     *
+     * @param dn user DN
+     * @return user or null if not found
+     */
+    public User getUserByDnFromLocalCache(String dn) {
+        if (StringUtils.isBlank(dn)) {
+            return null;
+        }
+        return localCacheService.getWithPut("user_" + dn, () -> getUserByDn(dn), USER_LOCAL_CACHE_EXPIRATION_IN_SECONDS);
+    }
+
     @Override
 	protected List<String> getPersonCustomObjectClassList() {
 		return appConfiguration.getPersonCustomObjectClassList();
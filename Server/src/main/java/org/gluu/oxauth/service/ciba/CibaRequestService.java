@@ -7,13 +7,17 @@
 package org.gluu.oxauth.service.ciba;
 
 import org.apache.commons.lang.time.DateUtils;
+import org.gluu.oxauth.model.common.CacheEntryCodec;
 import org.gluu.oxauth.model.common.CibaRequestCacheControl;
 import org.gluu.oxauth.model.common.CibaRequestStatus;
 import org.gluu.oxauth.model.common.GrantType;
+import org.gluu.oxauth.model.common.User;
 import org.gluu.oxauth.model.config.StaticConfiguration;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.model.ldap.CIBARequest;
 import org.gluu.oxauth.model.registration.Client;
+import org.gluu.oxauth.service.ClientService;
+import org.gluu.oxauth.service.UserService;
 import org.gluu.persist.PersistenceEntryManager;
 import org.gluu.search.filter.Filter;
 import org.gluu.service.CacheService;
@@ -50,6 +54,12 @@ public class CibaRequestService {
     @Inject
     private CacheService cacheService;
 
+    @Inject
+    private ClientService clientService;
+
+    @Inject
+    private UserService userService;
+
     private String cibaBaseDn() {
         return staticConfiguration.getBaseDn().getCiba();  // ou=ciba,o=gluu
     }
@@ -156,7 +166,7 @@ public class CibaRequestService {
             expiresInCache += appConfiguration.getCibaGrantLifeExtraTimeSec();
         }
 
-        cacheService.put(expiresInCache, request.cacheKey(), request);
+        cacheService.put(expiresInCache, request.cacheKey(), CacheEntryCodec.encode(request));
         this.persistRequest(request, expiresIn);
         log.trace("Ciba request saved in cache, authReqId: {} clientId: {}", request.getAuthReqId(), request.getClient().getClientId());
     }
@@ -171,7 +181,7 @@ public class CibaRequestService {
             expiresInCache += appConfiguration.getCibaGrantLifeExtraTimeSec();
         }
 
-        cacheService.put(expiresInCache, request.cacheKey(), request);
+        cacheService.put(expiresInCache, request.cacheKey(), CacheEntryCodec.encode(request));
     }
 
     /**
@@ -185,7 +195,27 @@ public class CibaRequestService {
             cachedObject = cacheService.get(authReqId);
             log.trace("Failed to fetch CIBA request from cache, authReqId: {}", authReqId);
         }
-        return cachedObject instanceof CibaRequestCacheControl ? (CibaRequestCacheControl) cachedObject : null;
+        return asCibaRequest(cachedObject);
+    }
+
+    /**
+     * Decodes cached CIBA request and re-hydrates user and client by reference.
+     */
+    private CibaRequestCacheControl asCibaRequest(Object cachedObject) {
+        final CibaRequestCacheControl request = CacheEntryCodec.decodeCibaRequest(cachedObject);
+        if (request == null) {
+            return null;
+        }
+
+        final Client client = clientService.getClient(request.getClientId());
+        final User user = userService.getUserByDnFromLocalCache(request.getUserDn());
+        if (client == null || user == null) {
+            log.debug("Failed to find client or user of cached CIBA request, authReqId: {}", request.getAuthReqId());
+            return null;
+        }
+        request.setClient(client);
+        request.setUser(user);
+        return request;
     }
 
     /**
@@ -0,0 +1,126 @@
+package org.gluu.oxauth.service.cleaner;
+
+/**
+ * Clean up state of one base DN (branch): adaptive batch size and backlog/throughput statistics.
+ * <p>
+ * Batch size grows while full batches are removed faster than target latency and shrinks when batch removal
+ * takes longer than target latency, so busy backend is not overloaded and large backlog is removed quickly.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class CleanerBranchState {
+
+    public static final long TARGET_BATCH_LATENCY_IN_MILLIS = 1000;
+    public static final int MIN_BATCH_SIZE = 10;
+    public static final int MAX_BATCH_SIZE_FACTOR = 10;
+
+    private final String baseDn;
+
+    private int batchSize;
+    private int maxBatchSize;
+
+    private boolean backlog;
+    private long lastRunRemoved;
+    private long lastRunDurationInMillis;
+    private long lastRunTime;
+    private long totalRemoved;
+    private long lastBatchLatencyInMillis;
+
+    public CleanerBranchState(String baseDn, int initialBatchSize) {
+        this.baseDn = baseDn;
+        updateBaseBatchSize(initialBatchSize);
+        this.batchSize = this.maxBatchSize / MAX_BATCH_SIZE_FACTOR;
+    }
+
+    /**
+     * Updates bounds when cleanServiceBatchChunkSize is changed.
+     */
+    public synchronized void updateBaseBatchSize(int baseBatchSize) {
+        this.maxBatchSize = Math.max(MIN_BATCH_SIZE, baseBatchSize) * MAX_BATCH_SIZE_FACTOR;
+        this.batchSize = Math.max(MIN_BATCH_SIZE, Math.min(this.batchSize, this.maxBatchSize));
+    }
+
+    public synchronized int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Records removal of one batch and adapts batch size.
+     *
+     * @return true if batch was full (there may be more entries to remove)
+     */
+    public synchronized boolean recordBatch(int requestedBatchSize, int removed, long latencyInMillis) {
+        final boolean full = removed >= requestedBatchSize;
+
+        this.lastBatchLatencyInMillis = latencyInMillis;
+        this.lastRunRemoved += Math.max(0, removed);
+        this.totalRemoved += Math.max(0, removed);
+        this.backlog = full;
+
+        if (latencyInMillis > TARGET_BATCH_LATENCY_IN_MILLIS) {
+            batchSize = Math.max(MIN_BATCH_SIZE, batchSize / 2);
+        } else if (full && latencyInMillis < TARGET_BATCH_LATENCY_IN_MILLIS / 2) {
+            batchSize = Math.min(maxBatchSize, batchSize * 2);
+        }
+        return full;
+    }
+
+    public synchronized void startRun() {
+        this.lastRunRemoved = 0;
+    }
+
+    public synchronized void finishRun(long durationInMillis) {
+        this.lastRunDurationInMillis = durationInMillis;
+        this.lastRunTime = System.currentTimeMillis();
+    }
+
+    public String getBaseDn() {
+        return baseDn;
+    }
+
+    public synchronized boolean isBacklog() {
+        return backlog;
+    }
+
+    public synchronized long getLastRunRemoved() {
+        return lastRunRemoved;
+    }
+
+    public synchronized long getLastRunDurationInMillis() {
+        return lastRunDurationInMillis;
+    }
+
+    public synchronized long getLastRunTime() {
+        return lastRunTime;
+    }
+
+    public synchronized long getTotalRemoved() {
+        return totalRemoved;
+    }
+
+    public synchronized long getLastBatchLatencyInMillis() {
+        return lastBatchLatencyInMillis;
+    }
+
+    /**
+     * @return removed entries per second during last run
+     */
+    public synchronized double getLastRunThroughput() {
+        if (lastRunDurationInMillis <= 0) {
+            return lastRunRemoved;
+        }
+        return lastRunRemoved * 1000d / lastRunDurationInMillis;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CleanerBranchState{" +
+                "baseDn='" + baseDn + '\'' +
+                ", batchSize=" + batchSize +
+                ", backlog=" + backlog +
+                ", lastRunRemoved=" + lastRunRemoved +
+                ", lastRunDurationInMillis=" + lastRunDurationInMillis +
+                ", totalRemoved=" + totalRemoved +
+                '}';
+    }
+}
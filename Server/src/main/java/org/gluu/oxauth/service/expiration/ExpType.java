@@ -1,8 +0,0 @@
-package org.gluu.oxauth.service.expiration;
-
-/**
- * @author Yuriy Zabrovarnyy
- */
-public enum ExpType {
-    SESSION
-}
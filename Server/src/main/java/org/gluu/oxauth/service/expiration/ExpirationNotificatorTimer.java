@@ -1,23 +1,24 @@
 package org.gluu.oxauth.service.expiration;
 
-import net.jodah.expiringmap.ExpirationListener;
-import net.jodah.expiringmap.ExpirationPolicy;
-import net.jodah.expiringmap.ExpiringMap;
 import org.gluu.oxauth.model.common.SessionId;
 import org.gluu.oxauth.model.config.StaticConfiguration;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.service.CleanerTimer;
 import org.gluu.oxauth.service.cdi.event.ExpirationEvent;
 import org.gluu.oxauth.service.external.ExternalApplicationSessionService;
 import org.gluu.oxauth.service.external.session.SessionEvent;
 import org.gluu.oxauth.service.external.session.SessionEventType;
+import org.gluu.oxauth.util.ServerUtil;
 import org.gluu.persist.PersistenceEntryManager;
 import org.gluu.search.filter.Filter;
+import org.gluu.service.CacheService;
 import org.gluu.service.cdi.async.Asynchronous;
 import org.gluu.service.cdi.event.Scheduled;
 import org.gluu.service.timer.event.TimerEvent;
 import org.gluu.service.timer.schedule.TimerSchedule;
 import org.slf4j.Logger;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
@@ -26,17 +27,34 @@ import javax.inject.Named;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * Notifies session scripts about expired sessions (SessionEventType.GONE).
+ * <p>
+ * Sessions are registered in timing wheel by SessionIdService on create/update, so event is fired at session
+ * expiration without persistence scan. Wheel keeps at most {@code expirationNotificatorMapSizeLimit} sessions. Expired
+ * sessions are handed off from wheel tick thread to notification executor, which loads session and runs scripts.
+ * Persistence scan is kept (with expirationNotificatorIntervalInSeconds interval) to pick up sessions registered by
+ * crashed or restarted nodes, it runs only on node which holds cluster lock (see {@link CleanerTimer#acquireLock}).
+ *
  * @author Yuriy Zabrovarnyy
  */
 @ApplicationScoped
 @Named
-public class ExpirationNotificatorTimer implements ExpirationListener<ExpId, Object> {
+public class ExpirationNotificatorTimer implements HashedTimingWheel.ExpirationListener {
 
     private static final int DEFAULT_INTERVAL = 600; // 10 min
+    private static final int TICK_DURATION_IN_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 1024;
+    private static final int NOTIFICATION_THREADS = 2;
+    private static final String[] SESSION_RECOVERY_ATTRIBUTES = new String[] {"oxId", "oxAuthUserDN", "exp"};
+    private static final String RECOVERY_LOCK_NAME = "expiration_notificator_recovery";
 
     @Inject
     private Logger log;
@@ -47,6 +65,9 @@ public class ExpirationNotificatorTimer implements ExpirationListener<ExpId, Obj
     @Inject
     private PersistenceEntryManager persistenceEntryManager;
 
+    @Inject
+    private CacheService cacheService;
+
     @Inject
     private StaticConfiguration staticConfiguration;
 
@@ -56,10 +77,14 @@ public class ExpirationNotificatorTimer implements ExpirationListener<ExpId, Obj
     @Inject
     private ExternalApplicationSessionService externalApplicationSessionService;
 
-    private ExpiringMap<ExpId, Object> expiringMap = ExpiringMap.builder()
-            .expirationPolicy(ExpirationPolicy.CREATED)
-            .variableExpiration()
-            .build();
+    @Inject
+    private CleanerTimer cleanerTimer;
+
+    private HashedTimingWheel wheel = new HashedTimingWheel(TICK_DURATION_IN_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+
+    private ScheduledExecutorService executor;
+
+    private ExecutorService notificationExecutor;
 
     private AtomicBoolean isActive;
 
@@ -69,18 +94,61 @@ public class ExpirationNotificatorTimer implements ExpirationListener<ExpId, Obj
         log.debug("Initializing ExpirationNotificatorTimer");
         this.isActive = new AtomicBoolean(false);
 
-        expiringMap = ExpiringMap.builder()
-                .expirationPolicy(ExpirationPolicy.CREATED)
-                .maxSize(appConfiguration.getExpirationNotificatorMapSizeLimit())
-                .variableExpiration()
-                .build();
-        expiringMap.addExpirationListener(this);
+        notificationExecutor = Executors.newFixedThreadPool(NOTIFICATION_THREADS, ServerUtil.daemonThreadFactory());
+        executor = ServerUtil.createExecutor();
+        executor.scheduleAtFixedRate(this::tick, TICK_DURATION_IN_MILLIS, TICK_DURATION_IN_MILLIS, TimeUnit.MILLISECONDS);
 
         timerEvent.fire(new TimerEvent(new TimerSchedule(DEFAULT_INTERVAL, DEFAULT_INTERVAL), new ExpirationEvent(), Scheduled.Literal.INSTANCE));
 
         this.lastFinishedTime = System.currentTimeMillis();
     }
 
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (notificationExecutor != null) {
+            notificationExecutor.shutdownNow();
+        }
+    }
+
+    private void tick() {
+        try {
+            wheel.advance(System.currentTimeMillis(), this);
+        } catch (Exception e) {
+            log.error("Failed to process expired sessions", e);
+        }
+    }
+
+    /**
+     * Registers (or re-registers if expiration is changed) session for expiration notification.
+     */
+    public void register(SessionId session) {
+        if (session == null || session.getExpirationDate() == null || !appConfiguration.getExpirationNotificatorEnabled()) {
+            return;
+        }
+        schedule(session);
+    }
+
+    private boolean schedule(SessionId session) {
+        if (wheel.size() >= appConfiguration.getExpirationNotificatorMapSizeLimit() && !wheel.contains(session.getId())) {
+            log.trace("Expiration notification map size limit is reached, session is not registered: {}", session.getId());
+            return false;
+        }
+        wheel.schedule(session.getId(), session.getExpirationDate().getTime(), session.getUserDn());
+        return true;
+    }
+
+    /**
+     * Unregisters session (e.g. when session is explicitly removed and GONE event is already fired).
+     */
+    public void unregister(SessionId session) {
+        if (session != null) {
+            wheel.cancel(session.getId());
+        }
+    }
+
     @Asynchronous
     public void process(@Observes @Scheduled ExpirationEvent expirationEvent) {
         if (!appConfiguration.getExpirationNotificatorEnabled()) {
@@ -100,51 +168,110 @@ public class ExpirationNotificatorTimer implements ExpirationListener<ExpId, Obj
                 log.trace("Not allowed to run.");
                 return;
             }
-            fillMap();
+            if (!cleanerTimer.acquireLock(RECOVERY_LOCK_NAME, 2 * Math.max(DEFAULT_INTERVAL, appConfiguration.getExpirationNotificatorIntervalInSeconds()))) {
+                log.trace("Sessions are recovered by another node.");
+                return;
+            }
+            recoverSessions();
             this.lastFinishedTime = System.currentTimeMillis();
         } catch (Exception ex) {
-            log.error("Exception happened while trying to fill expiringMap update", ex);
+            log.error("Exception happened while trying to recover sessions for expiration notification", ex);
         } finally {
             this.isActive.set(false);
         }
     }
 
-    private void fillMap() {
+    private void recoverSessions() {
         Calendar future = Calendar.getInstance();
         future.add(Calendar.SECOND, appConfiguration.getExpirationNotificatorIntervalInSeconds());
 
-        fillSessions(future.getTime());
+        recoverSessions(future.getTime());
     }
 
-    private void fillSessions(Date future) {
+    private void recoverSessions(Date future) {
         final String baseDn = staticConfiguration.getBaseDn().getSessions();
         final Filter filter = Filter.createANDFilter(
                 Filter.createEqualityFilter("del", true),
                 Filter.createLessOrEqualFilter("exp", persistenceEntryManager.encodeTime(baseDn, future)));
-        final List<SessionId> sessions = persistenceEntryManager.findEntries(baseDn, SessionId.class, filter);
+        final List<SessionId> sessions = persistenceEntryManager.findEntries(baseDn, SessionId.class, filter, SESSION_RECOVERY_ATTRIBUTES);
         if (sessions == null || sessions.isEmpty()) {
             return;
         }
 
-        long now = new Date().getTime();
+        final long now = System.currentTimeMillis();
+        int recovered = 0;
         for (SessionId session : sessions) {
-            final long duration = session.getExpirationDate().getTime() - now;
-
-            if (duration <= 0) {
+            if (session.getExpirationDate() == null || wheel.contains(session.getId())) {
+                continue;
+            }
+            if (session.getExpirationDate().getTime() <= now) {
                 remove(session);
                 continue;
             }
-            expiringMap.put(new ExpId(session.getId(), ExpType.SESSION), session, duration, TimeUnit.MILLISECONDS);
+            if (!schedule(session)) {
+                break;
+            }
+            recovered++;
         }
+        log.trace("Recovered {} sessions for expiration notification.", recovered);
     }
 
+    /**
+     * Called from wheel tick thread, so only hands off notification (which loads session and runs scripts).
+     */
     @Override
-    public void expired(ExpId key, Object value) {
-        if (key.getType() == ExpType.SESSION && value instanceof SessionId) {
-            externalApplicationSessionService.externalEvent(new SessionEvent(SessionEventType.GONE, (SessionId) value));
+    public void expired(String id, long deadline, String userDn) {
+        if (!appConfiguration.getExpirationNotificatorEnabled()) {
+            return;
+        }
+
+        try {
+            notificationExecutor.execute(() -> notifyExpired(id, deadline, userDn));
+        } catch (RejectedExecutionException e) {
+            log.trace("Expiration notification is rejected (shutdown), session: {}", id);
         }
     }
 
+    private void notifyExpired(String id, long deadline, String userDn) {
+        final String dn = buildDn(id);
+        SessionId session = loadSession(dn);
+        if (session != null && session.getExpirationDate() != null && session.getExpirationDate().getTime() > deadline) {
+            // expiration was changed by another node
+            schedule(session);
+            return;
+        }
+
+        if (session == null) {
+            session = new SessionId();
+            session.setId(id);
+            session.setDn(dn);
+            session.setUserDn(userDn);
+            session.setExpirationDate(new Date(deadline));
+        }
+
+        try {
+            externalApplicationSessionService.externalEvent(new SessionEvent(SessionEventType.GONE, session));
+        } catch (Exception e) {
+            log.error("Failed to notify about expired session: " + id, e);
+        }
+    }
+
+    private SessionId loadSession(String dn) {
+        try {
+            if (appConfiguration.getSessionIdPersistInCache()) {
+                return (SessionId) cacheService.get(dn);
+            }
+            return persistenceEntryManager.find(SessionId.class, dn);
+        } catch (Exception e) {
+            log.trace("Failed to load expired session: " + dn, e);
+            return null;
+        }
+    }
+
+    private String buildDn(String sessionId) {
+        return String.format("oxId=%s,%s", sessionId, staticConfiguration.getBaseDn().getSessions());
+    }
+
     private boolean allowToRun() {
         int interval = appConfiguration.getExpirationNotificatorIntervalInSeconds();
         if (interval < 0) {
@@ -163,6 +290,7 @@ public class ExpirationNotificatorTimer implements ExpirationListener<ExpId, Obj
     public boolean remove(SessionId sessionId) {
         try {
             persistenceEntryManager.remove(sessionId.getDn());
+            unregister(sessionId);
             externalApplicationSessionService.externalEvent(new SessionEvent(SessionEventType.GONE, sessionId));
             return true;
         } catch (Exception e) {
@@ -0,0 +1,180 @@
+package org.gluu.oxauth.service.expiration;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hashed timing wheel which keeps only key, deadline and small context string per entry.
+ * <p>
+ * Entries are placed into bucket by their deadline tick. Entries with deadline beyond one wheel revolution stay in
+ * bucket until their tick comes (deadline is compared on each pass), so wheel handles any horizon with fixed
+ * number of buckets. Re-scheduling and cancellation are lazy: the latest deadline is kept in the index and stale
+ * bucket entries are dropped when bucket is processed.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class HashedTimingWheel {
+
+    public interface ExpirationListener {
+        void expired(String key, long deadline, String context);
+    }
+
+    private static final int INITIAL_BUCKET_CAPACITY = 16;
+
+    private final long tickDurationInMillis;
+    private final int mask;
+    private final Bucket[] buckets;
+    private final ConcurrentHashMap<String, Long> deadlines = new ConcurrentHashMap<>();
+
+    private volatile long lastProcessedTick;
+
+    public HashedTimingWheel(long tickDurationInMillis, int wheelSize, long startTimeInMillis) {
+        if (tickDurationInMillis <= 0) {
+            throw new IllegalArgumentException("tickDurationInMillis must be positive: " + tickDurationInMillis);
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("wheelSize must be positive: " + wheelSize);
+        }
+
+        final int normalizedSize = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+
+        this.tickDurationInMillis = tickDurationInMillis;
+        this.mask = normalizedSize - 1;
+        this.buckets = new Bucket[normalizedSize];
+        for (int i = 0; i < normalizedSize; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.lastProcessedTick = tick(startTimeInMillis) - 1;
+    }
+
+    /**
+     * Schedules (or re-schedules) key expiration.
+     *
+     * @param key      key
+     * @param deadline expiration time in milliseconds
+     * @param context  small context which is passed back to listener (may be null)
+     */
+    public void schedule(String key, long deadline, String context) {
+        final Long previousDeadline = deadlines.put(key, deadline);
+        if (previousDeadline != null && previousDeadline == deadline) {
+            return; // already scheduled with the same deadline
+        }
+
+        while (true) {
+            final long deadlineTick = Math.max(tick(deadline), lastProcessedTick + 1);
+            final Bucket bucket = buckets[(int) (deadlineTick & mask)];
+            synchronized (bucket) {
+                // bucket of this tick is not processed yet, otherwise re-calculate tick
+                if (deadlineTick > lastProcessedTick) {
+                    bucket.add(key, deadline, context);
+                    return;
+                }
+            }
+        }
+    }
+
+    public boolean cancel(String key) {
+        return deadlines.remove(key) != null;
+    }
+
+    public boolean contains(String key) {
+        return deadlines.containsKey(key);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Processes all ticks up to given time and notifies listener about expired keys. Must be called from one thread.
+     *
+     * @param now      current time in milliseconds
+     * @param listener expiration listener
+     */
+    public void advance(long now, ExpirationListener listener) {
+        final long currentTick = tick(now);
+        final Bucket expired = new Bucket();
+        for (long tick = lastProcessedTick + 1; tick <= currentTick; tick++) {
+            final Bucket bucket = buckets[(int) (tick & mask)];
+            synchronized (bucket) {
+                bucket.expire(tick, expired);
+                lastProcessedTick = tick;
+            }
+
+            // listener is called outside of bucket lock, so it can re-schedule key
+            for (int i = 0; i < expired.size; i++) {
+                listener.expired(expired.keys[i], expired.entryDeadlines[i], expired.contexts[i]);
+            }
+            expired.clear();
+        }
+    }
+
+    private long tick(long timeInMillis) {
+        return timeInMillis / tickDurationInMillis;
+    }
+
+    private class Bucket {
+
+        private String[] keys = new String[INITIAL_BUCKET_CAPACITY];
+        private long[] entryDeadlines = new long[INITIAL_BUCKET_CAPACITY];
+        private String[] contexts = new String[INITIAL_BUCKET_CAPACITY];
+        private int size;
+
+        void add(String key, long deadline, String context) {
+            if (size == keys.length) {
+                final int newCapacity = keys.length << 1;
+                keys = Arrays.copyOf(keys, newCapacity);
+                entryDeadlines = Arrays.copyOf(entryDeadlines, newCapacity);
+                contexts = Arrays.copyOf(contexts, newCapacity);
+            }
+            keys[size] = key;
+            entryDeadlines[size] = deadline;
+            contexts[size] = context;
+            size++;
+        }
+
+        void expire(long tick, Bucket expired) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                final String key = keys[i];
+                final long deadline = entryDeadlines[i];
+                final Long actualDeadline = deadlines.get(key);
+
+                if (actualDeadline == null || actualDeadline != deadline) {
+                    continue; // cancelled or re-scheduled
+                }
+
+                if (tick(deadline) <= tick) {
+                    if (deadlines.remove(key, actualDeadline)) {
+                        expired.add(key, deadline, contexts[i]);
+                    }
+                    continue;
+                }
+
+                // deadline is in one of next revolutions
+                keys[kept] = key;
+                entryDeadlines[kept] = deadline;
+                contexts[kept] = contexts[i];
+                kept++;
+            }
+
+            truncate(kept);
+        }
+
+        void clear() {
+            truncate(0);
+        }
+
+        private void truncate(int newSize) {
+            Arrays.fill(keys, newSize, size, null);
+            Arrays.fill(contexts, newSize, size, null);
+            size = newSize;
+
+            if (size == 0 && keys.length > INITIAL_BUCKET_CAPACITY) {
+                keys = new String[INITIAL_BUCKET_CAPACITY];
+                entryDeadlines = new long[INITIAL_BUCKET_CAPACITY];
+                contexts = new String[INITIAL_BUCKET_CAPACITY];
+            }
+        }
+    }
+}
@@ -7,10 +7,13 @@
 package org.gluu.oxauth.service.external;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ejb.DependsOn;
 import javax.enterprise.context.ApplicationScoped;
@@ -38,10 +41,31 @@ public class ExternalDynamicScopeService extends ExternalScriptService {
 
 	private static final long serialVersionUID = 1416361273036208685L;
 
+	private Map<String, CustomScriptConfiguration> scriptsByDn = Collections.emptyMap();
+
+	/**
+	 * Supported claims by script dn and revision. Supported claims depend only on script and its configuration
+	 * attributes, so python method is called once per script revision.
+	 */
+	private final Map<String, List<String>> supportedClaims = new ConcurrentHashMap<String, List<String>>();
+
 	public ExternalDynamicScopeService() {
 		super(CustomScriptType.DYNAMIC_SCOPE);
 	}
 
+	@Override
+	protected void reloadExternal() {
+		Map<String, CustomScriptConfiguration> reloadedScriptsByDn = new HashMap<String, CustomScriptConfiguration>();
+		if (this.customScriptConfigurations != null) {
+			for (CustomScriptConfiguration script : this.customScriptConfigurations) {
+				reloadedScriptsByDn.put(script.getCustomScript().getDn(), script);
+			}
+		}
+
+		this.scriptsByDn = reloadedScriptsByDn;
+		this.supportedClaims.clear();
+	}
+
 	public boolean executeExternalUpdateMethod(CustomScriptConfiguration customScriptConfiguration, DynamicScopeExternalContext dynamicScopeContext) {
 		try {
 			log.trace("Executing python 'update' method");
@@ -75,18 +99,17 @@ public class ExternalDynamicScopeService extends ExternalScriptService {
     }
 
 	private Set<CustomScriptConfiguration> getScriptsToExecute(DynamicScopeExternalContext context) {
-        Set<String> allowedScripts = Sets.newHashSet();
+		final Map<String, CustomScriptConfiguration> scriptsByDn = this.scriptsByDn;
+
+		Set<CustomScriptConfiguration> result = Sets.newHashSet();
 		for (org.oxauth.persistence.model.Scope scope : context.getScopes()) {
 			List<String> scopeScripts = scope.getDynamicScopeScripts();
-			if (scopeScripts != null) { 
-				allowedScripts.addAll(scopeScripts);
+			if (scopeScripts == null) {
+				continue;
 			}
-		}
-
-		Set<CustomScriptConfiguration> result = Sets.newHashSet();
-		if (this.customScriptConfigurations != null) {
-			for (CustomScriptConfiguration script : this.customScriptConfigurations) {
-				if (allowedScripts.contains(script.getCustomScript().getDn())) {
+			for (String scriptDn : scopeScripts) {
+				CustomScriptConfiguration script = scriptsByDn.get(scriptDn);
+				if (script != null) {
 					result.add(script);
 				}
 			}
@@ -94,6 +117,28 @@ public class ExternalDynamicScopeService extends ExternalScriptService {
 		return result;
 	}
 
+	private List<String> getSupportedClaims(CustomScriptConfiguration customScriptConfiguration) {
+		final String key = customScriptConfiguration.getCustomScript().getDn() + "_" + customScriptConfiguration.getCustomScript().getRevision();
+
+		List<String> claims = supportedClaims.get(key);
+		if (claims != null) {
+			return claims;
+		}
+
+		if (executeExternalGetApiVersion(customScriptConfiguration) > 1) {
+			claims = executeExternalGetSupportedClaimsMethod(customScriptConfiguration);
+			if (claims == null) {
+				return null; // failed, don't remember it, script error is saved
+			}
+			claims = Collections.unmodifiableList(new ArrayList<String>(claims));
+		} else {
+			claims = Collections.emptyList();
+		}
+
+		supportedClaims.put(key, claims);
+		return claims;
+	}
+
 	public boolean executeExternalUpdateMethods(DynamicScopeExternalContext dynamicScopeContext) {
 		boolean result = true;
 		for (CustomScriptConfiguration customScriptConfiguration : getScriptsToExecute(dynamicScopeContext)) {
@@ -111,7 +156,7 @@ public class ExternalDynamicScopeService extends ExternalScriptService {
 
         Set<String> result = new HashSet<String>();
         for (CustomScriptConfiguration customScriptConfiguration : getScriptsToExecute(context)) {
-            List<String> scriptResult = executeExternalGetSupportedClaimsMethod(customScriptConfiguration);
+            List<String> scriptResult = getSupportedClaims(customScriptConfiguration);
             if (scriptResult != null) {
                 result.addAll(scriptResult);
             }
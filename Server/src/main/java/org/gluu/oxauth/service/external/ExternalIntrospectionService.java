@@ -4,7 +4,10 @@ import com.google.common.collect.Lists;
 import org.gluu.model.custom.script.CustomScriptType;
 import org.gluu.model.custom.script.conf.CustomScriptConfiguration;
 import org.gluu.model.custom.script.type.introspection.IntrospectionType;
+import org.gluu.oxauth.model.common.AuthorizationGrant;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.registration.Client;
+import org.gluu.oxauth.service.PerformanceMetricService;
 import org.gluu.oxauth.service.external.context.ExternalIntrospectionContext;
 import org.gluu.service.custom.script.ExternalScriptService;
 import org.jetbrains.annotations.NotNull;
@@ -31,6 +34,8 @@ public class ExternalIntrospectionService extends ExternalScriptService {
     private Logger log;
     @Inject
     private AppConfiguration appConfiguration;
+    @Inject
+    private PerformanceMetricService performanceMetricService;
 
     public ExternalIntrospectionService() {
         super(CustomScriptType.INTROSPECTION);
@@ -38,6 +43,14 @@ public class ExternalIntrospectionService extends ExternalScriptService {
 
     @NotNull
     private List<CustomScriptConfiguration> getScripts(@NotNull ExternalIntrospectionContext context) {
+        final AuthorizationGrant grantOfIntrospectionToken = context.getGrantOfIntrospectionToken();
+        final AuthorizationGrant tokenGrant = context.getTokenGrant();
+        return getScripts(grantOfIntrospectionToken != null ? grantOfIntrospectionToken.getClient() : null,
+                tokenGrant != null ? tokenGrant.getClient() : null);
+    }
+
+    @NotNull
+    private List<CustomScriptConfiguration> getScripts(Client clientOfIntrospectionToken, Client clientOfTokenGrant) {
         if (customScriptConfigurations == null) {
             return Lists.newArrayList();
         }
@@ -45,15 +58,15 @@ public class ExternalIntrospectionService extends ExternalScriptService {
             return customScriptConfigurations;
         }
 
-        if (context.getGrantOfIntrospectionToken() != null && context.getGrantOfIntrospectionToken().getClient() != null) {
-            final List<CustomScriptConfiguration> scripts = getCustomScriptConfigurationsByDns(context.getGrantOfIntrospectionToken().getClient().getAttributes().getIntrospectionScripts());
+        if (clientOfIntrospectionToken != null) {
+            final List<CustomScriptConfiguration> scripts = getCustomScriptConfigurationsByDns(clientOfIntrospectionToken.getAttributes().getIntrospectionScripts());
             if (!scripts.isEmpty()) {
                 return scripts;
             }
         }
 
-        if (context.getTokenGrant() != null && context.getTokenGrant().getClient() != null) { // fallback to authorization grant
-            final List<CustomScriptConfiguration> scripts = getCustomScriptConfigurationsByDns(context.getTokenGrant().getClient().getAttributes().getIntrospectionScripts());
+        if (clientOfTokenGrant != null) { // fallback to authorization grant
+            final List<CustomScriptConfiguration> scripts = getCustomScriptConfigurationsByDns(clientOfTokenGrant.getAttributes().getIntrospectionScripts());
             if (!scripts.isEmpty()) {
                 return scripts;
             }
@@ -63,6 +76,19 @@ public class ExternalIntrospectionService extends ExternalScriptService {
         return Lists.newArrayList();
     }
 
+    public boolean hasScripts(@NotNull ExternalIntrospectionContext context) {
+        return !getScripts(context).isEmpty();
+    }
+
+    /**
+     * @param clientOfIntrospectionToken client to which introspected token was issued
+     * @param tokenGrant                 grant of token which is used to access introspection endpoint
+     * @return true if there are scripts to run for introspection of token issued to given client
+     */
+    public boolean hasScripts(Client clientOfIntrospectionToken, AuthorizationGrant tokenGrant) {
+        return !getScripts(clientOfIntrospectionToken, tokenGrant != null ? tokenGrant.getClient() : null).isEmpty();
+    }
+
     public boolean executeExternalModifyResponse(JSONObject responseAsJsonObject, ExternalIntrospectionContext context) {
         final List<CustomScriptConfiguration> scripts = getScripts(context);
         if (scripts.isEmpty()) {
@@ -81,6 +107,7 @@ public class ExternalIntrospectionService extends ExternalScriptService {
     }
 
     private boolean executeExternalModifyResponse(CustomScriptConfiguration scriptConf, JSONObject responseAsJsonObject, ExternalIntrospectionContext context) {
+        final long startTime = performanceMetricService.start();
         try {
             log.trace("Executing external 'executeExternalModifyResponse' method, script name: {}, responseAsJsonObject: {} , context: {}",
                     scriptConf.getName(), responseAsJsonObject, context);
@@ -95,6 +122,8 @@ public class ExternalIntrospectionService extends ExternalScriptService {
             log.error(ex.getMessage(), ex);
             saveScriptError(scriptConf.getCustomScript(), ex);
             return false;
+        } finally {
+            performanceMetricService.recordScript("introspection", scriptConf.getName(), startTime);
         }
     }
 }
@@ -38,6 +38,7 @@ import org.gluu.oxauth.model.fido.u2f.protocol.ClientData;
 import org.gluu.oxauth.model.util.Base64Util;
 import org.gluu.oxauth.service.common.UserService;
 import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.exception.EntryPersistenceException;
 import org.gluu.search.filter.Filter;
 import org.gluu.util.StringHelper;
 import org.slf4j.Logger;
@@ -137,15 +138,22 @@ public class AuthenticationService extends RequestService {
 
     public DeviceRegistrationResult finishAuthentication(AuthenticateRequestMessage requestMessage, AuthenticateResponse response, String userInum, Set<String> facets)
             throws BadInputException, DeviceCompromisedException {
-        List<DeviceRegistration> deviceRegistrations = deviceRegistrationService.findUserDeviceRegistrations(userInum, requestMessage.getAppId());
-
         final AuthenticateRequest request = getAuthenticateRequest(requestMessage, response);
 
-        DeviceRegistration usedDeviceRegistration = null;
-        for (DeviceRegistration deviceRegistration : deviceRegistrations) {
-            if (StringHelper.equals(request.getKeyHandle(), deviceRegistration.getKeyHandle())) {
-                usedDeviceRegistration = deviceRegistration;
-                break;
+        DeviceRegistration usedDeviceRegistration = findByKeyHandle(deviceRegistrationService.findUserDeviceRegistrations(userInum, requestMessage.getAppId()), request.getKeyHandle());
+        if (usedDeviceRegistration == null) {
+            // device list may be cached, try with fresh one
+            deviceRegistrationService.invalidateUserDeviceRegistrations(userInum, requestMessage.getAppId());
+            usedDeviceRegistration = findByKeyHandle(deviceRegistrationService.findUserDeviceRegistrations(userInum, requestMessage.getAppId()), request.getKeyHandle());
+        }
+        if (usedDeviceRegistration != null) {
+            // counter must be checked and updated against fresh (not shared) entry
+            try {
+                usedDeviceRegistration = deviceRegistrationService.findUserDeviceRegistration(userInum, usedDeviceRegistration.getId());
+            } catch (EntryPersistenceException e) {
+                log.debug("Cached device registration is not found, it was removed: {}", e.getMessage());
+                deviceRegistrationService.invalidateUserDeviceRegistrations(userInum, requestMessage.getAppId());
+                usedDeviceRegistration = null;
             }
         }
 
@@ -186,6 +194,15 @@ public class AuthenticationService extends RequestService {
         return new DeviceRegistrationResult(usedDeviceRegistration, status);
     }
 
+    private DeviceRegistration findByKeyHandle(List<DeviceRegistration> deviceRegistrations, String keyHandle) {
+        for (DeviceRegistration deviceRegistration : deviceRegistrations) {
+            if (StringHelper.equals(keyHandle, deviceRegistration.getKeyHandle())) {
+                return deviceRegistration;
+            }
+        }
+        return null;
+    }
+
     public AuthenticateRequest getAuthenticateRequest(AuthenticateRequestMessage requestMessage, AuthenticateResponse response) throws BadInputException {
         if (!StringHelper.equals(requestMessage.getRequestId(), response.getRequestId())) {
             throw new BadInputException("Wrong request for response data");
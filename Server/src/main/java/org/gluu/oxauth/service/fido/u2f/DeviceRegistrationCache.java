@@ -0,0 +1,149 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.service.fido.u2f;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang.StringUtils;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.fido.u2f.DeviceRegistration;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node local cache of U2F device registrations.
+ * <p>
+ * Keeps user device registrations per user and application, device dn and id by application and key handle, and
+ * users for which fido branch is known to exist. Cache is updated write-through by {@link DeviceRegistrationService}
+ * on add, update, disable and remove. Changes made on other nodes (including removal of fido branch) are noticed
+ * after {@code u2fDeviceRegistrationCacheLifetimeInSeconds}. Only non empty device lists are cached, so newly
+ * registered device of user without devices is always seen.
+ * <p>
+ * Cached device registrations are shared, they must not be modified by caller. Device counter must be checked against
+ * fresh entry (see {@link DeviceRegistrationService#findUserDeviceRegistration(String, String, String...)}).
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@ApplicationScoped
+@Named
+public class DeviceRegistrationCache {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    @Inject
+    private AppConfiguration appConfiguration;
+
+    private Cache<String, List<DeviceRegistration>> devices;
+    private Cache<String, DeviceRegistration> keyHandles;
+    private Cache<String, Boolean> branches;
+
+    public DeviceRegistrationCache() {
+    }
+
+    DeviceRegistrationCache(int maxSize, int lifetimeInSeconds) {
+        init(maxSize, lifetimeInSeconds);
+    }
+
+    @PostConstruct
+    public void init() {
+        init(DEFAULT_MAX_SIZE, appConfiguration.getU2fDeviceRegistrationCacheLifetimeInSeconds());
+    }
+
+    private void init(int maxSize, int lifetimeInSeconds) {
+        final int lifetime = Math.max(0, lifetimeInSeconds);
+        this.devices = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(lifetime, TimeUnit.SECONDS).build();
+        this.keyHandles = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(lifetime, TimeUnit.SECONDS).build();
+        this.branches = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(lifetime, TimeUnit.SECONDS).build();
+    }
+
+    public List<DeviceRegistration> getDevices(String userInum, String appId) {
+        return devices.getIfPresent(devicesKey(userInum, appId));
+    }
+
+    public void putDevices(String userInum, String appId, List<DeviceRegistration> deviceRegistrations) {
+        if (deviceRegistrations == null || deviceRegistrations.isEmpty()) {
+            return;
+        }
+        devices.put(devicesKey(userInum, appId), Collections.unmodifiableList(new ArrayList<>(deviceRegistrations)));
+    }
+
+    /**
+     * Adds or replaces (by dn) device registration in cached devices of its user and application.
+     */
+    public void put(DeviceRegistration deviceRegistration) {
+        if (StringUtils.isBlank(deviceRegistration.getUserInum())) {
+            return;
+        }
+        final String key = devicesKey(deviceRegistration.getUserInum(), deviceRegistration.getApplication());
+        final List<DeviceRegistration> cached = devices.getIfPresent(key);
+        if (cached == null) {
+            return;
+        }
+
+        final List<DeviceRegistration> updated = new ArrayList<>(cached.size() + 1);
+        for (DeviceRegistration device : cached) {
+            if (!StringUtils.equalsIgnoreCase(device.getDn(), deviceRegistration.getDn())) {
+                updated.add(device);
+            }
+        }
+        updated.add(deviceRegistration);
+        devices.put(key, Collections.unmodifiableList(updated));
+    }
+
+    public void remove(DeviceRegistration deviceRegistration) {
+        invalidateDevices(deviceRegistration.getUserInum(), deviceRegistration.getApplication());
+        if (StringUtils.isNotBlank(deviceRegistration.getKeyHandle())) {
+            keyHandles.invalidate(keyHandleKey(deviceRegistration.getApplication(), deviceRegistration.getKeyHandle()));
+        }
+    }
+
+    public void invalidateDevices(String userInum, String appId) {
+        devices.invalidate(devicesKey(userInum, appId));
+    }
+
+    /**
+     * @return device registration with only dn and id set, or null if key handle is not cached
+     */
+    public DeviceRegistration getByKeyHandle(String appId, String keyHandle) {
+        final DeviceRegistration cached = keyHandles.getIfPresent(keyHandleKey(appId, keyHandle));
+        return cached != null ? idOnly(cached) : null;
+    }
+
+    public void putKeyHandle(String appId, String keyHandle, DeviceRegistration deviceRegistration) {
+        keyHandles.put(keyHandleKey(appId, keyHandle), idOnly(deviceRegistration));
+    }
+
+    public boolean containsBranch(String userInum) {
+        return branches.getIfPresent(userInum) != null;
+    }
+
+    public void putBranch(String userInum) {
+        branches.put(userInum, Boolean.TRUE);
+    }
+
+    private static DeviceRegistration idOnly(DeviceRegistration deviceRegistration) {
+        final DeviceRegistration result = new DeviceRegistration();
+        result.setDn(deviceRegistration.getDn());
+        result.setId(deviceRegistration.getId());
+        return result;
+    }
+
+    private static String devicesKey(String userInum, String appId) {
+        return userInum + " " + appId;
+    }
+
+    private static String keyHandleKey(String appId, String keyHandle) {
+        return appId + " " + keyHandle;
+    }
+}
@@ -23,6 +23,7 @@ import javax.ejb.Stateless;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -47,6 +48,9 @@ public class DeviceRegistrationService {
 	@Inject
 	private StaticConfiguration staticConfiguration;
 
+	@Inject
+	private DeviceRegistrationCache deviceRegistrationCache;
+
 	public void addBranch(final String userInum) {
 		SimpleBranch branch = new SimpleBranch();
 		branch.setOrganizationalUnitName("fido");
@@ -65,10 +69,15 @@ public class DeviceRegistrationService {
         	return;
         }
 
+		if (deviceRegistrationCache.containsBranch(userInum)) {
+			return;
+		}
+
 		// Create U2F user device registrations branch if needed
 		if (!containsBranch(userInum)) {
 			addBranch(userInum);
 		}
+		deviceRegistrationCache.putBranch(userInum);
 	}
 
 	public DeviceRegistration findUserDeviceRegistration(String userInum, String deviceId, String... returnAttributes) {
@@ -79,7 +88,18 @@ public class DeviceRegistrationService {
 		return ldapEntryManager.find(deviceDn, DeviceRegistration.class, returnAttributes);
 	}
 
+	/**
+	 * Device registrations with all attributes are served from cache, they must not be modified by caller.
+	 */
 	public List<DeviceRegistration> findUserDeviceRegistrations(String userInum, String appId, String ... returnAttributes) {
+		final boolean allAttributes = returnAttributes == null || returnAttributes.length == 0;
+		if (allAttributes) {
+			final List<DeviceRegistration> cached = deviceRegistrationCache.getDevices(userInum, appId);
+			if (cached != null) {
+				return cached;
+			}
+		}
+
 		prepareBranch(userInum);
 
 		String baseDnForU2fDevices = getBaseDnForU2fUserDevices(userInum);
@@ -88,14 +108,33 @@ public class DeviceRegistrationService {
 
 		Filter filter = Filter.createANDFilter(userInumFilter, appIdFilter);
 
-		return ldapEntryManager.findEntries(baseDnForU2fDevices, DeviceRegistration.class, filter, returnAttributes);
+		List<DeviceRegistration> deviceRegistrations = ldapEntryManager.findEntries(baseDnForU2fDevices, DeviceRegistration.class, filter, returnAttributes);
+		if (allAttributes) {
+			deviceRegistrationCache.putDevices(userInum, appId, deviceRegistrations);
+		}
+		return deviceRegistrations;
+	}
+
+	public void invalidateUserDeviceRegistrations(String userInum, String appId) {
+		deviceRegistrationCache.invalidateDevices(userInum, appId);
 	}
 
+	/**
+	 * If only oxId is requested, found device (dn and id) is cached by application and key handle.
+	 */
 	public List<DeviceRegistration> findDeviceRegistrationsByKeyHandle(String appId, String keyHandle, String ... returnAttributes) {
 		if (org.gluu.util.StringHelper.isEmpty(appId) || StringHelper.isEmpty(keyHandle)) {
 			return new ArrayList<DeviceRegistration>(0);
 		}
 
+		final boolean idOnly = returnAttributes != null && returnAttributes.length == 1 && "oxId".equals(returnAttributes[0]);
+		if (idOnly) {
+			final DeviceRegistration cached = deviceRegistrationCache.getByKeyHandle(appId, keyHandle);
+			if (cached != null) {
+				return Collections.singletonList(cached);
+			}
+		}
+
 		byte[] keyHandleDecoded = Base64Util.base64urldecode(keyHandle);
 
 		String baseDn = userService.getDnForUser(null);
@@ -107,7 +146,11 @@ public class DeviceRegistrationService {
 
 		Filter filter = Filter.createANDFilter(deviceObjectClassFilter, deviceHashCodeFilter, appIdFilter, deviceKeyHandleFilter);
 
-		return ldapEntryManager.findEntries(baseDn, DeviceRegistration.class, filter, returnAttributes);
+		List<DeviceRegistration> deviceRegistrations = ldapEntryManager.findEntries(baseDn, DeviceRegistration.class, filter, returnAttributes);
+		if (idOnly && deviceRegistrations != null && deviceRegistrations.size() == 1) {
+			deviceRegistrationCache.putKeyHandle(appId, keyHandle, deviceRegistrations.get(0));
+		}
+		return deviceRegistrations;
 	}
 
 	public DeviceRegistration findOneStepUserDeviceRegistration(String deviceId, String... returnAttributes) {
@@ -123,6 +166,7 @@ public class DeviceRegistrationService {
         deviceRegistration.clearExpiration();
 
 		ldapEntryManager.persist(deviceRegistration);
+		deviceRegistrationCache.put(deviceRegistration);
 	}
 
 	public boolean attachUserDeviceRegistration(String userInum, String oneStepDeviceId) {
@@ -161,16 +205,19 @@ public class DeviceRegistrationService {
 		prepareBranch(userInum);
 
 		ldapEntryManager.merge(deviceRegistration);
+		deviceRegistrationCache.put(deviceRegistration);
 	}
 
 	public void disableUserDeviceRegistration(DeviceRegistration deviceRegistration) {
 		deviceRegistration.setStatus(DeviceRegistrationStatus.COMPROMISED);
 
 		ldapEntryManager.merge(deviceRegistration);
+		deviceRegistrationCache.put(deviceRegistration);
 	}
 
 	public void removeUserDeviceRegistration(DeviceRegistration deviceRegistration) {
 		ldapEntryManager.remove(deviceRegistration);
+		deviceRegistrationCache.remove(deviceRegistration);
 	}
 
 	public List<DeviceRegistration> getExpiredDeviceRegistrations(BatchOperation<DeviceRegistration> batchOperation, Date expirationDate, String[] returnAttributes, int sizeLimit, int chunkSize) {
@@ -236,5 +283,6 @@ public class DeviceRegistrationService {
 
     public void merge(DeviceRegistration device) {
         ldapEntryManager.merge(device);
+        deviceRegistrationCache.invalidateDevices(device.getUserInum(), device.getApplication());
     }
 }
@@ -13,8 +13,8 @@ import org.gluu.oxauth.model.fido.u2f.exception.BadInputException;
 import org.gluu.oxauth.model.fido.u2f.message.RawRegisterResponse;
 import org.gluu.oxauth.model.fido.u2f.protocol.*;
 import org.gluu.oxauth.model.util.Base64Util;
+import org.gluu.oxauth.model.util.JsonMappers;
 import org.gluu.oxauth.service.common.UserService;
-import org.gluu.oxauth.util.ServerUtil;
 import org.gluu.persist.PersistenceEntryManager;
 import org.gluu.search.filter.Filter;
 import org.gluu.util.StringHelper;
@@ -136,7 +136,7 @@ public class RegistrationService extends RequestService {
         if (StringHelper.isNotEmpty(responseDeviceData)) {
             try {
                 String responseDeviceDataDecoded = new String(Base64Util.base64urldecode(responseDeviceData));
-                DeviceData deviceData = ServerUtil.jsonMapperWithWrapRoot().readValue(responseDeviceDataDecoded, DeviceData.class);
+                DeviceData deviceData = JsonMappers.reader(DeviceData.class).readValue(responseDeviceDataDecoded);
                 deviceRegistration.setDeviceData(deviceData);
             } catch (Exception ex) {
                 throw new BadInputException(String.format("Device data is invalid: %s", responseDeviceData), ex);
@@ -6,44 +6,57 @@
 
 package org.gluu.oxauth.service.net;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
+import java.security.KeyStore;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.conn.ClientConnectionManager;
-import org.apache.http.conn.scheme.PlainSocketFactory;
-import org.apache.http.conn.scheme.Scheme;
-import org.apache.http.conn.scheme.SchemeRegistry;
-import org.apache.http.conn.ssl.AllowAllHostnameVerifier;
-import org.apache.http.conn.ssl.SSLSocketFactory;
-import org.apache.http.conn.ssl.TrustStrategy;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.SSLContexts;
 import org.apache.http.util.EntityUtils;
-import org.gluu.net.SslDefaultHttpClient;
 import org.gluu.oxauth.model.net.HttpServiceResponse;
 import org.gluu.util.StringHelper;
 import org.gluu.util.Util;
@@ -63,55 +76,178 @@ public class HttpService implements Serializable {
 	@Inject
 	private Logger log;
 
+	private static final int MAX_TOTAL_CONNECTIONS = 200;
+	private static final int MAX_CONNECTIONS_PER_ROUTE = 20;
+	private static final int MAX_IDLE_TIME_IN_SECONDS = 30;
+	private static final int DEFAULT_KEEP_ALIVE_IN_SECONDS = 30;
+	private static final int CONNECTION_REQUEST_TIMEOUT_IN_MILLIS = 30 * 1000;
+
 	private Base64 base64;
-	
+
+	/**
+	 * Long lived pooled clients by trust configuration and timeout profile. Clients are shared, callers must release
+	 * connection (consume entity or call {@link HttpServiceResponse#closeConnection()}) and must not close client.
+	 * Clients don't keep cookies and don't support {@code getParams()}, timeout is selected by {@code timeoutInMillis}.
+	 */
+	private transient Map<String, PooledClient> clients;
+
 	@PostConstruct
 	public void init() {
 		this.base64 = new Base64();
+		this.clients = new ConcurrentHashMap<String, PooledClient>();
+	}
+
+	@PreDestroy
+	public void destroy() {
+		for (PooledClient pooledClient : clients.values()) {
+			try {
+				pooledClient.client.close();
+			} catch (IOException ex) {
+				log.error("Failed to close http client", ex);
+			}
+		}
+		clients.clear();
 	}
 
 	public HttpClient getHttpsClientTrustAll() {
-	    try {
-	        SSLSocketFactory sf = new SSLSocketFactory(new TrustStrategy(){
-	            @Override
-	            public boolean isTrusted(X509Certificate[] chain, String authType) throws CertificateException {
-	                return true;
-	            }
-	        }, new AllowAllHostnameVerifier());
-
-	        PlainSocketFactory psf = PlainSocketFactory.getSocketFactory();
-
-	        SchemeRegistry registry = new SchemeRegistry();
-	        registry.register(new Scheme("http", 80, psf));
-	        registry.register(new Scheme("https", 443, sf));
-	        ClientConnectionManager ccm = new PoolingClientConnectionManager(registry);
-	        return new DefaultHttpClient(ccm);
-	    } catch (Exception ex) {
-	    	log.error("Failed to create TrustAll https client", ex);
-	        return new DefaultHttpClient();
-	    }
+		return getHttpsClientTrustAll(0);
+	}
+
+	/**
+	 * @param timeoutInMillis connect and socket timeout, 0 means no timeout
+	 */
+	public HttpClient getHttpsClientTrustAll(int timeoutInMillis) {
+		try {
+			return getClient("trust_all", timeoutInMillis, true, null, null, null, null, null, null);
+		} catch (Exception ex) {
+			log.error("Failed to create TrustAll https client", ex);
+			return getHttpsClient(timeoutInMillis);
+		}
 	}
 
 	public HttpClient getHttpsClient() {
-		HttpClient httpClient = new SslDefaultHttpClient();
+		return getHttpsClient(0);
+	}
 
-		return httpClient;
+	/**
+	 * @param timeoutInMillis connect and socket timeout, 0 means no timeout
+	 */
+	public HttpClient getHttpsClient(int timeoutInMillis) {
+		return getHttpsClient(null, null, null, null, null, null, timeoutInMillis);
 	}
 
 	public HttpClient getHttpsClient(String trustStoreType, String trustStorePath, String trustStorePassword) {
-		HttpClient httpClient = new SslDefaultHttpClient(trustStoreType, trustStorePath, trustStorePassword);
-
-		return httpClient;
+		return getHttpsClient(trustStoreType, trustStorePath, trustStorePassword, null, null, null);
 	}
 
 	public HttpClient getHttpsClient(String trustStoreType, String trustStorePath, String trustStorePassword,
 			String keyStoreType, String keyStorePath, String keyStorePassword) {
-		HttpClient httpClient = new SslDefaultHttpClient(trustStoreType, trustStorePath, trustStorePassword,
-				keyStoreType, keyStorePath, keyStorePassword);
+		return getHttpsClient(trustStoreType, trustStorePath, trustStorePassword, keyStoreType, keyStorePath, keyStorePassword, 0);
+	}
+
+	public HttpClient getHttpsClient(String trustStoreType, String trustStorePath, String trustStorePassword,
+			String keyStoreType, String keyStorePath, String keyStorePassword, int timeoutInMillis) {
+		final String key = String.format("truststore=%s:%s, keystore=%s:%s, secret=%s", trustStoreType, trustStorePath, keyStoreType, keyStorePath,
+				DigestUtils.sha256Hex(trustStorePassword + "\n" + keyStorePassword).substring(0, 8));
+		try {
+			return getClient(key, timeoutInMillis, false, trustStoreType, trustStorePath, trustStorePassword, keyStoreType, keyStorePath, keyStorePassword);
+		} catch (Exception ex) {
+			log.error("Failed to create https client, " + key, ex);
+			throw new IllegalStateException("Failed to create https client", ex);
+		}
+	}
 
-		return httpClient;
+	/**
+	 * @return pool statistics (leased, pending, available, max) of each client
+	 */
+	public Map<String, PoolStats> getPoolStats() {
+		final Map<String, PoolStats> result = new HashMap<String, PoolStats>();
+		for (Entry<String, PooledClient> entry : clients.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().connectionManager.getTotalStats());
+		}
+		return result;
 	}
-	
+
+	private HttpClient getClient(String key, int timeoutInMillis, boolean trustAll, String trustStoreType, String trustStorePath, String trustStorePassword,
+			String keyStoreType, String keyStorePath, String keyStorePassword) throws Exception {
+		final String clientKey = key + ", timeout=" + timeoutInMillis;
+		PooledClient pooledClient = clients.get(clientKey);
+		if (pooledClient != null) {
+			return pooledClient.client;
+		}
+
+		synchronized (clients) {
+			pooledClient = clients.get(clientKey);
+			if (pooledClient == null) {
+				final SSLContextBuilder sslContextBuilder = SSLContexts.custom();
+				if (trustAll) {
+					sslContextBuilder.loadTrustMaterial((chain, authType) -> true);
+				} else if (StringHelper.isNotEmpty(trustStorePath)) {
+					sslContextBuilder.loadTrustMaterial(loadKeyStore(trustStoreType, trustStorePath, trustStorePassword), null);
+				}
+				if (StringHelper.isNotEmpty(keyStorePath)) {
+					final char[] password = keyStorePassword != null ? keyStorePassword.toCharArray() : null;
+					sslContextBuilder.loadKeyMaterial(loadKeyStore(keyStoreType, keyStorePath, keyStorePassword), password);
+				}
+
+				pooledClient = createClient(sslContextBuilder.build(), trustAll ? NoopHostnameVerifier.INSTANCE : SSLConnectionSocketFactory.getDefaultHostnameVerifier(), timeoutInMillis);
+				clients.put(clientKey, pooledClient);
+				log.debug("Created pooled http client: {}", clientKey);
+			}
+		}
+		return pooledClient.client;
+	}
+
+	private PooledClient createClient(SSLContext sslContext, HostnameVerifier hostnameVerifier, int timeoutInMillis) {
+		final Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+				.register("http", PlainConnectionSocketFactory.getSocketFactory())
+				.register("https", new SSLConnectionSocketFactory(sslContext, hostnameVerifier))
+				.build();
+
+		final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(registry);
+		connectionManager.setMaxTotal(MAX_TOTAL_CONNECTIONS);
+		connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+
+		final RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(timeoutInMillis)
+				.setSocketTimeout(timeoutInMillis)
+				.setConnectionRequestTimeout(CONNECTION_REQUEST_TIMEOUT_IN_MILLIS)
+				.build();
+
+		final CloseableHttpClient client = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig)
+				.setKeepAliveStrategy((response, context) -> {
+					final long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+					return keepAlive > 0 ? keepAlive : TimeUnit.SECONDS.toMillis(DEFAULT_KEEP_ALIVE_IN_SECONDS);
+				})
+				.evictExpiredConnections()
+				.evictIdleConnections(MAX_IDLE_TIME_IN_SECONDS, TimeUnit.SECONDS)
+				.disableCookieManagement()
+				.build();
+
+		return new PooledClient(client, connectionManager);
+	}
+
+	private static KeyStore loadKeyStore(String type, String path, String password) throws Exception {
+		final KeyStore keyStore = KeyStore.getInstance(StringHelper.isNotEmpty(type) ? type : KeyStore.getDefaultType());
+		try (InputStream is = new FileInputStream(new File(path))) {
+			keyStore.load(is, password != null ? password.toCharArray() : null);
+		}
+		return keyStore;
+	}
+
+	private static class PooledClient {
+
+		private final CloseableHttpClient client;
+		private final PoolingHttpClientConnectionManager connectionManager;
+
+		private PooledClient(CloseableHttpClient client, PoolingHttpClientConnectionManager connectionManager) {
+			this.client = client;
+			this.connectionManager = connectionManager;
+		}
+	}
+
 	public HttpServiceResponse executePost(HttpClient httpClient, String uri, String authData, Map<String, String> headers, String postData, ContentType contentType) {
         HttpPost httpPost = new HttpPost(uri);
         if (StringHelper.isNotEmpty(authData)) {
@@ -191,7 +327,13 @@ public class HttpService implements Serializable {
 	}
 
 	public byte[] getResponseContent(HttpResponse httpResponse) throws IOException {
-        if ((httpResponse == null) || (httpResponse.getStatusLine().getStatusCode() != HttpResponseCodes.SC_OK)) {
+        if (httpResponse == null) {
+        	return null;
+        }
+
+        if (httpResponse.getStatusLine().getStatusCode() != HttpResponseCodes.SC_OK) {
+        	// Release pooled connection even if content is not needed
+        	EntityUtils.consume(httpResponse.getEntity());
         	return null;
         }
 
@@ -210,11 +352,11 @@ public class HttpService implements Serializable {
 	}
 
 	public void consume(HttpResponse httpResponse) throws IOException {
-        if ((httpResponse == null) || (httpResponse.getStatusLine().getStatusCode() != HttpResponseCodes.SC_OK)) {
+        if (httpResponse == null) {
         	return;
         }
 
-    	// Consume response content
+    	// Consume response content regardless of status, otherwise pooled connection is not released
         HttpEntity entity = httpResponse.getEntity();
 		if (entity != null) {
 			EntityUtils.consume(entity);
@@ -0,0 +1,107 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.service.token;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked jti (JWT ID) values of access tokens.
+ * <p>
+ * Lookup goes through bloom filter first, so for not revoked jti (which is the common case) it is answered
+ * without touching the map. Filter is never mutated after publication: it is copied on change (revocations are
+ * rare comparing to lookups) and rebuilt when expired entries are purged or capacity is exceeded.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class RevokedJtiFilter {
+
+    public static final int DEFAULT_EXPECTED_INSERTIONS = 10000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>(); // jti -> expiration time in millis
+    private volatile BloomFilter<CharSequence> filter;
+    private int capacity;
+
+    public RevokedJtiFilter() {
+        this(DEFAULT_EXPECTED_INSERTIONS);
+    }
+
+    public RevokedJtiFilter(int expectedInsertions) {
+        capacity = expectedInsertions;
+        filter = newFilter(expectedInsertions);
+    }
+
+    private static BloomFilter<CharSequence> newFilter(int expectedInsertions) {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, FALSE_POSITIVE_PROBABILITY);
+    }
+
+    /**
+     * @param jti            jwt id
+     * @param expirationTime expiration time of token in millis, entry is kept only till then
+     * @return true if jti was not known before
+     */
+    public synchronized boolean add(String jti, long expirationTime) {
+        final Long previous = revoked.put(jti, expirationTime);
+        if (previous != null) {
+            return false;
+        }
+        if (revoked.size() > capacity) {
+            rebuild(revoked.size() * 2);
+        } else {
+            final BloomFilter<CharSequence> copy = filter.copy();
+            copy.put(jti);
+            filter = copy;
+        }
+        return true;
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && filter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * Removes entries of tokens which are expired anyway.
+     *
+     * @param now current time in millis
+     * @return number of removed entries
+     */
+    public synchronized int purgeExpired(long now) {
+        final int sizeBefore = revoked.size();
+        revoked.values().removeIf(expirationTime -> expirationTime <= now);
+        final int removed = sizeBefore - revoked.size();
+        if (removed > 0) {
+            rebuild(capacity);
+        }
+        return removed;
+    }
+
+    private void rebuild(int expectedInsertions) {
+        final BloomFilter<CharSequence> rebuilt = newFilter(expectedInsertions);
+        for (String jti : revoked.keySet()) {
+            rebuilt.put(jti);
+        }
+        capacity = expectedInsertions;
+        filter = rebuilt;
+    }
+
+    /**
+     * @return copy of entries (jti -> expiration time in millis)
+     */
+    public HashMap<String, Long> snapshot() {
+        return new HashMap<>(revoked);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.service.token;
+
+import org.apache.commons.lang.StringUtils;
+import org.gluu.service.CacheService;
+import org.slf4j.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps jti of revoked JWT access tokens, so that JWT access token can be introspected locally (from its claims)
+ * and still be reported as not active once revoked.
+ * <p>
+ * Each revoked jti is stored in shared cache under its own key ({@code revoked_jti_<jti>}) which expires together
+ * with the token, so concurrent revocations on different nodes never overwrite each other. Jti revoked on this node
+ * or already seen as revoked is answered from local filter, otherwise shared cache key is checked directly.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@ApplicationScoped
+@Named
+public class RevokedJtiService {
+
+    private static final String REVOKED_JTI_KEY_PREFIX = "revoked_jti_";
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private CacheService cacheService;
+
+    private final RevokedJtiFilter filter = new RevokedJtiFilter();
+
+    public RevokedJtiService() {
+    }
+
+    RevokedJtiService(CacheService cacheService, Logger log) {
+        this.cacheService = cacheService;
+        this.log = log;
+    }
+
+    public void revoke(String jti, Date expirationDate) {
+        revoke(Collections.singletonMap(jti, expirationDate));
+    }
+
+    /**
+     * @param jtiToExpirationDate jti -> expiration date of token
+     */
+    public void revoke(Map<String, Date> jtiToExpirationDate) {
+        final long now = System.currentTimeMillis();
+        filter.purgeExpired(now);
+
+        for (Map.Entry<String, Date> entry : jtiToExpirationDate.entrySet()) {
+            final String jti = entry.getKey();
+            if (StringUtils.isBlank(jti) || entry.getValue() == null) {
+                continue;
+            }
+            final long expirationTime = entry.getValue().getTime();
+            if (expirationTime <= now) {
+                continue; // token is expired anyway
+            }
+            if (!filter.add(jti, expirationTime)) {
+                continue; // already revoked
+            }
+
+            final int expirationInSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(expirationTime - now) + 1);
+            try {
+                cacheService.put(expirationInSeconds, REVOKED_JTI_KEY_PREFIX + jti, expirationTime);
+                log.trace("Published revoked jti {}, expires in {} seconds", jti, expirationInSeconds);
+            } catch (Exception e) {
+                log.error("Failed to publish revoked jti " + jti, e);
+            }
+        }
+    }
+
+    /**
+     * Shared cache errors are not swallowed, so that caller can fall back to grant lookup instead of reporting
+     * revoked token as active.
+     */
+    public boolean isRevoked(String jti) {
+        if (StringUtils.isBlank(jti)) {
+            return false;
+        }
+        if (filter.isRevoked(jti)) {
+            return true;
+        }
+
+        final Object expirationTime = cacheService.get(REVOKED_JTI_KEY_PREFIX + jti);
+        if (expirationTime == null) {
+            return false;
+        }
+        if (expirationTime instanceof Long) {
+            filter.add(jti, (Long) expirationTime);
+        }
+        return true;
+    }
+}
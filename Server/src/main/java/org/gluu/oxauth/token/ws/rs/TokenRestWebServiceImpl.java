@@ -6,6 +6,7 @@
 
 package org.gluu.oxauth.token.ws.rs;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.base.Function;
 import com.google.common.base.Strings;
 import org.apache.commons.lang.StringUtils;
@@ -24,6 +25,7 @@ import org.gluu.oxauth.model.token.JsonWebResponse;
 import org.gluu.oxauth.model.token.JwrService;
 import org.gluu.oxauth.model.token.TokenErrorResponseType;
 import org.gluu.oxauth.model.token.TokenParamsValidator;
+import org.gluu.oxauth.model.util.JsonMappers;
 import org.gluu.oxauth.security.Identity;
 import org.gluu.oxauth.service.*;
 import org.gluu.oxauth.service.ciba.CibaRequestService;
@@ -34,8 +36,6 @@ import org.gluu.oxauth.util.ServerUtil;
 import org.gluu.persist.exception.AuthenticationException;
 import org.gluu.util.OxConstants;
 import org.gluu.util.StringHelper;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 
 import javax.inject.Inject;
@@ -47,6 +47,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
 import java.util.Arrays;
 import java.util.Date;
 
@@ -233,7 +234,7 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
 
                 grantService.removeByCode(authorizationCodeGrant.getAuthorizationCode().getCode());
 
-                final String entity = getJSonResponse(accToken, accToken.getTokenType(), accToken.getExpiresIn(), reToken, scope, idToken);
+                final StreamingOutput entity = getJSonResponse(accToken, accToken.getTokenType(), accToken.getExpiresIn(), reToken, scope, idToken);
                 return response(Response.ok().entity(entity), oAuth2AuditLog);
             }
 
@@ -641,31 +642,34 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
     }
 
     /**
-     * Builds a JSon String with the structure for token issues.
+     * Builds a JSon entity with the structure for token issues. Entity is written directly to response output stream.
      */
-    public String getJSonResponse(AccessToken accessToken, TokenType tokenType,
-                                  Integer expiresIn, RefreshToken refreshToken, String scope,
-                                  IdToken idToken) {
-        JSONObject jsonObj = new JSONObject();
-        try {
-            jsonObj.put("access_token", accessToken.getCode()); // Required
-            jsonObj.put("token_type", tokenType.toString()); // Required
-            if (expiresIn != null) { // Optional
-                jsonObj.put("expires_in", expiresIn);
-            }
-            if (refreshToken != null) { // Optional
-                jsonObj.put("refresh_token", refreshToken.getCode());
-            }
-            if (scope != null) { // Optional
-                jsonObj.put("scope", scope);
-            }
-            if (idToken != null) {
-                jsonObj.put("id_token", idToken.getCode());
+    public StreamingOutput getJSonResponse(AccessToken accessToken, TokenType tokenType,
+                                           Integer expiresIn, RefreshToken refreshToken, String scope,
+                                           IdToken idToken) {
+        final String accessTokenCode = accessToken.getCode();
+        final String refreshTokenCode = refreshToken != null ? refreshToken.getCode() : null;
+        final String idTokenCode = idToken != null ? idToken.getCode() : null;
+
+        return output -> {
+            try (JsonGenerator generator = JsonMappers.createGenerator(output)) {
+                generator.writeStartObject();
+                generator.writeStringField("access_token", accessTokenCode); // Required
+                generator.writeStringField("token_type", tokenType.toString()); // Required
+                if (expiresIn != null) { // Optional
+                    generator.writeNumberField("expires_in", expiresIn);
+                }
+                if (refreshTokenCode != null) { // Optional
+                    generator.writeStringField("refresh_token", refreshTokenCode);
+                }
+                if (scope != null) { // Optional
+                    generator.writeStringField("scope", scope);
+                }
+                if (idTokenCode != null) {
+                    generator.writeStringField("id_token", idTokenCode);
+                }
+                generator.writeEndObject();
             }
-        } catch (JSONException e) {
-            log.error(e.getMessage(), e);
-        }
-
-        return jsonObj.toString();
+        };
     }
 }
\ No newline at end of file
@@ -19,7 +19,6 @@ import org.gluu.oxauth.model.registration.Client;
 import org.gluu.oxauth.model.token.JwtSigner;
 import org.gluu.oxauth.model.uma.persistence.UmaPermission;
 import org.gluu.oxauth.model.util.JwtUtil;
-import org.gluu.oxauth.service.ClientService;
 import org.gluu.oxauth.service.external.ExternalUmaRptClaimsService;
 import org.gluu.oxauth.service.external.context.ExternalUmaRptClaimsContext;
 import org.gluu.oxauth.uma.authorization.UmaPCT;
@@ -77,9 +76,6 @@ public class UmaRptService {
     @Inject
     private StaticConfiguration staticConfiguration;
 
-    @Inject
-    private ClientService clientService;
-
     @Inject
     private ExternalUmaRptClaimsService externalUmaRptClaimsService;
 
@@ -230,7 +226,7 @@ public class UmaRptService {
             signatureAlgorithm = SignatureAlgorithm.fromString(client.getAccessTokenSigningAlg());
         }
 
-        final JwtSigner jwtSigner = new JwtSigner(appConfiguration, webKeysConfiguration, signatureAlgorithm, client.getClientId(), clientService.decryptSecret(client.getClientSecret()));
+        final JwtSigner jwtSigner = JwtSigner.newJwtSigner(appConfiguration, webKeysConfiguration, client, signatureAlgorithm);
         final Jwt jwt = jwtSigner.newJwt();
         jwt.getClaims().setClaim("client_id", client.getClientId());
         jwt.getClaims().setExpirationTime(expirationDate);
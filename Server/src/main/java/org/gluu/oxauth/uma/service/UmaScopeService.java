@@ -13,10 +13,9 @@ import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.model.error.ErrorResponseFactory;
 import org.gluu.oxauth.model.registration.Client;
 import org.gluu.oxauth.model.uma.UmaErrorResponseType;
+import org.gluu.oxauth.service.ScopeService;
 import org.gluu.oxauth.service.SpontaneousScopeService;
 import org.gluu.oxauth.service.common.InumService;
-import org.gluu.persist.PersistenceEntryManager;
-import org.gluu.search.filter.Filter;
 import org.oxauth.persistence.model.Scope;
 import org.slf4j.Logger;
 
@@ -42,7 +41,7 @@ public class UmaScopeService {
     private Logger log;
 
     @Inject
-    private PersistenceEntryManager ldapEntryManager;
+    private ScopeService scopeService;
 
     @Inject
     private InumService inumService;
@@ -77,23 +76,7 @@ public class UmaScopeService {
     }
 
     public Scope getScope(String scopeId) {
-        try {
-            final Filter filter = Filter.createEqualityFilter("oxId", scopeId);
-            final List<Scope> entries = ldapEntryManager.findEntries(baseDn(), Scope.class, filter);
-            if (entries != null && !entries.isEmpty()) {
-                // if more then one scope then it's problem, non-deterministic behavior, id must be unique
-                if (entries.size() > 1) {
-                    log.error("Found more then one UMA scope, id: {}", scopeId);
-                    for (Scope s : entries) {
-                        log.error("Scope, Id: {}, dn: {}", s.getId(), s.getDn());
-                    }
-                }
-                return entries.get(0);
-            }
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
-        }
-        return null;
+        return scopeService.getScopeById(scopeId);
     }
 
     public boolean persist(Scope scope) {
@@ -102,7 +85,7 @@ public class UmaScopeService {
                 scope.setDn(String.format("inum=%s,%s", scope.getInum(), baseDn()));
             }
 
-            ldapEntryManager.persist(scope);
+            scopeService.persist(scope);
             return true;
         } catch (Exception e) {
             log.error(e.getMessage(), e);
@@ -120,19 +103,15 @@ public class UmaScopeService {
 
     public List<Scope> getScopesByDns(List<String> scopeDns) {
         final List<Scope> result = new ArrayList<Scope>();
-        try {
-            if (scopeDns != null && !scopeDns.isEmpty()) {
-                for (String dn : scopeDns) {
-                    final Scope scopeDescription = ldapEntryManager.find(Scope.class, dn);
-                    if (scopeDescription != null) {
-                        result.add(scopeDescription);
-                    } else {
-                        log.error("Failed to load UMA scope with dn: {}", dn);
-                    }
+        if (scopeDns != null && !scopeDns.isEmpty()) {
+            for (String dn : scopeDns) {
+                final Scope scopeDescription = scopeService.getScopeByDn(dn);
+                if (scopeDescription != null) {
+                    result.add(scopeDescription);
+                } else {
+                    log.error("Failed to load UMA scope with dn: {}", dn);
                 }
             }
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
         }
         return result;
     }
@@ -154,20 +133,9 @@ public class UmaScopeService {
     public List<Scope> getScopesByIds(List<String> scopeIds) {
         List<Scope> result = new ArrayList<Scope>();
         if (scopeIds != null && !scopeIds.isEmpty()) {
-            List<String> notInLdap = new ArrayList<String>(scopeIds);
-
-            final List<Scope> entries = ldapEntryManager.findEntries(baseDn(), Scope.class, createAnyFilterByIds(scopeIds));
-            if (entries != null) {
-                result.addAll(entries);
-                for (Scope scope : entries) {
-                    notInLdap.remove(scope.getId());
-                }
-            }
-
-            if (!notInLdap.isEmpty()) {
-                for (String scopeId : notInLdap) {
-                    result.add(addScope(scopeId));
-                }
+            for (String scopeId : scopeIds) {
+                final Scope scope = scopeService.getScopeByIdForCreate(scopeId);
+                result.add(scope != null ? scope : addScope(scopeId));
             }
         }
         return result;
@@ -195,21 +163,6 @@ public class UmaScopeService {
         throw errorResponseFactory.createWebApplicationException(Response.Status.BAD_REQUEST, UmaErrorResponseType.INVALID_SCOPE, "Failed to persist scope.");
     }
 
-    private Filter createAnyFilterByIds(List<String> scopeIds) {
-        if (scopeIds != null && !scopeIds.isEmpty()) {
-        	List<Filter> filters = new ArrayList<Filter>();
-            for (String url : scopeIds) {
-            	Filter filter = Filter.createEqualityFilter("oxId", url);
-            	filters.add(filter);
-            }
-            Filter filter = Filter.createORFilter(filters.toArray(new Filter[0]));
-            log.trace("Uma scope ids: " + scopeIds + ", ldapFilter: " + filter);
-            return filter;
-        }
-
-        return null;
-    }
-
     public String baseDn() {
         return staticConfiguration.getBaseDn().getScopes();
     }
@@ -6,18 +6,16 @@
 
 package org.gluu.oxauth.uma.ws.rs;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import org.gluu.oxauth.model.common.AuthorizationGrant;
 import org.gluu.oxauth.model.error.ErrorResponseFactory;
 import org.gluu.oxauth.model.uma.PermissionTicket;
 import org.gluu.oxauth.model.uma.UmaConstants;
 import org.gluu.oxauth.model.uma.UmaErrorResponseType;
 import org.gluu.oxauth.model.uma.UmaPermissionList;
+import org.gluu.oxauth.model.util.JsonMappers;
 import org.gluu.oxauth.service.token.TokenService;
 import org.gluu.oxauth.uma.service.UmaPermissionService;
 import org.gluu.oxauth.uma.service.UmaValidationService;
-import org.gluu.oxauth.util.ServerUtil;
 import org.slf4j.Logger;
 
 import javax.inject.Inject;
@@ -95,16 +93,15 @@ public class UmaPermissionRegistrationWS {
      * @return uma permission list
      */
     private UmaPermissionList parseRequest(String requestAsString) {
-        final ObjectMapper mapper = ServerUtil.createJsonMapper().configure(SerializationFeature.WRAP_ROOT_VALUE, false);
         try {
-            org.gluu.oxauth.model.uma.UmaPermission permission = mapper.readValue(requestAsString, org.gluu.oxauth.model.uma.UmaPermission.class);
+            org.gluu.oxauth.model.uma.UmaPermission permission = JsonMappers.reader(org.gluu.oxauth.model.uma.UmaPermission.class).readValue(requestAsString);
             return new UmaPermissionList().addPermission(permission);
         } catch (IOException e) {
             // ignore
         }
 
         try {
-            UmaPermissionList permissions = mapper.readValue(requestAsString, org.gluu.oxauth.model.uma.UmaPermissionList.class);
+            UmaPermissionList permissions = JsonMappers.reader(org.gluu.oxauth.model.uma.UmaPermissionList.class).readValue(requestAsString);
             if (!permissions.isEmpty()) {
                 return permissions;
             }
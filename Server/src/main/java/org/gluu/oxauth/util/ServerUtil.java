@@ -12,10 +12,10 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
-import com.fasterxml.jackson.datatype.jsonorg.JsonOrgModule;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector;
 import org.apache.commons.lang.StringUtils;
 import org.gluu.oxauth.model.uma.persistence.UmaPermission;
+import org.gluu.oxauth.model.util.JsonMappers;
 import org.gluu.oxauth.service.common.ApplicationFactory;
 import org.gluu.oxauth.uma.service.UmaScopeService;
 import org.gluu.persist.PersistenceEntryManager;
@@ -31,6 +31,7 @@ import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
@@ -91,13 +92,21 @@ public class ServerUtil {
     }
 
     public static String asPrettyJson(Object p_object) throws IOException {
-        final ObjectMapper mapper = ServerUtil.createJsonMapper().configure(SerializationFeature.WRAP_ROOT_VALUE, false);
-        return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(p_object);
+        return JsonMappers.prettyWriter().writeValueAsString(p_object);
     }
 
     public static String asJson(Object p_object) throws IOException {
-        final ObjectMapper mapper = ServerUtil.createJsonMapper().configure(SerializationFeature.WRAP_ROOT_VALUE, false);
-        return mapper.writeValueAsString(p_object);
+        return JsonMappers.writer().writeValueAsString(p_object);
+    }
+
+    /**
+     * Serializes object straight to response output stream when entity is written, without intermediate string.
+     *
+     * @param p_object object to serialize
+     * @return streaming entity
+     */
+    public static StreamingOutput asJsonStream(Object p_object) {
+        return output -> JsonMappers.streamWriter().writeValue(output, p_object);
     }
 
     public static CacheControl cacheControl(boolean p_noStore) {
@@ -140,9 +149,7 @@ public class ServerUtil {
     }
 
     public static String toPrettyJson(JSONObject jsonObject) throws JsonProcessingException {
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.registerModule(new JsonOrgModule());
-		return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(jsonObject);
+		return JsonMappers.jsonOrgPrettyWriter().writeValueAsString(jsonObject);
 	}
 
     public static PersistenceEntryManager getLdapManager() {
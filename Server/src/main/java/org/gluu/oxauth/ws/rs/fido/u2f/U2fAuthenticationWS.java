@@ -21,6 +21,7 @@ import org.gluu.oxauth.model.fido.u2f.protocol.AuthenticateRequestMessage;
 import org.gluu.oxauth.model.fido.u2f.protocol.AuthenticateResponse;
 import org.gluu.oxauth.model.fido.u2f.protocol.AuthenticateStatus;
 import org.gluu.oxauth.model.util.Base64Util;
+import org.gluu.oxauth.model.util.JsonMappers;
 import org.gluu.oxauth.service.common.UserService;
 import org.gluu.oxauth.service.fido.u2f.AuthenticationService;
 import org.gluu.oxauth.service.fido.u2f.DeviceRegistrationService;
@@ -140,7 +141,7 @@ public class U2fAuthenticationWS {
 
             log.debug("Finishing authentication for username '{}' with response '{}'", userName, authenticateResponseString);
 
-            AuthenticateResponse authenticateResponse = ServerUtil.jsonMapperWithWrapRoot().readValue(authenticateResponseString, AuthenticateResponse.class);
+            AuthenticateResponse authenticateResponse = JsonMappers.reader(AuthenticateResponse.class).readValue(authenticateResponseString);
 
             String requestId = authenticateResponse.getRequestId();
             AuthenticateRequestMessageLdap authenticateRequestMessageLdap = u2fAuthenticationService.getAuthenticationRequestMessageByRequestId(requestId);
@@ -18,6 +18,7 @@ import org.gluu.oxauth.model.fido.u2f.exception.RegistrationNotAllowed;
 import org.gluu.oxauth.model.fido.u2f.protocol.RegisterRequestMessage;
 import org.gluu.oxauth.model.fido.u2f.protocol.RegisterResponse;
 import org.gluu.oxauth.model.fido.u2f.protocol.RegisterStatus;
+import org.gluu.oxauth.model.util.JsonMappers;
 import org.gluu.oxauth.service.SessionIdService;
 import org.gluu.oxauth.service.common.UserService;
 import org.gluu.oxauth.service.external.ExternalAuthenticationService;
@@ -161,7 +162,7 @@ public class U2fRegistrationWS {
 
             log.debug("Finishing registration for username '{}' with response '{}'", userName, registerResponseString);
 
-            RegisterResponse registerResponse = ServerUtil.jsonMapperWithWrapRoot().readValue(registerResponseString, RegisterResponse.class);
+            RegisterResponse registerResponse = JsonMappers.reader(RegisterResponse.class).readValue(registerResponseString);
 
             String requestId = registerResponse.getRequestId();
             RegisterRequestMessageLdap registerRequestMessageLdap = u2fRegistrationService.getRegisterRequestMessageByRequestId(requestId);
@@ -0,0 +1,56 @@
+package org.gluu.oxauth.auth;
+
+import org.gluu.oxauth.auth.ClientCertificateCache.CertificateEntry;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class ClientCertificateCacheTest {
+
+    private static final String PEM = "-----BEGIN CERTIFICATE-----MIIBBjCBrAIBAjAKBggqhkjOPQQDAjAPMQ0wCwYDVQQDDARtdGxzMB4XDTE4MTAxODEyMzcwOVoXDTIyMDUwMjEyMzcwOVowDzENMAsGA1UEAwwEbXRsczBZMBMGByqGSM49AgEGCCqGSM49AwEHA0IABNcnyxwqV6hY8QnhxxzFQ03C7HKW9OylMbnQZjjJ/Au08/coZwxS7LfA4vOLS9WuneIXhbGGWvsDSb0tH6IxLm8wCgYIKoZIzj0EAwIDSQAwRgIhAP0RC1E+vwJD/D1AGHGzuri+hlV/PpQEKTWUVeORWz83AiEA5x2eXZOVbUlJSGQgjwD5vaUaKlLR50Q2DmFfQj1L+SY=-----END CERTIFICATE-----";
+
+    @Test
+    public void getCertificate_forSamePem_shouldParseOnce() {
+        ClientCertificateCache cache = new ClientCertificateCache(10, 60);
+
+        final CertificateEntry entry = cache.getCertificate(PEM);
+        assertNotNull(entry);
+        assertEquals(entry.getCn(), "mtls");
+        assertEquals(entry.getSubjectDn(), "CN=mtls");
+        assertSame(cache.getCertificate(PEM), entry);
+        assertEquals(cache.size(), 1);
+
+        assertNull(cache.getCertificate("-----BEGIN CERTIFICATE-----AAAA-----END CERTIFICATE-----"));
+    }
+
+    @Test
+    public void getMatchedKid_whenJwksChanged_shouldReturnNull() {
+        final CertificateEntry entry = new ClientCertificateCache(10, 60).getCertificate(PEM);
+
+        assertNull(entry.getMatchedKid("client1", "{\"keys\":[]}"));
+        entry.setMatchedKid("client1", "{\"keys\":[1]}", "kid1");
+
+        assertEquals(entry.getMatchedKid("client1", "{\"keys\":[1]}"), "kid1");
+        assertNull(entry.getMatchedKid("client1", "{\"keys\":[2]}"));
+        assertNull(entry.getMatchedKid("client2", "{\"keys\":[1]}"));
+    }
+
+    @Test
+    public void getJwksByUri_shouldCacheLoadedContentOnlyIfLifetimeIsPositive() {
+        final AtomicInteger calls = new AtomicInteger();
+
+        ClientCertificateCache cache = new ClientCertificateCache(10, 60);
+        assertEquals(cache.getJwksByUri("https://rp/jwks", uri -> "jwks" + calls.incrementAndGet()), "jwks1");
+        assertEquals(cache.getJwksByUri("https://rp/jwks", uri -> "jwks" + calls.incrementAndGet()), "jwks1");
+        assertNull(cache.getJwksByUri(null, uri -> "jwks" + calls.incrementAndGet()));
+
+        ClientCertificateCache notCaching = new ClientCertificateCache(10, 0);
+        assertEquals(notCaching.getJwksByUri("https://rp/jwks", uri -> "jwks" + calls.incrementAndGet()), "jwks2");
+        assertEquals(notCaching.getJwksByUri("https://rp/jwks", uri -> "jwks" + calls.incrementAndGet()), "jwks3");
+    }
+}
@@ -0,0 +1,30 @@
+package org.gluu.oxauth.idgen.ws.rs;
+
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class InumGeneratorTest {
+
+    @Test
+    public void generateRandomPart_shouldHaveExpectedFormat() {
+        assertTrue(InumGenerator.generateRandomPart(1).matches("^[0-9A-F]{4}$"));
+        assertTrue(InumGenerator.generateRandomPart(8).matches("^[0-9A-F]{4}(\\.[0-9A-F]{4}){7}$"));
+    }
+
+    @Test
+    public void generateRandomPart_shouldNotRepeat() {
+        final Set<String> generated = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            generated.add(InumGenerator.generateRandomPart(8));
+        }
+        assertEquals(generated.size(), 10000);
+    }
+}
@@ -0,0 +1,83 @@
+package org.gluu.oxauth.introspection.ws.rs;
+
+import com.google.common.collect.Sets;
+import org.gluu.oxauth.model.common.AccessToken;
+import org.gluu.oxauth.model.common.AuthorizationGrant;
+import org.gluu.oxauth.model.common.IntrospectionResponse;
+import org.gluu.oxauth.model.jwt.JwtClaims;
+import org.gluu.oxauth.model.registration.Client;
+import org.testng.annotations.Test;
+
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class IntrospectionResponseTest {
+
+    private static final String ISSUER = "https://op.example.com";
+
+    @Test
+    public void createResponse_fromJwtClaims_shouldBeSameAsFromGrantWithoutUsername() {
+        final Client client = new Client();
+        client.setClientId("client1");
+        final AuthorizationGrant grant = new TestGrant(client);
+
+        final AccessToken accessToken = new AccessToken(300);
+        accessToken.setX5ts256("thumbprint");
+
+        final JwtClaims claims = new JwtClaims();
+        grant.fillAccessTokenClaims(claims, accessToken);
+
+        final IntrospectionResponse fromGrant = IntrospectionWebService.createResponse(grant, accessToken, ISSUER);
+        final IntrospectionResponse fromClaims = IntrospectionWebService.createResponse(claims, client.getClientId(), ISSUER);
+
+        assertEquals(fromGrant.getUsername(), "jsmith");
+        assertNull(fromClaims.getUsername());
+
+        fromGrant.setUsername(null);
+        assertEquals(fromClaims.toString(), fromGrant.toString());
+    }
+
+    private static class TestGrant extends AuthorizationGrant {
+
+        private final Client client;
+
+        private TestGrant(Client client) {
+            this.client = client;
+        }
+
+        @Override
+        public Client getClient() {
+            return client;
+        }
+
+        @Override
+        public String getClientId() {
+            return client.getClientId();
+        }
+
+        @Override
+        public String getUserId() {
+            return "jsmith";
+        }
+
+        @Override
+        public String getSub() {
+            return "sub1";
+        }
+
+        @Override
+        public Set<String> getScopes() {
+            return Sets.newHashSet("openid");
+        }
+
+        @Override
+        public String getAcrValues() {
+            return null;
+        }
+    }
+}
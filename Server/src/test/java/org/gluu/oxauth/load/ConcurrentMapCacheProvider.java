@@ -0,0 +1,121 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.load;
+
+import org.gluu.service.cache.AbstractCacheProvider;
+import org.gluu.service.cache.CacheProviderType;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache provider backed by {@link ConcurrentHashMap} with per entry expiration, each operation is delayed by
+ * configured {@link InjectedLatency} to emulate remote cache (memcached/redis).
+ * <p>
+ * Reports itself as {@link CacheProviderType#IN_MEMORY}, so server treats it as regular (non-persistent) cache.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class ConcurrentMapCacheProvider extends AbstractCacheProvider<Map<String, ConcurrentMapCacheProvider.Entry>> {
+
+    private final Map<String, Entry> map = new ConcurrentHashMap<>();
+    private final InjectedLatency latency;
+
+    public ConcurrentMapCacheProvider(InjectedLatency latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public void create() {
+    }
+
+    @Override
+    public void destroy() {
+        map.clear();
+    }
+
+    @Override
+    public Map<String, Entry> getDelegate() {
+        return map;
+    }
+
+    public boolean hasKey(String key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Object get(String key) {
+        latency.pause();
+
+        final Entry entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            map.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public void put(int expirationInSeconds, String key, Object object) {
+        latency.pause();
+
+        final long expiresAt = expirationInSeconds > 0 ? System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(expirationInSeconds) : Long.MAX_VALUE;
+        map.put(key, new Entry(object, expiresAt));
+    }
+
+    @Override
+    public void delete(String key) {
+        latency.pause();
+
+        map.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public void cleanup(Date now) {
+        final long time = now.getTime();
+        for (Iterator<Entry> it = map.values().iterator(); it.hasNext(); ) {
+            if (it.next().isExpired(time)) {
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public CacheProviderType getProviderType() {
+        return CacheProviderType.IN_MEMORY;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public static class Entry {
+
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
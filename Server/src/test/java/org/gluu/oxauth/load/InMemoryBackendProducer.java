@@ -0,0 +1,86 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.load;
+
+import org.gluu.oxauth.metric.PersistenceMetricsInvocationHandler;
+import org.gluu.oxauth.service.PerformanceMetricService;
+import org.gluu.oxauth.service.common.ApplicationFactory;
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.service.cache.CacheProvider;
+import org.gluu.service.metric.inject.ReportMetric;
+import org.slf4j.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Priority;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Alternative;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.interceptor.Interceptor;
+import java.io.File;
+
+/**
+ * Replaces persistence entry managers and cache provider with in-memory implementations. It's added to
+ * web archive only by {@link LoadTestServer}, so regular deployments are not affected.
+ * <p>
+ * Latency is configured by {@code load.persistence.*} and {@code load.cache.*} system properties (see {@link InjectedLatency}).
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@ApplicationScoped
+@Alternative
+@Priority(Interceptor.Priority.APPLICATION + 100)
+public class InMemoryBackendProducer {
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private PerformanceMetricService performanceMetricService;
+
+    private InMemoryPersistenceEntryManager persistence;
+    private ConcurrentMapCacheProvider cacheProvider;
+
+    @PostConstruct
+    public void init() {
+        final InjectedLatency persistenceLatency = InjectedLatency.fromSystemProperties("load.persistence");
+        final InjectedLatency cacheLatency = InjectedLatency.fromSystemProperties("load.cache");
+
+        persistence = new InMemoryPersistenceEntryManager(persistenceLatency);
+        cacheProvider = new ConcurrentMapCacheProvider(cacheLatency);
+
+        final File confDir = new File(System.getProperty("gluu.base"), "conf");
+        try {
+            LoadTestData.seed(persistence, confDir);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to seed in-memory persistence from " + confDir, e);
+        }
+        log.info("In-memory backend is ready, entries: {}, persistence latency: {}, cache latency: {}", persistence.size(), persistenceLatency, cacheLatency);
+    }
+
+    @Produces
+    @ApplicationScoped
+    @Named(ApplicationFactory.PERSISTENCE_ENTRY_MANAGER_NAME)
+    public PersistenceEntryManager createPersistenceEntryManager() {
+        return PersistenceMetricsInvocationHandler.wrap(persistence.getEntryManager(), performanceMetricService);
+    }
+
+    @Produces
+    @ApplicationScoped
+    @Named(ApplicationFactory.PERSISTENCE_METRIC_ENTRY_MANAGER_NAME)
+    @ReportMetric
+    public PersistenceEntryManager createMetricPersistenceEntryManager() {
+        return persistence.getEntryManager();
+    }
+
+    @Produces
+    @ApplicationScoped
+    public CacheProvider createCacheProvider() {
+        return cacheProvider;
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.load;
+
+import org.apache.commons.lang.StringUtils;
+import org.gluu.persist.annotation.AttributeEnum;
+import org.gluu.persist.annotation.AttributeName;
+import org.gluu.persist.annotation.AttributesList;
+import org.gluu.persist.annotation.DN;
+import org.gluu.search.filter.Filter;
+
+import java.lang.reflect.Field;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates persistence {@link Filter} against entry objects held in memory. Attribute values are read
+ * from fields annotated by {@link AttributeName}/{@link DN} and from custom attributes list ({@link AttributesList}).
+ * <p>
+ * Comparison is case insensitive (like default LDAP matching rules), dates are compared by time.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class InMemoryFilter {
+
+    private static final String TIME_FORMAT = "yyyyMMddHHmmss.SSS'Z'";
+
+    private static final Map<Class<?>, EntryMapping> MAPPINGS = new ConcurrentHashMap<>();
+
+    private InMemoryFilter() {
+    }
+
+    public static boolean matches(Object entry, Filter filter) {
+        if (filter == null) {
+            return true;
+        }
+
+        final String type = filter.getType().name();
+        switch (type) {
+            case "AND":
+                for (Filter child : filter.getFilters()) {
+                    if (!matches(entry, child)) {
+                        return false;
+                    }
+                }
+                return true;
+            case "OR":
+                for (Filter child : filter.getFilters()) {
+                    if (matches(entry, child)) {
+                        return true;
+                    }
+                }
+                return false;
+            case "NOT":
+                return !matches(entry, filter.getFilters()[0]);
+            case "PRESENCE":
+                return !values(entry, attributeName(filter)).isEmpty();
+            case "EQUALITY":
+            case "APPROXIMATE_MATCH":
+                for (Object value : values(entry, attributeName(filter))) {
+                    if (compare(value, filter.getAssertionValue()) == 0) {
+                        return true;
+                    }
+                }
+                return false;
+            case "LESS":
+                for (Object value : values(entry, attributeName(filter))) {
+                    if (compare(value, filter.getAssertionValue()) <= 0) {
+                        return true;
+                    }
+                }
+                return false;
+            case "GREATER":
+                for (Object value : values(entry, attributeName(filter))) {
+                    if (compare(value, filter.getAssertionValue()) >= 0) {
+                        return true;
+                    }
+                }
+                return false;
+            case "SUBSTRING":
+                for (Object value : values(entry, attributeName(filter))) {
+                    if (matchesSubstring(asString(value), filter)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                throw new UnsupportedOperationException("Filter type is not supported by in-memory persistence: " + type + ", filter: " + filter);
+        }
+    }
+
+    /**
+     * @return values of attribute in entry, empty list if entry does not have such attribute
+     */
+    public static List<Object> values(Object entry, String attributeName) {
+        if (entry == null || attributeName == null) {
+            return Collections.emptyList();
+        }
+
+        final EntryMapping mapping = MAPPINGS.computeIfAbsent(entry.getClass(), EntryMapping::new);
+        final Field field = mapping.fields.get(attributeName.toLowerCase(Locale.ROOT));
+        if (field != null) {
+            return flatten(read(field, entry));
+        }
+        if (mapping.customAttributes == null) {
+            return Collections.emptyList();
+        }
+
+        final Object customAttributes = read(mapping.customAttributes, entry);
+        if (!(customAttributes instanceof Collection)) {
+            return Collections.emptyList();
+        }
+        for (Object customAttribute : (Collection<?>) customAttributes) {
+            if (customAttribute == null) {
+                continue;
+            }
+            final EntryMapping customMapping = MAPPINGS.computeIfAbsent(customAttribute.getClass(), EntryMapping::new);
+            final Field nameField = customMapping.plainFields.get(mapping.customAttributeNameField);
+            final Field valuesField = customMapping.plainFields.get(mapping.customAttributeValuesField);
+            if (nameField != null && valuesField != null && attributeName.equalsIgnoreCase(asString(read(nameField, customAttribute)))) {
+                return flatten(read(valuesField, customAttribute));
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    public static String getDn(Object entry) {
+        final EntryMapping mapping = MAPPINGS.computeIfAbsent(entry.getClass(), EntryMapping::new);
+        if (mapping.dn == null) {
+            throw new IllegalArgumentException("Entry does not have @DN field: " + entry.getClass().getName());
+        }
+        return asString(read(mapping.dn, entry));
+    }
+
+    public static String encodeTime(Date date) {
+        if (date == null) {
+            return null;
+        }
+        return timeFormat().format(date);
+    }
+
+    public static Date decodeTime(String date) {
+        if (StringUtils.isBlank(date)) {
+            return null;
+        }
+        try {
+            return timeFormat().parse(date);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static SimpleDateFormat timeFormat() {
+        final SimpleDateFormat format = new SimpleDateFormat(TIME_FORMAT);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+
+    private static String attributeName(Filter filter) {
+        if (filter.getAttributeName() != null) {
+            return filter.getAttributeName();
+        }
+        // Filter.createEqualityFilter(Filter.createLowercaseFilter("uid"), value)
+        final Filter[] filters = filter.getFilters();
+        if (filters != null && filters.length == 1 && filters[0] != null) {
+            return filters[0].getAttributeName();
+        }
+        return null;
+    }
+
+    private static boolean matchesSubstring(String value, Filter filter) {
+        if (value == null) {
+            return false;
+        }
+
+        String rest = value.toLowerCase(Locale.ROOT);
+        final String initial = filter.getSubInitial();
+        if (initial != null) {
+            if (!rest.startsWith(initial.toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+            rest = rest.substring(initial.length());
+        }
+        if (filter.getSubAny() != null) {
+            for (String any : filter.getSubAny()) {
+                final int index = rest.indexOf(any.toLowerCase(Locale.ROOT));
+                if (index < 0) {
+                    return false;
+                }
+                rest = rest.substring(index + any.length());
+            }
+        }
+        final String last = filter.getSubFinal();
+        return last == null || rest.endsWith(last.toLowerCase(Locale.ROOT));
+    }
+
+    private static int compare(Object value, Object assertion) {
+        if (value instanceof Date) {
+            final Date assertionDate = assertion instanceof Date ? (Date) assertion : decodeTime(asString(assertion));
+            if (assertionDate == null) {
+                return -1;
+            }
+            return ((Date) value).compareTo(assertionDate);
+        }
+        if (value instanceof Number && assertion != null) {
+            try {
+                return Double.compare(((Number) value).doubleValue(), Double.parseDouble(asString(assertion)));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        final String valueString = asString(value);
+        final String assertionString = asString(assertion);
+        if (valueString == null || assertionString == null) {
+            return valueString == null && assertionString == null ? 0 : -1;
+        }
+        return valueString.compareToIgnoreCase(assertionString);
+    }
+
+    private static String asString(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof AttributeEnum) {
+            return ((AttributeEnum) value).getValue();
+        }
+        if (value instanceof Date) {
+            return encodeTime((Date) value);
+        }
+        return value.toString();
+    }
+
+    private static List<Object> flatten(Object value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        }
+        if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        }
+        return Collections.singletonList(value);
+    }
+
+    private static Object read(Field field, Object target) {
+        try {
+            return field.get(target);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to read field " + field, e);
+        }
+    }
+
+    private static class EntryMapping {
+
+        private final Map<String, Field> fields = new HashMap<>();
+        private final Map<String, Field> plainFields = new HashMap<>();
+        private Field dn;
+        private Field customAttributes;
+        private String customAttributeNameField;
+        private String customAttributeValuesField;
+
+        private EntryMapping(Class<?> entryClass) {
+            for (Class<?> c = entryClass; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    field.setAccessible(true);
+                    plainFields.putIfAbsent(field.getName(), field);
+
+                    final AttributeName attributeName = field.getAnnotation(AttributeName.class);
+                    if (attributeName != null) {
+                        final String name = StringUtils.isNotBlank(attributeName.name()) ? attributeName.name() : field.getName();
+                        fields.putIfAbsent(name.toLowerCase(Locale.ROOT), field);
+                    }
+                    if (field.getAnnotation(DN.class) != null && dn == null) {
+                        dn = field;
+                        fields.putIfAbsent("dn", field);
+                    }
+                    final AttributesList attributesList = field.getAnnotation(AttributesList.class);
+                    if (attributesList != null && customAttributes == null) {
+                        customAttributes = field;
+                        customAttributeNameField = attributesList.name();
+                        customAttributeValuesField = attributesList.value();
+                    }
+                }
+            }
+        }
+    }
+}
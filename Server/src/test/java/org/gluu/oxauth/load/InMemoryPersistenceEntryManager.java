@@ -0,0 +1,314 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.load;
+
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.exception.EntryPersistenceException;
+import org.gluu.search.filter.Filter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link PersistenceEntryManager} backed by concurrent in-memory map (dn -> entry), used to load test server
+ * without LDAP/Couchbase. Each operation is delayed by configured {@link InjectedLatency}.
+ * <p>
+ * Entries are stored by reference (no copy on persist/merge/find) and filters are evaluated by {@link InMemoryFilter}.
+ * As with real persistence, persist fails for existing dn while merge replaces entry.
+ * Operations which are not needed by server at runtime (paged search, export, schema, etc.) are not supported.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class InMemoryPersistenceEntryManager implements InvocationHandler {
+
+    public static final String PERSISTENCE_TYPE = "in-memory";
+
+    private final Map<String, Object> entries = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<String, Object>> entriesByClass = new ConcurrentHashMap<>();
+    private final InjectedLatency latency;
+    private final PersistenceEntryManager entryManager;
+
+    public InMemoryPersistenceEntryManager(InjectedLatency latency) {
+        this.latency = latency;
+        this.entryManager = (PersistenceEntryManager) Proxy.newProxyInstance(PersistenceEntryManager.class.getClassLoader(),
+                new Class<?>[] {PersistenceEntryManager.class}, this);
+    }
+
+    public PersistenceEntryManager getEntryManager() {
+        return entryManager;
+    }
+
+    /**
+     * Adds entry like persistence add operation: it fails if entry with the same dn exists.
+     */
+    public void persist(Object entry) {
+        final String dn = InMemoryFilter.getDn(entry);
+        final String key = key(dn);
+        if (entries.putIfAbsent(key, entry) != null) {
+            throw new EntryPersistenceException("Entry already exists: " + dn);
+        }
+        classEntries(entry.getClass()).put(key, entry);
+    }
+
+    /**
+     * Adds or replaces entry (used for merge and to load test data).
+     */
+    public void add(Object entry) {
+        final String key = key(InMemoryFilter.getDn(entry));
+        final Object old = entries.put(key, entry);
+        if (old != null && old.getClass() != entry.getClass()) {
+            classEntries(old.getClass()).remove(key);
+        }
+        classEntries(entry.getClass()).put(key, entry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(this, args);
+        }
+
+        latency.pause();
+
+        switch (method.getName()) {
+            case "persist":
+                persist(args[0]);
+                return method.getReturnType() == void.class ? null : args[0];
+            case "merge":
+                add(args[0]);
+                return method.getReturnType() == void.class ? null : args[0];
+            case "find":
+                return find(arg(args, Class.class), primaryKey(args));
+            case "findEntries":
+                return findEntries(method, args);
+            case "countEntries":
+                return findEntries(method, args).size();
+            case "contains":
+                return contains(args);
+            case "remove":
+                return remove(method, args);
+            case "removeRecursively":
+                removeRecursively((String) args[0]);
+                return null;
+            case "authenticate":
+                return authenticate(args);
+            case "encodeTime":
+                return InMemoryFilter.encodeTime((Date) args[args.length - 1]);
+            case "decodeTime":
+                return InMemoryFilter.decodeTime((String) args[args.length - 1]);
+            case "hasBranchesSupport":
+            case "hasExpirationSupport":
+                return false;
+            case "getPersistenceType":
+                return PERSISTENCE_TYPE;
+            case "getOperationService":
+                return operationService(method.getReturnType());
+            case "destroy":
+                return method.getReturnType() == boolean.class ? Boolean.TRUE : null;
+            default:
+                throw new UnsupportedOperationException("Operation is not supported by in-memory persistence: " + method);
+        }
+    }
+
+    private Object find(Class<?> entryClass, Object primaryKey) {
+        final Object entry = primaryKey != null ? entries.get(key(primaryKey.toString())) : null;
+        if (entry == null || (entryClass != null && !entryClass.isInstance(entry))) {
+            throw new EntryPersistenceException("Failed to find entry: " + primaryKey);
+        }
+        return entry;
+    }
+
+    private List<Object> findEntries(Method method, Object[] args) {
+        final String baseDn = key((String) args[0]);
+        final Class<?> entryClass = arg(args, Class.class);
+        final Filter filter = filter(method, args);
+
+        int start = 0;
+        int count = 0;
+        final List<Integer> ints = intArgs(method, args);
+        if (ints.size() == 1) { // (..., int count)
+            count = ints.get(0);
+        } else if (ints.size() >= 2) { // (..., int start, int count, int chunkSize)
+            start = ints.get(0);
+            count = ints.get(1);
+        }
+
+        final List<Object> result = new ArrayList<>();
+        int skipped = 0;
+        for (Map.Entry<Class<?>, Map<String, Object>> classEntry : entriesByClass.entrySet()) {
+            if (entryClass != null && !entryClass.isAssignableFrom(classEntry.getKey())) {
+                continue;
+            }
+            for (Map.Entry<String, Object> entry : classEntry.getValue().entrySet()) {
+                if (!isUnder(entry.getKey(), baseDn) || !InMemoryFilter.matches(entry.getValue(), filter)) {
+                    continue;
+                }
+                if (skipped < start) {
+                    skipped++;
+                    continue;
+                }
+                result.add(entry.getValue());
+                if (count > 0 && result.size() >= count) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean contains(Object[] args) {
+        if (args.length == 1 && !(args[0] instanceof String)) { // contains(Object entry)
+            return entries.containsKey(key(InMemoryFilter.getDn(args[0])));
+        }
+
+        final Filter filter = arg(args, Filter.class);
+        final Class<?> entryClass = arg(args, Class.class);
+        final String dn = key((String) args[0]);
+        if (filter == null) {
+            final Object entry = entries.get(dn);
+            return entry != null && (entryClass == null || entryClass.isInstance(entry));
+        }
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            if (isUnder(entry.getKey(), dn) && (entryClass == null || entryClass.isInstance(entry.getValue()))
+                    && InMemoryFilter.matches(entry.getValue(), filter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object remove(Method method, Object[] args) {
+        if (args.length == 1) { // remove(Object entry) or remove(String dn)
+            final String dn = args[0] instanceof String ? (String) args[0] : InMemoryFilter.getDn(args[0]);
+            removeEntry(key(dn));
+            return method.getReturnType() == void.class ? null : Boolean.TRUE;
+        }
+        if (args.length == 2 && args[1] instanceof Class) { // remove(String dn, Class entryClass)
+            removeEntry(key((String) args[0]));
+            return method.getReturnType() == void.class ? null : Boolean.TRUE;
+        }
+
+        // remove(String baseDN, Class entryClass, Filter filter, int count)
+        final List<Object> found = findEntries(method, args);
+        for (Object entry : found) {
+            removeEntry(key(InMemoryFilter.getDn(entry)));
+        }
+        return method.getReturnType() == void.class ? null : found.size();
+    }
+
+    private void removeRecursively(String dn) {
+        final String baseDn = key(dn);
+        for (String key : new ArrayList<>(entries.keySet())) {
+            if (isUnder(key, baseDn)) {
+                removeEntry(key);
+            }
+        }
+    }
+
+    private void removeEntry(String key) {
+        final Object removed = entries.remove(key);
+        if (removed != null) {
+            classEntries(removed.getClass()).remove(key);
+        }
+    }
+
+    private boolean authenticate(Object[] args) {
+        final String password = (String) args[args.length - 1];
+        if (args.length == 2) { // authenticate(String bindDn, String password)
+            return hasPassword(entries.get(key((String) args[0])), password);
+        }
+
+        // authenticate(String baseDN, Class entryClass, String userName, String password)
+        final String baseDn = key((String) args[0]);
+        final String userName = (String) args[args.length - 2];
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            if (isUnder(entry.getKey(), baseDn) && InMemoryFilter.values(entry.getValue(), "uid").contains(userName)) {
+                return hasPassword(entry.getValue(), password);
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasPassword(Object entry, String password) {
+        return entry != null && password != null && InMemoryFilter.values(entry, "userPassword").contains(password);
+    }
+
+    private Map<String, Object> classEntries(Class<?> entryClass) {
+        return entriesByClass.computeIfAbsent(entryClass, c -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Operation service is used only to check connection state, so all boolean methods return true.
+     */
+    private static Object operationService(Class<?> type) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.getName().equals("toString") ? PERSISTENCE_TYPE : method.invoke(PERSISTENCE_TYPE, args);
+            }
+            return method.getReturnType() == boolean.class ? Boolean.TRUE : null;
+        });
+    }
+
+    private static Object primaryKey(Object[] args) {
+        for (Object arg : args) {
+            if (arg != null && !(arg instanceof Class) && !(arg instanceof String[])) {
+                return arg;
+            }
+        }
+        return null;
+    }
+
+    private static Filter filter(Method method, Object[] args) {
+        final Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == Filter.class) {
+                return (Filter) args[i];
+            }
+        }
+        return null;
+    }
+
+    private static List<Integer> intArgs(Method method, Object[] args) {
+        final List<Integer> result = new ArrayList<>();
+        final Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == int.class) {
+                result.add((Integer) args[i]);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T arg(Object[] args, Class<T> type) {
+        for (Object arg : args) {
+            if (type.isInstance(arg)) {
+                return (T) arg;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isUnder(String key, String baseDn) {
+        return baseDn == null || baseDn.isEmpty() || key.equals(baseDn) || key.endsWith("," + baseDn);
+    }
+
+    private static String key(String dn) {
+        return dn == null ? null : dn.replace(", ", ",").trim().toLowerCase(Locale.ROOT);
+    }
+}
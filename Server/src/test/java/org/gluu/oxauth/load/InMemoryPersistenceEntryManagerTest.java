@@ -0,0 +1,131 @@
+package org.gluu.oxauth.load;
+
+import org.gluu.oxauth.model.common.User;
+import org.gluu.oxauth.model.registration.Client;
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.exception.EntryPersistenceException;
+import org.gluu.search.filter.Filter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class InMemoryPersistenceEntryManagerTest {
+
+    private static final String CLIENTS = "ou=clients,o=gluu";
+    private static final String PEOPLE = "ou=people,o=gluu";
+
+    private InMemoryPersistenceEntryManager inMemory;
+    private PersistenceEntryManager entryManager;
+
+    @BeforeMethod
+    public void setUp() {
+        inMemory = new InMemoryPersistenceEntryManager(InjectedLatency.NONE);
+        entryManager = inMemory.getEntryManager();
+
+        for (int i = 0; i < 3; i++) {
+            entryManager.persist(client("client-" + i, "Client " + i));
+
+            User user = new User();
+            user.setDn("inum=user-" + i + "," + PEOPLE);
+            user.setUserId("User" + i);
+            user.setAttribute("uid", "User" + i);
+            user.setAttribute("userPassword", "secret" + i);
+            entryManager.persist(user);
+        }
+    }
+
+    @Test
+    public void find_shouldReturnPersistedEntryByDn() {
+        final Client client = entryManager.find(Client.class, "inum=client-1, " + CLIENTS);
+        assertEquals(client.getClientId(), "client-1");
+    }
+
+    @Test(expectedExceptions = EntryPersistenceException.class)
+    public void find_withWrongClass_shouldFail() {
+        entryManager.find(User.class, "inum=client-1," + CLIENTS);
+    }
+
+    @Test
+    public void findEntries_shouldMatchEqualityFilterCaseInsensitively() {
+        final List<Client> clients = entryManager.findEntries(CLIENTS, Client.class, Filter.createEqualityFilter("displayName", "CLIENT 2"));
+        assertEquals(clients.size(), 1);
+        assertEquals(clients.get(0).getClientId(), "client-2");
+    }
+
+    @Test
+    public void findEntries_shouldMatchLowercaseFilterOnCustomAttribute() {
+        final Filter filter = Filter.createEqualityFilter(Filter.createLowercaseFilter("uid"), "user1");
+        final List<User> users = entryManager.findEntries(PEOPLE, User.class, filter);
+        assertEquals(users.size(), 1);
+        assertEquals(users.get(0).getDn(), "inum=user-1," + PEOPLE);
+    }
+
+    @Test
+    public void findEntries_shouldRespectBaseDnAndAndFilter() {
+        assertTrue(entryManager.findEntries(PEOPLE, Client.class, null).isEmpty());
+
+        final Filter filter = Filter.createANDFilter(Filter.createPresenceFilter("inum"), Filter.createSubstringFilter("displayName", "client", null, "1"));
+        assertEquals(entryManager.findEntries(CLIENTS, Client.class, filter).size(), 1);
+    }
+
+    @Test
+    public void findEntries_shouldCompareDates() {
+        final String now = entryManager.encodeTime(CLIENTS, new Date());
+        final Filter expired = Filter.createLessOrEqualFilter("oxAuthClientIdIssuedAt", now);
+        assertEquals(entryManager.findEntries(CLIENTS, Client.class, expired).size(), 3);
+    }
+
+    @Test
+    public void persist_withExistingDn_shouldFailAndKeepEntry() {
+        try {
+            entryManager.persist(client("client-1", "Duplicate"));
+            fail("Expected EntryPersistenceException");
+        } catch (EntryPersistenceException e) {
+            // expected
+        }
+
+        final Client client = entryManager.find(Client.class, "inum=client-1," + CLIENTS);
+        assertEquals(client.getClientName(), "Client 1");
+        assertEquals(inMemory.size(), 6);
+    }
+
+    @Test
+    public void merge_withExistingDn_shouldReplaceEntry() {
+        entryManager.merge(client("client-1", "Renamed"));
+
+        final Client client = entryManager.find(Client.class, "inum=client-1," + CLIENTS);
+        assertEquals(client.getClientName(), "Renamed");
+        assertEquals(inMemory.size(), 6);
+    }
+
+    @Test
+    public void remove_shouldDeleteEntry() {
+        final Client client = entryManager.find(Client.class, "inum=client-0," + CLIENTS);
+        entryManager.remove(client);
+
+        assertFalse(entryManager.contains("inum=client-0," + CLIENTS, Client.class));
+        assertEquals(inMemory.size(), 5);
+    }
+
+    @Test
+    public void authenticate_shouldCheckUserPassword() {
+        assertTrue(entryManager.authenticate("inum=user-2," + PEOPLE, "secret2"));
+        assertFalse(entryManager.authenticate("inum=user-2," + PEOPLE, "secret1"));
+    }
+
+    private static Client client(String clientId, String name) {
+        Client client = new Client();
+        client.setDn("inum=" + clientId + "," + CLIENTS);
+        client.setClientId(clientId);
+        client.setClientName(name);
+        client.setClientIdIssuedAt(new Date(System.currentTimeMillis() - 1000));
+        return client;
+    }
+}
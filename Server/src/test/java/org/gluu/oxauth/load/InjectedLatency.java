@@ -0,0 +1,61 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Artificial latency added to each in-memory backend operation to emulate network round trip to LDAP/Couchbase.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class InjectedLatency {
+
+    public static final InjectedLatency NONE = new InjectedLatency(0, 0);
+
+    private final long fixedMicros;
+    private final long jitterMicros;
+
+    public InjectedLatency(long fixedMicros, long jitterMicros) {
+        if (fixedMicros < 0 || jitterMicros < 0) {
+            throw new IllegalArgumentException("Latency can't be negative, fixed: " + fixedMicros + ", jitter: " + jitterMicros);
+        }
+        this.fixedMicros = fixedMicros;
+        this.jitterMicros = jitterMicros;
+    }
+
+    /**
+     * Reads {@code <prefix>.latency.micros} and {@code <prefix>.jitter.micros} system properties,
+     * e.g. -Dload.persistence.latency.micros=800 -Dload.persistence.jitter.micros=400
+     */
+    public static InjectedLatency fromSystemProperties(String prefix) {
+        return new InjectedLatency(Long.getLong(prefix + ".latency.micros", 0), Long.getLong(prefix + ".jitter.micros", 0));
+    }
+
+    public boolean isNone() {
+        return fixedMicros == 0 && jitterMicros == 0;
+    }
+
+    public void pause() {
+        if (isNone()) {
+            return;
+        }
+
+        long micros = fixedMicros;
+        if (jitterMicros > 0) {
+            micros += ThreadLocalRandom.current().nextLong(jitterMicros + 1);
+        }
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+    }
+
+    @Override
+    public String toString() {
+        return "InjectedLatency{fixedMicros=" + fixedMicros + ", jitterMicros=" + jitterMicros + "}";
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.load;
+
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.UniformReservoir;
+import org.gluu.oxauth.client.AuthorizationRequest;
+import org.gluu.oxauth.client.AuthorizationResponse;
+import org.gluu.oxauth.client.AuthorizeClient;
+import org.gluu.oxauth.client.BaseRequest;
+import org.gluu.oxauth.client.TokenClient;
+import org.gluu.oxauth.client.TokenResponse;
+import org.gluu.oxauth.client.UserInfoClient;
+import org.gluu.oxauth.client.UserInfoResponse;
+import org.gluu.oxauth.client.service.ClientFactory;
+import org.gluu.oxauth.client.service.IntrospectionService;
+import org.gluu.oxauth.model.common.IntrospectionResponse;
+import org.gluu.oxauth.model.common.Prompt;
+import org.gluu.oxauth.model.common.ResponseType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives load against server started by {@link LoadTestServer} (or any server seeded with {@link LoadTestData})
+ * and prints throughput and latency percentiles per flow.
+ * <p>
+ * Flows: code (authorize + token), client_credentials, refresh, introspection, userinfo. Each flow is run
+ * separately with all threads for configured duration. Options (system properties):
+ * <ul>
+ * <li>load.url - server url, default http://localhost:8080/oxauth</li>
+ * <li>load.threads - number of concurrent threads, default 16</li>
+ * <li>load.duration - measurement duration of each flow in seconds, default 60</li>
+ * <li>load.warmup - warm up duration of each flow in seconds, default 10</li>
+ * <li>load.flows - comma separated flows to run, default all</li>
+ * </ul>
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class LoadDriver {
+
+    private static final List<String> FLOWS = Arrays.asList("code", "client_credentials", "refresh", "introspection", "userinfo");
+
+    private final String authorizationEndpoint;
+    private final String tokenEndpoint;
+    private final String introspectionEndpoint;
+    private final String userInfoEndpoint;
+    private final int threads;
+
+    public LoadDriver(String url, int threads) {
+        this.authorizationEndpoint = url + "/restv1/authorize";
+        this.tokenEndpoint = url + "/restv1/token";
+        this.introspectionEndpoint = url + "/restv1/introspection";
+        this.userInfoEndpoint = url + "/restv1/userinfo";
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final String url = System.getProperty("load.url", "http://localhost:8080/oxauth");
+        final int threads = Integer.getInteger("load.threads", 16);
+        final int duration = Integer.getInteger("load.duration", 60);
+        final int warmup = Integer.getInteger("load.warmup", 10);
+        final List<String> flows = System.getProperty("load.flows") != null ? Arrays.asList(System.getProperty("load.flows").split(",")) : FLOWS;
+
+        final LoadDriver driver = new LoadDriver(url, threads);
+        final List<Result> results = new ArrayList<>();
+        for (String flow : flows) {
+            final String name = flow.trim();
+            if (warmup > 0) {
+                driver.run(name, warmup);
+            }
+            results.add(driver.run(name, duration));
+        }
+
+        System.out.println();
+        System.out.println(String.format("%-20s %10s %8s %12s %10s %10s %10s %10s %10s", "flow", "ops", "errors", "ops/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Result result : results) {
+            System.out.println(result);
+        }
+    }
+
+    public Result run(String flow, int durationSeconds) throws Exception {
+        if (!FLOWS.contains(flow)) {
+            throw new IllegalArgumentException("Unknown flow: " + flow + ", supported flows: " + FLOWS);
+        }
+
+        final Timer timer = new Timer(new UniformReservoir(100_000));
+        final AtomicLong errors = new AtomicLong();
+        final CountDownLatch prepared = new CountDownLatch(threads);
+        final long[] deadline = new long[1];
+        final CountDownLatch started = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final Callable<Boolean> operation = operation(flow, i);
+                futures.add(executor.submit(() -> {
+                    prepared.countDown();
+                    started.await();
+                    while (System.nanoTime() < deadline[0]) {
+                        final Timer.Context context = timer.time();
+                        boolean success;
+                        try {
+                            success = operation.call();
+                        } catch (Exception e) {
+                            success = false;
+                        }
+                        context.stop();
+                        if (!success) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            prepared.await();
+            final long start = System.nanoTime();
+            deadline[0] = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+            started.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return new Result(flow, timer, errors.get(), System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Prepares operation for thread (tokens which are needed by flow are obtained here, outside of measurement).
+     */
+    private Callable<Boolean> operation(String flow, int thread) throws Exception {
+        final String clientId = LoadTestData.CLIENT_ID_PREFIX + (thread % LoadTestData.clientCount());
+        final String userId = LoadTestData.USER_ID_PREFIX + (thread % LoadTestData.userCount());
+        final String secret = LoadTestData.SECRET;
+
+        switch (flow) {
+            case "code":
+                return () -> codeFlow(clientId, userId) != null;
+            case "client_credentials":
+                return () -> new TokenClient(tokenEndpoint).execClientCredentialsGrant("openid", clientId, secret).getStatus() == 200;
+            case "refresh": {
+                final String[] refreshToken = {codeFlow(clientId, userId).getRefreshToken()};
+                return () -> {
+                    final TokenResponse response = new TokenClient(tokenEndpoint).execRefreshToken("openid", refreshToken[0], clientId, secret);
+                    if (response.getRefreshToken() != null) {
+                        refreshToken[0] = response.getRefreshToken();
+                    }
+                    return response.getStatus() == 200;
+                };
+            }
+            case "introspection": {
+                final String accessToken = new TokenClient(tokenEndpoint).execClientCredentialsGrant("openid", clientId, secret).getAccessToken();
+                final String authorization = "Basic " + BaseRequest.getEncodedCredentials(clientId, secret);
+                final IntrospectionService introspectionService = ClientFactory.instance().createIntrospectionService(introspectionEndpoint);
+                return () -> {
+                    final IntrospectionResponse response = introspectionService.introspectToken(authorization, accessToken);
+                    return response != null && response.isActive();
+                };
+            }
+            case "userinfo": {
+                final String accessToken = codeFlow(clientId, userId).getAccessToken();
+                return () -> {
+                    final UserInfoResponse response = new UserInfoClient(userInfoEndpoint).execUserInfo(accessToken);
+                    return response.getStatus() == 200;
+                };
+            }
+            default:
+                throw new IllegalArgumentException("Unknown flow: " + flow);
+        }
+    }
+
+    /**
+     * @return token response or null if code or token was not obtained
+     */
+    private TokenResponse codeFlow(String clientId, String userId) {
+        final AuthorizationRequest request = new AuthorizationRequest(Collections.singletonList(ResponseType.CODE), clientId,
+                Arrays.asList("openid", "profile"), LoadTestData.REDIRECT_URI, null);
+        request.setState("load");
+        request.setAuthUsername(userId);
+        request.setAuthPassword(LoadTestData.SECRET);
+        request.getPrompts().add(Prompt.NONE);
+
+        final AuthorizeClient authorizeClient = new AuthorizeClient(authorizationEndpoint);
+        authorizeClient.setRequest(request);
+        final AuthorizationResponse authorizationResponse = authorizeClient.exec();
+        if (authorizationResponse.getCode() == null) {
+            return null;
+        }
+
+        final TokenResponse tokenResponse = new TokenClient(tokenEndpoint).execAuthorizationCode(authorizationResponse.getCode(),
+                LoadTestData.REDIRECT_URI, clientId, LoadTestData.SECRET);
+        return tokenResponse.getStatus() == 200 ? tokenResponse : null;
+    }
+
+    public static class Result {
+
+        private final String flow;
+        private final long count;
+        private final long errors;
+        private final double throughput;
+        private final Snapshot snapshot;
+
+        private Result(String flow, Timer timer, long errors, long elapsedNanos) {
+            this.flow = flow;
+            this.count = timer.getCount();
+            this.errors = errors;
+            this.throughput = count / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+            this.snapshot = timer.getSnapshot();
+        }
+
+        private static double millis(double nanos) {
+            return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s %10d %8d %12.1f %10.2f %10.2f %10.2f %10.2f %10.2f", flow, count, errors, throughput,
+                    millis(snapshot.getMean()), millis(snapshot.getMedian()), millis(snapshot.getValue(0.9)),
+                    millis(snapshot.get99thPercentile()), millis(snapshot.getMax()));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gluu.oxauth.model.common.GrantType;
+import org.gluu.oxauth.model.common.ResponseType;
+import org.gluu.oxauth.model.common.ScopeType;
+import org.gluu.oxauth.model.common.User;
+import org.gluu.oxauth.model.config.Conf;
+import org.gluu.oxauth.model.config.StaticConfiguration;
+import org.gluu.oxauth.model.config.WebKeysConfiguration;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.error.ErrorMessages;
+import org.gluu.oxauth.model.registration.Client;
+import org.gluu.oxauth.util.ServerUtil;
+import org.gluu.service.cache.CacheConfiguration;
+import org.gluu.service.cache.CacheProviderType;
+import org.gluu.service.cache.InMemoryConfiguration;
+import org.gluu.util.security.StringEncrypter;
+import org.oxauth.persistence.model.Scope;
+import org.oxauth.persistence.model.configuration.GluuConfiguration;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Seeds in-memory persistence with oxAuth configuration (read from {@code <gluu.base>/conf}), scopes,
+ * clients and users used by {@link LoadDriver}.
+ * <p>
+ * Clients are {@code load-client-<n>} and users are {@code load-user-<n>}, all with password {@link #SECRET}.
+ * Number of clients/users is set by {@code load.clients}/{@code load.users} system properties.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class LoadTestData {
+
+    public static final String CLIENT_ID_PREFIX = "load-client-";
+    public static final String USER_ID_PREFIX = "load-user-";
+    public static final String SECRET = "secret";
+    public static final String REDIRECT_URI = "https://client.example.com/cb";
+    public static final String[] SCOPES = {"openid", "profile", "email"};
+
+    private LoadTestData() {
+    }
+
+    public static int clientCount() {
+        return Integer.getInteger("load.clients", 10);
+    }
+
+    public static int userCount() {
+        return Integer.getInteger("load.users", 100);
+    }
+
+    public static void seed(InMemoryPersistenceEntryManager manager, File confDir) throws Exception {
+        final Properties baseConfiguration = loadProperties(new File(confDir, "gluu.properties"));
+        final Properties salt = loadProperties(new File(confDir, "salt"));
+        final StringEncrypter stringEncrypter = StringEncrypter.instance(salt.getProperty("encodeSalt"));
+
+        final ObjectMapper mapper = ServerUtil.createJsonMapper();
+        final StaticConfiguration staticConfiguration = mapper.readValue(new File(confDir, "oxauth-static-conf.json"), StaticConfiguration.class);
+
+        Conf conf = new Conf();
+        conf.setDn(baseConfiguration.getProperty("oxauth_ConfigurationEntryDN"));
+        conf.setDynamic(mapper.readValue(new File(confDir, "oxauth-config.json"), AppConfiguration.class));
+        conf.setStatics(staticConfiguration);
+        conf.setErrors(mapper.readValue(new File(confDir, "oxauth-errors.json"), ErrorMessages.class));
+        conf.setWebKeys(mapper.readValue(new File(confDir, "oxauth-web-keys.json"), WebKeysConfiguration.class));
+        conf.setRevision(1);
+        manager.add(conf);
+
+        CacheConfiguration cacheConfiguration = new CacheConfiguration();
+        cacheConfiguration.setCacheProviderType(CacheProviderType.IN_MEMORY);
+        cacheConfiguration.setInMemoryConfiguration(new InMemoryConfiguration());
+
+        GluuConfiguration gluuConfiguration = new GluuConfiguration();
+        gluuConfiguration.setDn(staticConfiguration.getBaseDn().getConfiguration());
+        gluuConfiguration.setCacheConfiguration(cacheConfiguration);
+        manager.add(gluuConfiguration);
+
+        final List<String> scopeDns = new ArrayList<>();
+        for (String scopeId : SCOPES) {
+            Scope scope = new Scope();
+            scope.setInum(scopeId);
+            scope.setDn("inum=" + scopeId + "," + staticConfiguration.getBaseDn().getScopes());
+            scope.setId(scopeId);
+            scope.setDisplayName(scopeId);
+            scope.setScopeType(ScopeType.OPENID);
+            scope.setDefaultScope(true);
+            scope.setOxAuthClaims(new ArrayList<>());
+            manager.add(scope);
+            scopeDns.add(scope.getDn());
+        }
+
+        final String encryptedSecret = stringEncrypter.encrypt(SECRET);
+        for (int i = 0; i < clientCount(); i++) {
+            final String clientId = CLIENT_ID_PREFIX + i;
+
+            Client client = new Client();
+            client.setDn("inum=" + clientId + "," + staticConfiguration.getBaseDn().getClients());
+            client.setClientId(clientId);
+            client.setClientSecret(encryptedSecret);
+            client.setClientName("Load test client " + i);
+            client.setClientIdIssuedAt(new Date());
+            client.setRedirectUris(new String[]{REDIRECT_URI});
+            client.setResponseTypes(new ResponseType[]{ResponseType.CODE});
+            client.setGrantTypes(new GrantType[]{GrantType.AUTHORIZATION_CODE, GrantType.REFRESH_TOKEN, GrantType.CLIENT_CREDENTIALS});
+            client.setScopes(scopeDns.toArray(new String[0]));
+            client.setTokenEndpointAuthMethod("client_secret_basic");
+            client.setTrustedClient(true); // skip consent, authorization is requested with prompt=none
+            manager.add(client);
+        }
+
+        for (int i = 0; i < userCount(); i++) {
+            final String userId = USER_ID_PREFIX + i;
+            final String inum = "load-" + i;
+
+            User user = new User();
+            user.setDn("inum=" + inum + "," + staticConfiguration.getBaseDn().getPeople());
+            user.setUserId(userId);
+            user.setAttribute("inum", inum);
+            user.setAttribute("uid", userId);
+            user.setAttribute("userPassword", SECRET);
+            user.setAttribute("gluuStatus", "active");
+            user.setAttribute("givenName", "Load");
+            user.setAttribute("sn", "User " + i);
+            user.setAttribute("mail", userId + "@example.com");
+            manager.add(user);
+        }
+    }
+
+    private static Properties loadProperties(File file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.load;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.webapp.WebAppContext;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.exporter.ExplodedExporter;
+import org.jboss.shrinkwrap.api.importer.ExplodedImporter;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+
+import java.io.File;
+
+/**
+ * Starts oxAuth in embedded Jetty with in-memory persistence and cache ({@link InMemoryBackendProducer}), so
+ * server performance can be measured by {@link LoadDriver} without LDAP/Couchbase installation.
+ * <p>
+ * Prerequisites: exploded war (mvn package) and filtered configuration in {@code <gluu.base>/conf}
+ * (mvn process-test-resources creates it in target/conf). Options (system properties):
+ * <ul>
+ * <li>load.port - http port, default 8080</li>
+ * <li>load.war - exploded war directory, default target/oxauth</li>
+ * <li>gluu.base - directory with conf sub-directory, default target</li>
+ * <li>load.clients, load.users - number of seeded clients and users (see {@link LoadTestData})</li>
+ * <li>load.persistence.latency.micros, load.persistence.jitter.micros, load.cache.latency.micros,
+ * load.cache.jitter.micros - injected backend latency (see {@link InjectedLatency})</li>
+ * </ul>
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class LoadTestServer {
+
+    public static void main(String[] args) throws Exception {
+        final int port = Integer.getInteger("load.port", 8080);
+        final File warDir = new File(System.getProperty("load.war", "target/oxauth"));
+        final File gluuBase = new File(System.getProperty("gluu.base", "target"));
+        if (!new File(warDir, "WEB-INF").isDirectory()) {
+            throw new IllegalStateException("Exploded war is not found in " + warDir.getAbsolutePath() + ", run mvn package first.");
+        }
+        if (!new File(gluuBase, "conf").isDirectory()) {
+            throw new IllegalStateException("Configuration is not found in " + gluuBase.getAbsolutePath() + "/conf, run mvn process-test-resources first.");
+        }
+
+        System.setProperty("gluu.base", gluuBase.getAbsolutePath());
+        System.setProperty("gluu.disable.scheduler", "true"); // timers would scan in-memory persistence and skew results
+
+        // backend producer has to be inside WEB-INF/classes, otherwise it's not discovered by CDI
+        final WebArchive war = ShrinkWrap.create(ExplodedImporter.class, "oxauth.war").importDirectory(warDir).as(WebArchive.class)
+                .addPackage(LoadTestServer.class.getPackage());
+        final File exploded = war.as(ExplodedExporter.class).exportExploded(warDir.getParentFile(), "oxauth-load-test");
+
+        final WebAppContext context = new WebAppContext();
+        context.setContextPath("/oxauth");
+        context.setWar(exploded.getAbsolutePath());
+
+        final Server server = new Server(port);
+        server.setHandler(context);
+        server.start();
+        System.out.println("oxAuth with in-memory backend is started: http://localhost:" + port + "/oxauth");
+        server.join();
+    }
+}
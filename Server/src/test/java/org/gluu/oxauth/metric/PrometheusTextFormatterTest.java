@@ -0,0 +1,74 @@
+package org.gluu.oxauth.metric;
+
+import com.codahale.metrics.MetricRegistry;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class PrometheusTextFormatterTest {
+
+    @Test
+    public void familyAndLabels_shouldBeSplitCorrectly() {
+        assertEquals(PrometheusTextFormatter.family("oxauth_metric{endpoint=\"/token\"}"), "oxauth_metric");
+        assertEquals(PrometheusTextFormatter.labels("oxauth_metric{endpoint=\"/token\"}"), "endpoint=\"/token\"");
+
+        assertEquals(PrometheusTextFormatter.family("oxauth_metric"), "oxauth_metric");
+        assertEquals(PrometheusTextFormatter.labels("oxauth_metric"), "");
+    }
+
+    @Test
+    public void format_withTimer_shouldWriteSummaryInSeconds() {
+        MetricRegistry registry = new MetricRegistry();
+        registry.register("oxauth_latency_seconds{endpoint=\"/token\"}", new CumulativeTimer()).update(2, TimeUnit.SECONDS);
+
+        String text = PrometheusTextFormatter.format(registry);
+
+        assertTrue(text.contains("# TYPE oxauth_latency_seconds summary\n"));
+        assertTrue(text.contains("oxauth_latency_seconds{endpoint=\"/token\",quantile=\"0.5\"} 2.0\n"));
+        assertTrue(text.contains("oxauth_latency_seconds_count{endpoint=\"/token\"} 1\n"));
+        assertTrue(text.contains("oxauth_latency_seconds_sum{endpoint=\"/token\"} 2.0\n"));
+    }
+
+    @Test
+    public void format_withCumulativeTimer_shouldWriteSumOfAllDurations() {
+        MetricRegistry registry = new MetricRegistry();
+        final CumulativeTimer timer = registry.register("oxauth_latency_seconds", new CumulativeTimer());
+        timer.update(1500, TimeUnit.MILLISECONDS);
+        timer.update(500, TimeUnit.MILLISECONDS);
+        timer.update(-1, TimeUnit.MILLISECONDS); // ignored by timer
+
+        assertEquals(timer.getSumInNanos(), TimeUnit.SECONDS.toNanos(2));
+        assertTrue(PrometheusTextFormatter.format(registry).contains("oxauth_latency_seconds_sum 2.0\n"));
+    }
+
+    @Test
+    public void format_withPlainTimer_shouldNotWriteSum() {
+        MetricRegistry registry = new MetricRegistry();
+        registry.timer("oxauth_latency_seconds").update(2, TimeUnit.SECONDS);
+
+        String text = PrometheusTextFormatter.format(registry);
+
+        assertTrue(text.contains("oxauth_latency_seconds_count 1\n"));
+        assertFalse(text.contains("_sum"));
+    }
+
+    @Test
+    public void format_withCountersOfSameFamily_shouldWriteTypeOnce() {
+        MetricRegistry registry = new MetricRegistry();
+        registry.counter("oxauth_cache_requests_total{result=\"hit\"}").inc(3);
+        registry.counter("oxauth_cache_requests_total{result=\"miss\"}").inc();
+
+        String text = PrometheusTextFormatter.format(registry);
+
+        assertEquals(text, "# TYPE oxauth_cache_requests_total counter\n" +
+                "oxauth_cache_requests_total{result=\"hit\"} 3\n" +
+                "oxauth_cache_requests_total{result=\"miss\"} 1\n");
+    }
+}
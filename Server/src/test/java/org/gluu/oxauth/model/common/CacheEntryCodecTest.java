@@ -0,0 +1,162 @@
+package org.gluu.oxauth.model.common;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.Date;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class CacheEntryCodecTest {
+
+    @Test
+    public void encodeGrant_shouldBeDecodedWithSameFields() {
+        CacheGrant grant = new CacheGrant();
+        grant.setAuthorizationCodeString("c2a4f3a6-5c4d-4b57-95cb-0c4e8f7f4a11");
+        grant.setAuthorizationCodeCreationDate(new Date(1600000000000L));
+        grant.setAuthorizationCodeExpirationDate(new Date(1600000060000L));
+        grant.setUserDn("inum=8e3e2f1a-7c11-4c0e-a2d4-2f8e6c1a9b77,ou=people,o=gluu");
+        grant.setClientId("0008-7d6f3b62-3c8e-4d0a-9f4e-1b2c3d4e5f60");
+        grant.setAuthenticationTime(new Date(1599999990000L));
+        grant.setScopes(Sets.newLinkedHashSet(Lists.newArrayList("openid", "profile", "email")));
+        grant.setGrantId("b7c0e8a4-1a4e-4d8c-9d6f-2a1b3c4d5e6f");
+        grant.setTokenBindingHash("hash");
+        grant.setNonce("n-0S6_WzA2Mj");
+        grant.setCodeChallenge("E9Melhoa2OwvFrEMTJguCHaoeK1t8URWbuGJSstw-cM");
+        grant.setCodeChallengeMethod("S256");
+        grant.setClaims("{\"id_token\":{\"\u00e9\":null}}");
+        grant.setAcrValues("basic");
+        grant.setSessionDn("oxAuthSessionId=5f2c1a7e-2b3d-4c5e-8f90-a1b2c3d4e5f6,ou=session,o=gluu");
+        grant.setExpiresIn(60);
+        grant.setAuthReqId("authReqId");
+        grant.setTokensDelivered(true);
+
+        final byte[] encoded = CacheEntryCodec.encode(grant);
+        assertTrue(encoded.length < 1024);
+
+        CacheGrant decoded = CacheEntryCodec.decodeGrant(encoded);
+        assertNotNull(decoded);
+        assertNull(decoded.getUser());
+        assertNull(decoded.getClient());
+        assertEquals(decoded.getAuthorizationCodeString(), grant.getAuthorizationCodeString());
+        assertEquals(decoded.getAuthorizationCodeCreationDate(), grant.getAuthorizationCodeCreationDate());
+        assertEquals(decoded.getAuthorizationCodeExpirationDate(), grant.getAuthorizationCodeExpirationDate());
+        assertEquals(decoded.getUserDn(), grant.getUserDn());
+        assertEquals(decoded.getClientId(), grant.getClientId());
+        assertEquals(decoded.getAuthenticationTime(), grant.getAuthenticationTime());
+        assertEquals(Lists.newArrayList(decoded.getScopes()), Lists.newArrayList("openid", "profile", "email"));
+        assertEquals(decoded.getGrantId(), grant.getGrantId());
+        assertEquals(decoded.getTokenBindingHash(), grant.getTokenBindingHash());
+        assertEquals(decoded.getNonce(), grant.getNonce());
+        assertEquals(decoded.getCodeChallenge(), grant.getCodeChallenge());
+        assertEquals(decoded.getCodeChallengeMethod(), grant.getCodeChallengeMethod());
+        assertEquals(decoded.getClaims(), grant.getClaims());
+        assertNull(decoded.getDeviceCode());
+        assertEquals(decoded.getAcrValues(), grant.getAcrValues());
+        assertEquals(decoded.getSessionDn(), grant.getSessionDn());
+        assertEquals(decoded.getExpiresIn(), 60);
+        assertEquals(decoded.getAuthReqId(), grant.getAuthReqId());
+        assertTrue(decoded.isTokensDelivered());
+    }
+
+    @Test
+    public void encodeGrant_withNullFields_shouldBeDecodedWithNullFields() {
+        CacheGrant decoded = CacheEntryCodec.decodeGrant(CacheEntryCodec.encode(new CacheGrant()));
+
+        assertNotNull(decoded);
+        assertNull(decoded.getAuthorizationCodeString());
+        assertNull(decoded.getAuthorizationCodeCreationDate());
+        assertNull(decoded.getUserDn());
+        assertNull(decoded.getScopes());
+        assertEquals(decoded.getExpiresIn(), 1);
+        assertFalse(decoded.isTokensDelivered());
+    }
+
+    @Test
+    public void encodeCibaRequest_shouldBeDecodedWithSameFields() {
+        CibaRequestCacheControl request = new CibaRequestCacheControl();
+        request.setAuthReqId("authReqId");
+        request.setUserDn("inum=1,ou=people,o=gluu");
+        request.setClientId("clientId");
+        request.setScopes(Lists.newArrayList("openid", "profile"));
+        request.setExpiresIn(120);
+        request.setClientNotificationToken("notificationToken");
+        request.setBindingMessage("bindingMessage");
+        request.setLastAccessControl(1600000000000L);
+        request.setStatus(CibaRequestStatus.GRANTED);
+        request.setTokensDelivered(true);
+        request.setAcrValues("basic");
+
+        CibaRequestCacheControl decoded = CacheEntryCodec.decodeCibaRequest(CacheEntryCodec.encode(request));
+
+        assertNotNull(decoded);
+        assertEquals(decoded.getAuthReqId(), "authReqId");
+        assertEquals(decoded.getUserDn(), "inum=1,ou=people,o=gluu");
+        assertEquals(decoded.getClientId(), "clientId");
+        assertEquals(decoded.getScopes(), Lists.newArrayList("openid", "profile"));
+        assertEquals(decoded.getExpiresIn(), 120);
+        assertEquals(decoded.getClientNotificationToken(), "notificationToken");
+        assertEquals(decoded.getBindingMessage(), "bindingMessage");
+        assertEquals(decoded.getLastAccessControl(), Long.valueOf(1600000000000L));
+        assertEquals(decoded.getStatus(), CibaRequestStatus.GRANTED);
+        assertTrue(decoded.isTokensDelivered());
+        assertEquals(decoded.getAcrValues(), "basic");
+    }
+
+    @Test
+    public void encodeDeviceAuthorization_shouldBeDecodedWithSameFields() {
+        DeviceAuthorizationCacheControl data = new DeviceAuthorizationCacheControl();
+        data.setUserCode("ABCD-EFGH");
+        data.setDeviceCode("deviceCode");
+        data.setClientId("clientId");
+        data.setScopes(Lists.newArrayList("openid"));
+        data.setVerificationUri(URI.create("https://op.example.com/device_authorization.htm"));
+        data.setExpiresIn(300);
+        data.setInterval(5);
+        data.setLastAccessControl(1600000000000L);
+        data.setStatus(DeviceAuthorizationStatus.PENDING);
+
+        DeviceAuthorizationCacheControl decoded = CacheEntryCodec.decodeDeviceAuthorization(CacheEntryCodec.encode(data));
+
+        assertNotNull(decoded);
+        assertEquals(decoded.getUserCode(), "ABCD-EFGH");
+        assertEquals(decoded.getDeviceCode(), "deviceCode");
+        assertEquals(decoded.getClientId(), "clientId");
+        assertEquals(decoded.getScopes(), Lists.newArrayList("openid"));
+        assertEquals(decoded.getVerificationUri(), data.getVerificationUri());
+        assertEquals(decoded.getExpiresIn(), 300);
+        assertEquals(decoded.getInterval(), 5);
+        assertEquals(decoded.getLastAccessControl(), Long.valueOf(1600000000000L));
+        assertEquals(decoded.getStatus(), DeviceAuthorizationStatus.PENDING);
+    }
+
+    @Test
+    public void decode_withOtherTypeOrVersion_shouldReturnNull() {
+        final byte[] grant = CacheEntryCodec.encode(new CacheGrant());
+
+        assertNull(CacheEntryCodec.decodeCibaRequest(grant));
+        assertNull(CacheEntryCodec.decodeDeviceAuthorization(grant));
+        assertNull(CacheEntryCodec.decodeGrant(new CacheGrant()));
+        assertNull(CacheEntryCodec.decodeGrant(null));
+        assertNull(CacheEntryCodec.decodeGrant(new byte[]{CacheEntryCodec.TYPE_GRANT, CacheEntryCodec.VERSION + 1}));
+    }
+
+    @Test
+    public void decode_withTruncatedValue_shouldReturnNull() {
+        CacheGrant grant = new CacheGrant();
+        grant.setAuthorizationCodeString("code");
+        grant.setClientId("clientId");
+        final byte[] encoded = CacheEntryCodec.encode(grant);
+
+        for (int length = 2; length < encoded.length; length++) {
+            final byte[] truncated = new byte[length];
+            System.arraycopy(encoded, 0, truncated, 0, length);
+            assertNull(CacheEntryCodec.decodeGrant(truncated));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.gluu.oxauth.model.config;
+
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class ConfigurationChangesTest {
+
+    @Test
+    public void compute_whenOnlyDynamicIsChanged_shouldNotRequireCryptoProviderReload() {
+        Conf previous = conf("issuer1", "keystore.jks");
+        Conf current = conf("issuer2", "keystore.jks");
+
+        ConfigurationChanges changes = ConfigurationChanges.compute(previous, current);
+
+        assertTrue(changes.isDynamicChanged());
+        assertFalse(changes.isKeyStoreChanged());
+        assertFalse(changes.isWebKeysChanged());
+        assertFalse(changes.isCryptoProviderChanged());
+    }
+
+    @Test
+    public void compute_whenKeyStoreIsChanged_shouldRequireCryptoProviderReload() {
+        Conf previous = conf("issuer", "keystore1.jks");
+        Conf current = conf("issuer", "keystore2.jks");
+
+        ConfigurationChanges changes = ConfigurationChanges.compute(previous, current);
+
+        assertTrue(changes.isKeyStoreChanged());
+        assertTrue(changes.isCryptoProviderChanged());
+    }
+
+    @Test
+    public void compute_whenNothingIsChanged_shouldReportNoChanges() {
+        ConfigurationChanges changes = ConfigurationChanges.compute(conf("issuer", "keystore.jks"), conf("issuer", "keystore.jks"));
+
+        assertFalse(changes.isAnyChanged());
+    }
+
+    @Test
+    public void compute_withoutPrevious_shouldReportAllChanged() {
+        ConfigurationChanges changes = ConfigurationChanges.compute(null, conf("issuer", "keystore.jks"));
+
+        assertTrue(changes.isDynamicChanged());
+        assertTrue(changes.isCryptoProviderChanged());
+    }
+
+    private static Conf conf(String issuer, String keyStoreFile) {
+        AppConfiguration dynamic = new AppConfiguration();
+        dynamic.setIssuer(issuer);
+        dynamic.setKeyStoreFile(keyStoreFile);
+
+        WebKeysConfiguration webKeys = new WebKeysConfiguration();
+
+        Conf conf = new Conf();
+        conf.setDynamic(dynamic);
+        conf.setWebKeys(webKeys);
+        return conf;
+    }
+}
@@ -0,0 +1,59 @@
+package org.gluu.oxauth.service;
+
+import org.gluu.util.security.StringEncrypter.EncryptionException;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class ClientSecretVerifierTest {
+
+    @Test
+    public void verify_shouldDecryptSecretOnlyOnce() throws EncryptionException {
+        final AtomicInteger decryptions = new AtomicInteger();
+        ClientSecretVerifier verifier = new ClientSecretVerifier(10, encrypted -> {
+            decryptions.incrementAndGet();
+            return encrypted.substring("enc:".length());
+        });
+
+        assertTrue(verifier.verify("client1", "enc:secret", "secret"));
+        assertFalse(verifier.verify("client1", "enc:secret", "secret2"));
+        assertFalse(verifier.verify("client1", "enc:secret", ""));
+        assertFalse(verifier.verify("client1", "enc:secret", null));
+        assertTrue(verifier.verify("client1", "enc:secret", "secret"));
+        assertEquals(decryptions.get(), 1);
+        assertEquals(verifier.size(), 1);
+    }
+
+    @Test
+    public void verify_whenSecretIsRotated_shouldRecreateVerifier() throws EncryptionException {
+        final AtomicInteger decryptions = new AtomicInteger();
+        ClientSecretVerifier verifier = new ClientSecretVerifier(10, encrypted -> {
+            decryptions.incrementAndGet();
+            return encrypted.substring("enc:".length());
+        });
+
+        assertTrue(verifier.verify("client1", "enc:old", "old"));
+        assertFalse(verifier.verify("client1", "enc:new", "old"));
+        assertTrue(verifier.verify("client1", "enc:new", "new"));
+        assertEquals(decryptions.get(), 2);
+
+        verifier.invalidate("client1");
+        assertEquals(verifier.size(), 0);
+        assertTrue(verifier.verify("client1", "enc:new", "new"));
+        assertEquals(decryptions.get(), 3);
+    }
+
+    @Test
+    public void verify_whenSecretCantBeDecrypted_shouldNotAuthenticate() throws EncryptionException {
+        ClientSecretVerifier verifier = new ClientSecretVerifier(10, encrypted -> null);
+
+        assertFalse(verifier.verify("client1", "enc:secret", "secret"));
+        assertFalse(verifier.verify("client1", null, "secret"));
+        assertFalse(verifier.verify(null, "enc:secret", "secret"));
+    }
+}
@@ -0,0 +1,160 @@
+package org.gluu.oxauth.service;
+
+import org.gluu.oxauth.model.config.BaseDnConfiguration;
+import org.gluu.oxauth.model.config.StaticConfiguration;
+import org.gluu.oxauth.model.ldap.TokenAttributes;
+import org.gluu.oxauth.model.ldap.TokenLdap;
+import org.gluu.oxauth.service.token.RevokedJtiService;
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.search.filter.Filter;
+import org.gluu.service.CacheService;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class GrantServiceTest {
+
+    private static final String TOKENS = "ou=tokens,o=gluu";
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final Set<Object> batchRemovedCodes = new HashSet<>();
+    private final List<String> removedDns = new ArrayList<>();
+    private final List<String> removedCacheKeys = new ArrayList<>();
+    private final Set<String> revokedJtis = new HashSet<>();
+    private boolean failBatch;
+
+    private GrantService grantService;
+
+    @BeforeMethod
+    public void setUp() {
+        batchSizes.clear();
+        batchRemovedCodes.clear();
+        removedDns.clear();
+        removedCacheKeys.clear();
+        revokedJtis.clear();
+        failBatch = false;
+
+        final PersistenceEntryManager entryManager = (PersistenceEntryManager) Proxy.newProxyInstance(
+                PersistenceEntryManager.class.getClassLoader(), new Class<?>[]{PersistenceEntryManager.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("remove")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (args.length == 1) { // remove(Object entry)
+                        removedDns.add(((TokenLdap) args[0]).getDn());
+                        return null;
+                    }
+                    // remove(String baseDN, Class entryClass, Filter filter, int count)
+                    if (failBatch) {
+                        throw new RuntimeException("Batch remove is not supported");
+                    }
+                    assertEquals(args[0], TOKENS);
+                    final Filter[] filters = ((Filter) args[2]).getNestedFilters();
+                    for (Filter filter : filters) {
+                        batchRemovedCodes.add(filter.getAssertionValue());
+                    }
+                    batchSizes.add((Integer) args[3]);
+                    return filters.length;
+                });
+
+        final CacheService cacheService = new CacheService() {
+            @Override
+            public void remove(String key) {
+                removedCacheKeys.add(key);
+            }
+        };
+
+        final RevokedJtiService revokedJtiService = new RevokedJtiService() {
+            @Override
+            public void revoke(Map<String, Date> jtiToExpirationDate) {
+                revokedJtis.addAll(jtiToExpirationDate.keySet());
+            }
+        };
+
+        final BaseDnConfiguration baseDn = new BaseDnConfiguration();
+        baseDn.setTokens(TOKENS);
+        final StaticConfiguration staticConfiguration = new StaticConfiguration();
+        staticConfiguration.setBaseDn(baseDn);
+
+        grantService = new GrantService(entryManager, cacheService, staticConfiguration, revokedJtiService,
+                LoggerFactory.getLogger(GrantServiceTest.class));
+    }
+
+    @Test
+    public void removeSilently_shouldRemoveTokensInBatches() {
+        final List<TokenLdap> tokens = tokens(205);
+
+        grantService.removeSilently(tokens);
+
+        assertEquals(batchSizes, Arrays.asList(100, 100, 5));
+        assertEquals(batchRemovedCodes.size(), 205);
+        assertTrue(batchRemovedCodes.contains("code-0"));
+        assertTrue(batchRemovedCodes.contains("code-204"));
+        assertTrue(removedDns.isEmpty());
+        assertEquals(revokedJtis.size(), 205);
+        assertEquals(removedCacheKeys.size(), 205);
+        assertTrue(removedCacheKeys.contains("authz-code-0"));
+    }
+
+    @Test
+    public void removeSilently_whenBatchRemoveFails_shouldRemoveTokensOneByOne() {
+        failBatch = true;
+        final List<TokenLdap> tokens = tokens(150);
+
+        grantService.removeSilently(tokens);
+
+        assertTrue(batchSizes.isEmpty());
+        assertEquals(removedDns.size(), 150);
+        assertTrue(removedDns.contains("tknCde=code-0," + TOKENS));
+        assertTrue(removedDns.contains("tknCde=code-149," + TOKENS));
+        assertEquals(revokedJtis.size(), 150);
+    }
+
+    @Test
+    public void removeSilently_withTokenOutsideTokenBranch_shouldRemoveItByEntry() {
+        final List<TokenLdap> tokens = tokens(2);
+        final TokenLdap oldToken = token("old-code", "tknCde=old-code,inum=client-1,ou=clients,o=gluu");
+        tokens.add(oldToken);
+
+        grantService.removeSilently(tokens);
+
+        assertEquals(batchSizes, Arrays.asList(2));
+        assertFalse(batchRemovedCodes.contains("old-code"));
+        assertEquals(removedDns, Arrays.asList(oldToken.getDn()));
+        assertTrue(revokedJtis.contains("jti-old-code"));
+    }
+
+    private static List<TokenLdap> tokens(int count) {
+        final List<TokenLdap> tokens = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tokens.add(token("code-" + i, "tknCde=code-" + i + "," + TOKENS));
+        }
+        return tokens;
+    }
+
+    private static TokenLdap token(String code, String dn) {
+        final TokenLdap token = new TokenLdap();
+        token.setDn(dn);
+        token.setTokenCode(code);
+        token.setAuthorizationCode("authz-" + code);
+        token.setGrantId("grant-" + code);
+        token.setExpirationDate(new Date(System.currentTimeMillis() + 60000));
+        final TokenAttributes attributes = new TokenAttributes();
+        attributes.setJti("jti-" + code);
+        token.setAttributes(attributes);
+        return token;
+    }
+}
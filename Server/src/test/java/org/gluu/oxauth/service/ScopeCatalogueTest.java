@@ -0,0 +1,69 @@
+package org.gluu.oxauth.service;
+
+import org.gluu.oxauth.model.common.ScopeType;
+import org.oxauth.persistence.model.Scope;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class ScopeCatalogueTest {
+
+    private static final String BASE_DN = "ou=scopes,o=gluu";
+    private static final String EMAIL_CLAIM_DN = "inum=8F88,ou=attributes,o=gluu";
+
+    @Test
+    public void lookups_shouldBeAnsweredFromIndexes() {
+        final Scope openid = scope("openid", ScopeType.OPENID, true);
+        final Scope email = scope("email", ScopeType.OPENID, true, EMAIL_CLAIM_DN);
+        final Scope uma = scope("read", ScopeType.UMA, false);
+        final ScopeCatalogue catalogue = new ScopeCatalogue(1, 1000, Arrays.asList(openid, email, uma));
+
+        assertEquals(catalogue.size(), 3);
+        assertSame(catalogue.getById("email"), email);
+        assertNull(catalogue.getById("unknown"));
+        assertNull(catalogue.getById(null));
+        assertSame(catalogue.getByDn(openid.getDn().toUpperCase()), openid);
+        assertEquals(catalogue.getByClaimDn(EMAIL_CLAIM_DN), Collections.singletonList(email));
+        assertTrue(catalogue.getByClaimDn("inum=unknown,ou=attributes,o=gluu").isEmpty());
+        assertEquals(catalogue.getByType(ScopeType.UMA), Collections.singletonList(uma));
+        assertTrue(catalogue.getByType(ScopeType.DYNAMIC).isEmpty());
+        assertEquals(catalogue.getDefaultScopeDns(), Arrays.asList(openid.getDn(), email.getDn()));
+    }
+
+    @Test
+    public void with_shouldReturnNewVersionAndKeepOriginalUnchanged() {
+        final Scope openid = scope("openid", ScopeType.OPENID, true);
+        final ScopeCatalogue catalogue = new ScopeCatalogue(1, 1000, Collections.singletonList(openid));
+
+        final Scope spontaneous = scope("read:1", ScopeType.SPONTANEOUS, false);
+        final ScopeCatalogue updated = catalogue.with(spontaneous);
+
+        assertEquals(updated.getVersion(), 2);
+        assertEquals(updated.getLoadedAt(), 1000);
+        assertSame(updated.getById("read:1"), spontaneous);
+        assertNull(catalogue.getById("read:1"));
+
+        final Scope changedOpenid = scope("openid", ScopeType.OPENID, false);
+        final ScopeCatalogue replaced = updated.with(changedOpenid);
+        assertEquals(replaced.size(), 2);
+        assertSame(replaced.getById("openid"), changedOpenid);
+        assertTrue(replaced.getDefaultScopeDns().isEmpty());
+    }
+
+    private static Scope scope(String id, ScopeType type, boolean defaultScope, String... claimDns) {
+        final Scope scope = new Scope();
+        scope.setId(id);
+        scope.setInum(id.toUpperCase());
+        scope.setDn("inum=" + scope.getInum() + "," + BASE_DN);
+        scope.setScopeType(type);
+        scope.setDefaultScope(defaultScope);
+        scope.setOxAuthClaims(Arrays.asList(claimDns));
+        return scope;
+    }
+}
@@ -0,0 +1,101 @@
+package org.gluu.oxauth.service;
+
+import org.gluu.oxauth.model.jwk.Algorithm;
+import org.gluu.oxauth.model.jwk.JSONWebKey;
+import org.gluu.oxauth.model.jwk.JSONWebKeySet;
+import org.gluu.oxauth.model.jwk.Use;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class SigningKeySelectionTableTest {
+
+    @Test
+    public void build_withoutKeys_shouldReturnEmptyTable() {
+        assertSame(SigningKeySelectionTable.build(null, null), SigningKeySelectionTable.EMPTY);
+        assertEquals(SigningKeySelectionTable.build(new JSONWebKeySet(), null).size(), 0);
+        assertNull(SigningKeySelectionTable.EMPTY.get(Algorithm.RS256, Use.SIGNATURE));
+    }
+
+    @Test
+    public void build_shouldSkipKeysWithoutAlgorithmOrKid() {
+        final SigningKeySelectionTable table = SigningKeySelectionTable.build(keys(
+                key(null, Algorithm.RS256, Use.SIGNATURE),
+                key("noAlg", null, Use.SIGNATURE),
+                key("rs256", Algorithm.RS256, Use.SIGNATURE)), null);
+
+        assertEquals(table.size(), 2); // (RS256, sig) and (RS256, any use)
+        assertEquals(table.get(Algorithm.RS256, Use.SIGNATURE).getKid(), "rs256");
+        assertNull(table.get(null, Use.SIGNATURE));
+        assertNull(table.get(Algorithm.ES256, Use.SIGNATURE));
+    }
+
+    @Test
+    public void get_shouldSelectFirstKidPresentInStore() {
+        final SigningKeySelectionTable table = SigningKeySelectionTable.build(keys(
+                key("old", Algorithm.RS256, Use.SIGNATURE),
+                key("current", Algorithm.RS256, Use.SIGNATURE),
+                key("next", Algorithm.RS256, Use.SIGNATURE)), Arrays.asList("current", "next"));
+
+        final SigningKeySelectionTable.Entry entry = table.get(Algorithm.RS256, Use.SIGNATURE);
+        assertEquals(entry.getKid(), "current");
+        assertTrue(entry.isInStore());
+    }
+
+    @Test
+    public void get_withoutKidInStore_shouldSelectLastMatchingKidAsMissing() {
+        final SigningKeySelectionTable table = SigningKeySelectionTable.build(keys(
+                key("first", Algorithm.RS256, Use.SIGNATURE),
+                key("last", Algorithm.RS256, Use.SIGNATURE)), Collections.singletonList("other"));
+
+        final SigningKeySelectionTable.Entry entry = table.get(Algorithm.RS256, Use.SIGNATURE);
+        assertEquals(entry.getKid(), "last");
+        assertFalse(entry.isInStore());
+    }
+
+    @Test
+    public void get_withEmptyStore_shouldTreatAllKidsAsPresent() {
+        final SigningKeySelectionTable table = SigningKeySelectionTable.build(keys(
+                key("first", Algorithm.ES256, Use.SIGNATURE),
+                key("second", Algorithm.ES256, Use.SIGNATURE)), Collections.<String>emptyList());
+
+        final SigningKeySelectionTable.Entry entry = table.get(Algorithm.ES256, Use.SIGNATURE);
+        assertEquals(entry.getKid(), "first");
+        assertTrue(entry.isInStore());
+    }
+
+    @Test
+    public void get_shouldSelectKidByAlgorithmAndUse() {
+        final SigningKeySelectionTable table = SigningKeySelectionTable.build(keys(
+                key("rsEnc", Algorithm.RS256, Use.ENCRYPTION),
+                key("rsSig", Algorithm.RS256, Use.SIGNATURE),
+                key("esSig", Algorithm.ES256, Use.SIGNATURE)), Arrays.asList("rsEnc", "rsSig", "esSig"));
+
+        assertEquals(table.get(Algorithm.RS256, Use.SIGNATURE).getKid(), "rsSig");
+        assertEquals(table.get(Algorithm.RS256, Use.ENCRYPTION).getKid(), "rsEnc");
+        assertEquals(table.get(Algorithm.RS256, null).getKid(), "rsEnc"); // any use, first present wins
+        assertEquals(table.get(Algorithm.ES256, Use.SIGNATURE).getKid(), "esSig");
+        assertNull(table.get(Algorithm.ES256, Use.ENCRYPTION));
+    }
+
+    static JSONWebKeySet keys(JSONWebKey... keys) {
+        final JSONWebKeySet keySet = new JSONWebKeySet();
+        keySet.setKeys(new ArrayList<>(Arrays.asList(keys)));
+        return keySet;
+    }
+
+    static JSONWebKey key(String kid, Algorithm algorithm, Use use) {
+        final JSONWebKey key = new JSONWebKey();
+        key.setKid(kid);
+        key.setAlg(algorithm);
+        key.setUse(use);
+        return key;
+    }
+}
@@ -0,0 +1,130 @@
+package org.gluu.oxauth.service;
+
+import org.gluu.oxauth.model.config.WebKeysConfiguration;
+import org.gluu.oxauth.model.crypto.AbstractCryptoProvider;
+import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
+import org.gluu.oxauth.model.jwk.Algorithm;
+import org.gluu.oxauth.model.jwk.Use;
+import org.json.JSONObject;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.gluu.oxauth.service.SigningKeySelectionTableTest.key;
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class SigningKeySelectorTest {
+
+    private final List<String> storeKeys = new ArrayList<>();
+    private int getKeysCalls;
+
+    private WebKeysConfiguration webKeys;
+    private SigningKeySelector selector;
+
+    @BeforeMethod
+    public void setUp() {
+        storeKeys.clear();
+        storeKeys.add("rs1");
+        getKeysCalls = 0;
+
+        webKeys = new WebKeysConfiguration();
+        webKeys.setKeys(new ArrayList<>(Arrays.asList(key("rs1", Algorithm.RS256, Use.SIGNATURE))));
+
+        selector = new SigningKeySelector(new StoreCryptoProvider(), webKeys, LoggerFactory.getLogger(SigningKeySelectorTest.class));
+    }
+
+    @Test
+    public void select_shouldBuildTableOnceAndReuseIt() {
+        final SigningKeySelectionTable table = selector.getTable();
+
+        assertEquals(selector.select(Algorithm.RS256, Use.SIGNATURE).getKid(), "rs1");
+        assertNull(selector.select(Algorithm.ES256, Use.SIGNATURE));
+        assertSame(selector.getTable(), table);
+        assertEquals(getKeysCalls, 1);
+    }
+
+    @Test
+    public void select_afterKeyRotation_shouldSelectNewKidOnlyAfterInvalidation() {
+        assertEquals(selector.select(Algorithm.RS256, Use.SIGNATURE).getKid(), "rs1");
+
+        // rotation: new key is generated and old key is removed from keystore and web keys
+        webKeys.setKeys(new ArrayList<>(Arrays.asList(key("rs2", Algorithm.RS256, Use.SIGNATURE))));
+        storeKeys.clear();
+        storeKeys.add("rs2");
+        assertEquals(selector.select(Algorithm.RS256, Use.SIGNATURE).getKid(), "rs1");
+
+        selector.onCryptoProviderChange(null);
+
+        final SigningKeySelectionTable.Entry entry = selector.select(Algorithm.RS256, Use.SIGNATURE);
+        assertEquals(entry.getKid(), "rs2");
+        assertTrue(entry.isInStore());
+        assertEquals(getKeysCalls, 2);
+    }
+
+    @Test
+    public void invalidate_whileTableIsBuilt_shouldNotKeepStaleTable() {
+        selector = new SigningKeySelector(new StoreCryptoProvider() {
+            @Override
+            public List<String> getKeys() {
+                if (getKeysCalls == 0) {
+                    selector.invalidate(); // keys are rotated while table is built
+                }
+                return super.getKeys();
+            }
+        }, webKeys, LoggerFactory.getLogger(SigningKeySelectorTest.class));
+
+        final SigningKeySelectionTable first = selector.getTable();
+        final SigningKeySelectionTable second = selector.getTable();
+
+        assertNotSame(second, first);
+        assertSame(selector.getTable(), second);
+        assertEquals(getKeysCalls, 2);
+    }
+
+    private class StoreCryptoProvider extends AbstractCryptoProvider {
+
+        @Override
+        public List<String> getKeys() {
+            getKeysCalls++;
+            return new ArrayList<>(storeKeys);
+        }
+
+        @Override
+        public JSONObject generateKey(Algorithm algorithm, Long expirationTime, Use use) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String sign(String signingInput, String keyId, String sharedSecret, SignatureAlgorithm signatureAlgorithm) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean verifySignature(String signingInput, String encodedSignature, String keyId, JSONObject jwks, String sharedSecret, SignatureAlgorithm signatureAlgorithm) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean deleteKey(String keyId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean containsKey(String keyId) {
+            return storeKeys.contains(keyId);
+        }
+
+        @Override
+        public PrivateKey getPrivateKey(String keyId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
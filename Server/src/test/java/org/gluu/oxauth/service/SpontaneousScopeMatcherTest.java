@@ -0,0 +1,77 @@
+package org.gluu.oxauth.service;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class SpontaneousScopeMatcherTest {
+
+    @Test
+    public void match_shouldReturnFirstMatchingPattern() {
+        SpontaneousScopeMatcher matcher = new SpontaneousScopeMatcher(Arrays.asList("^transaction:.+$", "^payment:\\d+$", "^.+:\\d+$"));
+
+        assertEquals(matcher.match("transaction:123"), "^transaction:.+$");
+        assertEquals(matcher.match("payment:42"), "^payment:\\d+$");
+        assertEquals(matcher.match("order:7"), "^.+:\\d+$");
+        assertNull(matcher.match("payment:abc"));
+        assertNull(matcher.match("openid"));
+        assertNull(matcher.match(null));
+
+        // cached results
+        assertEquals(matcher.match("payment:42"), "^payment:\\d+$");
+        assertNull(matcher.match("openid"));
+    }
+
+    @Test
+    public void match_forEqualScope_shouldMatchEvenIfPatternIsInvalid() {
+        SpontaneousScopeMatcher matcher = new SpontaneousScopeMatcher(Arrays.asList("read[", "write"));
+
+        assertEquals(matcher.match("read["), "read[");
+        assertEquals(matcher.match("write"), "write");
+        assertNull(matcher.match("read"));
+    }
+
+    @Test
+    public void match_whenValidPatternsCantBeCombined_shouldCheckPatternsOneByOne() {
+        SpontaneousScopeMatcher matcher = new SpontaneousScopeMatcher(Arrays.asList("read[", "^x:\\d+$", "\\Qa.b"));
+
+        assertEquals(matcher.match("x:1"), "^x:\\d+$");
+        assertEquals(matcher.match("a.b"), "\\Qa.b");
+        assertNull(matcher.match("axb"));
+        assertEquals(matcher.match("read["), "read[");
+    }
+
+    @Test
+    public void match_forPatternsWithBackReference_shouldNotCombinePatterns() {
+        SpontaneousScopeMatcher matcher = new SpontaneousScopeMatcher(Arrays.asList("^(\\w+):\\1$", "^x:\\d+$"));
+
+        assertEquals(matcher.match("abc:abc"), "^(\\w+):\\1$");
+        assertNull(matcher.match("abc:abd"));
+        assertEquals(matcher.match("x:1"), "^x:\\d+$");
+    }
+
+    @Test
+    public void match_withSmallResultCache_shouldKeepMatching() {
+        SpontaneousScopeMatcher matcher = new SpontaneousScopeMatcher(Collections.singletonList("^id:\\d+$"), 2);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(matcher.matches("id:" + i));
+            assertFalse(matcher.matches("name:" + i));
+        }
+    }
+
+    @Test
+    public void isFor_shouldDetectChangedPatterns() {
+        SpontaneousScopeMatcher matcher = new SpontaneousScopeMatcher(Arrays.asList("a", "b"));
+
+        assertTrue(matcher.isFor(Arrays.asList("a", "b")));
+        assertFalse(matcher.isFor(Arrays.asList("a", "c")));
+        assertFalse(matcher.isFor(null));
+        assertTrue(new SpontaneousScopeMatcher(null).isFor(null));
+    }
+}
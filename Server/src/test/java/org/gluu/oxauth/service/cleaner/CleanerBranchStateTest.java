@@ -0,0 +1,49 @@
+package org.gluu.oxauth.service.cleaner;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class CleanerBranchStateTest {
+
+    @Test
+    public void recordBatch_whenFullBatchIsFast_shouldIncreaseBatchSize() {
+        CleanerBranchState state = new CleanerBranchState("ou=tokens,o=gluu", 100);
+        assertEquals(state.getBatchSize(), 100);
+
+        assertTrue(state.recordBatch(100, 100, 10));
+        assertEquals(state.getBatchSize(), 200);
+        assertTrue(state.isBacklog());
+    }
+
+    @Test
+    public void recordBatch_whenBatchIsSlow_shouldDecreaseBatchSize() {
+        CleanerBranchState state = new CleanerBranchState("ou=tokens,o=gluu", 100);
+
+        state.recordBatch(100, 100, CleanerBranchState.TARGET_BATCH_LATENCY_IN_MILLIS + 1);
+        assertEquals(state.getBatchSize(), 50);
+    }
+
+    @Test
+    public void recordBatch_whenBatchIsNotFull_shouldReportNoBacklogAndKeepBatchSize() {
+        CleanerBranchState state = new CleanerBranchState("ou=tokens,o=gluu", 100);
+
+        assertFalse(state.recordBatch(100, 20, 10));
+        assertFalse(state.isBacklog());
+        assertEquals(state.getBatchSize(), 100);
+    }
+
+    @Test
+    public void recordBatch_shouldNotGrowBatchSizeAboveLimit() {
+        CleanerBranchState state = new CleanerBranchState("ou=tokens,o=gluu", 100);
+        for (int i = 0; i < 20; i++) {
+            state.recordBatch(state.getBatchSize(), state.getBatchSize(), 1);
+        }
+        assertEquals(state.getBatchSize(), 100 * CleanerBranchState.MAX_BATCH_SIZE_FACTOR);
+    }
+}
@@ -0,0 +1,84 @@
+package org.gluu.oxauth.service.expiration;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class HashedTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    public void advance_whenDeadlineIsReached_shouldNotifyListener() {
+        HashedTimingWheel wheel = new HashedTimingWheel(1000, 8, START);
+        wheel.schedule("s1", START + 2500, "user1");
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START + 1000, (key, deadline, context) -> expired.add(key));
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(START + 3000, (key, deadline, context) -> expired.add(key + ":" + context));
+        assertEquals(expired.size(), 1);
+        assertEquals(expired.get(0), "s1:user1");
+        assertEquals(wheel.size(), 0);
+    }
+
+    @Test
+    public void advance_withDeadlineBeyondWheelRevolution_shouldNotifyOnlyAtDeadline() {
+        HashedTimingWheel wheel = new HashedTimingWheel(1000, 4, START);
+        wheel.schedule("s1", START + 10_000, null);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START + 9000, (key, deadline, context) -> expired.add(key));
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(START + 10_000, (key, deadline, context) -> expired.add(key));
+        assertEquals(expired.size(), 1);
+    }
+
+    @Test
+    public void advance_whenKeyIsRescheduled_shouldNotifyOnlyOnceAtNewDeadline() {
+        HashedTimingWheel wheel = new HashedTimingWheel(1000, 8, START);
+        wheel.schedule("s1", START + 2000, null);
+        wheel.schedule("s1", START + 5000, null);
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(START + 3000, (key, deadline, context) -> expired.add(deadline));
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(START + 6000, (key, deadline, context) -> expired.add(deadline));
+        assertEquals(expired.size(), 1);
+        assertEquals(expired.get(0).longValue(), START + 5000);
+    }
+
+    @Test
+    public void advance_whenKeyIsCancelled_shouldNotNotify() {
+        HashedTimingWheel wheel = new HashedTimingWheel(1000, 8, START);
+        wheel.schedule("s1", START + 2000, null);
+        assertTrue(wheel.cancel("s1"));
+        assertFalse(wheel.contains("s1"));
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START + 5000, (key, deadline, context) -> expired.add(key));
+        assertTrue(expired.isEmpty());
+    }
+
+    @Test
+    public void schedule_withDeadlineInPast_shouldNotifyOnNextTick() {
+        HashedTimingWheel wheel = new HashedTimingWheel(1000, 8, START);
+        wheel.advance(START + 3000, (key, deadline, context) -> {});
+        wheel.schedule("s1", START, null);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START + 4000, (key, deadline, context) -> expired.add(key));
+        assertEquals(expired.size(), 1);
+    }
+}
@@ -0,0 +1,103 @@
+package org.gluu.oxauth.service.fido.u2f;
+
+import org.gluu.oxauth.model.fido.u2f.DeviceRegistration;
+import org.gluu.oxauth.model.fido.u2f.DeviceRegistrationStatus;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class DeviceRegistrationCacheTest {
+
+    private static final String APP_ID = "https://rp.example.com";
+
+    @Test
+    public void putDevices_shouldCacheOnlyNotEmptyList() {
+        DeviceRegistrationCache cache = new DeviceRegistrationCache(10, 60);
+
+        cache.putDevices("user1", APP_ID, Collections.emptyList());
+        assertNull(cache.getDevices("user1", APP_ID));
+
+        final DeviceRegistration device = device("user1", "1", "kh1");
+        cache.putDevices("user1", APP_ID, Collections.singletonList(device));
+        assertEquals(cache.getDevices("user1", APP_ID), Collections.singletonList(device));
+        assertNull(cache.getDevices("user1", "https://other.example.com"));
+        assertNull(cache.getDevices("user2", APP_ID));
+    }
+
+    @Test
+    public void put_shouldReplaceDeviceByDnOrAddNew() {
+        DeviceRegistrationCache cache = new DeviceRegistrationCache(10, 60);
+        final DeviceRegistration device1 = device("user1", "1", "kh1");
+        final DeviceRegistration device2 = device("user1", "2", "kh2");
+        cache.putDevices("user1", APP_ID, Arrays.asList(device1, device2));
+
+        final DeviceRegistration updated = device("user1", "1", "kh1");
+        updated.setStatus(DeviceRegistrationStatus.COMPROMISED);
+        cache.put(updated);
+
+        List<DeviceRegistration> devices = cache.getDevices("user1", APP_ID);
+        assertEquals(devices.size(), 2);
+        assertTrue(devices.contains(device2));
+        assertTrue(devices.contains(updated));
+        assertFalse(devices.contains(device1));
+
+        final DeviceRegistration device3 = device("user1", "3", "kh3");
+        cache.put(device3);
+        assertEquals(cache.getDevices("user1", APP_ID).size(), 3);
+
+        cache.put(device("user2", "4", "kh4")); // not cached user is not added
+        assertNull(cache.getDevices("user2", APP_ID));
+    }
+
+    @Test
+    public void remove_shouldInvalidateDevicesAndKeyHandle() {
+        DeviceRegistrationCache cache = new DeviceRegistrationCache(10, 60);
+        final DeviceRegistration device = device("user1", "1", "kh1");
+        cache.putDevices("user1", APP_ID, Collections.singletonList(device));
+        cache.putKeyHandle(APP_ID, "kh1", device);
+
+        final DeviceRegistration byKeyHandle = cache.getByKeyHandle(APP_ID, "kh1");
+        assertEquals(byKeyHandle.getDn(), device.getDn());
+        assertEquals(byKeyHandle.getId(), "1");
+        assertNull(byKeyHandle.getKeyHandle());
+        assertNotSame(cache.getByKeyHandle(APP_ID, "kh1"), byKeyHandle);
+
+        cache.remove(device);
+        assertNull(cache.getDevices("user1", APP_ID));
+        assertNull(cache.getByKeyHandle(APP_ID, "kh1"));
+    }
+
+    @Test
+    public void zeroLifetime_shouldNotCacheDevicesAndBranches() {
+        DeviceRegistrationCache cache = new DeviceRegistrationCache(10, 0);
+        cache.putDevices("user1", APP_ID, Collections.singletonList(device("user1", "1", "kh1")));
+        assertNull(cache.getDevices("user1", APP_ID));
+
+        cache.putBranch("user1");
+        assertFalse(cache.containsBranch("user1"));
+    }
+
+    @Test
+    public void putBranch_shouldCacheBranch() {
+        DeviceRegistrationCache cache = new DeviceRegistrationCache(10, 60);
+
+        assertFalse(cache.containsBranch("user1"));
+        cache.putBranch("user1");
+        assertTrue(cache.containsBranch("user1"));
+        assertFalse(cache.containsBranch("user2"));
+    }
+
+    private static DeviceRegistration device(String userInum, String id, String keyHandle) {
+        final DeviceRegistration device = new DeviceRegistration(userInum, keyHandle, "publicKey", "cert", 0, DeviceRegistrationStatus.ACTIVE, APP_ID, 1, null);
+        device.setId(id);
+        device.setDn("oxId=" + id + ",ou=fido,inum=" + userInum + ",ou=people,o=gluu");
+        return device;
+    }
+}
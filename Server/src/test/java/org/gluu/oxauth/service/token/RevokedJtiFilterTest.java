@@ -0,0 +1,52 @@
+package org.gluu.oxauth.service.token;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class RevokedJtiFilterTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    public void isRevoked_forAddedJti_shouldReturnTrue() {
+        RevokedJtiFilter filter = new RevokedJtiFilter();
+        assertTrue(filter.add("jti1", NOW + 1000));
+        assertFalse(filter.add("jti1", NOW + 1000));
+
+        assertTrue(filter.isRevoked("jti1"));
+        assertFalse(filter.isRevoked("jti2"));
+        assertFalse(filter.isRevoked(null));
+    }
+
+    @Test
+    public void purgeExpired_shouldRemoveOnlyExpiredEntries() {
+        RevokedJtiFilter filter = new RevokedJtiFilter();
+        filter.add("expired", NOW - 1);
+        filter.add("valid", NOW + 1000);
+
+        assertEquals(filter.purgeExpired(NOW), 1);
+        assertFalse(filter.isRevoked("expired"));
+        assertTrue(filter.isRevoked("valid"));
+        assertEquals(filter.snapshot().keySet().size(), 1);
+    }
+
+    @Test
+    public void add_beyondCapacity_shouldKeepAllEntries() {
+        RevokedJtiFilter filter = new RevokedJtiFilter(10);
+        for (int i = 0; i < 100; i++) {
+            filter.add("jti" + i, NOW + 1000);
+        }
+
+        assertEquals(filter.size(), 100);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(filter.isRevoked("jti" + i));
+        }
+        assertFalse(filter.isRevoked("jti100"));
+    }
+}
@@ -0,0 +1,63 @@
+package org.gluu.oxauth.service.token;
+
+import org.gluu.service.CacheService;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Yuriy Zabrovarnyy
+ */
+public class RevokedJtiServiceTest {
+
+    @Test
+    public void revoke_shouldBeVisibleOnOtherNodeViaOwnCacheKey() {
+        final InMemoryCacheService cache = new InMemoryCacheService();
+        final RevokedJtiService node1 = new RevokedJtiService(cache, LoggerFactory.getLogger(RevokedJtiServiceTest.class));
+        final RevokedJtiService node2 = new RevokedJtiService(cache, LoggerFactory.getLogger(RevokedJtiServiceTest.class));
+        final Date expiration = new Date(System.currentTimeMillis() + 60000);
+
+        node1.revoke("jti1", expiration);
+        node2.revoke("jti2", expiration);
+
+        assertTrue(node2.isRevoked("jti1"));
+        assertTrue(node1.isRevoked("jti2"));
+        assertFalse(node1.isRevoked("jti3"));
+        assertEquals(cache.entries.keySet().size(), 2);
+        assertTrue(cache.expirations.get("revoked_jti_jti1") <= 61);
+    }
+
+    @Test
+    public void revoke_withExpiredToken_shouldNotPublish() {
+        final InMemoryCacheService cache = new InMemoryCacheService();
+        final RevokedJtiService service = new RevokedJtiService(cache, LoggerFactory.getLogger(RevokedJtiServiceTest.class));
+
+        service.revoke("jti1", new Date(System.currentTimeMillis() - 1000));
+        service.revoke(null, new Date(System.currentTimeMillis() + 1000));
+
+        assertTrue(cache.entries.isEmpty());
+        assertFalse(service.isRevoked("jti1"));
+    }
+
+    private static class InMemoryCacheService extends CacheService {
+
+        private final Map<String, Object> entries = new HashMap<>();
+        private final Map<String, Integer> expirations = new HashMap<>();
+
+        @Override
+        public Object get(String key) {
+            return entries.get(key);
+        }
+
+        @Override
+        public void put(int expirationInSeconds, String key, Object object) {
+            entries.put(key, object);
+            expirations.put(key, expirationInSeconds);
+        }
+    }
+}
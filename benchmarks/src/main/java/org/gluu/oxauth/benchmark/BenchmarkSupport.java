@@ -0,0 +1,85 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.benchmark;
+
+import com.google.common.collect.Lists;
+import org.gluu.oxauth.model.jwt.JwtClaims;
+import org.gluu.oxauth.model.util.SecurityProviderUtility;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+
+/**
+ * Shared fixtures of benchmarks. Everything is kept in memory, no persistence or cache server is required.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class BenchmarkSupport {
+
+    public static final String ISSUER = "https://op.example.com";
+    public static final String CLIENT_ID = "0008-7d6f3b62-3c8e-4d0a-9f4e-1b2c3d4e5f60";
+    public static final String USER_INUM = "8e3e2f1a-7c11-4c0e-a2d4-2f8e6c1a9b77";
+    public static final String USER_DN = "inum=" + USER_INUM + ",ou=people,o=gluu";
+
+    private BenchmarkSupport() {
+    }
+
+    public static void installSecurityProvider() {
+        SecurityProviderUtility.installBCProvider(true);
+    }
+
+    /**
+     * @return claims of typical id_token issued for openid profile email scopes
+     */
+    public static JwtClaims idTokenClaims() {
+        final long now = 1600000000000L;
+
+        JwtClaims claims = new JwtClaims();
+        claims.setIssuer(ISSUER);
+        claims.setAudience(CLIENT_ID);
+        claims.setExpirationTime(new Date(now + 3600 * 1000));
+        claims.setIssuedAt(new Date(now));
+        claims.setClaim("auth_time", new Date(now - 5000));
+        claims.setSubjectIdentifier(USER_INUM);
+        claims.setClaim("nonce", "n-0S6_WzA2Mj");
+        claims.setClaim("at_hash", "77QmUPtjPfzWtF2AnpK9RQ");
+        claims.setClaim("c_hash", "LDktKdoQak3Pk0cnXxCltA");
+        claims.setClaim("acr", "basic");
+        claims.setClaim("amr", Lists.newArrayList("10"));
+        claims.setClaim("sid", "5f2c1a7e-2b3d-4c5e-8f90-a1b2c3d4e5f6");
+        claims.setClaim("oxOpenIDConnectVersion", "openidconnect-1.0");
+        claims.setClaim("name", "Jane Doe");
+        claims.setClaim("given_name", "Jane");
+        claims.setClaim("family_name", "Doe");
+        claims.setClaim("preferred_username", "jdoe");
+        claims.setClaim("email", "jane.doe@example.com");
+        claims.setClaim("email_verified", true);
+        claims.setClaim("locale", "en-US");
+        claims.setClaim("zoneinfo", "America/Chicago");
+        return claims;
+    }
+
+    /**
+     * Sets field of bean which is normally injected by CDI container.
+     */
+    public static void inject(Object bean, String fieldName, Object value) {
+        Class<?> type = bean.getClass();
+        while (type != null) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                field.set(bean, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalArgumentException("Field " + fieldName + " is not found in " + bean.getClass());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.benchmark;
+
+import org.gluu.oxauth.model.common.CacheEntryCodec;
+import org.gluu.oxauth.model.common.CacheGrant;
+import org.gluu.oxauth.model.common.GrantType;
+import org.gluu.oxauth.model.common.ResponseType;
+import org.gluu.oxauth.model.common.User;
+import org.gluu.oxauth.model.registration.Client;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CacheGrant round trip through the cache: Java serialization of full entry (with user and client)
+ * against compact CacheEntryCodec form.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheGrantBenchmark {
+
+    private CacheGrant grant;
+    private byte[] serialized;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        User user = new User();
+        user.setDn(BenchmarkSupport.USER_DN);
+        user.setUserId("jdoe");
+        user.setAttribute("inum", BenchmarkSupport.USER_INUM);
+        user.setAttribute("displayName", "Jane Doe");
+        user.setAttribute("givenName", "Jane");
+        user.setAttribute("sn", "Doe");
+        user.setAttribute("mail", "jane.doe@example.com");
+        user.setAttribute("emailVerified", "true");
+        user.setAttribute("locale", "fr-FR");
+        user.setAttribute("zoneinfo", "Europe/Paris");
+        user.setAttribute("memberOf", new String[]{"inum=60B7,ou=groups,o=gluu", "inum=7A41,ou=groups,o=gluu"});
+
+        Client client = new Client();
+        client.setDn("inum=" + BenchmarkSupport.CLIENT_ID + ",ou=clients,o=gluu");
+        client.setClientId(BenchmarkSupport.CLIENT_ID);
+        client.setClientName("Benchmark RP");
+        client.setRedirectUris(new String[]{"https://rp.example.com/callback", "https://rp.example.com/silent-renew.html"});
+        client.setScopes(new String[]{"inum=F0C4,ou=scopes,o=gluu", "inum=43F1,ou=scopes,o=gluu", "inum=764C,ou=scopes,o=gluu"});
+        client.setGrantTypes(new GrantType[]{GrantType.AUTHORIZATION_CODE, GrantType.REFRESH_TOKEN});
+        client.setResponseTypes(new ResponseType[]{ResponseType.CODE, ResponseType.ID_TOKEN});
+
+        final Date now = new Date();
+        grant = new CacheGrant();
+        grant.setGrantId("a8a4d0f6-2a0e-4f3b-8d6f-1c1b7f9e2d3a");
+        grant.setAuthorizationCodeString("4b2f6c1e-9d8a-4e7b-b5c3-2a1f0e9d8c7b");
+        grant.setAuthorizationCodeCreationDate(now);
+        grant.setAuthorizationCodeExpirationDate(new Date(now.getTime() + 60000));
+        grant.setExpiresIn(60);
+        grant.setUser(user);
+        grant.setClient(client);
+        grant.setAuthenticationTime(now);
+        grant.setScopes(new HashSet<>(Arrays.asList("openid", "profile", "email")));
+        grant.setNonce("n-0S6_WzA2Mj");
+        grant.setAcrValues("basic");
+        grant.setSessionDn("oxId=7c9e6679-7425-40de-944b-e07fc1f90ae7,ou=sessions,o=gluu");
+
+        serialized = serialize();
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(grant);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return CacheEntryCodec.encode(grant);
+    }
+
+    @Benchmark
+    public CacheGrant decode() {
+        return CacheEntryCodec.decodeGrant(encoded);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.benchmark;
+
+import org.gluu.oxauth.model.crypto.OxAuthCryptoProvider;
+import org.gluu.oxauth.model.crypto.signature.AlgorithmFamily;
+import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
+import org.gluu.oxauth.model.jwk.Algorithm;
+import org.gluu.oxauth.model.jwk.JWKParameter;
+import org.gluu.oxauth.model.jwk.Use;
+import org.gluu.oxauth.model.jwt.Jwt;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OxAuthCryptoProvider sign and verifySignature with key store in temporary file.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptoProviderBenchmark {
+
+    private static final String KEY_STORE_SECRET = "secret";
+    private static final String HMAC_SHARED_SECRET = "5a0c8b3e-9f4d-4b57-8c2e-d1f0a9b8c7e6";
+
+    @Param({"RS256", "ES256", "PS256", "HS256"})
+    public String algorithm;
+
+    private File keyStoreFile;
+    private OxAuthCryptoProvider cryptoProvider;
+    private SignatureAlgorithm signatureAlgorithm;
+    private String keyId;
+    private String sharedSecret;
+    private JSONObject jwks;
+    private String signingInput;
+    private String signature;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkSupport.installSecurityProvider();
+
+        keyStoreFile = File.createTempFile("oxauth-benchmark", ".jks");
+        if (!keyStoreFile.delete()) { // provider creates key store if file does not exist
+            throw new IllegalStateException("Failed to prepare key store file " + keyStoreFile);
+        }
+        cryptoProvider = new OxAuthCryptoProvider(keyStoreFile.getAbsolutePath(), KEY_STORE_SECRET, "CN=oxAuth CA Certificates");
+        signatureAlgorithm = SignatureAlgorithm.fromString(algorithm);
+
+        if (signatureAlgorithm.getFamily() == AlgorithmFamily.HMAC) {
+            sharedSecret = HMAC_SHARED_SECRET;
+        } else {
+            final long expiration = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+            final JSONObject key = cryptoProvider.generateKey(Algorithm.fromString(algorithm), expiration, Use.SIGNATURE);
+            keyId = key.getString(JWKParameter.KEY_ID);
+            jwks = new JSONObject().put(JWKParameter.JSON_WEB_KEY_SET, new JSONArray().put(key));
+        }
+
+        Jwt jwt = new Jwt();
+        jwt.getHeader().setAlgorithm(signatureAlgorithm);
+        jwt.getHeader().setKeyId(keyId);
+        jwt.setClaims(BenchmarkSupport.idTokenClaims());
+        signingInput = jwt.getSigningInput();
+        signature = cryptoProvider.sign(signingInput, keyId, sharedSecret, signatureAlgorithm);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (keyStoreFile != null && keyStoreFile.exists() && !keyStoreFile.delete()) {
+            keyStoreFile.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public String sign() throws Exception {
+        return cryptoProvider.sign(signingInput, keyId, sharedSecret, signatureAlgorithm);
+    }
+
+    @Benchmark
+    public boolean verifySignature() throws Exception {
+        return cryptoProvider.verifySignature(signingInput, signature, keyId, jwks, sharedSecret, signatureAlgorithm);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.benchmark;
+
+import org.gluu.model.GluuAttribute;
+import org.gluu.model.attribute.AttributeDataType;
+import org.gluu.oxauth.model.common.ScopeType;
+import org.gluu.oxauth.model.common.User;
+import org.gluu.oxauth.model.token.IdTokenFactory;
+import org.gluu.oxauth.service.AttributeService;
+import org.openjdk.jmh.annotations.*;
+import org.oxauth.persistence.model.Scope;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IdTokenFactory.getClaims for "profile" scope, attributes are served from memory instead of persistence.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdTokenClaimsBenchmark {
+
+    private IdTokenFactory idTokenFactory;
+    private User user;
+    private Scope scope;
+
+    @Setup
+    public void setUp() {
+        InMemoryAttributeService attributeService = new InMemoryAttributeService();
+        List<String> claimDns = new ArrayList<>();
+        claimDns.add(attributeService.add("displayName", "name", AttributeDataType.STRING));
+        claimDns.add(attributeService.add("givenName", "given_name", AttributeDataType.STRING));
+        claimDns.add(attributeService.add("sn", "family_name", AttributeDataType.STRING));
+        claimDns.add(attributeService.add("middleName", "middle_name", AttributeDataType.STRING));
+        claimDns.add(attributeService.add("nickname", "nickname", AttributeDataType.STRING));
+        claimDns.add(attributeService.add("uid", "preferred_username", AttributeDataType.STRING));
+        claimDns.add(attributeService.add("website", "website", AttributeDataType.STRING));
+        claimDns.add(attributeService.add("gender", "gender", AttributeDataType.STRING));
+        claimDns.add(attributeService.add("birthdate", "birthdate", AttributeDataType.STRING));
+        claimDns.add(attributeService.add("zoneinfo", "zoneinfo", AttributeDataType.STRING));
+        claimDns.add(attributeService.add("locale", "locale", AttributeDataType.STRING));
+        claimDns.add(attributeService.add("emailVerified", "email_verified", AttributeDataType.BOOLEAN));
+
+        idTokenFactory = new IdTokenFactory();
+        BenchmarkSupport.inject(idTokenFactory, "attributeService", attributeService);
+
+        user = new User();
+        user.setDn(BenchmarkSupport.USER_DN);
+        user.setUserId("jdoe");
+        user.setAttribute("displayName", "Jane Doe");
+        user.setAttribute("givenName", "Jane");
+        user.setAttribute("sn", "Doe");
+        user.setAttribute("middleName", "Ann");
+        user.setAttribute("nickname", "jane");
+        user.setAttribute("uid", "jdoe");
+        user.setAttribute("website", "https://jane.example.com");
+        user.setAttribute("gender", "female");
+        user.setAttribute("birthdate", "1985-04-12");
+        user.setAttribute("zoneinfo", "Europe/Paris");
+        user.setAttribute("locale", "fr-FR");
+        user.setAttribute("emailVerified", "true");
+
+        scope = new Scope();
+        scope.setId("profile");
+        scope.setScopeType(ScopeType.OPENID);
+        scope.setOxAuthClaims(claimDns);
+    }
+
+    @Benchmark
+    public Map<String, Object> getClaims() throws Exception {
+        return idTokenFactory.getClaims(user, scope);
+    }
+
+    private static class InMemoryAttributeService extends AttributeService {
+
+        private final Map<String, GluuAttribute> attributes = new HashMap<>();
+
+        String add(String name, String claimName, AttributeDataType dataType) {
+            GluuAttribute attribute = new GluuAttribute();
+            attribute.setDn("inum=" + name + ",ou=attributes,o=gluu");
+            attribute.setName(name);
+            attribute.setDisplayName(name);
+            attribute.setOxAuthClaimName(claimName);
+            attribute.setDataType(dataType);
+            attribute.setOxMultiValuedAttribute(false);
+            attributes.put(attribute.getDn(), attribute);
+            return attribute.getDn();
+        }
+
+        @Override
+        public GluuAttribute getAttributeByDn(String dn) {
+            return attributes.get(dn);
+        }
+    }
+}
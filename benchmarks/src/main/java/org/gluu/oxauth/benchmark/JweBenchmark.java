@@ -0,0 +1,95 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.benchmark;
+
+import org.gluu.oxauth.model.crypto.encryption.BlockEncryptionAlgorithm;
+import org.gluu.oxauth.model.crypto.encryption.KeyEncryptionAlgorithm;
+import org.gluu.oxauth.model.jwe.Jwe;
+import org.gluu.oxauth.model.jwe.JweDecrypterImpl;
+import org.gluu.oxauth.model.jwe.JweEncrypterImpl;
+import org.gluu.oxauth.model.jwt.JwtType;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JweEncrypterImpl and JweDecrypterImpl with RSA and AES key wrapping.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JweBenchmark {
+
+    @Param({"RSA-OAEP", "RSA1_5", "A128KW"})
+    public String keyEncryption;
+
+    @Param({"A128GCM", "A128CBC+HS256"})
+    public String blockEncryption;
+
+    private KeyEncryptionAlgorithm keyEncryptionAlgorithm;
+    private BlockEncryptionAlgorithm blockEncryptionAlgorithm;
+    private KeyPair keyPair;
+    private byte[] sharedSymmetricKey;
+    private String encryptedJwe;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkSupport.installSecurityProvider();
+
+        keyEncryptionAlgorithm = KeyEncryptionAlgorithm.fromName(keyEncryption);
+        blockEncryptionAlgorithm = BlockEncryptionAlgorithm.fromName(blockEncryption);
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        keyPair = keyPairGenerator.generateKeyPair();
+        sharedSymmetricKey = "7c1f3e9a2b4d6f8a0c2e4b6d8f1a3c5e".getBytes(StandardCharsets.UTF_8);
+
+        encryptedJwe = encrypt().toString();
+    }
+
+    @Benchmark
+    public Jwe encrypt() throws Exception {
+        Jwe jwe = new Jwe();
+        jwe.getHeader().setType(JwtType.JWT);
+        jwe.getHeader().setAlgorithm(keyEncryptionAlgorithm);
+        jwe.getHeader().setEncryptionMethod(blockEncryptionAlgorithm);
+        jwe.setClaims(BenchmarkSupport.idTokenClaims());
+
+        return newEncrypter().encrypt(jwe);
+    }
+
+    @Benchmark
+    public Jwe decrypt() throws Exception {
+        return newDecrypter().decrypt(encryptedJwe);
+    }
+
+    private JweEncrypterImpl newEncrypter() {
+        if (isRsa()) {
+            return new JweEncrypterImpl(keyEncryptionAlgorithm, blockEncryptionAlgorithm, keyPair.getPublic());
+        }
+        return new JweEncrypterImpl(keyEncryptionAlgorithm, blockEncryptionAlgorithm, sharedSymmetricKey);
+    }
+
+    private JweDecrypterImpl newDecrypter() {
+        if (isRsa()) {
+            return new JweDecrypterImpl(keyPair.getPrivate());
+        }
+        return new JweDecrypterImpl(sharedSymmetricKey);
+    }
+
+    private boolean isRsa() {
+        return keyEncryptionAlgorithm == KeyEncryptionAlgorithm.RSA_OAEP || keyEncryptionAlgorithm == KeyEncryptionAlgorithm.RSA1_5;
+    }
+}
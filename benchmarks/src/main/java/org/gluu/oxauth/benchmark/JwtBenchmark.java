@@ -0,0 +1,77 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.benchmark;
+
+import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
+import org.gluu.oxauth.model.jwt.Jwt;
+import org.gluu.oxauth.model.jwt.JwtClaims;
+import org.gluu.oxauth.model.jwt.JwtType;
+import org.gluu.oxauth.model.util.Base64Util;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jwt parsing and JwtClaimSet serialization. Claim set is serialized both by streaming writer (used by
+ * toBase64JsonObjectBytes) and by org.json (toJsonString), which was the only serialization before.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtClaims claims;
+    private Jwt jwt;
+    private String encodedJwt;
+
+    @Setup
+    public void setUp() throws Exception {
+        claims = BenchmarkSupport.idTokenClaims();
+
+        jwt = new Jwt();
+        jwt.getHeader().setType(JwtType.JWT);
+        jwt.getHeader().setAlgorithm(SignatureAlgorithm.RS256);
+        jwt.getHeader().setKeyId("a2b5e1c4-7d3f-4e8a-9b6c-0d1e2f3a4b5c_sig_rs256");
+        jwt.setClaims(claims);
+
+        final byte[] signature = new byte[256]; // size of RS256 signature with 2048 bit key
+        new Random(1).nextBytes(signature);
+        encodedJwt = jwt.getSigningInput() + "." + Base64Util.base64urlencode(signature);
+    }
+
+    @Benchmark
+    public Jwt parse() throws Exception {
+        return Jwt.parse(encodedJwt);
+    }
+
+    @Benchmark
+    public String parseAndReadClaim() throws Exception {
+        return Jwt.parse(encodedJwt).getClaims().getClaimAsString("sub");
+    }
+
+    @Benchmark
+    public byte[] claimsStreaming() throws Exception {
+        return claims.toBase64JsonObjectBytes();
+    }
+
+    @Benchmark
+    public String claimsOrgJson() throws Exception {
+        return Base64Util.base64urlencode(claims.toJsonString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public byte[] signingInput() throws Exception {
+        return jwt.getSigningInputBytes();
+    }
+}
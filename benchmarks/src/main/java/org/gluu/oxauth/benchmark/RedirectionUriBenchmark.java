@@ -0,0 +1,58 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.benchmark;
+
+import org.gluu.oxauth.service.RedirectionUriService;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedirectionUriService.isUriEqual against client with several registered redirect uris.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedirectionUriBenchmark {
+
+    private static final String[] REDIRECT_URIS = {
+            "https://rp.example.com/callback",
+            "https://rp.example.com/cb?tenant=acme&region=us",
+            "https://rp.example.com/silent-renew.html",
+            "https://app.example.org/oidc/callback",
+            "https://app.example.org/oidc/callback?mode=popup"
+    };
+
+    private RedirectionUriService redirectionUriService;
+
+    @Setup
+    public void setUp() {
+        redirectionUriService = new RedirectionUriService();
+        BenchmarkSupport.inject(redirectionUriService, "log", NOPLogger.NOP_LOGGER);
+    }
+
+    @Benchmark
+    public boolean exactMatch() {
+        return redirectionUriService.isUriEqual("https://app.example.org/oidc/callback", REDIRECT_URIS);
+    }
+
+    @Benchmark
+    public boolean paramsMatch() {
+        return redirectionUriService.isUriEqual("https://rp.example.com/cb?region=us&tenant=acme", REDIRECT_URIS);
+    }
+
+    @Benchmark
+    public boolean noMatch() {
+        return redirectionUriService.isUriEqual("https://evil.example.net/callback?tenant=acme", REDIRECT_URIS);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON results (e.g. previous and current release) and prints relative change per benchmark.
+ * Exits with status 1 if any benchmark regressed more than threshold (10% by default).
+ * <p>
+ * Usage: ResultComparator baseline.json current.json [thresholdPercent]
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+public class ResultComparator {
+
+    public static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ResultComparator <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        final double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        final Map<String, Score> baseline = read(new File(args[0]));
+        final Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            final Score currentScore = entry.getValue();
+            final Score baselineScore = baseline.get(entry.getKey());
+            if (baselineScore == null) {
+                System.out.println(String.format("%-90s %14.3f %-10s (new)", entry.getKey(), currentScore.value, currentScore.unit));
+                continue;
+            }
+
+            final double change = currentScore.changePercent(baselineScore);
+            final boolean regressed = change < -threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.println(String.format("%-90s %14.3f -> %14.3f %-10s %+8.2f%%%s", entry.getKey(),
+                    baselineScore.value, currentScore.value, currentScore.unit, change, regressed ? "  REGRESSION" : ""));
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed more than " + threshold + "%");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        final Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            final StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            final JsonNode params = result.path("params");
+            for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                final Map.Entry<String, JsonNode> param = it.next();
+                key.append(key.indexOf(":") < 0 ? ":" : ",").append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+
+            final JsonNode metric = result.path("primaryMetric");
+            final String mode = result.path("mode").asText();
+            scores.put(key.toString(), new Score(metric.path("score").asDouble(), metric.path("scoreUnit").asText(), "thrpt".equals(mode)));
+        }
+        return scores;
+    }
+
+    private static class Score {
+
+        private final double value;
+        private final String unit;
+        private final boolean higherIsBetter;
+
+        private Score(double value, String unit, boolean higherIsBetter) {
+            this.value = value;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+
+        /**
+         * @return improvement in percent relative to baseline, negative value means regression
+         */
+        private double changePercent(Score baseline) {
+            if (baseline.value == 0) {
+                return 0;
+            }
+            final double change = (value - baseline.value) / baseline.value * 100;
+            return higherIsBetter ? change : -change;
+        }
+    }
+}
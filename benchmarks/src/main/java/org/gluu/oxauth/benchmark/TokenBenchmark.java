@@ -0,0 +1,49 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2020, Gluu
+ */
+
+package org.gluu.oxauth.benchmark;
+
+import org.gluu.oxauth.model.token.HandleTokenFactory;
+import org.gluu.oxauth.util.TokenHashUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handle generation and hashing which are done for each issued/looked up token.
+ *
+ * @author Yuriy Zabrovarnyy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = HandleTokenFactory.generateHandleToken();
+    }
+
+    @Benchmark
+    public String generateHandleToken() {
+        return HandleTokenFactory.generateHandleToken();
+    }
+
+    @Benchmark
+    public String hash() {
+        return TokenHashUtil.hash(token);
+    }
+
+    @Benchmark
+    public String hashWithPrefix() {
+        return TokenHashUtil.getHashWithPrefix(token);
+    }
+}